@@ -0,0 +1,338 @@
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Micro-benchmarks for the hot paths of the game: shoe shuffling and dealing,
+ * hand valuation, splits, settlement and complete headless rounds, with either
+ * a shuffle at the marker or a continuous shuffler.
+ *
+ * Each benchmark is warmed up, then measured over several iterations. The
+ * harness reports the average time and the average number of bytes allocated
+ * per operation, the latter from the JVM's per-thread allocation counter.
+ * Set-up work which must happen between invocations (e.g. refilling a shoe)
+ * is left out of both measurements.
+ *
+ * @author Dany Houde
+ */
+public class HotPathBenchmarks {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+
+    // How long each iteration runs for, at least
+    private static final long ITERATION_NANOS = 200000000L;
+
+    private static final int[] DECK_COUNTS = { 1, 2, 6, 8 };
+
+    // Receives the results of the benchmarked operations so they cannot be optimized away
+    private static volatile long sink;
+
+
+    /**
+     * A single benchmark. The harness calls setUp() before every invocation of
+     * run(), and only measures run().
+     */
+    private abstract static class Benchmark {
+
+        private final String name;
+
+        // How many operations one invocation of run() performs
+        private final int operationsPerInvocation;
+
+        Benchmark(String aName, int theOperationsPerInvocation) {
+            this.name = aName;
+            this.operationsPerInvocation = theOperationsPerInvocation;
+        }
+
+        void setUp() throws Exception {
+        }
+
+        abstract long run() throws Exception;
+    }
+
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+
+    /**
+     * Warm up then measure the provided benchmark, and print its results.
+     * @param benchmark the benchmark to run
+     */
+    private static void runBenchmark(Benchmark benchmark) throws Exception {
+        for(int i=0; i<WARMUP_ITERATIONS; i++) {
+            measureIteration(benchmark);
+        }
+
+        long totalNanos = 0;
+        long totalBytes = 0;
+        long totalOperations = 0;
+        for(int i=0; i<MEASUREMENT_ITERATIONS; i++) {
+            long[] iterationResult = measureIteration(benchmark);
+            totalNanos += iterationResult[0];
+            totalBytes += iterationResult[1];
+            totalOperations += iterationResult[2];
+        }
+
+        System.out.println(String.format("%-40s %12.1f ns/op %12.1f B/op", benchmark.name,
+                (double) totalNanos / totalOperations, (double) totalBytes / totalOperations));
+    }
+
+
+    /**
+     * Run the provided benchmark for one iteration.
+     * @param benchmark the benchmark to run
+     * @return the measured time in nanoseconds, the allocated bytes and the
+     * number of operations performed
+     */
+    private static long[] measureIteration(Benchmark benchmark) throws Exception {
+        long measuredNanos = 0;
+        long allocatedBytes = 0;
+        long operations = 0;
+        long result = 0;
+
+        long iterationEnd = System.nanoTime() + ITERATION_NANOS;
+        while(System.nanoTime() < iterationEnd) {
+            benchmark.setUp();
+
+            long startBytes = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+            long startNanos = System.nanoTime();
+            result += benchmark.run();
+            measuredNanos += System.nanoTime() - startNanos;
+            allocatedBytes += THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - startBytes;
+
+            operations += benchmark.operationsPerInvocation;
+        }
+
+        sink = result;
+        return new long[] { measuredNanos, allocatedBytes, operations };
+    }
+
+
+    /**
+     * @return the benchmarks shuffling and dealing from shoes of various sizes
+     */
+    private static List<Benchmark> shoeBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+        for(final int numDecks : DECK_COUNTS) {
+            final Shoe shoe = new Shoe(numDecks, Shoe.getDefaultPenetration(numDecks), new Random(numDecks));
+
+            benchmarks.add(new Benchmark("Shoe.shuffle (" + numDecks + " decks)", 1) {
+                long run() {
+                    shoe.shuffle();
+                    return shoe.getNumCards();
+                }
+            });
+
+            final Shoe dealingShoe = new Shoe(numDecks, Shoe.getDefaultPenetration(numDecks), new Random(numDecks));
+            final List<Card> dealtCards = new ArrayList<Card>(numDecks * Deck.getSize());
+            benchmarks.add(new Benchmark("Shoe.deal (" + numDecks + " decks)", numDecks * Deck.getSize()) {
+                void setUp() {
+                    // Put back the cards dealt by the previous invocation
+                    dealingShoe.addAll(dealtCards);
+                    dealtCards.clear();
+                    dealingShoe.shuffle();
+                }
+
+                long run() throws EmptyShoeException {
+                    long result = 0;
+                    for(int i=0; i<numDecks * Deck.getSize(); i++) {
+                        Card c = dealingShoe.deal();
+                        dealtCards.add(c);
+                        result += c.getPipValue();
+                    }
+                    return result;
+                }
+            });
+
+            // Same deals from a continuous shuffler, which never needs shuffling in between
+            final Shoe continuousShoe = Shoe.newContinuousShuffler(numDecks, new Random(numDecks));
+            continuousShoe.shuffle();
+            final List<Card> continuousDealtCards = new ArrayList<Card>(numDecks * Deck.getSize());
+            benchmarks.add(new Benchmark("Shoe.deal CSM (" + numDecks + " decks)", numDecks * Deck.getSize()) {
+                void setUp() {
+                    continuousShoe.addAll(continuousDealtCards);
+                    continuousDealtCards.clear();
+                }
+
+                long run() throws EmptyShoeException {
+                    long result = 0;
+                    for(int i=0; i<numDecks * Deck.getSize(); i++) {
+                        Card c = continuousShoe.deal();
+                        continuousDealtCards.add(c);
+                        result += c.getPipValue();
+                    }
+                    return result;
+                }
+            });
+        }
+
+        return benchmarks;
+    }
+
+
+    /**
+     * @return the benchmarks valuing and splitting hands
+     */
+    private static List<Benchmark> handBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+        final int callsPerInvocation = 1000;
+
+        final BasicHand softHand = new BasicHand();
+        softHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.ACE));
+        softHand.addCard(Card.get(Card.Suit.HEARTS, Card.Rank.FOUR));
+        softHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.DEUCE));
+        benchmarks.add(new Benchmark("BasicHand.getValue", callsPerInvocation) {
+            long run() {
+                long result = 0;
+                for(int i=0; i<callsPerInvocation; i++) {
+                    result += softHand.getValue();
+                }
+                return result;
+            }
+        });
+
+        final PlayerHand pairHand = new PlayerHand();
+        pairHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.EIGHT));
+        pairHand.addCard(Card.get(Card.Suit.HEARTS, Card.Rank.EIGHT));
+        pairHand.setWager(10);
+        benchmarks.add(new Benchmark("PlayerHand.canBeSplit", callsPerInvocation) {
+            long run() {
+                long result = 0;
+                for(int i=0; i<callsPerInvocation; i++) {
+                    if(pairHand.canBeSplit(i)) {
+                        result++;
+                    }
+                }
+                return result;
+            }
+        });
+
+        benchmarks.add(new Benchmark("Player.splitHand", 1) {
+            private Player player;
+
+            void setUp() {
+                this.player = new Player(0, 1000);
+                PlayerHand hand = this.player.getHands().get(0);
+                hand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.EIGHT));
+                hand.addCard(Card.get(Card.Suit.HEARTS, Card.Rank.EIGHT));
+                hand.setWager(10);
+            }
+
+            long run() throws UnsplittableHandException {
+                return this.player.splitHand(0).getWager();
+            }
+        });
+
+        return benchmarks;
+    }
+
+
+    /**
+     * @param configProperties the game parameters
+     * @return the benchmarks playing and settling complete headless rounds
+     */
+    private static List<Benchmark> roundBenchmarks(Properties configProperties) throws IOException {
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+        final int numberOfPlayers = Integer.parseInt(configProperties.getProperty(Strings.CONFIG_MAX_PLAYERS_KEY));
+        final PlayerStrategy strategy = new DealerRulesPlayerStrategy(10);
+
+        final BlackjackGame settlementGame = new BlackjackGame(configProperties, strategy, numberOfPlayers, new Random(1));
+        benchmarks.add(new Benchmark("BlackjackGame settlement", 1) {
+            void setUp() {
+                for(Player p : settlementGame.getPlayers()) {
+                    if(null != p) {
+                        p.setCashBalance(Money.ofWholeUnits(1000));
+                    }
+                }
+                settlementGame.playRound();
+            }
+
+            long run() {
+                settlementGame.performBetweenRoundMaintenance();
+                return settlementGame.getPlayers()[0].getCashBalance();
+            }
+        });
+
+        final BlackjackGame roundGame = new BlackjackGame(configProperties, strategy, numberOfPlayers, new Random(2));
+        final SimulationResult result = new SimulationResult();
+        benchmarks.add(new Benchmark("BlackjackGame headless round", 1) {
+            long run() {
+                roundGame.simulate(1, result);
+                return result.getNumberOfRounds();
+            }
+        });
+
+        // Same round, dealt by a continuous shuffler instead of being reshuffled at the marker
+        Properties continuousProperties = new Properties();
+        continuousProperties.putAll(configProperties);
+        continuousProperties.setProperty(Strings.CONFIG_CONTINUOUS_SHUFFLER_KEY, "true");
+        final BlackjackGame continuousGame = new BlackjackGame(continuousProperties, strategy, numberOfPlayers,
+                new Random(2));
+        final SimulationResult continuousResult = new SimulationResult();
+        benchmarks.add(new Benchmark("BlackjackGame headless round with CSM", 1) {
+            long run() {
+                continuousGame.simulate(1, continuousResult);
+                return continuousResult.getNumberOfRounds();
+            }
+        });
+
+        // Same round, measured into game metrics
+        final BlackjackGame measuredGame = new BlackjackGame(configProperties, strategy, numberOfPlayers, new Random(2));
+        measuredGame.setMetrics(new GameMetrics());
+        final SimulationResult measuredResult = new SimulationResult();
+        benchmarks.add(new Benchmark("BlackjackGame round with metrics", 1) {
+            long run() {
+                measuredGame.simulate(1, measuredResult);
+                return measuredResult.getNumberOfRounds();
+            }
+        });
+
+        // Same round, recording every event to a round log
+        File logFile = File.createTempFile("rounds", ".log");
+        logFile.deleteOnExit();
+        final BlackjackGame loggedGame = new BlackjackGame(configProperties, strategy, numberOfPlayers, new Random(2));
+        loggedGame.setRoundLog(new RoundLog(logFile.toPath()));
+        final SimulationResult loggedResult = new SimulationResult();
+        benchmarks.add(new Benchmark("BlackjackGame round with round log", 1) {
+            long run() {
+                loggedGame.simulate(1, loggedResult);
+                return loggedResult.getNumberOfRounds();
+            }
+        });
+
+        return benchmarks;
+    }
+
+
+    /**
+     * Main entry method.
+     *
+     * @param args a String array whose first element is the path to the config file
+     */
+    public static void main(String[] args) throws Exception {
+
+        Properties configProperties = BlackjackGame.loadConfigurationFile(args[0]);
+
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+        benchmarks.addAll(shoeBenchmarks());
+        benchmarks.addAll(handBenchmarks());
+        benchmarks.addAll(roundBenchmarks(configProperties));
+
+        for(Benchmark benchmark : benchmarks) {
+            if(args.length > 1 && !benchmark.name.contains(args[1])) {
+                continue;
+            }
+
+            runBenchmark(benchmark);
+        }
+    }
+}
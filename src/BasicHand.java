@@ -1,23 +1,131 @@
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * A basic hand, such as the one used by the dealer.
  * This hand does not support splitting, wagers, etc.
  *
+ * The hand keeps its card codes in a small array, along with a running hard
+ * total and ace count which are updated as cards come and go. The value of
+ * the hand can therefore be read without walking its cards.
+ *
  * @author Dany Houde
  */
 public class BasicHand {
 
-    // The cards in this hand
-    protected List<Card> cards;
+    // Representation of a facing down card
+    private static final String FACE_DOWN_REPRESENTATION = "???";
+
+    // Initial room for cards; the array grows in the rare case it fills up
+    private static final int INITIAL_CAPACITY = 12;
+
+    // The codes of the cards in this hand
+    protected byte[] cards;
+
+    // How many cards are in this hand
+    protected int numCards;
+
+    // The sum of the pip values of all cards, valuing all aces as 1
+    private int hardTotal;
+
+    // How many aces are in this hand
+    private int numAces;
+
+    // Bit i is set when the i-th card of this hand is facing down
+    private int faceDownCards;
 
     public BasicHand() {
-        this.cards = new LinkedList<Card>();
+        this.cards = new byte[INITIAL_CAPACITY];
+        this.reset();
     }
 
+    /**
+     * Add a card to this hand, facing up.
+     * @param aCard the card to add
+     */
     public void addCard(Card aCard) {
-        this.cards.add(aCard);
+        this.addCard(aCard, true);
+    }
+
+    /**
+     * Add a card to this hand, facing up or down based on the provided value.
+     * @param aCard the card to add
+     * @param faceUp true to add the card face up, false for face down
+     */
+    public void addCard(Card aCard, boolean faceUp) {
+        if(this.numCards == this.cards.length) {
+            this.cards = Arrays.copyOf(this.cards, 2 * this.cards.length);
+        }
+
+        this.cards[this.numCards] = aCard.getCode();
+        this.setFaceUp(this.numCards, faceUp);
+        this.numCards++;
+
+        this.hardTotal += aCard.getPipValue();
+        if(Card.Rank.ACE == aCard.getRank()) {
+            this.numAces++;
+        }
+    }
+
+    /**
+     * Remove the card at the specified position from this hand.
+     * @param cardIndex the position of the card to remove
+     * @return the removed card
+     */
+    public Card removeCard(int cardIndex) {
+        Card removedCard = this.getCard(cardIndex);
+
+        // Shift the face down flags of the following cards along with them
+        int lowerBits = this.faceDownCards & ((1 << cardIndex) - 1);
+        int upperBits = (this.faceDownCards >>> (cardIndex + 1)) << cardIndex;
+        this.faceDownCards = lowerBits | upperBits;
+
+        System.arraycopy(this.cards, cardIndex + 1, this.cards, cardIndex, this.numCards - cardIndex - 1);
+        this.numCards--;
+
+        this.hardTotal -= removedCard.getPipValue();
+        if(Card.Rank.ACE == removedCard.getRank()) {
+            this.numAces--;
+        }
+
+        return removedCard;
+    }
+
+    /**
+     * Turn the card at the specified position face up or down.
+     * @param cardIndex the position of the card in this hand
+     * @param faceUp true to turn the card face up, false for face down
+     */
+    public void setFaceUp(int cardIndex, boolean faceUp) {
+        if(faceUp) {
+            this.faceDownCards &= ~(1 << cardIndex);
+        } else {
+            this.faceDownCards |= (1 << cardIndex);
+        }
+    }
+
+    /**
+     * @param cardIndex the position of the card in this hand
+     * @return true if the card at the specified position is facing up
+     */
+    public boolean isFaceUp(int cardIndex) {
+        return (this.faceDownCards & (1 << cardIndex)) == 0;
+    }
+
+    /**
+     * @return how many cards are in this hand
+     */
+    public int getNumCards() {
+        return this.numCards;
+    }
+
+    /**
+     * @param cardIndex the position of the card in this hand
+     * @return the card at the specified position
+     */
+    public Card getCard(int cardIndex) {
+        return Card.fromCode(this.cards[cardIndex]);
     }
 
      /**
@@ -27,25 +135,46 @@ public class BasicHand {
      * @return the value of this hand
      */
     public int getValue() {
+        // If the sum is small enough, we can value one ace as 11
+        if(this.isSoft()) {
+            return this.hardTotal + 10;
+        }
 
-        boolean handHasAnAce = false;
-        int handValue = 0;
-        // Compute the "minimum" sum, valuing all Aces as 1
-        for(Card c: cards) {
-            handValue += c.getPipValue();
+        return this.hardTotal;
+    }
 
-            if(Card.Rank.ACE == c.getRank()) {
-                handHasAnAce = true;
-            }
-        }
 
-        // If the sum is small enough, we can value one ace as 11
-        if(handHasAnAce && handValue <= 11) {
-            // Add 10 to the hand value, effectively changing one ace's value from 1 to 11
-            handValue += 10;
-        }
+    /**
+     * Return whether the hand is soft, i.e. it holds an ace which
+     * is currently valued as 11.
+     * @return true if the hand is soft, false otherwise
+     */
+    public boolean isSoft() {
+        return this.numAces > 0 && this.hardTotal <= 11;
+    }
 
-        return handValue;
+
+    /**
+     * @return true if this hand holds at least one ace
+     */
+    public boolean hasAce() {
+        return this.numAces > 0;
+    }
+
+
+    /**
+     * @return the value of this hand when all aces are valued as 1
+     */
+    public int getHardTotal() {
+        return this.hardTotal;
+    }
+
+
+    /**
+     * @return true if the value of this hand is over 21
+     */
+    public boolean isBust() {
+        return this.hardTotal > BlackjackGame.BLACKJACK_NUMBER;
     }
 
 
@@ -55,15 +184,20 @@ public class BasicHand {
      * @return if the hand represents a natural Blackjack, false otherwise
      */
     public boolean isNatural() {
-        return (2 == this.cards.size() &&
+        return (2 == this.numCards &&
                 this.getValue() == BlackjackGame.BLACKJACK_NUMBER) ;
     }
 
     /**
-     * @return the list of cards contained in this hand
+     * @return a new list holding the cards contained in this hand
      */
     public List<Card> getCards() {
-        return this.cards;
+        List<Card> cardList = new ArrayList<Card>(this.numCards);
+        for(int i=0; i<this.numCards; i++) {
+            cardList.add(this.getCard(i));
+        }
+
+        return cardList;
     }
 
 
@@ -72,7 +206,10 @@ public class BasicHand {
      * double down status.
      */
     public void reset() {
-        this.cards = new LinkedList<Card>();
+        this.numCards = 0;
+        this.hardTotal = 0;
+        this.numAces = 0;
+        this.faceDownCards = 0;
     }
 
 
@@ -80,22 +217,19 @@ public class BasicHand {
     public String toString() {
 
         StringBuilder sb = new StringBuilder();
-        boolean firstCard = true;
-        boolean hasFaceDownCard = false;
-        for(Card c : cards) {
-            if(!firstCard) {
+        for(int i=0; i<this.numCards; i++) {
+            if(i > 0) {
                 sb.append(" ");
-            } else {
-                firstCard = false;
             }
 
-            if(!c.isFaceUp()) {
-                hasFaceDownCard = true;
+            if(this.isFaceUp(i)) {
+                sb.append(this.getCard(i).toString());
+            } else {
+                sb.append(FACE_DOWN_REPRESENTATION);
             }
-            sb.append(c.toString());
         }
 
-        if(!hasFaceDownCard) {
+        if(0 == this.faceDownCards) {
             sb.append("\tValue: ");
             sb.append(this.getValue());
         }
@@ -109,8 +243,8 @@ public class BasicHand {
 
         BasicHand testHand = new BasicHand();
 
-        Card testCard1 = new Card(Card.Suit.CLUBS, Card.Rank.DEUCE, true);
-        Card testCard2 = new Card(Card.Suit.DIAMONDS, Card.Rank.TEN, true);
+        Card testCard1 = Card.get(Card.Suit.CLUBS, Card.Rank.DEUCE);
+        Card testCard2 = Card.get(Card.Suit.DIAMONDS, Card.Rank.TEN);
 
         testHand.addCard(testCard1);
         testHand.addCard(testCard2);
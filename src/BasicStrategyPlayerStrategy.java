@@ -0,0 +1,197 @@
+import java.util.Properties;
+
+/**
+ * An automated PlayerStrategy which looks up every decision in a precomputed
+ * basic strategy table. The table is indexed by the hand's hard total, soft
+ * total or pair rank, and by the dealer's up card.
+ *
+ * The tables are flat arrays built once when the strategy is loaded, so a
+ * decision is a single array read. The strategy holds no other state and can
+ * be shared by any number of players and threads.
+ *
+ * @author Dany Houde
+ */
+public class BasicStrategyPlayerStrategy implements PlayerStrategy {
+
+    // Actions found in the strategy tables
+    private static final byte HIT = 0;
+    private static final byte STAND = 1;
+    private static final byte DOUBLE_OR_HIT = 2;
+    private static final byte DOUBLE_OR_STAND = 3;
+    private static final byte SPLIT = 4;
+    private static final byte NO_SPLIT = 5;
+    private static final byte SURRENDER_OR_HIT = 6;
+    private static final byte SURRENDER_OR_STAND = 7;
+
+    // Dealer up cards are indexed by pip value, the ace being 1
+    private static final int NUM_UP_CARDS = 11;
+
+    // Rows of each table, indexed by hand total or by the pip value of the pair
+    private static final int NUM_TOTALS = BlackjackGame.BLACKJACK_NUMBER + 1;
+    private static final int NUM_PAIRS = 11;
+
+    private static final int MIN_HARD_TOTAL = 4;
+    private static final int MIN_SOFT_TOTAL = 12;
+
+    // Pip values of the dealer up cards, in the order of the table columns
+    private static final int[] UP_CARD_COLUMNS = { 2, 3, 4, 5, 6, 7, 8, 9, 10, 1 };
+
+    // Table keys
+    private static final String HARD_KEY_PREFIX = "hard.";
+    private static final String SOFT_KEY_PREFIX = "soft.";
+    private static final String PAIR_KEY_PREFIX = "pair.";
+    private static final String ACE_PAIR_KEY = "A";
+
+    // Actions indexed by total * NUM_UP_CARDS + up card pip value
+    private final byte[] hardActions;
+    private final byte[] softActions;
+
+    // Actions indexed by pair pip value * NUM_UP_CARDS + up card pip value
+    private final byte[] pairActions;
+
+    // The amount bet every round, in minor units, capped by the table limits
+    private final long betAmount;
+
+
+    /**
+     * Construct a new BasicStrategyPlayerStrategy from the provided strategy table.
+     * @param strategyProperties the strategy table, as read from a strategy file
+     * @param aBetAmount the amount to bet every round, in whole units
+     * @throws IllegalArgumentException if the table is incomplete or holds an unknown action
+     */
+    public BasicStrategyPlayerStrategy(Properties strategyProperties, int aBetAmount) {
+        this.betAmount = Money.ofWholeUnits(aBetAmount);
+
+        this.hardActions = new byte[NUM_TOTALS * NUM_UP_CARDS];
+        this.softActions = new byte[NUM_TOTALS * NUM_UP_CARDS];
+        this.pairActions = new byte[NUM_PAIRS * NUM_UP_CARDS];
+
+        for(int total=MIN_HARD_TOTAL; total<NUM_TOTALS; total++) {
+            readRow(strategyProperties, HARD_KEY_PREFIX + total, this.hardActions, total);
+        }
+
+        for(int total=MIN_SOFT_TOTAL; total<NUM_TOTALS; total++) {
+            readRow(strategyProperties, SOFT_KEY_PREFIX + total, this.softActions, total);
+        }
+
+        for(int pipValue=2; pipValue<NUM_PAIRS; pipValue++) {
+            readRow(strategyProperties, PAIR_KEY_PREFIX + pipValue, this.pairActions, pipValue);
+        }
+        readRow(strategyProperties, PAIR_KEY_PREFIX + ACE_PAIR_KEY, this.pairActions, 1);
+    }
+
+
+    /**
+     * Load a BasicStrategyPlayerStrategy from the strategy file at the specified path.
+     * @param strategyFilePath path to the strategy file
+     * @param aBetAmount the amount to bet every round, in whole units
+     * @return the loaded strategy
+     */
+    public static BasicStrategyPlayerStrategy load(String strategyFilePath, int aBetAmount) {
+        return new BasicStrategyPlayerStrategy(BlackjackGame.loadConfigurationFile(strategyFilePath), aBetAmount);
+    }
+
+
+    /**
+     * Parse one row of a strategy table into the provided actions array.
+     * @param strategyProperties the strategy table
+     * @param key the key of the row
+     * @param actions the array receiving the actions
+     * @param rowIndex the index of the row in the actions array
+     */
+    private static void readRow(Properties strategyProperties, String key, byte[] actions, int rowIndex) {
+        String row = strategyProperties.getProperty(key);
+        if(null == row) {
+            throw new IllegalArgumentException(Strings.MISSING_STRATEGY_ROW + key);
+        }
+
+        String[] columns = row.trim().split("\\s+");
+        if(columns.length != UP_CARD_COLUMNS.length) {
+            throw new IllegalArgumentException(Strings.INVALID_STRATEGY_ROW + key);
+        }
+
+        for(int c=0; c<columns.length; c++) {
+            actions[rowIndex * NUM_UP_CARDS + UP_CARD_COLUMNS[c]] = parseAction(columns[c], key);
+        }
+    }
+
+
+    /**
+     * @param action the action as written in the strategy table
+     * @param key the key of the row holding the action
+     * @return the parsed action
+     */
+    private static byte parseAction(String action, String key) {
+        switch(action.toUpperCase()) {
+            case "H":
+                return HIT;
+            case "S":
+                return STAND;
+            case "D":
+                return DOUBLE_OR_HIT;
+            case "DS":
+                return DOUBLE_OR_STAND;
+            case "P":
+                return SPLIT;
+            case "N":
+                return NO_SPLIT;
+            case "RH":
+                return SURRENDER_OR_HIT;
+            case "RS":
+                return SURRENDER_OR_STAND;
+            default:
+                throw new IllegalArgumentException(Strings.INVALID_STRATEGY_ROW + key);
+        }
+    }
+
+
+    /**
+     * Look up the hit, stand or double action for the provided hand.
+     * @param aPlayerHand the hand to play
+     * @param dealerUpCard the dealer's face up card
+     * @return the action found in the hard or soft totals table
+     */
+    private byte getTotalAction(PlayerHand aPlayerHand, Card dealerUpCard) {
+        int index = aPlayerHand.getValue() * NUM_UP_CARDS + dealerUpCard.getPipValue();
+
+        return aPlayerHand.isSoft() ? this.softActions[index] : this.hardActions[index];
+    }
+
+
+    @Override
+    public long getBetAmount(Player p, long minBet, long maxBet) {
+        return Math.max(minBet, Math.min(this.betAmount, maxBet));
+    }
+
+    @Override
+    public boolean wantsToSurrender(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        // Pairs which should be split, such as 8s against a ten, are never surrendered
+        if(aPlayerHand.canBeSplit(p.getCashBalance()) && this.wantsToSplit(p, aPlayerHand, dealerUpCard)) {
+            return false;
+        }
+
+        byte action = this.getTotalAction(aPlayerHand, dealerUpCard);
+
+        return SURRENDER_OR_HIT == action || SURRENDER_OR_STAND == action;
+    }
+
+    @Override
+    public boolean wantsToSplit(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        return SPLIT == this.pairActions[aPlayerHand.getCard(0).getPipValue() * NUM_UP_CARDS +
+                dealerUpCard.getPipValue()];
+    }
+
+    @Override
+    public boolean wantsToDoubleDown(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        byte action = this.getTotalAction(aPlayerHand, dealerUpCard);
+
+        return DOUBLE_OR_HIT == action || DOUBLE_OR_STAND == action;
+    }
+
+    @Override
+    public boolean wantsToHit(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        byte action = this.getTotalAction(aPlayerHand, dealerUpCard);
+
+        return HIT == action || DOUBLE_OR_HIT == action || SURRENDER_OR_HIT == action;
+    }
+}
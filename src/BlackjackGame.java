@@ -1,7 +1,10 @@
 import java.io.*;
-import java.util.LinkedList;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * The main driving class of the Blackjack game.
@@ -13,7 +16,7 @@ public class BlackjackGame {
 
 
     public static final int BLACKJACK_NUMBER = 21;
-    private static final int DEALER_THRESHOLD = 17;
+    static final int DEALER_THRESHOLD = 17;
 
 
     // List of players at the table
@@ -30,45 +33,221 @@ public class BlackjackGame {
     // The dealer's shoe
     private Shoe shoe;
 
-    // The pile of discarded cards
-    private List<Card> discardPile;
+    // Config values and rule variants
+    private GameConfig config;
 
-    private double naturalPayoutFactor;
+    // How each seat at the table makes its decisions
+    private PlayerStrategy[] strategies;
 
-    // Config values
-    private int minNumberOfPlayers;
-    private int maxNumberOfPlayers;
-    private int numDecks;
-    private int minBet;
-    private int maxNumberOfSplits;
-    private int startingCashBalance;
+    // The strategy used by the automated players filling the empty seats
+    private PlayerStrategy botStrategy;
+
+    // False when the game runs without any console interaction
+    private boolean isInteractive;
+
+    // The channel of each seat; null for automated players
+    private GameIO[] seatIOs;
+
+    // The distinct channels of the players still at the table; empty when headless
+    private List<GameIO> tableIOs;
+
+    // The ledger of the current round
+    private RoundResult roundResult;
+
+    // The audit trail every event of the game is recorded to; null when not recorded
+    private RoundLog roundLog;
+
+    // The counters and phase latencies the rounds are measured into; null when not measured
+    private GameMetrics metrics;
+
+    // When the current phase of the round started, as returned by System.nanoTime()
+    private long phaseStartNanos;
 
 
     /**
      * Constructs a new BlackjackGame and loads config values from the file at the
      * specified path
      * @param configFilePath path to the configuration file
+     * @throws IllegalArgumentException if the configuration file holds an invalid value
      */
     public BlackjackGame(String configFilePath) {
 
-        this.loadConfiguration(configFilePath);
+        this.config = GameConfig.fromProperties(loadConfigurationFile(configFilePath));
+        this.tableIOs = new ArrayList<GameIO>();
+        this.tableIOs.add(ConsoleGameIO.getInstance());
+        this.setUpTable(newShuffledShoe(this.config, new SplittableRandom()));
 
-        this.players = new Player[this.maxNumberOfPlayers];
-        this.dealer = new Dealer();
+        this.isInteractive = true;
+        PlayerStrategy consoleStrategy = new ConsolePlayerStrategy();
+        for(int i=0; i<this.strategies.length; i++) {
+            this.strategies[i] = consoleStrategy;
+        }
+
+        if(this.config.getNumberOfBots() > 0) {
+            // The strategy file sits next to the config file
+            File strategyFile = new File(new File(configFilePath).getParentFile(),
+                    this.config.getBasicStrategyFileName());
+            this.botStrategy = BasicStrategyPlayerStrategy.load(strategyFile.getPath(), this.config.getMinBet());
+        }
+    }
 
-        this.table = new SimpleBlackjackTable(this.players, this.dealer);
 
-        // Set up the shoe
-        this.shoe = new Shoe(this.numDecks);
-        this.shoe.shuffle();
+    /**
+     * Constructs a new headless BlackjackGame, which never reads from or writes to
+     * the console. The specified number of players are seated right away, and all
+     * of them make their decisions with the provided strategy.
+     * @param configProperties the game parameters, as read from a configuration file
+     * @param aStrategy the strategy used by every player at the table
+     * @param numberOfPlayers how many players to seat at the table
+     * @throws IllegalArgumentException if the game parameters hold an invalid value
+     */
+    public BlackjackGame(Properties configProperties, PlayerStrategy aStrategy, int numberOfPlayers) {
+        this(GameConfig.fromProperties(configProperties), aStrategy, numberOfPlayers, new SplittableRandom());
+    }
+
+
+    /**
+     * Constructs a new headless BlackjackGame whose shoe is shuffled with the provided
+     * random number generator, so that the games it plays can be reproduced.
+     * @param configProperties the game parameters, as read from a configuration file
+     * @param aStrategy the strategy used by every player at the table
+     * @param numberOfPlayers how many players to seat at the table
+     * @param aRandom the random number generator used to shuffle the shoe
+     * @throws IllegalArgumentException if the game parameters hold an invalid value
+     */
+    public BlackjackGame(Properties configProperties, PlayerStrategy aStrategy, int numberOfPlayers,
+                         RandomGenerator aRandom) {
+        this(GameConfig.fromProperties(configProperties), aStrategy, numberOfPlayers, aRandom);
+    }
+
+
+    /**
+     * Constructs a new headless BlackjackGame playing by the provided rules.
+     * @param aConfig the game parameters and rule variants
+     * @param aStrategy the strategy used by every player at the table
+     * @param numberOfPlayers how many players to seat at the table
+     */
+    public BlackjackGame(GameConfig aConfig, PlayerStrategy aStrategy, int numberOfPlayers) {
+        this(aConfig, aStrategy, numberOfPlayers, new SplittableRandom());
+    }
+
+
+    /**
+     * Constructs a new headless BlackjackGame playing by the provided rules, whose
+     * shoe is shuffled with the provided random number generator, such as a
+     * SplittableRandom stream split off for this game.
+     * @param aConfig the game parameters and rule variants
+     * @param aStrategy the strategy used by every player at the table
+     * @param numberOfPlayers how many players to seat at the table
+     * @param aRandom the random number generator used to shuffle the shoe
+     */
+    public BlackjackGame(GameConfig aConfig, PlayerStrategy aStrategy, int numberOfPlayers, RandomGenerator aRandom) {
+        this(aConfig, aStrategy, numberOfPlayers, newShuffledShoe(aConfig, aRandom));
+    }
+
+
+    /**
+     * Constructs a new headless BlackjackGame dealing from the provided shoe as it
+     * stands, without shuffling it first, e.g. a shoe whose first cards script a round.
+     * @param aConfig the game parameters and rule variants
+     * @param aStrategy the strategy used by every player at the table
+     * @param numberOfPlayers how many players to seat at the table
+     * @param aShoe the shoe to deal from, holding the configured number of decks
+     */
+    BlackjackGame(GameConfig aConfig, PlayerStrategy aStrategy, int numberOfPlayers, Shoe aShoe) {
+
+        this.config = aConfig;
+        this.tableIOs = new ArrayList<GameIO>();
+        this.setUpTable(aShoe);
+
+        this.isInteractive = false;
+        this.initialNumberOfPlayers = numberOfPlayers;
+        for(int i=0; i<this.initialNumberOfPlayers; i++) {
+            this.players[i] = new Player(i, Money.ofWholeUnits(this.config.getStartingCashBalance()),
+                    this.config.getMaxNumberOfSplits() + 1);
+            this.strategies[i] = aStrategy;
+        }
+    }
 
-        this.discardPile = new LinkedList<Card>();
+
+    /**
+     * Constructs a new BlackjackGame whose players each play over their own channel,
+     * such as a network connection. One player is seated for every channel, and the
+     * empty seats are then filled with automated players, as configured.
+     * @param aConfig the game parameters and rule variants
+     * @param playerIOs the channel of each player to seat at the table
+     * @param aBotStrategy the strategy of the automated players, or null for none
+     * @param aRandom the random number generator used to shuffle the shoe
+     */
+    public BlackjackGame(GameConfig aConfig, GameIO[] playerIOs, PlayerStrategy aBotStrategy,
+                         RandomGenerator aRandom) {
+
+        this.config = aConfig;
+        this.tableIOs = new ArrayList<GameIO>();
+        for(GameIO io : playerIOs) {
+            if(!this.tableIOs.contains(io)) {
+                this.tableIOs.add(io);
+            }
+        }
+        this.setUpTable(newShuffledShoe(this.config, aRandom));
+
+        this.isInteractive = true;
+        this.botStrategy = aBotStrategy;
+        this.initialNumberOfPlayers = playerIOs.length;
+        for(int i=0; i<this.initialNumberOfPlayers; i++) {
+            this.players[i] = new Player(i, Money.ofWholeUnits(this.config.getStartingCashBalance()),
+                    this.config.getMaxNumberOfSplits() + 1);
+            this.strategies[i] = new ConsolePlayerStrategy(playerIOs[i]);
+            this.seatIOs[i] = playerIOs[i];
+        }
+
+        if(null != this.botStrategy) {
+            this.seatBots();
+        }
+    }
+
+
+    /**
+     * Creates the shoe of the provided config, and shuffles it.
+     * @param aConfig the game parameters and rule variants
+     * @param aRandom the random number generator used to shuffle the shoe
+     * @return the shuffled shoe
+     */
+    private static Shoe newShuffledShoe(GameConfig aConfig, RandomGenerator aRandom) {
+        Shoe newShoe;
+        if(aConfig.isContinuousShuffler()) {
+            newShoe = Shoe.newContinuousShuffler(aConfig.getNumberOfDecks(), aRandom);
+        } else {
+            newShoe = new Shoe(aConfig.getNumberOfDecks(), aConfig.getPenetration(), aRandom);
+        }
+        newShoe.shuffle();
+
+        return newShoe;
+    }
+
+
+    /**
+     * Creates the dealer and the table from the loaded config values.
+     * @param aShoe the shoe to deal from
+     */
+    private void setUpTable(Shoe aShoe) {
+        int maxNumberOfPlayers = this.config.getMaxNumberOfPlayers();
+        this.players = new Player[maxNumberOfPlayers];
+        this.strategies = new PlayerStrategy[maxNumberOfPlayers];
+        this.seatIOs = new GameIO[maxNumberOfPlayers];
+        this.roundResult = new RoundResult(maxNumberOfPlayers, maxNumberOfPlayers);
+        this.dealer = new Dealer();
+
+        this.table = new SimpleBlackjackTable(this.players, this.dealer, this.tableIOs);
+
+        this.shoe = aShoe;
     }
 
 
     /**
-     * Starts a new game of Blackjack. Keep playing until no player can
-     * afford to play anymore, or the user quits after a complete round.
+     * Starts a new game of Blackjack on the console. Asks for the number of players,
+     * then keeps playing until no player can afford to play anymore, or the user
+     * quits after a complete round.
      */
     public void start() {
 
@@ -77,57 +256,367 @@ public class BlackjackGame {
         this.initialNumberOfPlayers = getNumberOfPlayers();
 
         for(int i=0; i<this.initialNumberOfPlayers; i++) {
-            this.players[i] = new Player(i, this.startingCashBalance);
+            this.players[i] = new Player(i, Money.ofWholeUnits(this.config.getStartingCashBalance()),
+                    this.config.getMaxNumberOfSplits() + 1);
+            this.seatIOs[i] = ConsoleGameIO.getInstance();
+        }
+
+        this.seatBots();
+
+        this.play();
+    }
+
+
+    /**
+     * Fill empty seats after the seated players with automated players, as configured.
+     */
+    private void seatBots() {
+        int lastBotSeat = Math.min(this.config.getMaxNumberOfPlayers(),
+                this.initialNumberOfPlayers + this.config.getNumberOfBots());
+        for(int i=this.initialNumberOfPlayers; i<lastBotSeat; i++) {
+            this.players[i] = new Player(i, Money.ofWholeUnits(this.config.getStartingCashBalance()),
+                    this.config.getMaxNumberOfSplits() + 1);
+            this.strategies[i] = this.botStrategy;
         }
+    }
+
+
+    /**
+     * Plays rounds with the seated players until no player can afford to play
+     * anymore, or every player quits after a complete round.
+     */
+    public void play() {
 
         while(true) {
             this.playRound();
 
-            this.table.refresh();
-            IOUtil.displayMessageAndWait(Strings.ROUND_IS_OVER);
+            this.refreshTable();
+            this.displayMessageAndWait(null, Strings.ROUND_IS_OVER);
 
             this.performBetweenRoundMaintenance();
+
+            // Check if any players have money left
+            if(!this.playersHaveEnoughMoneyLeft()) {
+                this.displayMessageAndBalances(Strings.PLAYERS_DONT_HAVE_ENOUGH_MONEY_LEFT);
+                return;
+            }
+
+            this.displayMessageAndBalances(Strings.HERE_ARE_PLAYER_BALANCES);
+
+            // Ask whether to continue playing
+            if(!this.askPlayersToContinue()) {
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Display a message followed by every player's balance on every channel at the table.
+     * @param message the message to display
+     */
+    private void displayMessageAndBalances(String message) {
+        for(int i=0; i<this.tableIOs.size(); i++) {
+            IOUtil.displayMessage(this.tableIOs.get(i), message);
+            IOUtil.printPlayerBalances(this.tableIOs.get(i), this.players);
+        }
+    }
+
+
+    /**
+     * Ask on every channel at the table whether to play one more round. The players
+     * of a channel answering no leave the table.
+     * @return true if some players want to play one more round
+     */
+    private boolean askPlayersToContinue() {
+        int ioIndex = 0;
+        while(ioIndex < this.tableIOs.size()) {
+            GameIO io = this.tableIOs.get(ioIndex);
+
+            char continuePlaying = IOUtil.askBinaryQuestion(io, Strings.CONTINUE_PLAYING_PROMPT, 'y', 'n');
+            if(continuePlaying == 'y') {
+                ioIndex++;
+                continue;
+            }
+
+            IOUtil.displayMessage(io, Strings.THANKS_FOR_PLAYING);
+            for(int i=0; i<this.players.length; i++) {
+                if(io == this.seatIOs[i]) {
+                    this.players[i].setPlaying(false);
+                }
+            }
+            this.tableIOs.remove(ioIndex);
+        }
+
+        return !this.tableIOs.isEmpty();
+    }
+
+
+    /**
+     * Plays the specified number of rounds without any console interaction,
+     * stopping early if no player can afford the minimum bet anymore.
+     * @param numberOfRounds how many rounds to play
+     * @return the number of rounds actually played
+     */
+    public long simulate(long numberOfRounds) {
+        long roundsPlayed = 0;
+
+        while(roundsPlayed < numberOfRounds && this.playersHaveEnoughMoneyLeft()) {
+            this.playRound();
+            this.performBetweenRoundMaintenance();
+            roundsPlayed++;
+        }
+
+        return roundsPlayed;
+    }
+
+
+    /**
+     * Plays the specified number of rounds without any console interaction, and
+     * adds the outcome of every seat to the provided result. Each player's cash
+     * balance is restored to the starting cash balance before every round, so
+     * that the results measure the game rather than the players' bankrolls.
+     * @param numberOfRounds how many rounds to play
+     * @param result the result to add the outcomes to
+     */
+    public void simulate(long numberOfRounds, SimulationResult result) {
+
+        for(long round=0; round<numberOfRounds; round++) {
+            for(int pi=0; pi<this.players.length; pi++) {
+                if(null != this.players[pi]) {
+                    this.players[pi].setCashBalance(Money.ofWholeUnits(this.config.getStartingCashBalance()));
+                }
+            }
+
+            this.playRound();
+            this.performBetweenRoundMaintenance();
+
+            result.addRound(this.roundResult);
+        }
+    }
+
+
+    /**
+     * Shuffle every card but those in play back into the shoe, so that the
+     * following rounds do not depend on the previous ones. Must be called between rounds.
+     */
+    void reshuffle() {
+        this.shuffleShoe();
+    }
+
+
+    /**
+     * @return the game parameters and rule variants of this game
+     */
+    public GameConfig getConfig() {
+        return this.config;
+    }
+
+
+    /**
+     * Record every following event of the game to the provided log. The log starts
+     * with a shuffle of the full shoe, so that the rounds it records can be replayed
+     * from it; the shoe is reshuffled first if cards were dealt from it already.
+     * Must be called between rounds.
+     * @param aRoundLog the log to record to, or null to stop recording
+     */
+    public void setRoundLog(RoundLog aRoundLog) {
+        this.roundLog = aRoundLog;
+        if(null != this.roundLog) {
+            if(!this.shoe.isFreshlyShuffled()) {
+                this.shoe.shuffle();
+            }
+            this.roundLog.shuffle(this.shoe.getLastShuffleSeed(), this.shoe.getNumCards());
         }
     }
 
 
+    /**
+     * Measure every following round into the provided metrics, which may be
+     * shared with other games.
+     * @param theMetrics the metrics to record to, or null to stop measuring
+     */
+    public void setMetrics(GameMetrics theMetrics) {
+        this.metrics = theMetrics;
+    }
+
+
+
+    /**
+     * @return the players seated at the table; empty seats are null
+     */
+    public Player[] getPlayers() {
+        return this.players;
+    }
+
+
     /**
      * Plays one round with the players at the table.
      */
-    private void playRound() {
+    void playRound() {
 
+        this.roundResult.reset();
+        if(null != this.roundLog) {
+            this.roundLog.roundStart(System.currentTimeMillis());
+        }
+        this.startPhase();
         this.takeBets();
+        this.endPhase(GameMetrics.Phase.TAKE_BETS);
 
-        IOUtil.displayMessageAndWait(Strings.TWO_CARDS_WILL_BE_FLIPPED);
+        this.displayMessageAndWait(null, Strings.TWO_CARDS_WILL_BE_FLIPPED);
         this.dealFirstTwoCards();
+        this.endPhase(GameMetrics.Phase.DEAL_FIRST_TWO_CARDS);
 
-        this.table.refresh();
+        this.refreshTable();
 
         if(this.dealer.hasNatural()) {
             // The dealer had a natural, so this round is over
             // Flip his cards so players can see it
-            this.dealer.getHand().getCards().get(1).setFaceUp(true);
-            IOUtil.displayMessageAndWait(Strings.DEALER_HAS_NATURAL);
+            this.dealer.getHand().setFaceUp(1, true);
+            this.displayMessageAndWait(null, Strings.DEALER_HAS_NATURAL);
             return;
         }
 
         this.doPlayersPlay();
-        IOUtil.displayMessageAndWait(Strings.WILL_REVEAL_CARDS);
+        this.endPhase(GameMetrics.Phase.PLAYERS_PLAY);
+        this.displayMessageAndWait(null, Strings.WILL_REVEAL_CARDS);
 
         // Flip the dealer's second card and the double-down cards
-        this.dealer.getHand().getCards().get(1).setFaceUp(true);
+        this.dealer.getHand().setFaceUp(1, true);
         this.showDoubleDownCards();
 
-        this.table.refresh();
+        this.refreshTable();
 
         if(this.somePlayersAreStillInPlay() &&
-                this.dealer.getHand().getValue() < DEALER_THRESHOLD) {
-            IOUtil.displayMessageAndWait(Strings.DEALER_WILL_NOW_PLAY);
+                dealerMustHit(this.dealer.getHand(), this.config.dealerHitsSoft17())) {
+            this.displayMessageAndWait(null, Strings.DEALER_WILL_NOW_PLAY);
             this.doDealerPlay();
+            this.endPhase(GameMetrics.Phase.DEALER_PLAY);
         }
     }
 
 
+    /**
+     * Start timing a phase of the round, when the game is measured.
+     */
+    private void startPhase() {
+        if(null != this.metrics) {
+            this.phaseStartNanos = System.nanoTime();
+        }
+    }
+
+
+    /**
+     * Record the duration of the phase which just ended, when the game is measured.
+     * The next phase starts right away, so that reading the clock once is enough
+     * between two phases; the messages displayed before a phase count towards it.
+     * @param aPhase the phase which just ended
+     */
+    private void endPhase(GameMetrics.Phase aPhase) {
+        if(null != this.metrics) {
+            this.phaseStartNanos = this.metrics.recordPhase(aPhase, this.phaseStartNanos);
+        }
+    }
+
+
+    /**
+     * Returns whether the dealer must draw another card to the provided hand.
+     * The dealer draws until his hand is worth 17 or more, and also draws
+     * to a soft 17 when the rules say so.
+     * @param value the value of the dealer's hand
+     * @param isSoft whether the dealer's hand is soft
+     * @param hitsSoft17 whether the dealer hits a soft 17
+     * @return true if the dealer must hit
+     */
+    static boolean dealerMustHit(int value, boolean isSoft, boolean hitsSoft17) {
+        return value < DEALER_THRESHOLD || (hitsSoft17 && isSoft && value == DEALER_THRESHOLD);
+    }
+
+
+    /**
+     * @param dealerHand the dealer's hand
+     * @param hitsSoft17 whether the dealer hits a soft 17
+     * @return true if the dealer must draw another card to the provided hand
+     */
+    private static boolean dealerMustHit(BasicHand dealerHand, boolean hitsSoft17) {
+        return dealerMustHit(dealerHand.getValue(), dealerHand.isSoft(), hitsSoft17);
+    }
+
+
+    /**
+     * Display a message and wait for the user to press Enter, unless the game
+     * is running headless.
+     * @param p the player to direct the message to, or null for the whole table
+     * @param message the message to display
+     */
+    private void displayMessageAndWait(Player p, String message) {
+        for(int i=0; i<this.tableIOs.size(); i++) {
+            if(null == p) {
+                IOUtil.displayMessageAndWait(this.tableIOs.get(i), message);
+            } else {
+                IOUtil.displayMessageAndWait(this.tableIOs.get(i), p, message);
+            }
+        }
+    }
+
+
+    /**
+     * Update the table display, unless the game is running headless.
+     */
+    private void refreshTable() {
+        if(this.isInteractive) {
+            this.table.refresh();
+        }
+    }
+
+
+    /**
+     * Deal a card from the shoe. If the shoe runs out of cards in the middle of
+     * a round, the discarded cards are shuffled back in first; the cards still
+     * held in hands stay out of the shoe.
+     * @param seat the seat the card is dealt to, or RoundLog.DEALER_SEAT
+     * @param handIndex the hand the card is dealt to
+     * @return the dealt card
+     * @throws EmptyShoeException if neither the shoe nor its discards hold any card
+     */
+    private Card dealCard(int seat, int handIndex) throws EmptyShoeException {
+        if(this.shoe.getNumCards() == this.shoe.getNumDiscardedCards()) {
+            this.shuffleShoe();
+        }
+
+        Card dealtCard = this.shoe.deal();
+        if(null != this.roundLog) {
+            this.roundLog.deal(seat, handIndex, dealtCard);
+        }
+
+        return dealtCard;
+    }
+
+
+    /**
+     * Shuffle the cards of the shoe, and record the shuffle.
+     */
+    private void shuffleShoe() {
+        // Timed on its own, since the shoe may run out in the middle of another phase
+        long shuffleStartNanos = null == this.metrics ? 0 : System.nanoTime();
+        this.shoe.shuffle();
+        if(null != this.metrics) {
+            this.metrics.recordPhase(GameMetrics.Phase.RESHUFFLE, shuffleStartNanos);
+        }
+        if(null != this.roundLog) {
+            this.roundLog.shuffle(this.shoe.getLastShuffleSeed(), this.shoe.getNumCards());
+        }
+    }
+
+
+    /**
+     * @return the dealer's face up card
+     */
+    private Card getDealerUpCard() {
+        return this.dealer.getHand().getCard(0);
+    }
+
+
     /**
      * Flip up the 3rd cards on double-down hands.
      */
@@ -139,9 +628,10 @@ public class BlackjackGame {
                  continue;
              }
 
-             for(PlayerHand ph : p.getHands()) {
+             for(int hi=0; hi<p.getHands().size(); hi++) {
+                 PlayerHand ph = p.getHands().get(hi);
                  if (ph.isDoubleDown()) {
-                     ph.getCards().get(ph.getCards().size()-1).setFaceUp(true);
+                     ph.setFaceUp(ph.getNumCards()-1, true);
                  }
              }
         }
@@ -172,8 +662,9 @@ public class BlackjackGame {
 
     /**
      * Go around the table and ask players who are still in play
-     * whether they would like to split (if they have a pair),
-     * hit, or stand. Display the table after each player turn.
+     * whether they would like to surrender (if the rules allow it),
+     * split (if they have a pair), hit, or stand. Display the table
+     * after each player turn.
       */
     private void doPlayersPlay() {
 
@@ -184,22 +675,40 @@ public class BlackjackGame {
                 continue;
             }
 
+            // Offer late surrender on the first two cards; the dealer has
+            // already checked for a natural at this point
+            PlayerHand firstPlayerHand = p.getHands().get(0);
+            if(this.config.isLateSurrenderAllowed() && !firstPlayerHand.isNatural() &&
+                    this.strategies[pi].wantsToSurrender(p, firstPlayerHand, this.getDealerUpCard())) {
+                firstPlayerHand.setSurrendered(true);
+                if(null != this.roundLog) {
+                    this.roundLog.decision(RoundLog.EventType.SURRENDER, pi, 0);
+                }
+                this.refreshTable();
+                continue;
+            }
+
             // Check for split possibilities
             int splitCount = 0;
             int handIndex = 0;
             while(handIndex < p.getHands().size()) {
 
                 PlayerHand currentPlayerHand = p.getHands().get(handIndex);
-                if(splitCount < this.maxNumberOfSplits && currentPlayerHand.canBeSplit(p.getCashBalance()) &&
-                        playerWantsToSplit(p, currentPlayerHand)) {
+                if(splitCount < this.config.getMaxNumberOfSplits() &&
+                        (this.config.isResplitAcesAllowed() || !currentPlayerHand.cameFromSplitAces()) &&
+                        currentPlayerHand.canBeSplit(p.getCashBalance()) &&
+                        this.strategies[pi].wantsToSplit(p, currentPlayerHand, this.getDealerUpCard())) {
                     try {
                         PlayerHand newPlayerHand = p.splitHand(handIndex);
                         p.getHands().add(handIndex+1, newPlayerHand);
+                        if(null != this.roundLog) {
+                            this.roundLog.split(pi, handIndex);
+                        }
 
                         // Deal one more card on top of each split hand
                         try {
-                            currentPlayerHand.addCard(this.shoe.deal(true));
-                            newPlayerHand.addCard(this.shoe.deal(true));
+                            currentPlayerHand.addCard(this.dealCard(pi, handIndex));
+                            newPlayerHand.addCard(this.dealCard(pi, handIndex+1));
 
                         } catch (EmptyShoeException ese) {
                             System.err.print(ese.getMessage());
@@ -225,32 +734,33 @@ public class BlackjackGame {
                 } else if(currentPlayerHand.isNatural()) {
                     // Immediately add the payout to the hand's wager
                     // Player gets his wager back, in addition to payout, as configured
-                    IOUtil.displayMessageAndWait(p, Strings.PLAYER_HAS_NATURAL);
-                    currentPlayerHand.setWager(currentPlayerHand.getWager() +
-                        (int) Math.round(this.naturalPayoutFactor * (double) currentPlayerHand.getWager()));
+                    this.displayMessageAndWait(p, Strings.PLAYER_HAS_NATURAL);
+                    currentPlayerHand.addNaturalPayout(Money.payout(currentPlayerHand.getWager(),
+                            this.config.getNaturalPayoutNumerator(), this.config.getNaturalPayoutDenominator()));
                     handIndex++;
                     continue;
                 }
 
                 // Otherwise, the player can choose to hit or stand as he pleases
-                this.havePlayerPlayHand(p, currentPlayerHand);
+                this.havePlayerPlayHand(pi, handIndex, p, this.strategies[pi], currentPlayerHand);
                 handIndex++;
             }  // player hand loop
 
-            this.table.refresh();
+            this.refreshTable();
         } // player loop
     }
 
 
     /**
-     * Perform the dealer play. The dealer draws until he hits 17 or more.
+     * Perform the dealer play. The dealer draws until he hits 17 or more,
+     * or past a soft 17 when the rules say so.
      */
     private void doDealerPlay() {
 
-        while(this.dealer.getHand().getValue() < DEALER_THRESHOLD) {
+        while(dealerMustHit(this.dealer.getHand(), this.config.dealerHitsSoft17())) {
             // The dealer hits
             try {
-                this.dealer.getHand().addCard(shoe.deal(true));
+                this.dealer.getHand().addCard(this.dealCard(RoundLog.DEALER_SEAT, 0));
             } catch (EmptyShoeException ese) {
                 System.err.print(ese.getMessage());
                 ese.printStackTrace(System.err);
@@ -261,25 +771,34 @@ public class BlackjackGame {
 
     /**
      * Asks the currentPlayer how he wants to play the provided hand.
+     * @param seat the seat of the current player
+     * @param handIndex the index of the hand among the current player's hands
      * @param currentPlayer the player whose turn it is
+     * @param strategy the strategy making the current player's decisions
      * @param aPlayerHand the hand to play
      */
-    private void havePlayerPlayHand(Player currentPlayer, PlayerHand aPlayerHand) {
+    private void havePlayerPlayHand(int seat, int handIndex, Player currentPlayer, PlayerStrategy strategy,
+                                    PlayerHand aPlayerHand) {
         if(aPlayerHand.cameFromSplitAces()) {
             return;
         }
 
-        // Offer the player a chance to double down.
-        if(currentPlayer.getCashBalance() >= aPlayerHand.getWager() &&
+        // Offer the player a chance to double down, unless the hand was split
+        // and the rules forbid doubling after a split.
+        if((this.config.isDoubleAfterSplitAllowed() || !aPlayerHand.isFromSplit()) &&
+            currentPlayer.getCashBalance() >= aPlayerHand.getWager() &&
             aPlayerHand.getValue() < BLACKJACK_NUMBER &&
-            playerWantsToDoubleDown(currentPlayer, aPlayerHand)) {
+            strategy.wantsToDoubleDown(currentPlayer, aPlayerHand, this.getDealerUpCard())) {
             try {
                 currentPlayer.decreaseCashBalanceBy(aPlayerHand.getWager());
-                aPlayerHand.setWager(2 * aPlayerHand.getWager());
+                aPlayerHand.setWager(Math.multiplyExact(2, aPlayerHand.getWager()));
                 aPlayerHand.setDoubleDown(true);
+                if(null != this.roundLog) {
+                    this.roundLog.doubleDown(seat, handIndex, aPlayerHand.getWager());
+                }
 
                 // Deal one last card for this hand, face down
-                aPlayerHand.addCard(shoe.deal(false));
+                aPlayerHand.addCard(this.dealCard(seat, handIndex), false);
             } catch (InsufficientCashException|EmptyShoeException e) {
                 System.err.println(e.getMessage());
                 e.printStackTrace(System.err);
@@ -288,10 +807,19 @@ public class BlackjackGame {
             // No double down.
             // Ask the player to hit or stand, as long as he hasn't gone bust
             // or obtained a blackjack.
-            while(aPlayerHand.getValue() < BLACKJACK_NUMBER && playerWantsToHit(currentPlayer, aPlayerHand)) {
+            while(aPlayerHand.getValue() < BLACKJACK_NUMBER) {
+                boolean wantsToHit = strategy.wantsToHit(currentPlayer, aPlayerHand, this.getDealerUpCard());
+                if(null != this.roundLog) {
+                    this.roundLog.decision(wantsToHit ? RoundLog.EventType.HIT : RoundLog.EventType.STAND,
+                            seat, handIndex);
+                }
+                if(!wantsToHit) {
+                    break;
+                }
+
                 // Draw one more card, face up
                 try {
-                    aPlayerHand.addCard(shoe.deal(true));
+                    aPlayerHand.addCard(this.dealCard(seat, handIndex));
                 } catch (EmptyShoeException ese) {
                     System.err.println(ese.getMessage());
                     ese.printStackTrace(System.err);
@@ -302,52 +830,6 @@ public class BlackjackGame {
     }
 
 
-    /**
-     * Determine whether the provided player wants to hit the provided hand.
-     * @param p the current player
-     * @param aPlayerHand the hand to play
-     * @return true if the player wants to hit the hand, false otherwise
-     */
-    private boolean playerWantsToHit(Player p, PlayerHand aPlayerHand) {
-        char answer = IOUtil.askBinaryQuestion(p,
-               Strings.WANT_TO_HIT_OR_STAND_PROMPT + "\n\t" +
-                aPlayerHand.toString() + "\n", 'h', 's');
-
-        return (answer == 'h');
-    }
-
-
-    /**
-     * Determine whether the provided player wants to double down on the
-     * provided hand.
-     * @param p the current player
-     * @param aPlayerHand the hand to play
-     * @return true if the player wants to double down, false otherwise
-     */
-    private boolean playerWantsToDoubleDown(Player p, PlayerHand aPlayerHand) {
-        char answer = IOUtil.askBinaryQuestion(p,
-               Strings.WANT_TO_DOUBLE_DOWN_PROMPT + "\n\t" +
-                aPlayerHand.toString() + "\n", 'y', 'n');
-
-        return (answer == 'y');
-    }
-
-    /**
-     * Determine whether the provided player wants to split the
-     * provided hand.
-     * @param p the current player
-     * @param aPlayerHand the hand to play
-     * @return true if the player wants to split, false otherwise
-     */
-    private boolean playerWantsToSplit(Player p, PlayerHand aPlayerHand) {
-        char answer = IOUtil.askBinaryQuestion(p,
-               Strings.WANT_TO_SPLIT_PROMPT + "\n\t" +
-                aPlayerHand.toString() + "\n", 'y', 'n');
-
-        return (answer == 'y');
-    }
-
-
     /**
      * Asks the players how much they want to bet in the current round.
      */
@@ -362,14 +844,18 @@ public class BlackjackGame {
                 continue;
             }
 
-            if(p.getCashBalance() < this.minBet) {
+            long minBet = Money.ofWholeUnits(this.config.getMinBet());
+            if(p.getCashBalance() < minBet) {
                 // This player can no longer play
                 p.setPlaying(false);
                 continue;
             }
 
-            int betAmount = IOUtil.askIntegerInRangeQuestion(p, Strings.ENTER_BET_AMOUNT_PROMPT,
-                    this.minBet, p.getCashBalance());
+            long betAmount = this.strategies[i].getBetAmount(p, minBet, p.getCashBalance());
+            this.roundResult.setInitialBet(i, betAmount);
+            if(null != this.roundLog) {
+                this.roundLog.bet(i, betAmount);
+            }
 
             p.getHands().get(0).setWager(betAmount);
             try {
@@ -398,7 +884,7 @@ public class BlackjackGame {
 
             PlayerHand firstPlayerHand = p.getHands().get(0);
             try {
-                firstPlayerHand.addCard(shoe.deal(true));
+                firstPlayerHand.addCard(this.dealCard(i, 0));
             } catch (EmptyShoeException ese) {
                 System.err.println(ese.getMessage());
                 ese.printStackTrace(System.err);
@@ -408,8 +894,9 @@ public class BlackjackGame {
         // Deal first card to dealer
         BasicHand dealerHand = dealer.getHand();
         try {
-            Card dealerCard = shoe.deal(true);
+            Card dealerCard = this.dealCard(RoundLog.DEALER_SEAT, 0);
             dealerHand.addCard(dealerCard);
+            this.roundResult.setDealerUpCard(dealerCard.getPipValue());
         } catch (EmptyShoeException ese) {
             System.err.println(ese.getMessage());
             ese.printStackTrace(System.err);
@@ -424,17 +911,18 @@ public class BlackjackGame {
 
             PlayerHand playerHand = p.getHands().get(0);
             try {
-                playerHand.addCard(shoe.deal(true));
+                playerHand.addCard(this.dealCard(i, 0));
             } catch (EmptyShoeException ese) {
                 System.err.println(ese.getMessage());
                 ese.printStackTrace(System.err);
             }
+            this.roundResult.setStartingHand(i, playerHand.getValue(), playerHand.isSoft());
         }
 
         // Deal second card to dealer (face down)
         try {
-            Card dealerCard = shoe.deal(false);
-            dealerHand.addCard(dealerCard);
+            Card dealerCard = this.dealCard(RoundLog.DEALER_SEAT, 0);
+            dealerHand.addCard(dealerCard, false);
         } catch (EmptyShoeException ese) {
             System.err.println(ese.getMessage());
             ese.printStackTrace(System.err);
@@ -444,158 +932,132 @@ public class BlackjackGame {
 
     /**
      * Perform in-between round maintenance: distribute payouts, collect losing
-     * bets, collect cards, etc. and asks whether to go for one more round.
-     * If so, shuffle shoe cards when appropriate.
+     * bets, collect cards, etc. and shuffle shoe cards when appropriate.
      *
      * Could be improved to allow players to come and go between rounds.
      */
-    private void performBetweenRoundMaintenance() {
-        // Pay out winning bets and collect losing ones
-        int dealerHandValue = dealer.getHand().getValue();
-
-        if(dealer.hasNatural()) {
-            // Iterate over all the player hands
-            // The wagers from the hands which are also naturals go back to the player's
-            // cash balance. Otherwise, they will get wiped.
-            for(int pi=0; pi<players.length; pi++) {
-                Player p = players[pi];
-                if(null == p || !p.isPlaying()) {
-                    continue;
-                }
-
-                List<PlayerHand> playerHands = p.getHands();
-                if(null == playerHands) {
-                    continue;
-                }
-
-                for(PlayerHand h : p.getHands()) {
-                    if(h.isNatural()) {
-                        // Push with the dealer. The player gets his wager back
-                        p.increaseCashBalanceBy(h.getWager());
-                    }
-
-                    // Discard the hand and wagers
-                    this.discardPile.addAll(h.getCards());
-                    h.reset();
-                }
-
-                p.resetHands();
-            }
-        } else if(dealerHandValue == BLACKJACK_NUMBER) {
-            // The dealer didn't get a natural, but still got to 21.
-            // Collect all wagers which are not 21.
-
-            for(int pi=0; pi<this.players.length; pi++) {
-                Player p = this.players[pi];
-                if(null == p || !p.isPlaying()) {
-                    continue;
-                }
-
-                for(PlayerHand h : p.getHands()) {
-                    if(h.getValue() == BLACKJACK_NUMBER) {
-                        // The player gets his wager back
-                        p.increaseCashBalanceBy(h.getWager());
-                    }
-
-                    // Discard the hand and lose wagers
-                    this.discardPile.addAll(h.getCards());
-                    h.reset();
-                }
+    void performBetweenRoundMaintenance() {
+        // Pay out winning bets and collect losing ones, in a single pass
+        // over the hands. The dealer's outcome is only computed once.
+        this.startPhase();
+        BasicHand dealerHand = this.dealer.getHand();
+        int dealerHandValue = dealerHand.getValue();
+        boolean dealerHasNatural = dealerHand.isNatural();
+        boolean dealerIsBust = dealerHand.isBust();
+        this.roundResult.setDealerHand(dealerHandValue, dealerHasNatural);
 
-                p.resetHands();
+        for(int pi=0; pi<this.players.length; pi++) {
+            Player p = this.players[pi];
+            if(null == p || !p.isPlaying()) {
+                continue;
             }
-        } else if (dealerHandValue > BLACKJACK_NUMBER) {
-            // The dealer went bust. Players collect wagers for all hands
-            // hands which didn't go bust.
 
-            for(int pi=0; pi<this.players.length; pi++) {
-                Player p = this.players[pi];
-                if(null == p || !p.isPlaying()) {
-                    continue;
-                }
-
-                for(PlayerHand h : p.getHands()) {
-                    if(h.isActive()) {
-                        // The player gets his wager back
-                        p.increaseCashBalanceBy(2 * h.getWager());
-                    } else if (h.isNatural()) {
-                        // The payout has already been included in this hand's wager.
-                        // Simply give it back to the player.
-                        p.increaseCashBalanceBy(h.getWager());
-                    }
+            for(int hi=0; hi<p.getHands().size(); hi++) {
+                PlayerHand h = p.getHands().get(hi);
+                this.settleHand(pi, hi, p, h, dealerHandValue, dealerHasNatural, dealerIsBust);
 
-                    // Discard the hand and lose wagers
-                    this.discardPile.addAll(h.getCards());
-                    h.reset();
-                }
-
-                p.resetHands();
+                // Discard the hand and wagers
+                this.shoe.discard(h);
+                h.reset();
             }
-        } else {
-            // The dealer has at least 17 but less than 21. Players collect
-            // wagers for each non-natural hand still in play whose value
-            // is more than that of the dealer's.
 
-            for(int pi=0; pi<this.players.length; pi++) {
-                Player p = this.players[pi];
-                if(null == p || !p.isPlaying()) {
-                    continue;
-                }
-
-                for(PlayerHand h : p.getHands()) {
-                    if(h.isActive() && (h.getValue() > dealerHandValue)) {
-                        // Player doubles his wagers
-                        p.increaseCashBalanceBy(2 * h.getWager());
-                    } else if (h.isNatural() || h.getValue() == dealerHandValue) {
-                        // The payout for naturals has already been included in the hand wager.
-                        // Similarly, if both the player's and the dealer's hands have the same
-                        // value, just give the wager back to the player.
-                        p.increaseCashBalanceBy(h.getWager());
-                    }
-
-                    // Discard the hand and lose wagers
-                    this.discardPile.addAll(h.getCards());
-                    h.reset();
-                }
-
-                p.resetHands();
-            }
+            p.resetHands();
         }
 
         // Discard the dealer's cards
-        this.discardPile.addAll(dealer.getHand().getCards());
+        this.shoe.discard(dealer.getHand());
         dealer.getHand().reset();
 
-        // Make sure we accounted for all cards
-        assert (this.discardPile.size() + this.shoe.getNumCards() ==
-                this.numDecks * Deck.getSize()) :
+        // Make sure we accounted for all cards: every card is either left
+        // to deal or back in the shoe's discard region
+        assert (this.shoe.getNumCards() == this.config.getNumberOfDecks() * Deck.getSize()) :
                 "Some cards have not been handled at the end of the round!";
+        this.endPhase(GameMetrics.Phase.SETTLEMENT);
+        if(null != this.metrics) {
+            this.metrics.recordRound(this.roundResult);
+        }
+
+        // Shuffle if appropriate; a continuous shuffler already took the cards back
+        if(this.shoe.shouldBeReshuffled()) {
+            this.shuffleShoe();
+        }
+    }
+
 
-        // Check if any players have money left
-        if(!this.playersHaveEnoughMoneyLeft()) {
-            IOUtil.displayMessage(Strings.PLAYERS_DONT_HAVE_ENOUGH_MONEY_LEFT);
-            IOUtil.printPlayerBalances(this.players);
-            System.exit(0);
+    /**
+     * Settle one player hand against the dealer: classify it, pay the player what
+     * he is owed and record the outcome in the round result.
+     *
+     * When the dealer has a natural, only naturals push and every other hand loses.
+     * Otherwise, surrendered hands lose half their wager, busted hands lose, naturals
+     * collect the payout already included in their wager, and other hands win against
+     * a busted dealer or compare their value with the dealer's.
+     *
+     * @param seat the seat number of the player
+     * @param handIndex the index of the hand among the player's hands
+     * @param p the player holding the hand
+     * @param h the hand to settle
+     * @param dealerHandValue the value of the dealer's hand
+     * @param dealerHasNatural whether the dealer has a natural
+     * @param dealerIsBust whether the dealer went bust
+     */
+    private void settleHand(int seat, int handIndex, Player p, PlayerHand h, int dealerHandValue,
+                            boolean dealerHasNatural, boolean dealerIsBust) {
+        long stake = h.getWager() - h.getNaturalPayout();
+        int handValue = h.getValue();
+
+        RoundResult.Outcome outcome;
+        long net;
+        if(dealerHasNatural) {
+            outcome = h.isNatural() ? RoundResult.Outcome.PUSH : RoundResult.Outcome.LOSS;
+            net = h.isNatural() ? 0 : -stake;
+        } else if(h.isSurrendered()) {
+            // The player gets half his stake back, the house keeping any odd minor unit
+            outcome = RoundResult.Outcome.SURRENDER;
+            net = stake / 2 - stake;
+        } else if(handValue > BLACKJACK_NUMBER) {
+            outcome = RoundResult.Outcome.BUST;
+            net = -stake;
+        } else if(h.isNatural()) {
+            // The payout has already been included in this hand's wager; a natural
+            // paying nothing, with a payout factor of 0, simply pushes
+            net = h.getNaturalPayout();
+            outcome = net > 0 ? RoundResult.Outcome.NATURAL : RoundResult.Outcome.PUSH;
+        } else {
+            int comparison = dealerIsBust ? 1 : Integer.compare(handValue, dealerHandValue);
+            if(comparison > 0) {
+                outcome = RoundResult.Outcome.WIN;
+                net = stake;
+            } else if(comparison == 0) {
+                outcome = RoundResult.Outcome.PUSH;
+                net = 0;
+            } else {
+                outcome = RoundResult.Outcome.LOSS;
+                net = -stake;
+            }
         }
 
-        IOUtil.displayMessage(Strings.HERE_ARE_PLAYER_BALANCES);
-        IOUtil.printPlayerBalances(this.players);
-        // Ask whether to continue playing
-        char continuePlaying = IOUtil.askBinaryQuestion(Strings.CONTINUE_PLAYING_PROMPT, 'y', 'n');
-        if(continuePlaying != 'y') {
-            IOUtil.displayMessage(Strings.THANKS_FOR_PLAYING);
-            System.exit(0);
+        // The player gets his stake back along with his winnings
+        if(stake + net > 0) {
+            p.increaseCashBalanceBy(stake + net);
         }
 
-        // Shuffle if appropriate
-        if(this.shoe.shouldBeReshuffled()) {
-            this.shoe.addAll(this.discardPile);
-            this.discardPile = new LinkedList<Card>();
-            this.shoe.shuffle();
+        this.roundResult.addHand(seat, outcome, stake, net, h.isDoubleDown());
+        if(null != this.roundLog) {
+            this.roundLog.settle(seat, handIndex, outcome, net);
         }
     }
 
 
+    /**
+     * @return the ledger of the last round played. It is reused from one round
+     * to the next, so it is only valid until the next round starts.
+     */
+    public RoundResult getLastRoundResult() {
+        return this.roundResult;
+    }
+
+
     /**
      * Returns whether at least one player has enough money to cover the minimum bet
      * @return true if at least one player has enough money to cover the minimum bet
@@ -608,7 +1070,7 @@ public class BlackjackGame {
                 continue;
             }
 
-            if(p.getCashBalance() >= this.minBet) {
+            if(p.getCashBalance() >= Money.ofWholeUnits(this.config.getMinBet())) {
                 return true;
             }
         }
@@ -619,9 +1081,11 @@ public class BlackjackGame {
 
 
     /**
-     * Reads in various game parameters from the config file.
+     * Reads in the game parameters from the config file at the specified path.
+     * @param configFilePath path to the configuration file
+     * @return the game parameters found in the config file
      */
-    private void loadConfiguration(String configFilePath) {
+    public static Properties loadConfigurationFile(String configFilePath) {
 
         FileInputStream configFileIS = null;
 
@@ -648,39 +1112,61 @@ public class BlackjackGame {
             ioe.printStackTrace(System.err);
         }
 
-        this.minNumberOfPlayers = Integer.parseInt(configProperties.getProperty(Strings.CONFIG_MIN_PLAYERS_KEY));
-        this.maxNumberOfPlayers = Integer.parseInt(configProperties.getProperty(Strings.CONFIG_MAX_PLAYERS_KEY));
-        this.numDecks = Integer.parseInt(configProperties.getProperty(Strings.CONFIG_NUM_DECKS_KEY));
-        this.minBet = Integer.parseInt(configProperties.getProperty(Strings.CONFIG_MIN_BET_KEY));
-        this.maxNumberOfSplits = Integer.parseInt(configProperties.getProperty(Strings.CONFIG_MAX_SPLITS_KEY));
-        this.startingCashBalance = Integer.parseInt(configProperties.getProperty(Strings.CONFIG_STARTING_CASH_KEY));
-        this.naturalPayoutFactor = Double.parseDouble(configProperties.getProperty(Strings.CONFIG_NATURAL_PAYOUT_FACTOR_KEY));
+        return configProperties;
     }
 
 
-
     /**
      * Asks for and reads in the number of players at the table from the console.
      * @return the number of players input on the console
      */
     private int getNumberOfPlayers() {
-        return IOUtil.askIntegerInRangeQuestion(null, Strings.ENTER_NUM_PLAYERS_PROMPT,
-                this.minNumberOfPlayers, this.maxNumberOfPlayers);
+        return IOUtil.askIntegerInRangeQuestion((Player) null, Strings.ENTER_NUM_PLAYERS_PROMPT,
+                this.config.getMinNumberOfPlayers(), this.config.getMaxNumberOfPlayers());
     }
 
 
     /**
      * Main entry method.
      *
-     * @param args a String array whose first element is the path to the config file
+     * @param args a String array whose first element is the path to the config file,
+     *             and whose optional second element is the path to a round log to record to
      */
     public static void main(String[] args) {
 
         String configFilePath = args[0];
 
-        BlackjackGame game = new BlackjackGame(configFilePath);
+        BlackjackGame game = null;
+        try {
+            game = new BlackjackGame(configFilePath);
+        } catch (IllegalArgumentException iae) {
+            System.err.println(Strings.ERROR_LOADING_CONFIG_FILE);
+            System.err.println(iae.getMessage());
+            System.exit(2);
+        }
+
+        RoundLog roundLog = null;
+        if(args.length > 1) {
+            try {
+                roundLog = new RoundLog(Paths.get(args[1]));
+                game.setRoundLog(roundLog);
+            } catch (IOException ioe) {
+                System.err.println(ioe.getMessage());
+                ioe.printStackTrace(System.err);
+                System.exit(2);
+            }
+        }
 
         game.start();
+
+        if(null != roundLog) {
+            try {
+                roundLog.close();
+            } catch (IOException ioe) {
+                System.err.println(ioe.getMessage());
+                ioe.printStackTrace(System.err);
+            }
+        }
     }
 
 }
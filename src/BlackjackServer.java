@@ -0,0 +1,339 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.JMException;
+
+/**
+ * Serves Blackjack tables to players connecting over TCP, with the line protocol
+ * of ChannelGameIO.
+ *
+ * A single network thread reads and writes every connection through a selector,
+ * so that idle connections cost neither a thread nor a buffer. Players are seated
+ * in the order they connect. As soon as enough players are waiting, they are
+ * seated at a new table, which runs on a thread of its own: a virtual thread when
+ * the JVM supports them, a platform thread otherwise. A table ends when its
+ * players quit, run out of money or disconnect, and its connections are then
+ * closed while the server keeps running.
+ *
+ * @author Dany Houde
+ */
+public class BlackjackServer implements Closeable {
+
+    // How many players are seated at each table when none is specified
+    private static final int DEFAULT_PLAYERS_PER_TABLE = 1;
+
+    // The longest line a player may send, in bytes
+    private static final int READ_BUFFER_SIZE = 1024;
+
+    // How many read buffers are kept for reuse at most
+    private static final int MAX_POOLED_BUFFERS = 256;
+
+    private final GameConfig config;
+
+    // The strategy of the automated players filling the empty seats, or null for none
+    private final PlayerStrategy botStrategy;
+
+    private final int playersPerTable;
+
+    private final Selector selector;
+
+    private final ServerSocketChannel serverChannel;
+
+    // Lends read buffers to the connections; only used by the network thread
+    private final ByteBufferPool bufferPool;
+
+    // Runs one task per table
+    private final ExecutorService tableExecutor;
+
+    private final AtomicInteger numberOfActiveTables;
+
+    // Shared by every table
+    private final GameMetrics metrics;
+
+    // Splits off the seed stream of every table; only used by the network thread
+    private final SplittableRandom seedStreams;
+
+    private Thread networkThread;
+
+    private volatile boolean isClosed;
+
+
+    /**
+     * Construct a new BlackjackServer listening on the specified local port.
+     * @param aConfig the game parameters and rule variants of every table
+     * @param aBotStrategy the strategy of the automated players, or null for none
+     * @param thePlayersPerTable how many connected players are seated at each table
+     * @param port the port to listen on, on the loopback interface; 0 picks a free port
+     * @throws IOException if the port cannot be opened
+     */
+    public BlackjackServer(GameConfig aConfig, PlayerStrategy aBotStrategy, int thePlayersPerTable,
+                           int port) throws IOException {
+        if(thePlayersPerTable < 1 || thePlayersPerTable > aConfig.getMaxNumberOfPlayers()) {
+            throw new IllegalArgumentException(Strings.INVALID_PLAYERS_PER_TABLE + thePlayersPerTable);
+        }
+
+        this.config = aConfig;
+        this.botStrategy = aBotStrategy;
+        this.playersPerTable = thePlayersPerTable;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+        this.bufferPool = new ByteBufferPool(READ_BUFFER_SIZE, MAX_POOLED_BUFFERS);
+        this.tableExecutor = newTableExecutor();
+        this.numberOfActiveTables = new AtomicInteger();
+        this.metrics = new GameMetrics();
+        this.seedStreams = new SplittableRandom();
+    }
+
+
+    /**
+     * Returns an executor running each task on a new virtual thread. Virtual threads
+     * only exist from Java 21 on, so the executor is looked up reflectively, and tables
+     * fall back on a pool of platform threads on older JVMs.
+     * @return the executor to run the tables on
+     */
+    private static ExecutorService newTableExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException roe) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+
+    /**
+     * @return the metrics of the rounds played at every table of this server
+     */
+    public GameMetrics getMetrics() {
+        return this.metrics;
+    }
+
+
+    /**
+     * @return the port this server listens on
+     */
+    public int getPort() {
+        return this.serverChannel.socket().getLocalPort();
+    }
+
+
+    /**
+     * @return how many tables are currently being played
+     */
+    public int getNumberOfActiveTables() {
+        return this.numberOfActiveTables.get();
+    }
+
+
+    /**
+     * Serve the connections on a background thread, until the server is closed.
+     */
+    public synchronized void start() {
+        if(null == this.networkThread) {
+            this.networkThread = new Thread(this::serve, "BlackjackServer-network");
+            this.networkThread.setDaemon(true);
+            this.networkThread.start();
+        }
+    }
+
+
+    /**
+     * Serve the connections on the current thread, and seat the players at new
+     * tables as they arrive, until the server is closed.
+     */
+    public void serve() {
+        List<ChannelGameIO> waitingPlayers = new ArrayList<ChannelGameIO>();
+
+        try {
+            while(!this.isClosed) {
+                this.selector.select();
+
+                Iterator<SelectionKey> readyKeys = this.selector.selectedKeys().iterator();
+                while(readyKeys.hasNext()) {
+                    SelectionKey key = readyKeys.next();
+                    readyKeys.remove();
+
+                    if(!key.isValid()) {
+                        continue;
+                    }
+
+                    if(key.isAcceptable()) {
+                        this.acceptPlayer(waitingPlayers);
+                        continue;
+                    }
+
+                    ChannelGameIO io = (ChannelGameIO) key.attachment();
+                    try {
+                        boolean isOpen = !key.isReadable() || io.onReadable(this.bufferPool);
+                        if(isOpen && key.isValid() && key.isWritable()) {
+                            isOpen = io.onWritable();
+                        }
+
+                        if(!isOpen) {
+                            io.closeChannel(this.bufferPool);
+                            waitingPlayers.remove(io);
+                        }
+                    } catch (IOException ioe) {
+                        io.closeChannel(this.bufferPool);
+                        waitingPlayers.remove(io);
+                    }
+                }
+            }
+        } catch (IOException ioe) {
+            System.err.println(Strings.UNEXPECTED_ERROR);
+            ioe.printStackTrace(System.err);
+        } finally {
+            this.closeChannels();
+        }
+    }
+
+
+    /**
+     * Accept a new connection, and seat the waiting players at a new table once
+     * there are enough of them.
+     * @param waitingPlayers the connections of the players waiting for a table
+     * @throws IOException if the selector cannot be used anymore
+     */
+    private void acceptPlayer(List<ChannelGameIO> waitingPlayers) throws IOException {
+        SocketChannel channel = this.serverChannel.accept();
+        if(null == channel) {
+            return;
+        }
+
+        channel.configureBlocking(false);
+        SelectionKey key = channel.register(this.selector, SelectionKey.OP_READ);
+        ChannelGameIO io = new ChannelGameIO(key);
+        key.attach(io);
+
+        IOUtil.displayMessage(io, Strings.WELCOME_MESSAGE);
+        IOUtil.displayMessage(io, Strings.WAITING_FOR_PLAYERS);
+        waitingPlayers.add(io);
+
+        if(waitingPlayers.size() == this.playersPerTable) {
+            final GameIO[] tablePlayers = waitingPlayers.toArray(new GameIO[0]);
+            waitingPlayers.clear();
+
+            final SplittableRandom tableSeeds = this.seedStreams.split();
+            this.numberOfActiveTables.incrementAndGet();
+            this.tableExecutor.execute(() -> this.runTable(tablePlayers, tableSeeds));
+        }
+    }
+
+
+    /**
+     * Play a table until it ends, then close the connections of its players.
+     * @param tablePlayers the channels of the players seated at the table
+     * @param tableSeeds the stream of the seeds shuffling the table's shoe
+     */
+    private void runTable(GameIO[] tablePlayers, SplittableRandom tableSeeds) {
+        try {
+            BlackjackGame game = new BlackjackGame(this.config, tablePlayers, this.botStrategy, tableSeeds);
+            game.setMetrics(this.metrics);
+            game.play();
+        } catch (UncheckedIOException uioe) {
+            // A player disconnected; the table cannot go on without him
+        } finally {
+            for(GameIO io : tablePlayers) {
+                closeQuietly((Closeable) io);
+            }
+            this.numberOfActiveTables.decrementAndGet();
+        }
+    }
+
+
+    /**
+     * Stop accepting connections and end every table by closing its connections.
+     */
+    @Override
+    public synchronized void close() {
+        this.isClosed = true;
+        this.tableExecutor.shutdown();
+
+        // serve() returns once woken up, and closes the connections on its way out
+        this.selector.wakeup();
+        if(null != this.networkThread) {
+            try {
+                this.networkThread.join();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+
+    /**
+     * Close every connection, waking up the tables waiting for an answer, then the
+     * server itself. Only called by the network thread.
+     */
+    private void closeChannels() {
+        for(SelectionKey key : this.selector.keys()) {
+            if(key.attachment() instanceof ChannelGameIO) {
+                ((ChannelGameIO) key.attachment()).closeChannel(this.bufferPool);
+            }
+        }
+
+        closeQuietly(this.serverChannel);
+        closeQuietly(this.selector);
+    }
+
+
+    /**
+     * @param aCloseable the connection or socket to close, ignoring any error
+     */
+    private static void closeQuietly(Closeable aCloseable) {
+        try {
+            aCloseable.close();
+        } catch (IOException ioe) {
+            // Nothing more can be done with it
+        }
+    }
+
+
+    /**
+     * Command line entry method.
+     *
+     * @param args the path to the config file, followed by the port to listen on
+     *             and the number of players per table
+     */
+    public static void main(String[] args) throws IOException {
+
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(args[0]));
+        int port = Integer.parseInt(args[1]);
+        int playersPerTable = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_PLAYERS_PER_TABLE;
+
+        PlayerStrategy botStrategy = null;
+        if(config.getNumberOfBots() > 0) {
+            // The strategy file sits next to the config file
+            File strategyFile = new File(new File(args[0]).getParentFile(), config.getBasicStrategyFileName());
+            botStrategy = BasicStrategyPlayerStrategy.load(strategyFile.getPath(), config.getMinBet());
+        }
+
+        BlackjackServer server = new BlackjackServer(config, botStrategy, playersPerTable, port);
+        try {
+            server.getMetrics().register("server-" + server.getPort());
+        } catch (JMException jme) {
+            System.err.println(jme.getMessage());
+            jme.printStackTrace(System.err);
+        }
+        System.out.println(Strings.SERVER_LISTENING + server.getPort());
+        server.serve();
+    }
+}
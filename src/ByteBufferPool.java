@@ -0,0 +1,64 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * A pool of direct byte buffers of a fixed size, so that connections only hold a
+ * buffer while they have bytes to read, and buffers are not allocated over and over.
+ * It is not thread-safe: it is meant to be used by a single network thread.
+ *
+ * @author Dany Houde
+ */
+public class ByteBufferPool {
+
+    private final int bufferSize;
+
+    // How many released buffers are kept for reuse at most
+    private final int maxPooledBuffers;
+
+    private final ArrayDeque<ByteBuffer> pooledBuffers;
+
+
+    /**
+     * Construct a new, empty ByteBufferPool.
+     * @param aBufferSize the capacity of every buffer, in bytes
+     * @param theMaxPooledBuffers how many released buffers to keep for reuse at most
+     */
+    public ByteBufferPool(int aBufferSize, int theMaxPooledBuffers) {
+        this.bufferSize = aBufferSize;
+        this.maxPooledBuffers = theMaxPooledBuffers;
+        this.pooledBuffers = new ArrayDeque<ByteBuffer>(theMaxPooledBuffers);
+    }
+
+
+    /**
+     * @return an empty buffer, reused from the pool when one is available
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = this.pooledBuffers.pollFirst();
+        if(null == buffer) {
+            buffer = ByteBuffer.allocateDirect(this.bufferSize);
+        }
+
+        return buffer;
+    }
+
+
+    /**
+     * Return a buffer to the pool. The buffer must not be used afterwards.
+     * @param buffer the buffer obtained from acquire()
+     */
+    public void release(ByteBuffer buffer) {
+        if(this.pooledBuffers.size() < this.maxPooledBuffers) {
+            buffer.clear();
+            this.pooledBuffers.addFirst(buffer);
+        }
+    }
+
+
+    /**
+     * @return how many buffers are waiting in the pool
+     */
+    public int getNumPooledBuffers() {
+        return this.pooledBuffers.size();
+    }
+}
@@ -1,6 +1,11 @@
 /**
  * A class representing a French set of playing card.
  *
+ * Cards are immutable, and there is exactly one shared instance for each of
+ * the 52 suit and rank combinations. Each card also has a compact byte code,
+ * which lets shoes store their cards in primitive arrays. Whether a card is
+ * facing up or down is tracked by the hand holding it.
+ *
  * @author Dany Houde
  */
 public class Card {
@@ -95,39 +100,83 @@ public class Card {
 
     }
 
-    // Representation of a facing down card
-    private static final String FACE_DOWN_REPRESENTATION = "???";
+    private static final Suit[] SUITS = Suit.values();
+    private static final Rank[] RANKS = Rank.values();
+
+    // The shared Card instances, indexed by card code
+    private static final Card[] CARDS = new Card[RANKS.length * SUITS.length];
 
-    // If false, then this Card's face is down. Down by default.
-    private boolean isFaceUp;
+    static {
+        for(Rank r : RANKS) {
+            for(Suit s : SUITS) {
+                Card c = new Card(s, r);
+                CARDS[c.getCode()] = c;
+            }
+        }
+    }
 
     private final Suit suit;
     private final Rank rank;
 
+    // Cached pip value of the rank
+    private final int pipValue;
+
     /**
      * Construct a new Card of the provided Suit and Rank.
      * @param aSuit
      * @param aRank
-     * @param faceUp whether the Card should be facing up on creation
      */
-    public Card(Suit aSuit, Rank aRank, boolean faceUp) {
+    private Card(Suit aSuit, Rank aRank) {
        this.suit = aSuit;
        this.rank = aRank;
-       this.isFaceUp = faceUp;
+       this.pipValue = aRank.getPipValue();
     }
 
+
     /**
-     * @return the Card's "pip" (numeric) value
+     * Returns the shared Card of the provided Suit and Rank.
+     * @param aSuit the suit of the card
+     * @param aRank the rank of the card
+     * @return the Card of the provided Suit and Rank
      */
-    public int getPipValue() {
-        return this.rank.getPipValue();
+    public static Card get(Suit aSuit, Rank aRank) {
+        return CARDS[aRank.ordinal() * SUITS.length + aSuit.ordinal()];
+    }
+
+
+    /**
+     * Returns the shared Card with the provided code.
+     * @param aCode a card code, as returned by getCode()
+     * @return the Card with the provided code
+     */
+    public static Card fromCode(byte aCode) {
+        return CARDS[aCode];
     }
 
 
-    public void setFaceUp(boolean faceUp) {
-        this.isFaceUp = faceUp;
+    /**
+     * @return the number of distinct cards, i.e. the number of cards in a deck
+     */
+    public static int getNumberOfCodes() {
+        return CARDS.length;
     }
 
+
+    /**
+     * @return a compact code identifying this Card, between 0 and 51
+     */
+    public byte getCode() {
+        return (byte) (this.rank.ordinal() * SUITS.length + this.suit.ordinal());
+    }
+
+    /**
+     * @return the Card's "pip" (numeric) value
+     */
+    public int getPipValue() {
+        return this.pipValue;
+    }
+
+
     public Suit getSuit() {
         return this.suit;
     }
@@ -136,24 +185,16 @@ public class Card {
         return this.rank;
     }
 
-    public boolean isFaceUp() {
-        return this.isFaceUp;
-    }
-
     /**
      * @return a String representation of this Card
      */
     public String toString() {
-        if(this.isFaceUp) {
-            return this.suit.toString() + this.rank.toString();
-        } else {
-            return FACE_DOWN_REPRESENTATION;
-        }
+        return this.suit.toString() + this.rank.toString();
     }
 
 
     public static void main(String[] args) {
-        Card testCard = new Card(Suit.CLUBS, Rank.TEN, true);
+        Card testCard = Card.get(Suit.CLUBS, Rank.TEN);
 
         System.out.println(testCard);
     }
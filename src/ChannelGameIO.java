@@ -0,0 +1,221 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A GameIO talking to a player over a non-blocking TCP connection, with a plain-text
+ * line protocol in UTF-8. Every message is sent as one or more lines. When the table
+ * waits for an answer, the pending question is sent as a single line starting with
+ * PROMPT_PREFIX, and the player answers with a single line.
+ *
+ * The table thread only queues lines: the bytes are read and written by the network
+ * thread of the BlackjackServer, when the connection's selection key is ready.
+ *
+ * @author Dany Houde
+ */
+public class ChannelGameIO implements GameIO, Closeable {
+
+    // Marks the lines which expect an answer
+    public static final String PROMPT_PREFIX = "? ";
+
+    // Queued after the last line received, once the connection is closed
+    private static final String END_OF_STREAM = new String();
+
+    private final SelectionKey key;
+    private final SocketChannel channel;
+
+    // Lines received from the player, waiting to be read by the table
+    private final BlockingQueue<String> inboundLines;
+
+    // Encoded lines waiting to be written to the player
+    private final Queue<ByteBuffer> outboundBytes;
+
+    // Text printed since the last line, sent along with the next line or prompt
+    private final StringBuilder pendingText;
+
+    // Holds the bytes of an incomplete line; null while no line is being received
+    private ByteBuffer readBuffer;
+
+    // Set once the table is done with the connection, which closes once its lines are written
+    private volatile boolean isClosing;
+
+
+    /**
+     * Construct a new ChannelGameIO over the provided connection.
+     * @param aKey the selection key of the connection, registered for reading
+     */
+    public ChannelGameIO(SelectionKey aKey) {
+        this.key = aKey;
+        this.channel = (SocketChannel) aKey.channel();
+        this.inboundLines = new LinkedBlockingQueue<String>();
+        this.outboundBytes = new ConcurrentLinkedQueue<ByteBuffer>();
+        this.pendingText = new StringBuilder();
+    }
+
+    @Override
+    public void print(String text) {
+        this.pendingText.append(text);
+    }
+
+    @Override
+    public void println(String text) {
+        this.pendingText.append(text);
+        this.send(this.pendingText.append('\n').toString());
+        this.pendingText.setLength(0);
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        this.send(PROMPT_PREFIX + this.pendingText.toString().replace('\n', ' ') + '\n');
+        this.pendingText.setLength(0);
+
+        try {
+            String line = this.inboundLines.take();
+            if(END_OF_STREAM == line) {
+                // Leave the marker for any later read
+                this.inboundLines.add(END_OF_STREAM);
+                return null;
+            }
+
+            return line;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(Strings.CONNECTION_CLOSED);
+        }
+    }
+
+
+    /**
+     * Queue text to be written to the player by the network thread.
+     * @param text the text to send
+     */
+    private void send(String text) {
+        if(!this.key.isValid()) {
+            return;
+        }
+
+        this.outboundBytes.add(StandardCharsets.UTF_8.encode(text));
+        this.requestWrite();
+    }
+
+
+    /**
+     * Have the network thread write the queued lines as soon as the connection is ready.
+     */
+    private void requestWrite() {
+        try {
+            this.setWriteInterest(true);
+            this.key.selector().wakeup();
+        } catch (CancelledKeyException cke) {
+            // The connection was closed in the meantime
+        }
+    }
+
+
+    /**
+     * Add or remove the write readiness from the events the network thread waits for.
+     * Both the table and the network threads update it, hence the lock.
+     * @param isInterested true to be notified when the connection can be written to
+     */
+    private synchronized void setWriteInterest(boolean isInterested) {
+        if(isInterested) {
+            this.key.interestOps(this.key.interestOps() | SelectionKey.OP_WRITE);
+        } else {
+            this.key.interestOps(this.key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+    }
+
+
+    /**
+     * Close the connection once the queued lines are written.
+     */
+    @Override
+    public void close() {
+        this.isClosing = true;
+        this.requestWrite();
+    }
+
+
+    /**
+     * Read the bytes available on the connection, and queue every complete line for
+     * the table. Only called by the network thread.
+     * @param pool the pool to borrow the read buffer from
+     * @return false if the connection was closed by the player, or sent too long a line
+     * @throws IOException if the connection cannot be read
+     */
+    boolean onReadable(ByteBufferPool pool) throws IOException {
+        if(null == this.readBuffer) {
+            this.readBuffer = pool.acquire();
+        }
+
+        if(this.channel.read(this.readBuffer) < 0 || !LineFramer.frame(this.readBuffer, this.inboundLines)) {
+            return false;
+        }
+
+        // Idle connections do not hold on to a buffer
+        if(this.readBuffer.position() == 0) {
+            pool.release(this.readBuffer);
+            this.readBuffer = null;
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Write as many queued bytes as the connection accepts. Only called by the network thread.
+     * @return false if the table is done with the connection and every line was written
+     * @throws IOException if the connection cannot be written to
+     */
+    boolean onWritable() throws IOException {
+        ByteBuffer bytes;
+        while(null != (bytes = this.outboundBytes.peek())) {
+            this.channel.write(bytes);
+            if(bytes.hasRemaining()) {
+                return true;
+            }
+            this.outboundBytes.poll();
+        }
+
+        this.setWriteInterest(false);
+        if(!this.outboundBytes.isEmpty()) {
+            // Lines were queued while the interest was being removed
+            this.setWriteInterest(true);
+            return true;
+        }
+
+        return !this.isClosing;
+    }
+
+
+    /**
+     * Close the connection, and wake up the table if it waits for an answer.
+     * Only called by the network thread.
+     * @param pool the pool to return the read buffer to
+     */
+    void closeChannel(ByteBufferPool pool) {
+        this.key.cancel();
+        try {
+            this.channel.close();
+        } catch (IOException ioe) {
+            // The connection is gone either way
+        }
+
+        if(null != this.readBuffer) {
+            pool.release(this.readBuffer);
+            this.readBuffer = null;
+        }
+
+        this.outboundBytes.clear();
+        this.inboundLines.add(END_OF_STREAM);
+    }
+}
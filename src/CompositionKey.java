@@ -0,0 +1,33 @@
+/**
+ * A cache key made of a hand state and a packed shoe composition, used to
+ * memoize probability and expected value computations.
+ *
+ * @author Dany Houde
+ */
+final class CompositionKey {
+
+    private final long packedComposition;
+
+    // Whatever describes the hand, packed into an int by the caller
+    private final int handState;
+
+    CompositionKey(long aPackedComposition, int aHandState) {
+        this.packedComposition = aPackedComposition;
+        this.handState = aHandState;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(!(o instanceof CompositionKey)) {
+            return false;
+        }
+
+        CompositionKey other = (CompositionKey) o;
+        return this.packedComposition == other.packedComposition && this.handState == other.handState;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.packedComposition * 31 + this.handState);
+    }
+}
@@ -0,0 +1,46 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/**
+ * A GameIO reading from and writing to the system console. A single reader is
+ * shared by every question, so no input typed ahead is lost between questions.
+ *
+ * @author Dany Houde
+ */
+public class ConsoleGameIO implements GameIO {
+
+    private static final ConsoleGameIO INSTANCE = new ConsoleGameIO();
+
+    private final BufferedReader reader;
+
+
+    private ConsoleGameIO() {
+        this.reader = new BufferedReader(new InputStreamReader(System.in));
+    }
+
+
+    /**
+     * @return the GameIO of the system console
+     */
+    public static ConsoleGameIO getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void print(String text) {
+        System.out.print(text);
+    }
+
+    @Override
+    public void println(String text) {
+        System.out.println(text);
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        synchronized(this.reader) {
+            return this.reader.readLine();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * A PlayerStrategy which asks a person for every decision, on the system console
+ * or on any other GameIO such as a network connection.
+ *
+ * @author Dany Houde
+ */
+public class ConsolePlayerStrategy implements PlayerStrategy {
+
+    // The channel the questions are asked on
+    private final GameIO io;
+
+
+    /**
+     * Construct a new ConsolePlayerStrategy asking its questions on the system console.
+     */
+    public ConsolePlayerStrategy() {
+        this(ConsoleGameIO.getInstance());
+    }
+
+
+    /**
+     * Construct a new ConsolePlayerStrategy asking its questions on the provided channel.
+     * @param anIO the channel to ask the questions on
+     */
+    public ConsolePlayerStrategy(GameIO anIO) {
+        this.io = anIO;
+    }
+
+
+    @Override
+    public long getBetAmount(Player p, long minBet, long maxBet) {
+        // People bet whole units, within the limits rounded inwards
+        int lowestBet = (int) Math.min(Integer.MAX_VALUE,
+                Money.toWholeUnits(minBet + Money.MINOR_UNITS_PER_WHOLE_UNIT - 1));
+        int highestBet = (int) Math.min(Integer.MAX_VALUE, Money.toWholeUnits(maxBet));
+
+        return Money.ofWholeUnits(IOUtil.askIntegerInRangeQuestion(this.io, p, Strings.ENTER_BET_AMOUNT_PROMPT,
+                lowestBet, highestBet));
+    }
+
+    @Override
+    public boolean wantsToSurrender(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        char answer = IOUtil.askBinaryQuestion(this.io, p,
+               Strings.WANT_TO_SURRENDER_PROMPT + "\n\t" +
+                aPlayerHand.toString() + "\n", 'y', 'n');
+
+        return (answer == 'y');
+    }
+
+    @Override
+    public boolean wantsToSplit(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        char answer = IOUtil.askBinaryQuestion(this.io, p,
+               Strings.WANT_TO_SPLIT_PROMPT + "\n\t" +
+                aPlayerHand.toString() + "\n", 'y', 'n');
+
+        return (answer == 'y');
+    }
+
+    @Override
+    public boolean wantsToDoubleDown(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        char answer = IOUtil.askBinaryQuestion(this.io, p,
+               Strings.WANT_TO_DOUBLE_DOWN_PROMPT + "\n\t" +
+                aPlayerHand.toString() + "\n", 'y', 'n');
+
+        return (answer == 'y');
+    }
+
+    @Override
+    public boolean wantsToHit(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        char answer = IOUtil.askBinaryQuestion(this.io, p,
+               Strings.WANT_TO_HIT_OR_STAND_PROMPT + "\n\t" +
+                aPlayerHand.toString() + "\n", 'h', 's');
+
+        return (answer == 'h');
+    }
+}
@@ -0,0 +1,248 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes the exact probability distribution of the dealer's final total,
+ * given his up card and the composition of the cards left to draw from.
+ * The dealer follows the same rule as in BlackjackGame: he draws until his
+ * hand is worth at least 17, and either stands on or hits a soft 17.
+ *
+ * Compositions are arrays of card counts indexed by pip value, the ace
+ * being 1 and all tens, jacks, queens and kings being 10; index 0 is unused.
+ * Every intermediate dealer hand reached during a computation is memoized,
+ * keyed by the hand and the composition, so repeated queries during a shoe
+ * only cost a few hash lookups. The calculator is thread-safe.
+ *
+ * The composition must hold enough cards for the dealer to finish every hand
+ * he may draw, as a shoe is reshuffled before it runs out in BlackjackGame.
+ * A dealer left short of 17 has no final total among the outcomes, so
+ * compositions which run out first are rejected.
+ *
+ * @author Dany Houde
+ */
+public class DealerOutcomeCalculator {
+
+    // Indexes of the outcomes in the returned distributions
+    public static final int FINAL_17 = 0;
+    public static final int FINAL_18 = 1;
+    public static final int FINAL_19 = 2;
+    public static final int FINAL_20 = 3;
+    public static final int FINAL_21 = 4;
+    public static final int BUST = 5;
+    public static final int NUM_OUTCOMES = 6;
+
+    // The lowest final total of the dealer
+    private static final int MIN_FINAL_TOTAL = 17;
+
+    // Size of composition arrays: one count per pip value, plus unused index 0
+    public static final int COMPOSITION_SIZE = 11;
+
+    private static final int ACE = 1;
+    private static final int TEN = 10;
+
+    // Bits used per pip value when packing a composition into a long. Tens
+    // get more bits since there are four times as many of them.
+    private static final int BITS_PER_COUNT = 6;
+    private static final int BITS_PER_TEN_COUNT = 8;
+    private static final int MAX_COUNT = (1 << BITS_PER_COUNT) - 1;
+    private static final int MAX_TEN_COUNT = (1 << BITS_PER_TEN_COUNT) - 1;
+
+    // The most decks whose compositions can be packed: a deck holds four cards
+    // of each pip value but the ten, and sixteen tens
+    public static final int MAX_NUMBER_OF_DECKS = Math.min(MAX_COUNT / 4, MAX_TEN_COUNT / 16);
+
+    // Whether the dealer hits a soft 17
+    private final boolean dealerHitsSoft17;
+
+    // Memoized distributions, keyed by dealer hand and composition
+    private final Map<CompositionKey, double[]> outcomeCache;
+
+
+    /**
+     * Construct a new DealerOutcomeCalculator for a dealer standing on soft 17.
+     */
+    public DealerOutcomeCalculator() {
+        this(false);
+    }
+
+
+    /**
+     * Construct a new DealerOutcomeCalculator.
+     * @param hitsSoft17 true if the dealer hits a soft 17, false if he stands on it
+     */
+    public DealerOutcomeCalculator(boolean hitsSoft17) {
+        this.dealerHitsSoft17 = hitsSoft17;
+        this.outcomeCache = new ConcurrentHashMap<CompositionKey, double[]>();
+    }
+
+
+    /**
+     * Returns the probability distribution of the dealer's final total.
+     * @param upCardPipValue the pip value of the dealer's up card, the ace being 1
+     * @param composition the number of cards of each pip value left to draw
+     * @param excludeNatural true to only consider the cases where the dealer does not
+     *                       have a natural, as is known once players get to play
+     * @return the probabilities of finishing on 17, 18, 19, 20, 21 and of going bust,
+     * indexed by the FINAL_* and BUST constants. The returned array must not be modified.
+     * @throws IllegalArgumentException if the composition cannot be packed, or if it
+     * runs out of cards before some dealer hand is final
+     */
+    public double[] getFinalTotalProbabilities(int upCardPipValue, int[] composition, boolean excludeNatural) {
+        int[] counts = composition.clone();
+        long packedComposition = packComposition(counts);
+
+        return this.getOutcomes(upCardPipValue, ACE == upCardPipValue, true, excludeNatural, counts, packedComposition);
+    }
+
+
+    /**
+     * Returns the probability distribution of the dealer's final total, for callers
+     * which already hold the composition in packed form.
+     * @param upCardPipValue the pip value of the dealer's up card, the ace being 1
+     * @param counts the number of cards of each pip value left to draw; restored on return
+     * @param packedComposition the counts, as packed by packComposition()
+     * @param excludeNatural true to only consider the cases where the dealer does not have a natural
+     * @return the distribution of the dealer's final total, which must not be modified
+     * @throws IllegalArgumentException if the composition runs out of cards before some dealer hand is final
+     */
+    double[] getFinalTotalProbabilities(int upCardPipValue, int[] counts, long packedComposition,
+                                        boolean excludeNatural) {
+        return this.getOutcomes(upCardPipValue, ACE == upCardPipValue, true, excludeNatural, counts, packedComposition);
+    }
+
+
+    /**
+     * Forget every memoized distribution.
+     */
+    public void clear() {
+        this.outcomeCache.clear();
+    }
+
+
+    /**
+     * Returns the distribution of the final total for the provided dealer hand,
+     * from the cache if possible.
+     * @param hardTotal the hand's value when aces are worth 1
+     * @param hasAce whether the hand holds an ace
+     * @param onlyUpCard whether the hand only holds the up card so far
+     * @param excludeNatural whether the cases where the dealer gets a natural are excluded
+     * @param counts the number of cards of each pip value left to draw; restored on return
+     * @param packedComposition the counts, packed into a long
+     * @return the distribution of the dealer's final total
+     */
+    private double[] getOutcomes(int hardTotal, boolean hasAce, boolean onlyUpCard, boolean excludeNatural,
+                                 int[] counts, long packedComposition) {
+        // Whether naturals are excluded only matters when drawing the hole card
+        boolean naturalsExcluded = onlyUpCard && excludeNatural;
+        int handState = hardTotal << 3 | (hasAce ? 4 : 0) | (onlyUpCard ? 2 : 0) | (naturalsExcluded ? 1 : 0);
+        CompositionKey key = new CompositionKey(packedComposition, handState);
+
+        double[] outcomes = this.outcomeCache.get(key);
+        if(null == outcomes) {
+            outcomes = this.computeOutcomes(hardTotal, hasAce, onlyUpCard, naturalsExcluded, counts, packedComposition);
+            this.outcomeCache.putIfAbsent(key, outcomes);
+        }
+
+        return outcomes;
+    }
+
+
+    /**
+     * Computes the distribution of the final total for the provided dealer hand,
+     * by drawing every possible card in turn.
+     */
+    private double[] computeOutcomes(int hardTotal, boolean hasAce, boolean onlyUpCard, boolean naturalsExcluded,
+                                     int[] counts, long packedComposition) {
+        double[] outcomes = new double[NUM_OUTCOMES];
+
+        if(hardTotal > BlackjackGame.BLACKJACK_NUMBER) {
+            outcomes[BUST] = 1.0;
+            return outcomes;
+        }
+
+        boolean isSoft = hasAce && hardTotal <= 11;
+        int value = isSoft ? hardTotal + 10 : hardTotal;
+        if(!onlyUpCard && !BlackjackGame.dealerMustHit(value, isSoft, this.dealerHitsSoft17)) {
+            outcomes[value - MIN_FINAL_TOTAL] = 1.0;
+            return outcomes;
+        }
+
+        int numberOfCards = 0;
+        for(int pipValue=ACE; pipValue<=TEN; pipValue++) {
+            if(naturalsExcluded && completesNatural(hardTotal, pipValue)) {
+                continue;
+            }
+            numberOfCards += counts[pipValue];
+        }
+
+        if(0 == numberOfCards) {
+            // The dealer would be stuck short of a final total
+            throw new IllegalArgumentException(Strings.COMPOSITION_EXHAUSTED);
+        }
+
+        for(int pipValue=ACE; pipValue<=TEN; pipValue++) {
+            int count = counts[pipValue];
+            if(0 == count || (naturalsExcluded && completesNatural(hardTotal, pipValue))) {
+                continue;
+            }
+
+            double drawProbability = (double) count / numberOfCards;
+
+            counts[pipValue]--;
+            double[] drawOutcomes = this.getOutcomes(hardTotal + pipValue, hasAce || ACE == pipValue, false, false,
+                    counts, packedComposition - countUnit(pipValue));
+            counts[pipValue]++;
+
+            for(int i=0; i<NUM_OUTCOMES; i++) {
+                outcomes[i] += drawProbability * drawOutcomes[i];
+            }
+        }
+
+        return outcomes;
+    }
+
+
+    /**
+     * @param upCardPipValue the pip value of the dealer's up card
+     * @param holeCardPipValue the pip value of the dealer's hole card
+     * @return true if the two cards make a natural
+     */
+    private static boolean completesNatural(int upCardPipValue, int holeCardPipValue) {
+        return (ACE == upCardPipValue && TEN == holeCardPipValue) ||
+                (TEN == upCardPipValue && ACE == holeCardPipValue);
+    }
+
+
+    /**
+     * @param pipValue a pip value
+     * @return the amount by which one card of the provided pip value changes a packed composition
+     */
+    static long countUnit(int pipValue) {
+        return 1L << ((pipValue - 1) * BITS_PER_COUNT);
+    }
+
+
+    /**
+     * Pack the provided composition into a long.
+     * @param counts the number of cards of each pip value
+     * @return the packed composition
+     * @throws IllegalArgumentException if a count does not fit in the packed representation
+     */
+    static long packComposition(int[] counts) {
+        if(counts.length != COMPOSITION_SIZE) {
+            throw new IllegalArgumentException(Strings.INVALID_COMPOSITION);
+        }
+
+        long packedComposition = 0;
+        for(int pipValue=ACE; pipValue<=TEN; pipValue++) {
+            int maxCount = (TEN == pipValue) ? MAX_TEN_COUNT : MAX_COUNT;
+            if(counts[pipValue] < 0 || counts[pipValue] > maxCount) {
+                throw new IllegalArgumentException(Strings.INVALID_COMPOSITION);
+            }
+
+            packedComposition += counts[pipValue] * countUnit(pipValue);
+        }
+
+        return packedComposition;
+    }
+}
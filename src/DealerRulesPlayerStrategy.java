@@ -0,0 +1,47 @@
+/**
+ * A simple automated PlayerStrategy which always bets the same amount and
+ * plays like the dealer: it never surrenders, splits or doubles down, and hits until
+ * the hand is worth 17 or more.
+ *
+ * @author Dany Houde
+ */
+public class DealerRulesPlayerStrategy implements PlayerStrategy {
+
+    private static final int STAND_THRESHOLD = 17;
+
+    // The amount bet every round, in minor units, capped by the table limits
+    private final long betAmount;
+
+    /**
+     * Construct a new DealerRulesPlayerStrategy betting the specified amount every round.
+     * @param aBetAmount the amount to bet every round, in whole units
+     */
+    public DealerRulesPlayerStrategy(int aBetAmount) {
+        this.betAmount = Money.ofWholeUnits(aBetAmount);
+    }
+
+    @Override
+    public long getBetAmount(Player p, long minBet, long maxBet) {
+        return Math.max(minBet, Math.min(this.betAmount, maxBet));
+    }
+
+    @Override
+    public boolean wantsToSurrender(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        return false;
+    }
+
+    @Override
+    public boolean wantsToSplit(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        return false;
+    }
+
+    @Override
+    public boolean wantsToDoubleDown(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        return false;
+    }
+
+    @Override
+    public boolean wantsToHit(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        return aPlayerHand.getValue() < STAND_THRESHOLD;
+    }
+}
@@ -1,8 +1,10 @@
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
- * A utility class to spawn decks of cards.
+ * A utility class to spawn decks of cards. Since cards are immutable and
+ * shared, every Deck holds the same 52 Card instances.
  *
  * @author Dany Houde
  */
@@ -11,25 +13,30 @@ public class Deck {
     // A constant indicating how many cards are in Decks spawned by this class
     private static final int DECK_SIZE = Card.Rank.values().length * Card.Suit.values().length;
 
+    // The shared Deck instance
+    private static final Deck DECK = new Deck();
+
     // The list of Cards in this Deck
-    private List<Card> cards;
+    private final List<Card> cards;
 
     /**
      * Build a new Deck of cards
      */
     private Deck() {
-        this.cards = new ArrayList<>(DECK_SIZE);
+        List<Card> deckCards = new ArrayList<>(DECK_SIZE);
 
         for(Card.Rank r : Card.Rank.values()) {
             for(Card.Suit s : Card.Suit.values()) {
-                this.cards.add(new Card(s, r, false));
+                deckCards.add(Card.get(s, r));
             }
         }
+
+        this.cards = Collections.unmodifiableList(deckCards);
     }
 
 
     /**
-     * @return the list of Cards in this Deck
+     * @return the unmodifiable list of Cards in this Deck
      */
     public List<Card> getCards() {
         return this.cards;
@@ -44,11 +51,11 @@ public class Deck {
     }
 
     /**
-     * Returns a new Deck of cards to the caller.
-     * @return a new Deck of cards
+     * Returns a Deck of cards to the caller.
+     * @return a Deck of cards
      */
     public static Deck getNewDeck() {
-        return new Deck();
+        return DECK;
     }
 }
 
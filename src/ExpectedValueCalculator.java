@@ -0,0 +1,525 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the expected value of standing, hitting, doubling down and splitting
+ * a player hand, given the dealer's up card and the composition of the cards
+ * left to draw. Values are expressed in units of the hand's wager.
+ *
+ * The composition holds every card the player and the dealer may still draw,
+ * the dealer's hole card included: the player's cards and the dealer's up card
+ * must already have been removed from it, as computeTable() does. The dealer is
+ * known not to have a natural, so hole cards completing one are never drawn,
+ * and the player's own draws are weighted accordingly: against an ace or a ten,
+ * the card which would have completed the natural is a little more likely to
+ * come. The values of standing, hitting and doubling down are exact.
+ *
+ * The computation follows the rules of BlackjackGame:
+ * - players only get to play when the dealer does not have a natural;
+ * - a natural pays the configured natural payout factor, while a two-card 21
+ *   on a split hand is an ordinary 21;
+ * - a double down gets exactly one more card;
+ * - hands split from aces get one card each and no further play;
+ * - other split hands may only be doubled down when doubling after a split is allowed;
+ * - splits are only offered while the configured maximum number of splits has
+ *   not been reached, and aces are only split again when the rules allow it.
+ * The value of a split is an approximation: every split hand draws from the
+ * same composition, and is split again whenever it may be. Surrender is not valued.
+ *
+ * Intermediate results are memoized by hand and composition in maps shared by
+ * all threads. computeTable() spreads the cells of a full strategy table over
+ * a fork/join pool.
+ *
+ * @author Dany Houde
+ */
+public class ExpectedValueCalculator {
+
+    private static final int ACE = 1;
+    private static final int TEN = 10;
+
+    private final DealerOutcomeCalculator dealerOutcomeCalculator;
+
+    private final int maxNumberOfSplits;
+
+    private final double naturalPayoutFactor;
+
+    private final boolean isDoubleAfterSplitAllowed;
+
+    private final boolean isResplitAcesAllowed;
+
+    // Memoized expected values of hitting and then playing on optimally
+    private final Map<CompositionKey, Double> hitValueCache;
+
+
+    /**
+     * Construct a new ExpectedValueCalculator.
+     * @param aDealerOutcomeCalculator the calculator providing the dealer's final total distributions
+     * @param theMaxNumberOfSplits the maximum number of times a player is allowed to split
+     * @param aNaturalPayoutFactor the payout factor for a natural
+     */
+    public ExpectedValueCalculator(DealerOutcomeCalculator aDealerOutcomeCalculator,
+                                   int theMaxNumberOfSplits, double aNaturalPayoutFactor) {
+        this(aDealerOutcomeCalculator, theMaxNumberOfSplits, aNaturalPayoutFactor, true);
+    }
+
+
+    /**
+     * Construct a new ExpectedValueCalculator following the rules of the provided config.
+     * The dealer outcome calculator must follow the same soft 17 rule as the config.
+     * @param aDealerOutcomeCalculator the calculator providing the dealer's final total distributions
+     * @param aConfig the game parameters and rule variants
+     */
+    public ExpectedValueCalculator(DealerOutcomeCalculator aDealerOutcomeCalculator, GameConfig aConfig) {
+        this(aDealerOutcomeCalculator, aConfig.getMaxNumberOfSplits(), aConfig.getNaturalPayoutFactor(),
+                aConfig.isDoubleAfterSplitAllowed(), aConfig.isResplitAcesAllowed());
+    }
+
+
+    /**
+     * Construct a new ExpectedValueCalculator.
+     * @param aDealerOutcomeCalculator the calculator providing the dealer's final total distributions
+     * @param theMaxNumberOfSplits the maximum number of times a player is allowed to split
+     * @param aNaturalPayoutFactor the payout factor for a natural
+     * @param doubleAfterSplit whether split hands may be doubled down
+     */
+    public ExpectedValueCalculator(DealerOutcomeCalculator aDealerOutcomeCalculator,
+                                   int theMaxNumberOfSplits, double aNaturalPayoutFactor,
+                                   boolean doubleAfterSplit) {
+        this(aDealerOutcomeCalculator, theMaxNumberOfSplits, aNaturalPayoutFactor, doubleAfterSplit,
+                GameConfig.DEFAULT_RESPLIT_ACES);
+    }
+
+
+    /**
+     * Construct a new ExpectedValueCalculator.
+     * @param aDealerOutcomeCalculator the calculator providing the dealer's final total distributions
+     * @param theMaxNumberOfSplits the maximum number of times a player is allowed to split
+     * @param aNaturalPayoutFactor the payout factor for a natural
+     * @param doubleAfterSplit whether split hands may be doubled down
+     * @param resplitAces whether hands split from aces may be split again
+     */
+    public ExpectedValueCalculator(DealerOutcomeCalculator aDealerOutcomeCalculator,
+                                   int theMaxNumberOfSplits, double aNaturalPayoutFactor,
+                                   boolean doubleAfterSplit, boolean resplitAces) {
+        this.dealerOutcomeCalculator = aDealerOutcomeCalculator;
+        this.maxNumberOfSplits = theMaxNumberOfSplits;
+        this.naturalPayoutFactor = aNaturalPayoutFactor;
+        this.isDoubleAfterSplitAllowed = doubleAfterSplit;
+        this.isResplitAcesAllowed = resplitAces;
+        this.hitValueCache = new ConcurrentHashMap<CompositionKey, Double>();
+    }
+
+
+    /**
+     * Computes the expected value of every legal action on the provided hand.
+     * @param aPlayerHand the hand to play
+     * @param dealerUpCard the dealer's face up card
+     * @param composition the number of cards of each pip value left to draw, once the
+     *                    player's cards and the dealer's up card have been removed;
+     *                    the dealer's hole card is drawn from it
+     * @param numberOfSplitsDone how many times the player already split this round
+     * @return the expected value of each action
+     * @throws IllegalArgumentException if the composition runs out of cards before
+     * the dealer is done, see DealerOutcomeCalculator
+     */
+    public ExpectedValues computeExpectedValues(PlayerHand aPlayerHand, Card dealerUpCard,
+                                                int[] composition, int numberOfSplitsDone) {
+        int[] counts = composition.clone();
+        long packedComposition = DealerOutcomeCalculator.packComposition(counts);
+        int upCard = dealerUpCard.getPipValue();
+
+        int hardTotal = aPlayerHand.getHardTotal();
+        boolean hasAce = aPlayerHand.hasAce();
+
+        if(aPlayerHand.isBust()) {
+            return new ExpectedValues(-1.0, Double.NaN, Double.NaN, Double.NaN);
+        }
+
+        if(aPlayerHand.cameFromSplitAces()) {
+            // No play after split aces, but for splitting them again
+            double standValue = this.getStandValue(aPlayerHand.getValue(), upCard, counts, packedComposition);
+            double splitValue = Double.NaN;
+            if(this.isResplitAcesAllowed && numberOfSplitsDone < this.maxNumberOfSplits &&
+                    aPlayerHand.canBeSplit(Integer.MAX_VALUE)) {
+                splitValue = this.getSplitValue(ACE, upCard, counts, packedComposition,
+                        this.maxNumberOfSplits - numberOfSplitsDone - 1);
+            }
+            return new ExpectedValues(standValue, Double.NaN, Double.NaN, splitValue);
+        }
+
+        if(aPlayerHand.isNatural()) {
+            return new ExpectedValues(this.naturalPayoutFactor, Double.NaN, Double.NaN, Double.NaN);
+        }
+
+        double standValue = this.getStandValue(aPlayerHand.getValue(), upCard, counts, packedComposition);
+        if(aPlayerHand.getValue() == BlackjackGame.BLACKJACK_NUMBER) {
+            // The game stops asking once a hand is worth 21
+            return new ExpectedValues(standValue, Double.NaN, Double.NaN, Double.NaN);
+        }
+
+        double hitValue = this.getHitValue(hardTotal, hasAce, upCard, counts, packedComposition);
+
+        double doubleDownValue = Double.NaN;
+        if(2 == aPlayerHand.getNumCards() && (this.isDoubleAfterSplitAllowed || !aPlayerHand.isFromSplit())) {
+            doubleDownValue = this.getDoubleDownValue(hardTotal, hasAce, upCard, counts, packedComposition);
+        }
+
+        double splitValue = Double.NaN;
+        if(numberOfSplitsDone < this.maxNumberOfSplits && aPlayerHand.canBeSplit(Integer.MAX_VALUE)) {
+            splitValue = this.getSplitValue(aPlayerHand.getCard(0).getPipValue(), upCard, counts, packedComposition,
+                    this.maxNumberOfSplits - numberOfSplitsDone - 1);
+        }
+
+        return new ExpectedValues(standValue, hitValue, doubleDownValue, splitValue);
+    }
+
+
+    /**
+     * Computes the expected values of every two-card starting hand against every
+     * dealer up card, drawing from the provided composition. The cells of the table
+     * are computed in parallel on the provided pool.
+     * @param composition the number of cards of each pip value in the shoe, before
+     *                    the player and dealer cards are dealt
+     * @param pool the fork/join pool to compute the table on
+     * @return the expected values indexed by first card pip value, second card pip value
+     * and dealer up card pip value, the ace being 1. Cells which cannot be dealt from
+     * the composition, and cells whose first card is higher than the second, are null.
+     */
+    public ExpectedValues[][][] computeTable(final int[] composition, ForkJoinPool pool) {
+        final ExpectedValues[][][] table = new ExpectedValues[TEN + 1][TEN + 1][TEN + 1];
+
+        final List<RecursiveAction> cellTasks = new ArrayList<RecursiveAction>();
+        for(int first=ACE; first<=TEN; first++) {
+            for(int second=first; second<=TEN; second++) {
+                for(int upCard=ACE; upCard<=TEN; upCard++) {
+                    final int firstCard = first;
+                    final int secondCard = second;
+                    final int dealerUpCard = upCard;
+
+                    cellTasks.add(new RecursiveAction() {
+                        @Override
+                        protected void compute() {
+                            table[firstCard][secondCard][dealerUpCard] =
+                                    computeCell(firstCard, secondCard, dealerUpCard, composition);
+                        }
+                    });
+                }
+            }
+        }
+
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(cellTasks);
+            }
+        });
+
+        return table;
+    }
+
+
+    /**
+     * Computes the expected values of one cell of a strategy table.
+     * @return the expected values, or null if the cards cannot be dealt from the composition
+     */
+    private ExpectedValues computeCell(int firstCard, int secondCard, int upCard, int[] composition) {
+        int[] counts = composition.clone();
+        counts[firstCard]--;
+        counts[secondCard]--;
+        counts[upCard]--;
+
+        if(counts[firstCard] < 0 || counts[secondCard] < 0 || counts[upCard] < 0) {
+            return null;
+        }
+
+        PlayerHand hand = new PlayerHand();
+        hand.addCard(anyCardOfPipValue(firstCard));
+        hand.addCard(anyCardOfPipValue(secondCard));
+
+        return this.computeExpectedValues(hand, anyCardOfPipValue(upCard), counts, 0);
+    }
+
+
+    /**
+     * Forget every memoized value.
+     */
+    public void clear() {
+        this.hitValueCache.clear();
+        this.dealerOutcomeCalculator.clear();
+    }
+
+
+    /**
+     * Expected value of standing on the provided value.
+     */
+    private double getStandValue(int playerValue, int upCard, int[] counts, long packedComposition) {
+        double[] dealerOutcomes = this.dealerOutcomeCalculator.getFinalTotalProbabilities(upCard, counts,
+                packedComposition, true);
+
+        double value = dealerOutcomes[DealerOutcomeCalculator.BUST];
+        for(int i=DealerOutcomeCalculator.FINAL_17; i<=DealerOutcomeCalculator.FINAL_21; i++) {
+            int dealerTotal = BlackjackGame.DEALER_THRESHOLD + i;
+            if(playerValue > dealerTotal) {
+                value += dealerOutcomes[i];
+            } else if(playerValue < dealerTotal) {
+                value -= dealerOutcomes[i];
+            }
+        }
+
+        return value;
+    }
+
+
+    /**
+     * Expected value of the best play among standing and hitting, once the hand
+     * has been dealt a card.
+     */
+    private double getBestValue(int hardTotal, boolean hasAce, int upCard, int[] counts, long packedComposition) {
+        if(hardTotal > BlackjackGame.BLACKJACK_NUMBER) {
+            return -1.0;
+        }
+
+        int value = handValue(hardTotal, hasAce);
+        double standValue = this.getStandValue(value, upCard, counts, packedComposition);
+        if(value == BlackjackGame.BLACKJACK_NUMBER) {
+            return standValue;
+        }
+
+        return Math.max(standValue, this.getHitValue(hardTotal, hasAce, upCard, counts, packedComposition));
+    }
+
+
+    /**
+     * Expected value of hitting once, then playing on optimally.
+     */
+    private double getHitValue(int hardTotal, boolean hasAce, int upCard, int[] counts, long packedComposition) {
+        int handState = hardTotal << 5 | (hasAce ? 16 : 0) | upCard;
+        CompositionKey key = new CompositionKey(packedComposition, handState);
+
+        Double cachedValue = this.hitValueCache.get(key);
+        if(null != cachedValue) {
+            return cachedValue;
+        }
+
+        int numberOfCards = countCards(counts);
+        double value;
+        if(numberOfCards <= 1) {
+            // Only the dealer's hole card is left
+            value = this.getStandValue(handValue(hardTotal, hasAce), upCard, counts, packedComposition);
+        } else {
+            value = 0.0;
+            for(int pipValue=ACE; pipValue<=TEN; pipValue++) {
+                if(0 == counts[pipValue]) {
+                    continue;
+                }
+
+                double drawProbability = drawProbability(pipValue, upCard, counts, numberOfCards);
+                counts[pipValue]--;
+                value += drawProbability * this.getBestValue(hardTotal + pipValue,
+                        hasAce || ACE == pipValue, upCard, counts,
+                        packedComposition - DealerOutcomeCalculator.countUnit(pipValue));
+                counts[pipValue]++;
+            }
+        }
+
+        this.hitValueCache.putIfAbsent(key, value);
+        return value;
+    }
+
+
+    /**
+     * Expected value of doubling down: the wager is doubled and exactly one more card is dealt.
+     */
+    private double getDoubleDownValue(int hardTotal, boolean hasAce, int upCard, int[] counts, long packedComposition) {
+        int numberOfCards = countCards(counts);
+        double value = 0.0;
+
+        for(int pipValue=ACE; pipValue<=TEN; pipValue++) {
+            if(0 == counts[pipValue]) {
+                continue;
+            }
+
+            double drawProbability = drawProbability(pipValue, upCard, counts, numberOfCards);
+            int newHardTotal = hardTotal + pipValue;
+            double cardValue = -1.0;
+            if(newHardTotal <= BlackjackGame.BLACKJACK_NUMBER) {
+                counts[pipValue]--;
+                cardValue = this.getStandValue(handValue(newHardTotal, hasAce || ACE == pipValue), upCard,
+                        counts, packedComposition - DealerOutcomeCalculator.countUnit(pipValue));
+                counts[pipValue]++;
+            }
+
+            value += drawProbability * cardValue;
+        }
+
+        return 2.0 * value;
+    }
+
+
+    /**
+     * Expected value of splitting a pair of the provided pip value, for all the
+     * resulting hands together. Every split hand draws its second card from the
+     * provided composition, and is split again when it pairs up and may be.
+     * @param numberOfResplits how many more times the hands may be split
+     */
+    private double getSplitValue(int pairPipValue, int upCard, int[] counts, long packedComposition,
+                                 int numberOfResplits) {
+        int numberOfCards = countCards(counts);
+
+        // The value of a hand whose second card does not pair it up, weighted by
+        // the probability of drawing such a card, and the value of a hand which
+        // pairs up but cannot be split again
+        double otherCardsValue = 0.0;
+        double pairValue = 0.0;
+        double pairProbability = 0.0;
+        for(int pipValue=ACE; pipValue<=TEN; pipValue++) {
+            if(0 == counts[pipValue]) {
+                continue;
+            }
+
+            double drawProbability = drawProbability(pipValue, upCard, counts, numberOfCards);
+            int hardTotal = pairPipValue + pipValue;
+            boolean hasAce = ACE == pairPipValue || ACE == pipValue;
+            boolean isTwentyOne = handValue(hardTotal, hasAce) == BlackjackGame.BLACKJACK_NUMBER;
+
+            counts[pipValue]--;
+            long drawnComposition = packedComposition - DealerOutcomeCalculator.countUnit(pipValue);
+
+            double cardValue;
+            if(ACE == pairPipValue || isTwentyOne) {
+                // No play after split aces, nor once a split hand is worth 21
+                cardValue = this.getStandValue(handValue(hardTotal, hasAce), upCard, counts, drawnComposition);
+            } else {
+                cardValue = this.getBestValue(hardTotal, hasAce, upCard, counts, drawnComposition);
+                if(this.isDoubleAfterSplitAllowed) {
+                    cardValue = Math.max(cardValue,
+                            this.getDoubleDownValue(hardTotal, hasAce, upCard, counts, drawnComposition));
+                }
+            }
+            counts[pipValue]++;
+
+            if(pipValue == pairPipValue) {
+                pairValue = cardValue;
+                pairProbability = drawProbability;
+            } else {
+                otherCardsValue += drawProbability * cardValue;
+            }
+        }
+
+        if(ACE == pairPipValue && !this.isResplitAcesAllowed) {
+            numberOfResplits = 0;
+        }
+
+        // handsValue[r][n] is the value of n hands still waiting for their second
+        // card, when they may be split r more times
+        int maxNumberOfHands = numberOfResplits + 2;
+        double[][] handsValue = new double[numberOfResplits + 1][maxNumberOfHands + 1];
+        for(int n=1; n<=maxNumberOfHands; n++) {
+            handsValue[0][n] = n * (otherCardsValue + pairProbability * pairValue);
+        }
+        for(int r=1; r<=numberOfResplits; r++) {
+            for(int n=1; n<=maxNumberOfHands-r; n++) {
+                handsValue[r][n] = otherCardsValue + (1.0 - pairProbability) * handsValue[r][n - 1] +
+                        pairProbability * handsValue[r - 1][n + 1];
+            }
+        }
+
+        return handsValue[numberOfResplits][2];
+    }
+
+
+    /**
+     * Probability that the player draws a card of the provided pip value next. The
+     * dealer's hole card is still among the counts, and is known not to complete a
+     * natural: against an ace or a ten, the player is thus a little more likely to
+     * draw the card which would have completed it, and a little less likely to draw
+     * any other card.
+     * @param pipValue the pip value of the card drawn
+     * @param upCard the pip value of the dealer's up card
+     * @param counts the number of cards of each pip value left to draw, the hole card included
+     * @param numberOfCards the total number of cards left to draw, at least 2
+     * @return the probability of drawing the card
+     */
+    private static double drawProbability(int pipValue, int upCard, int[] counts, int numberOfCards) {
+        int naturalPipValue = ACE == upCard ? TEN : (TEN == upCard ? ACE : 0);
+        if(0 == naturalPipValue) {
+            return (double) counts[pipValue] / numberOfCards;
+        }
+
+        // Average the draw over the possible hole cards, which exclude the natural's
+        int possibleHoleCards = numberOfCards - counts[naturalPipValue];
+        int otherHoleCards = pipValue == naturalPipValue ? possibleHoleCards : possibleHoleCards - 1;
+        return (double) counts[pipValue] * otherHoleCards / ((double) possibleHoleCards * (numberOfCards - 1));
+    }
+
+
+    /**
+     * @return the value of a hand with the provided hard total and ace flag
+     */
+    private static int handValue(int hardTotal, boolean hasAce) {
+        return (hasAce && hardTotal <= 11) ? hardTotal + 10 : hardTotal;
+    }
+
+
+    /**
+     * @return the total number of cards in the provided composition
+     */
+    private static int countCards(int[] counts) {
+        int numberOfCards = 0;
+        for(int pipValue=ACE; pipValue<=TEN; pipValue++) {
+            numberOfCards += counts[pipValue];
+        }
+
+        return numberOfCards;
+    }
+
+
+    /**
+     * Command line entry method. Prints the best action for every two-card starting
+     * hand against every dealer up card, from a full shoe.
+     *
+     * @param args a String array whose first element is the path to the config file
+     */
+    public static void main(String[] args) {
+
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(args[0]));
+
+        ExpectedValueCalculator calculator = new ExpectedValueCalculator(
+                new DealerOutcomeCalculator(config.dealerHitsSoft17()), config);
+
+        long startTime = System.nanoTime();
+        ExpectedValues[][][] table = calculator.computeTable(new Shoe(config.getNumberOfDecks()).getComposition(),
+                ForkJoinPool.commonPool());
+        long elapsedMillis = (System.nanoTime() - startTime) / 1000000;
+
+        for(int first=ACE; first<=TEN; first++) {
+            for(int second=first; second<=TEN; second++) {
+                StringBuilder row = new StringBuilder();
+                row.append(first).append(',').append(second).append('\t');
+
+                for(int upCard : new int[] { 2, 3, 4, 5, 6, 7, 8, 9, 10, 1 }) {
+                    ExpectedValues values = table[first][second][upCard];
+                    row.append(' ');
+                    row.append(null == values ? "-" : values.getBestAction().name().substring(0, 2));
+                }
+
+                System.out.println(row);
+            }
+        }
+
+        System.out.println("Elapsed time: " + elapsedMillis + " ms");
+    }
+
+
+    /**
+     * @return a card of the provided pip value, the ace being 1
+     */
+    private static Card anyCardOfPipValue(int pipValue) {
+        Card.Rank rank = (ACE == pipValue) ? Card.Rank.ACE : Card.Rank.values()[pipValue - 2];
+        return Card.get(Card.Suit.SPADES, rank);
+    }
+}
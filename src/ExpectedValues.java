@@ -0,0 +1,84 @@
+/**
+ * The expected value of each action available on a player hand, in units of
+ * the hand's wager. Actions which are not allowed on the hand have a NaN value.
+ *
+ * @author Dany Houde
+ */
+public class ExpectedValues {
+
+    public enum Action { STAND, HIT, DOUBLE_DOWN, SPLIT }
+
+    private final double stand;
+    private final double hit;
+    private final double doubleDown;
+    private final double split;
+
+
+    /**
+     * Construct a new ExpectedValues.
+     * @param standValue the expected value of standing
+     * @param hitValue the expected value of hitting, or NaN if not allowed
+     * @param doubleDownValue the expected value of doubling down, or NaN if not allowed
+     * @param splitValue the expected value of splitting, or NaN if not allowed
+     */
+    public ExpectedValues(double standValue, double hitValue, double doubleDownValue, double splitValue) {
+        this.stand = standValue;
+        this.hit = hitValue;
+        this.doubleDown = doubleDownValue;
+        this.split = splitValue;
+    }
+
+
+    /**
+     * @param anAction an action
+     * @return the expected value of the action, or NaN if it is not allowed
+     */
+    public double getValue(Action anAction) {
+        switch(anAction) {
+            case STAND:
+                return this.stand;
+            case HIT:
+                return this.hit;
+            case DOUBLE_DOWN:
+                return this.doubleDown;
+            case SPLIT:
+                return this.split;
+            default:
+                return Double.NaN;
+        }
+    }
+
+
+    /**
+     * @return the allowed action with the highest expected value
+     */
+    public Action getBestAction() {
+        Action bestAction = Action.STAND;
+
+        for(Action a : Action.values()) {
+            // Comparisons with NaN are always false, so actions which are not allowed are skipped
+            if(this.getValue(a) > this.getValue(bestAction)) {
+                bestAction = a;
+            }
+        }
+
+        return bestAction;
+    }
+
+
+    /**
+     * @return the expected value of the best allowed action
+     */
+    public double getBestValue() {
+        return this.getValue(this.getBestAction());
+    }
+
+
+    /**
+     * @return a String representation of these ExpectedValues
+     */
+    public String toString() {
+        return String.format("Stand: %+.4f\tHit: %+.4f\tDouble: %+.4f\tSplit: %+.4f",
+                this.stand, this.hit, this.doubleDown, this.split);
+    }
+}
@@ -0,0 +1,537 @@
+import java.util.Properties;
+
+/**
+ * The immutable set of parameters and rule variants of a Blackjack game.
+ *
+ * A GameConfig is either parsed from the properties of a configuration file
+ * with fromProperties(), or put together in code with a Builder, which starts
+ * from the same defaults as the configuration file. Every value is validated
+ * when the GameConfig is built, and a GameConfig holds no other state, so a
+ * single instance can be shared by any number of games and threads.
+ *
+ * @author Dany Houde
+ */
+public final class GameConfig {
+
+    // Defaults for the rule variants, matching the original game rules
+    public static final boolean DEFAULT_DEALER_HITS_SOFT_17 = false;
+    public static final boolean DEFAULT_DOUBLE_AFTER_SPLIT = true;
+    public static final boolean DEFAULT_LATE_SURRENDER = false;
+    public static final boolean DEFAULT_RESPLIT_ACES = true;
+    public static final boolean DEFAULT_CONTINUOUS_SHUFFLER = false;
+
+    // The basic strategy file used when none is named
+    public static final String DEFAULT_BASIC_STRATEGY_FILE_NAME = "BasicStrategy.cfg";
+
+    // The natural payout factor must be a ratio whose denominator does not exceed this
+    private static final int MAX_NATURAL_PAYOUT_DENOMINATOR = 1000;
+
+    // How far a natural payout factor may be from its ratio, to absorb decimal rounding
+    private static final double NATURAL_PAYOUT_TOLERANCE = 1e-9;
+
+    // Table parameters
+    private final int minNumberOfPlayers;
+    private final int maxNumberOfPlayers;
+    private final int numberOfDecks;
+    private final int minBet;
+    private final int maxNumberOfSplits;
+    private final int startingCashBalance;
+    private final double naturalPayoutFactor;
+    private final int naturalPayoutNumerator;
+    private final int naturalPayoutDenominator;
+    private final int numberOfBots;
+    private final String basicStrategyFileName;
+
+    // Rule variants
+    private final boolean dealerHitsSoft17;
+    private final boolean isDoubleAfterSplitAllowed;
+    private final boolean isLateSurrenderAllowed;
+    private final boolean isResplitAcesAllowed;
+
+    // The fraction of the shoe dealt before it is reshuffled
+    private final double penetration;
+
+    // Whether the penetration was left to its default for the number of decks
+    private final boolean isDefaultPenetration;
+
+    // Whether the shoe is a continuous shuffling machine, in which case the penetration is unused
+    private final boolean isContinuousShuffler;
+
+
+    /**
+     * Construct a new GameConfig from a Builder whose values have been validated.
+     * @param aBuilder the builder holding the values
+     * @param theNaturalPayoutDenominator the denominator of the natural payout factor,
+     *                                    as found by naturalPayoutDenominator()
+     */
+    private GameConfig(Builder aBuilder, int theNaturalPayoutDenominator) {
+        this.minNumberOfPlayers = aBuilder.minNumberOfPlayers;
+        this.maxNumberOfPlayers = aBuilder.maxNumberOfPlayers;
+        this.numberOfDecks = aBuilder.numberOfDecks;
+        this.minBet = aBuilder.minBet;
+        this.maxNumberOfSplits = aBuilder.maxNumberOfSplits;
+        this.startingCashBalance = aBuilder.startingCashBalance;
+        this.naturalPayoutFactor = aBuilder.naturalPayoutFactor;
+        this.naturalPayoutDenominator = theNaturalPayoutDenominator;
+        this.naturalPayoutNumerator = (int) Math.round(aBuilder.naturalPayoutFactor * this.naturalPayoutDenominator);
+        this.numberOfBots = aBuilder.numberOfBots;
+        this.basicStrategyFileName = aBuilder.basicStrategyFileName;
+        this.dealerHitsSoft17 = aBuilder.dealerHitsSoft17;
+        this.isDoubleAfterSplitAllowed = aBuilder.isDoubleAfterSplitAllowed;
+        this.isLateSurrenderAllowed = aBuilder.isLateSurrenderAllowed;
+        this.isResplitAcesAllowed = aBuilder.isResplitAcesAllowed;
+        this.isDefaultPenetration = Double.isNaN(aBuilder.penetration);
+        this.penetration = this.isDefaultPenetration ?
+                Shoe.getDefaultPenetration(aBuilder.numberOfDecks) : aBuilder.penetration;
+        this.isContinuousShuffler = aBuilder.isContinuousShuffler;
+    }
+
+
+    /**
+     * Parse a GameConfig from the properties of a configuration file. The table
+     * parameters are required; the number of bots, the basic strategy file and
+     * the rule variants are optional and fall back on their defaults.
+     * @param configProperties the game parameters, as read from a configuration file
+     * @return the parsed GameConfig
+     * @throws IllegalArgumentException if a required value is missing, or if a value is invalid
+     */
+    public static GameConfig fromProperties(Properties configProperties) {
+        Builder builder = new Builder();
+
+        builder.minNumberOfPlayers(parseInt(configProperties, Strings.CONFIG_MIN_PLAYERS_KEY, null));
+        builder.maxNumberOfPlayers(parseInt(configProperties, Strings.CONFIG_MAX_PLAYERS_KEY, null));
+        builder.numberOfDecks(parseInt(configProperties, Strings.CONFIG_NUM_DECKS_KEY, null));
+        builder.minBet(parseInt(configProperties, Strings.CONFIG_MIN_BET_KEY, null));
+        builder.maxNumberOfSplits(parseInt(configProperties, Strings.CONFIG_MAX_SPLITS_KEY, null));
+        builder.startingCashBalance(parseInt(configProperties, Strings.CONFIG_STARTING_CASH_KEY, null));
+        builder.naturalPayoutFactor(parseDouble(configProperties, Strings.CONFIG_NATURAL_PAYOUT_FACTOR_KEY, null));
+        builder.numberOfBots(parseInt(configProperties, Strings.CONFIG_NUM_BOTS_KEY, 0));
+        builder.basicStrategyFileName(configProperties.getProperty(Strings.CONFIG_BASIC_STRATEGY_FILE_KEY,
+                DEFAULT_BASIC_STRATEGY_FILE_NAME).trim());
+
+        builder.dealerHitsSoft17(parseBoolean(configProperties, Strings.CONFIG_DEALER_HITS_SOFT_17_KEY,
+                DEFAULT_DEALER_HITS_SOFT_17));
+        builder.doubleAfterSplit(parseBoolean(configProperties, Strings.CONFIG_DOUBLE_AFTER_SPLIT_KEY,
+                DEFAULT_DOUBLE_AFTER_SPLIT));
+        builder.lateSurrender(parseBoolean(configProperties, Strings.CONFIG_LATE_SURRENDER_KEY,
+                DEFAULT_LATE_SURRENDER));
+        builder.resplitAces(parseBoolean(configProperties, Strings.CONFIG_RESPLIT_ACES_KEY,
+                DEFAULT_RESPLIT_ACES));
+        builder.continuousShuffler(parseBoolean(configProperties, Strings.CONFIG_CONTINUOUS_SHUFFLER_KEY,
+                DEFAULT_CONTINUOUS_SHUFFLER));
+
+        if(null != configProperties.getProperty(Strings.CONFIG_PENETRATION_KEY)) {
+            builder.penetration(parseDouble(configProperties, Strings.CONFIG_PENETRATION_KEY, null));
+        }
+
+        return builder.build();
+    }
+
+
+    /**
+     * A penetration left to its default stays unset, so that it follows the number
+     * of decks of the variant.
+     * @return a Builder holding the values of this GameConfig, to derive a variant from it
+     */
+    public Builder toBuilder() {
+        return new Builder()
+                .minNumberOfPlayers(this.minNumberOfPlayers)
+                .maxNumberOfPlayers(this.maxNumberOfPlayers)
+                .numberOfDecks(this.numberOfDecks)
+                .minBet(this.minBet)
+                .maxNumberOfSplits(this.maxNumberOfSplits)
+                .startingCashBalance(this.startingCashBalance)
+                .naturalPayoutFactor(this.naturalPayoutFactor)
+                .numberOfBots(this.numberOfBots)
+                .basicStrategyFileName(this.basicStrategyFileName)
+                .dealerHitsSoft17(this.dealerHitsSoft17)
+                .doubleAfterSplit(this.isDoubleAfterSplitAllowed)
+                .lateSurrender(this.isLateSurrenderAllowed)
+                .resplitAces(this.isResplitAcesAllowed)
+                .penetration(this.isDefaultPenetration ? Double.NaN : this.penetration)
+                .continuousShuffler(this.isContinuousShuffler);
+    }
+
+
+    /**
+     * @param configProperties the game parameters
+     * @param key the key of the value to parse
+     * @param defaultValue the value used when the key is missing, or null if the key is required
+     * @return the parsed value
+     */
+    private static int parseInt(Properties configProperties, String key, Integer defaultValue) {
+        String value = getValue(configProperties, key, defaultValue);
+        if(null == value) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException(Strings.INVALID_CONFIG_VALUE + key, nfe);
+        }
+    }
+
+
+    /**
+     * @param configProperties the game parameters
+     * @param key the key of the value to parse
+     * @param defaultValue the value used when the key is missing, or null if the key is required
+     * @return the parsed value
+     */
+    private static double parseDouble(Properties configProperties, String key, Double defaultValue) {
+        String value = getValue(configProperties, key, defaultValue);
+        if(null == value) {
+            return defaultValue;
+        }
+
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException(Strings.INVALID_CONFIG_VALUE + key, nfe);
+        }
+    }
+
+
+    /**
+     * @param configProperties the game parameters
+     * @param key the key of the value to parse
+     * @param defaultValue the value used when the key is missing
+     * @return the parsed value
+     */
+    private static boolean parseBoolean(Properties configProperties, String key, boolean defaultValue) {
+        String value = getValue(configProperties, key, defaultValue);
+        if(null == value) {
+            return defaultValue;
+        }
+
+        if("true".equalsIgnoreCase(value)) {
+            return true;
+        } else if("false".equalsIgnoreCase(value)) {
+            return false;
+        }
+
+        throw new IllegalArgumentException(Strings.INVALID_CONFIG_VALUE + key);
+    }
+
+
+    /**
+     * @param configProperties the game parameters
+     * @param key the key of the value to look up
+     * @param defaultValue the value used when the key is missing, or null if the key is required
+     * @return the trimmed value, or null if it is missing and has a default value
+     * @throws IllegalArgumentException if the value is missing and has no default value
+     */
+    private static String getValue(Properties configProperties, String key, Object defaultValue) {
+        String value = configProperties.getProperty(key);
+        if(null == value) {
+            if(null == defaultValue) {
+                throw new IllegalArgumentException(Strings.MISSING_CONFIG_VALUE + key);
+            }
+            return null;
+        }
+
+        return value.trim();
+    }
+
+
+    public int getMinNumberOfPlayers() {
+        return this.minNumberOfPlayers;
+    }
+
+    public int getMaxNumberOfPlayers() {
+        return this.maxNumberOfPlayers;
+    }
+
+    public int getNumberOfDecks() {
+        return this.numberOfDecks;
+    }
+
+    /**
+     * @return the lowest bet, in whole units; see Money for the minor units bets are made in
+     */
+    public int getMinBet() {
+        return this.minBet;
+    }
+
+    public int getMaxNumberOfSplits() {
+        return this.maxNumberOfSplits;
+    }
+
+    /**
+     * @return the cash every player starts with, in whole units
+     */
+    public int getStartingCashBalance() {
+        return this.startingCashBalance;
+    }
+
+    public double getNaturalPayoutFactor() {
+        return this.naturalPayoutFactor;
+    }
+
+    /**
+     * @return what a natural pays for every getNaturalPayoutDenominator() units bet, e.g. 3 for 3:2
+     */
+    public int getNaturalPayoutNumerator() {
+        return this.naturalPayoutNumerator;
+    }
+
+    /**
+     * @return the number of units bet for which a natural pays getNaturalPayoutNumerator(), e.g. 2 for 3:2
+     */
+    public int getNaturalPayoutDenominator() {
+        return this.naturalPayoutDenominator;
+    }
+
+    public int getNumberOfBots() {
+        return this.numberOfBots;
+    }
+
+    public String getBasicStrategyFileName() {
+        return this.basicStrategyFileName;
+    }
+
+    /**
+     * @return true if the dealer hits a soft 17, false if he stands on it
+     */
+    public boolean dealerHitsSoft17() {
+        return this.dealerHitsSoft17;
+    }
+
+    /**
+     * @return true if players may double down on hands resulting from a split
+     */
+    public boolean isDoubleAfterSplitAllowed() {
+        return this.isDoubleAfterSplitAllowed;
+    }
+
+    /**
+     * @return true if players may surrender their first two cards for half their
+     * wager, once the dealer has checked for a natural
+     */
+    public boolean isLateSurrenderAllowed() {
+        return this.isLateSurrenderAllowed;
+    }
+
+    /**
+     * @return true if players may split again a pair of aces dealt on split aces
+     */
+    public boolean isResplitAcesAllowed() {
+        return this.isResplitAcesAllowed;
+    }
+
+    /**
+     * @return the fraction of the shoe dealt before it is reshuffled; 0 reshuffles after every round
+     */
+    public double getPenetration() {
+        return this.penetration;
+    }
+
+    /**
+     * @return true if the shoe is a continuous shuffling machine, which deals a random
+     * card among those left every time and is never reshuffled
+     */
+    public boolean isContinuousShuffler() {
+        return this.isContinuousShuffler;
+    }
+
+
+    /**
+     * @return a String representation of this GameConfig
+     */
+    public String toString() {
+        StringBuilder returnString = new StringBuilder();
+
+        returnString.append(this.numberOfDecks);
+        returnString.append(" decks, ");
+        returnString.append(this.dealerHitsSoft17 ? "H17" : "S17");
+        returnString.append(this.isDoubleAfterSplitAllowed ? ", DAS" : ", no DAS");
+        returnString.append(this.isLateSurrenderAllowed ? ", late surrender" : ", no surrender");
+        returnString.append(this.isResplitAcesAllowed ? ", RSA" : ", no RSA");
+        returnString.append(", max splits ");
+        returnString.append(this.maxNumberOfSplits);
+        if(this.isContinuousShuffler) {
+            returnString.append(", CSM");
+        } else {
+            returnString.append(", penetration ");
+            returnString.append(this.penetration);
+        }
+        returnString.append(", natural pays ");
+        returnString.append(this.naturalPayoutNumerator);
+        returnString.append(':');
+        returnString.append(this.naturalPayoutDenominator);
+
+        return returnString.toString();
+    }
+
+
+    /**
+     * Find the ratio a natural payout factor stands for, so that naturals can be
+     * paid exactly, e.g. 1.5 for 3:2 or 1.2 for 6:5.
+     * @param aNaturalPayoutFactor the payout factor for a natural, not negative
+     * @return the smallest denominator of a ratio equal to the factor, or 0 if
+     * the factor is not such a ratio
+     */
+    private static int naturalPayoutDenominator(double aNaturalPayoutFactor) {
+        if(!(aNaturalPayoutFactor < Integer.MAX_VALUE / MAX_NATURAL_PAYOUT_DENOMINATOR)) {
+            return 0;
+        }
+
+        for(int denominator=1; denominator<=MAX_NATURAL_PAYOUT_DENOMINATOR; denominator++) {
+            double numerator = aNaturalPayoutFactor * denominator;
+            if(Math.abs(numerator - Math.rint(numerator)) <= NATURAL_PAYOUT_TOLERANCE * denominator) {
+                return denominator;
+            }
+        }
+
+        return 0;
+    }
+
+
+    /**
+     * Builds GameConfig instances in code. A new Builder starts from the values
+     * of the shipped configuration file and the default rule variants.
+     */
+    public static final class Builder {
+
+        private int minNumberOfPlayers = 2;
+        private int maxNumberOfPlayers = 7;
+        private int numberOfDecks = 6;
+        private int minBet = 1;
+        private int maxNumberOfSplits = 4;
+        private int startingCashBalance = 1000;
+        private double naturalPayoutFactor = 1.5;
+        private int numberOfBots = 0;
+        private String basicStrategyFileName = DEFAULT_BASIC_STRATEGY_FILE_NAME;
+
+        private boolean dealerHitsSoft17 = DEFAULT_DEALER_HITS_SOFT_17;
+        private boolean isDoubleAfterSplitAllowed = DEFAULT_DOUBLE_AFTER_SPLIT;
+        private boolean isLateSurrenderAllowed = DEFAULT_LATE_SURRENDER;
+        private boolean isResplitAcesAllowed = DEFAULT_RESPLIT_ACES;
+
+        // NaN until set, in which case the default penetration for the number of decks is used
+        private double penetration = Double.NaN;
+
+        private boolean isContinuousShuffler = DEFAULT_CONTINUOUS_SHUFFLER;
+
+        public Builder minNumberOfPlayers(int aMinNumberOfPlayers) {
+            this.minNumberOfPlayers = aMinNumberOfPlayers;
+            return this;
+        }
+
+        public Builder maxNumberOfPlayers(int aMaxNumberOfPlayers) {
+            this.maxNumberOfPlayers = aMaxNumberOfPlayers;
+            return this;
+        }
+
+        /**
+         * @param aNumberOfDecks the number of decks in the shoe, from 1 to
+         *                       DealerOutcomeCalculator.MAX_NUMBER_OF_DECKS
+         * @return this Builder
+         */
+        public Builder numberOfDecks(int aNumberOfDecks) {
+            this.numberOfDecks = aNumberOfDecks;
+            return this;
+        }
+
+        public Builder minBet(int aMinBet) {
+            this.minBet = aMinBet;
+            return this;
+        }
+
+        public Builder maxNumberOfSplits(int aMaxNumberOfSplits) {
+            this.maxNumberOfSplits = aMaxNumberOfSplits;
+            return this;
+        }
+
+        public Builder startingCashBalance(int aStartingCashBalance) {
+            this.startingCashBalance = aStartingCashBalance;
+            return this;
+        }
+
+        public Builder naturalPayoutFactor(double aNaturalPayoutFactor) {
+            this.naturalPayoutFactor = aNaturalPayoutFactor;
+            return this;
+        }
+
+        public Builder numberOfBots(int aNumberOfBots) {
+            this.numberOfBots = aNumberOfBots;
+            return this;
+        }
+
+        public Builder basicStrategyFileName(String aFileName) {
+            this.basicStrategyFileName = aFileName;
+            return this;
+        }
+
+        public Builder dealerHitsSoft17(boolean hitsSoft17) {
+            this.dealerHitsSoft17 = hitsSoft17;
+            return this;
+        }
+
+        public Builder doubleAfterSplit(boolean isAllowed) {
+            this.isDoubleAfterSplitAllowed = isAllowed;
+            return this;
+        }
+
+        public Builder lateSurrender(boolean isAllowed) {
+            this.isLateSurrenderAllowed = isAllowed;
+            return this;
+        }
+
+        public Builder resplitAces(boolean isAllowed) {
+            this.isResplitAcesAllowed = isAllowed;
+            return this;
+        }
+
+        /**
+         * @param aPenetration the fraction of the shoe dealt before it is reshuffled,
+         *                     from 0 inclusive to 1 exclusive
+         * @return this Builder
+         */
+        public Builder penetration(double aPenetration) {
+            this.penetration = aPenetration;
+            return this;
+        }
+
+        public Builder continuousShuffler(boolean isContinuous) {
+            this.isContinuousShuffler = isContinuous;
+            return this;
+        }
+
+        /**
+         * @return a new GameConfig holding this Builder's values
+         * @throws IllegalArgumentException if a value is invalid
+         */
+        public GameConfig build() {
+            check(this.minNumberOfPlayers >= 1, Strings.CONFIG_MIN_PLAYERS_KEY);
+            check(this.maxNumberOfPlayers >= this.minNumberOfPlayers, Strings.CONFIG_MAX_PLAYERS_KEY);
+            check(this.numberOfDecks >= 1 && this.numberOfDecks <= DealerOutcomeCalculator.MAX_NUMBER_OF_DECKS,
+                    Strings.CONFIG_NUM_DECKS_KEY);
+            check(this.minBet >= 1, Strings.CONFIG_MIN_BET_KEY);
+            check(this.maxNumberOfSplits >= 0, Strings.CONFIG_MAX_SPLITS_KEY);
+            check(this.startingCashBalance >= 0, Strings.CONFIG_STARTING_CASH_KEY);
+            int naturalPayoutDenominator = naturalPayoutDenominator(this.naturalPayoutFactor);
+            check(this.naturalPayoutFactor >= 0.0 && naturalPayoutDenominator > 0,
+                    Strings.CONFIG_NATURAL_PAYOUT_FACTOR_KEY);
+            check(this.numberOfBots >= 0, Strings.CONFIG_NUM_BOTS_KEY);
+            check(null != this.basicStrategyFileName && !this.basicStrategyFileName.isEmpty(),
+                    Strings.CONFIG_BASIC_STRATEGY_FILE_KEY);
+            check(Double.isNaN(this.penetration) || (this.penetration >= 0.0 && this.penetration < 1.0),
+                    Strings.CONFIG_PENETRATION_KEY);
+
+            return new GameConfig(this, naturalPayoutDenominator);
+        }
+
+        /**
+         * @param isValid whether the value is valid
+         * @param key the config key of the value
+         * @throws IllegalArgumentException if the value is invalid
+         */
+        private static void check(boolean isValid, String key) {
+            if(!isValid) {
+                throw new IllegalArgumentException(Strings.INVALID_CONFIG_VALUE + key);
+            }
+        }
+    }
+}
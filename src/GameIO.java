@@ -0,0 +1,32 @@
+import java.io.IOException;
+
+/**
+ * A text channel between a Blackjack table and the person playing at it, such as
+ * the system console or a network connection. Every message and question of the
+ * game goes through a GameIO, usually by way of the IOUtil methods.
+ *
+ * @author Dany Houde
+ */
+public interface GameIO {
+
+    /**
+     * Display the provided text, without moving to a new line.
+     * @param text the text to display
+     */
+    void print(String text);
+
+    /**
+     * Display the provided text and move to a new line.
+     * @param text the text to display
+     */
+    void println(String text);
+
+    /**
+     * Read one line of input from the person at the other end. Any text printed
+     * since the last line is treated as the prompt of this input.
+     * @return the line read, without its line terminator, or null if the
+     * input has been closed
+     * @throws IOException if the line could not be read
+     */
+    String readLine() throws IOException;
+}
@@ -0,0 +1,271 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters and per-phase latency histograms of the rounds played by one or more
+ * games, published over JMX so that live tables and simulations can be watched
+ * from JConsole or Mission Control.
+ *
+ * Any number of games, on any number of threads, can record to the same
+ * GameMetrics. Recording neither locks nor allocates, so that it can stay on in
+ * production; only reading the rates synchronizes, on the JMX side.
+ *
+ * @author Dany Houde
+ */
+public class GameMetrics implements GameMetricsMXBean {
+
+    /**
+     * The timed phases of a round.
+     */
+    public enum Phase { TAKE_BETS, DEAL_FIRST_TWO_CARDS, PLAYERS_PLAY, DEALER_PLAY, SETTLEMENT, RESHUFFLE }
+
+    public static final String JMX_DOMAIN = "DHBlackjack";
+
+    // The rates are computed over at least that long, however often they are read
+    private static final long MIN_RATE_SAMPLE_NANOS = 1000000000L;
+
+    private final LatencyHistogram[] phaseLatencies;
+
+    private final LongAdder roundsPlayed;
+    private final LongAdder handsPlayed;
+    private final LongAdder splits;
+    private final LongAdder doubleDowns;
+    private final LongAdder naturals;
+    private final LongAdder busts;
+
+    // The last rate sample: when it was taken, the counts at that time, and the rates
+    private long rateSampleNanos;
+    private long rateSampleRounds;
+    private long rateSampleHands;
+    private double roundsPerSecond;
+    private double handsPerSecond;
+
+
+    /**
+     * Construct a new GameMetrics, with every counter at zero.
+     */
+    public GameMetrics() {
+        this.phaseLatencies = new LatencyHistogram[Phase.values().length];
+        for(int i=0; i<this.phaseLatencies.length; i++) {
+            this.phaseLatencies[i] = new LatencyHistogram();
+        }
+
+        this.roundsPlayed = new LongAdder();
+        this.handsPlayed = new LongAdder();
+        this.splits = new LongAdder();
+        this.doubleDowns = new LongAdder();
+        this.naturals = new LongAdder();
+        this.busts = new LongAdder();
+
+        this.rateSampleNanos = System.nanoTime();
+    }
+
+
+    /**
+     * Publish these metrics on the platform MBean server.
+     * @param aName the name telling these metrics apart from others, e.g. "simulation"
+     * @return the name the metrics were published under
+     * @throws JMException if the metrics cannot be published under that name
+     */
+    public ObjectName register(String aName) throws JMException {
+        ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=GameMetrics,name=" + ObjectName.quote(aName));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+
+    /**
+     * Record the duration of one phase of a round.
+     * @param aPhase the phase
+     * @param startNanos the time the phase started, as returned by System.nanoTime()
+     * @return the time the phase ended, as returned by System.nanoTime()
+     */
+    public long recordPhase(Phase aPhase, long startNanos) {
+        long endNanos = System.nanoTime();
+        this.phaseLatencies[aPhase.ordinal()].record(endNanos - startNanos);
+        return endNanos;
+    }
+
+
+    /**
+     * Count a settled round, and the hands, splits, double downs, naturals and busts in it.
+     * @param aRoundResult the ledger of the round
+     */
+    public void recordRound(RoundResult aRoundResult) {
+        int numberOfHands = aRoundResult.getNumberOfHands();
+        int numberOfSeats = 0;
+        int numberOfDoubleDowns = 0;
+        int numberOfNaturals = 0;
+        int numberOfBusts = 0;
+
+        for(int seat=0; seat<aRoundResult.getNumberOfSeats(); seat++) {
+            if(aRoundResult.isSeatPlaying(seat)) {
+                numberOfSeats++;
+            }
+        }
+        for(int hi=0; hi<numberOfHands; hi++) {
+            if(aRoundResult.isHandDoubleDown(hi)) {
+                numberOfDoubleDowns++;
+            }
+            RoundResult.Outcome outcome = aRoundResult.getHandOutcome(hi);
+            if(outcome == RoundResult.Outcome.NATURAL) {
+                numberOfNaturals++;
+            } else if(outcome == RoundResult.Outcome.BUST) {
+                numberOfBusts++;
+            }
+        }
+
+        // Every split adds one hand to the seat's first hand. Most rounds have
+        // no split, double down, natural or bust, so zeros are not added.
+        this.roundsPlayed.increment();
+        this.handsPlayed.add(numberOfHands);
+        addIfNotZero(this.splits, numberOfHands - numberOfSeats);
+        addIfNotZero(this.doubleDowns, numberOfDoubleDowns);
+        addIfNotZero(this.naturals, numberOfNaturals);
+        addIfNotZero(this.busts, numberOfBusts);
+    }
+
+
+    /**
+     * Add a value to a counter, skipping the atomic update when there is nothing to add.
+     */
+    private static void addIfNotZero(LongAdder counter, int value) {
+        if(value != 0) {
+            counter.add(value);
+        }
+    }
+
+
+    /**
+     * @param aPhase a phase of the round
+     * @return the histogram of the durations of that phase
+     */
+    public LatencyHistogram getPhaseLatency(Phase aPhase) {
+        return this.phaseLatencies[aPhase.ordinal()];
+    }
+
+
+    @Override
+    public long getRoundsPlayed() {
+        return this.roundsPlayed.sum();
+    }
+
+    @Override
+    public long getHandsPlayed() {
+        return this.handsPlayed.sum();
+    }
+
+    @Override
+    public long getSplits() {
+        return this.splits.sum();
+    }
+
+    @Override
+    public long getDoubleDowns() {
+        return this.doubleDowns.sum();
+    }
+
+    @Override
+    public long getNaturals() {
+        return this.naturals.sum();
+    }
+
+    @Override
+    public long getBusts() {
+        return this.busts.sum();
+    }
+
+    @Override
+    public long getReshuffles() {
+        // Every reshuffle is timed
+        return this.getPhaseLatency(Phase.RESHUFFLE).getCount();
+    }
+
+    @Override
+    public synchronized double getRoundsPerSecond() {
+        this.sampleRates();
+        return this.roundsPerSecond;
+    }
+
+    @Override
+    public synchronized double getHandsPerSecond() {
+        this.sampleRates();
+        return this.handsPerSecond;
+    }
+
+
+    /**
+     * Compute the rates since the previous sample, unless it was taken too recently.
+     * Only called while holding the lock of this GameMetrics.
+     */
+    private void sampleRates() {
+        long now = System.nanoTime();
+        long elapsedNanos = now - this.rateSampleNanos;
+        if(elapsedNanos < MIN_RATE_SAMPLE_NANOS) {
+            return;
+        }
+
+        long rounds = this.roundsPlayed.sum();
+        long hands = this.handsPlayed.sum();
+        this.roundsPerSecond = (rounds - this.rateSampleRounds) * 1e9 / elapsedNanos;
+        this.handsPerSecond = (hands - this.rateSampleHands) * 1e9 / elapsedNanos;
+
+        this.rateSampleNanos = now;
+        this.rateSampleRounds = rounds;
+        this.rateSampleHands = hands;
+    }
+
+
+    @Override
+    public PhaseLatency getTakeBetsLatency() {
+        return this.getPhaseLatency(Phase.TAKE_BETS).snapshot();
+    }
+
+    @Override
+    public PhaseLatency getDealFirstTwoCardsLatency() {
+        return this.getPhaseLatency(Phase.DEAL_FIRST_TWO_CARDS).snapshot();
+    }
+
+    @Override
+    public PhaseLatency getPlayersPlayLatency() {
+        return this.getPhaseLatency(Phase.PLAYERS_PLAY).snapshot();
+    }
+
+    @Override
+    public PhaseLatency getDealerPlayLatency() {
+        return this.getPhaseLatency(Phase.DEALER_PLAY).snapshot();
+    }
+
+    @Override
+    public PhaseLatency getSettlementLatency() {
+        return this.getPhaseLatency(Phase.SETTLEMENT).snapshot();
+    }
+
+    @Override
+    public PhaseLatency getReshuffleLatency() {
+        return this.getPhaseLatency(Phase.RESHUFFLE).snapshot();
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder returnString = new StringBuilder();
+        returnString.append("Rounds: ").append(this.getRoundsPlayed())
+                .append(", hands: ").append(this.getHandsPlayed())
+                .append(", splits: ").append(this.getSplits())
+                .append(", double downs: ").append(this.getDoubleDowns())
+                .append(", naturals: ").append(this.getNaturals())
+                .append(", busts: ").append(this.getBusts())
+                .append(", reshuffles: ").append(this.getReshuffles())
+                .append("\n");
+        for(Phase phase : Phase.values()) {
+            returnString.append(String.format("%-22s", phase + ":"))
+                    .append(this.getPhaseLatency(phase).snapshot())
+                    .append("\n");
+        }
+
+        return returnString.toString();
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * The management interface of GameMetrics, as published over JMX.
+ *
+ * @author Dany Houde
+ */
+public interface GameMetricsMXBean {
+
+    long getRoundsPlayed();
+
+    long getHandsPlayed();
+
+    long getSplits();
+
+    long getDoubleDowns();
+
+    long getNaturals();
+
+    long getBusts();
+
+    long getReshuffles();
+
+    /**
+     * @return the number of rounds played per second since the previous rate sample
+     */
+    double getRoundsPerSecond();
+
+    /**
+     * @return the number of hands played per second since the previous rate sample
+     */
+    double getHandsPerSecond();
+
+    PhaseLatency getTakeBetsLatency();
+
+    PhaseLatency getDealFirstTwoCardsLatency();
+
+    PhaseLatency getPlayersPlayLatency();
+
+    PhaseLatency getDealerPlayLatency();
+
+    PhaseLatency getSettlementLatency();
+
+    PhaseLatency getReshuffleLatency();
+}
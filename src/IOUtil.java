@@ -1,10 +1,13 @@
-import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 
 /**
  * Class providing utility methods for I/O.
  *
+ * Every method comes in two flavours: one talking to the provided GameIO, and
+ * one talking to the system console.
+ *
  * @author Dany Houde
  */
 public class IOUtil {
@@ -14,12 +17,14 @@ public class IOUtil {
      * possible single-letter answers, and the user must enter one of those two. The answers are
      * case insensitive.
      *
+     * @param io the channel to ask the question on
      * @param question the question to ask the user
      * @param answer1 the first possible answer to the question
      * @param answer2 the second possible answer to the question
      * @return answer1 or answer2, based on the user's input
+     * @throws UncheckedIOException if the channel is closed or cannot be read
      */
-    public static char askBinaryQuestion(String question, char answer1, char answer2) {
+    public static char askBinaryQuestion(GameIO io, String question, char answer1, char answer2) {
         StringBuilder questionBuilder = new StringBuilder(question);
 
         questionBuilder.append(" [");
@@ -30,26 +35,21 @@ public class IOUtil {
 
         char answer = 0;
         while(true) {
-             System.out.print(questionBuilder);
-             try {
-                BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(System.in));
-                String input = bufferedReader.readLine();
-
-                if(input.length() < 1) {
-                    System.out.println(Strings.INVALID_ANSWER);
-                    continue;
-                }
-                answer = input.charAt(0);
-                if(Character.toUpperCase(answer) != Character.toUpperCase(answer1) &&
-                        Character.toUpperCase(answer) != Character.toUpperCase(answer2)) {
-                    System.out.println(Strings.INVALID_ANSWER);
-                    continue;
-                }
-
-                break;
-            } catch (IOException e) {
-                e.printStackTrace();
+            io.print(questionBuilder.toString());
+            String input = readLine(io);
+
+            if(input.length() < 1) {
+                io.println(Strings.INVALID_ANSWER);
+                continue;
             }
+            answer = input.charAt(0);
+            if(Character.toUpperCase(answer) != Character.toUpperCase(answer1) &&
+                    Character.toUpperCase(answer) != Character.toUpperCase(answer2)) {
+                io.println(Strings.INVALID_ANSWER);
+                continue;
+            }
+
+            break;
         }
 
         if(Character.toUpperCase(answer) == Character.toUpperCase(answer1)) {
@@ -61,16 +61,27 @@ public class IOUtil {
     }
 
 
+    /**
+     * Asks the user the specified question on the system console.
+     * @see #askBinaryQuestion(GameIO, String, char, char)
+     */
+    public static char askBinaryQuestion(String question, char answer1, char answer2) {
+        return askBinaryQuestion(ConsoleGameIO.getInstance(), question, answer1, answer2);
+    }
+
+
     /**
     * Asks the specified player a question. The question has two possible single-letter answers,
     * and the player must enter one of those two. The answers are case insensitive.
     *
+    * @param io the channel to ask the question on
+    * @param aPlayer the player to direct the question to
     * @param question the question to ask the user
     * @param answer1 the first possible answer to the question
     * @param answer2 the second possible answer to the question
     * @return answer1 or answer2, based on the user's input
     */
-    public static char askBinaryQuestion(Player aPlayer, String question, char answer1, char answer2) {
+    public static char askBinaryQuestion(GameIO io, Player aPlayer, String question, char answer1, char answer2) {
         StringBuilder questionBuilder = new StringBuilder();
 
         if(null != aPlayer) {
@@ -81,50 +92,82 @@ public class IOUtil {
 
         questionBuilder.append(question);
 
-        return askBinaryQuestion(questionBuilder.toString(), answer1, answer2);
+        return askBinaryQuestion(io, questionBuilder.toString(), answer1, answer2);
+    }
+
+
+    /**
+     * Asks the specified player a question on the system console.
+     * @see #askBinaryQuestion(GameIO, Player, String, char, char)
+     */
+    public static char askBinaryQuestion(Player aPlayer, String question, char answer1, char answer2) {
+        return askBinaryQuestion(ConsoleGameIO.getInstance(), aPlayer, question, answer1, answer2);
     }
 
 
     /**
      * Pause the program and display a message to the user indicating he must
      * press Enter to continue.
+     * @param io the channel to wait on
+     */
+    public static void waitForEnterToContinue(GameIO io) {
+        io.print(Strings.PRESS_ENTER_TO_CONTINUE);
+        readLine(io);
+    }
+
+
+    /**
+     * Pause the program until the user presses Enter on the system console.
      */
     public static void waitForEnterToContinue() {
-         System.out.print(Strings.PRESS_ENTER_TO_CONTINUE);
-
-         try {
-           BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(System.in));
-            bufferedReader.readLine();
-         } catch (IOException e) {
-            e.printStackTrace(System.err);
-         }
+        waitForEnterToContinue(ConsoleGameIO.getInstance());
     }
 
 
     /**
      * Pause the program and display a message to the user indicating he must
      * press Enter to continue.
+     * @param io the channel to display the message on
      * @param message the additional message to display to the user, in addition
      *                to pressing Enter.
      */
-    public static void displayMessageAndWait(String message) {
-         System.out.println(message);
+    public static void displayMessageAndWait(GameIO io, String message) {
+        io.println(message);
+
+        waitForEnterToContinue(io);
+    }
 
-         waitForEnterToContinue();
+
+    /**
+     * Display a message on the system console and wait for the user to press Enter.
+     * @see #displayMessageAndWait(GameIO, String)
+     */
+    public static void displayMessageAndWait(String message) {
+        displayMessageAndWait(ConsoleGameIO.getInstance(), message);
     }
 
 
      /**
      * Pause the program and display a message to the specified player, indicating
      * he must press Enter to continue.
-     * @ param p the player to direct the message to
+     * @param io the channel to display the message on
+     * @param p the player to direct the message to
      * @param message the additional message to display to the user, in addition
      *                to pressing Enter.
      */
-    public static void displayMessageAndWait(Player p, String message) {
-         displayMessage(p, message);
+    public static void displayMessageAndWait(GameIO io, Player p, String message) {
+        displayMessage(io, p, message);
+
+        waitForEnterToContinue(io);
+    }
 
-         waitForEnterToContinue();
+
+    /**
+     * Display a message to the specified player on the system console and wait for Enter.
+     * @see #displayMessageAndWait(GameIO, Player, String)
+     */
+    public static void displayMessageAndWait(Player p, String message) {
+        displayMessageAndWait(ConsoleGameIO.getInstance(), p, message);
     }
 
 
@@ -132,13 +175,24 @@ public class IOUtil {
      * Display the provided message to the user and move to a new line
      * This method does not pause program execution.
      *
+     * @param io the channel to display the message on
      * @param message the message to display to the user.
      */
+    public static void displayMessage(GameIO io, String message) {
+        io.println(message);
+    }
+
+
+    /**
+     * Display the provided message on the system console.
+     * @see #displayMessage(GameIO, String)
+     */
     public static void displayMessage(String message) {
-        System.out.println(message);
+        displayMessage(ConsoleGameIO.getInstance(), message);
     }
 
-    public static void displayMessage(Player p, String message) {
+
+    public static void displayMessage(GameIO io, Player p, String message) {
         StringBuilder messageBuilder = new StringBuilder();
 
         if(null != p) {
@@ -148,7 +202,12 @@ public class IOUtil {
         }
 
         messageBuilder.append(message);
-        System.out.println(messageBuilder.toString());
+        io.println(messageBuilder.toString());
+    }
+
+
+    public static void displayMessage(Player p, String message) {
+        displayMessage(ConsoleGameIO.getInstance(), p, message);
     }
 
 
@@ -157,12 +216,14 @@ public class IOUtil {
      * the specified limits, inclusively. The user is provided with the range of acceptable
      * answers.
      *
+     * @param io the channel to ask the question on
      * @param question the question asked to the user
      * @param lowerLimit the lowest possible acceptable answer
      * @param upperLimit the highest possible acceptable answer
      * @return the answer provided by the player
+     * @throws UncheckedIOException if the channel is closed or cannot be read
      */
-    public static int askIntegerInRangeQuestion(String question, int lowerLimit, int upperLimit) {
+    public static int askIntegerInRangeQuestion(GameIO io, String question, int lowerLimit, int upperLimit) {
 
         StringBuilder questionBuilder = new StringBuilder(question);
 
@@ -174,24 +235,20 @@ public class IOUtil {
 
         int answer = 0;
         while(true) {
-             System.out.print(questionBuilder);
+             io.print(questionBuilder.toString());
              try {
-                 BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(System.in));
-                 String input = bufferedReader.readLine();
-                 answer = Integer.parseInt(input);
+                 answer = Integer.parseInt(readLine(io).trim());
 
                  if(answer < lowerLimit || answer > upperLimit) {
-                     System.out.println(Strings.INVALID_ANSWER);
+                     io.println(Strings.INVALID_ANSWER);
                      continue;
                  }
 
                  break;
              }  catch (NumberFormatException nfe) {
-                System.out.println(Strings.INVALID_ANSWER);
+                io.println(Strings.INVALID_ANSWER);
                 continue;
-             } catch (IOException e) {
-                e.printStackTrace(System.err);
-            }
+             }
         }
 
         return answer;
@@ -199,11 +256,21 @@ public class IOUtil {
     }
 
 
+    /**
+     * Asks the provided question on the system console.
+     * @see #askIntegerInRangeQuestion(GameIO, String, int, int)
+     */
+    public static int askIntegerInRangeQuestion(String question, int lowerLimit, int upperLimit) {
+        return askIntegerInRangeQuestion(ConsoleGameIO.getInstance(), question, lowerLimit, upperLimit);
+    }
+
+
     /**
      * Display the current cash balances for all provided players.
+     * @param io the channel to display the balances on
      * @param players the players whose cash balances to display
      */
-    public static void printPlayerBalances(Player[] players) {
+    public static void printPlayerBalances(GameIO io, Player[] players) {
 
         for(int i=0; i<players.length; i++) {
             Player p = players[i];
@@ -214,26 +281,37 @@ public class IOUtil {
 
             outputBuilder.append("Player ");
             outputBuilder.append(p.getNumber());
-            outputBuilder.append(":\t$");
-            outputBuilder.append(p.getCashBalance());
+            outputBuilder.append(":\t");
+            outputBuilder.append(Money.format(p.getCashBalance()));
 
-            System.out.println(outputBuilder.toString());
+            io.println(outputBuilder.toString());
         }
     }
 
 
+    /**
+     * Display the current cash balances for all provided players on the system console.
+     * @param players the players whose cash balances to display
+     */
+    public static void printPlayerBalances(Player[] players) {
+        printPlayerBalances(ConsoleGameIO.getInstance(), players);
+    }
+
+
     /**
      * Asks the provided question to the specified player, and expects an integer answer between
      * the specified limits, inclusively. The player is provided with the range of acceptable
      * answers.
      *
+     * @param io the channel to ask the question on
      * @param aPlayer the player to direct the question to
      * @param question the question asked to the user
      * @param lowerLimit the lowest possible acceptable answer
      * @param upperLimit the highest possible acceptable answer
      * @return the answer provided by the player
      */
-    public static int askIntegerInRangeQuestion(Player aPlayer, String question, int lowerLimit, int upperLimit) {
+    public static int askIntegerInRangeQuestion(GameIO io, Player aPlayer, String question,
+                                                int lowerLimit, int upperLimit) {
 
         StringBuilder questionBuilder = new StringBuilder();
 
@@ -245,7 +323,36 @@ public class IOUtil {
 
         questionBuilder.append(question);
 
-        return askIntegerInRangeQuestion(questionBuilder.toString(), lowerLimit, upperLimit);
+        return askIntegerInRangeQuestion(io, questionBuilder.toString(), lowerLimit, upperLimit);
+    }
+
+
+    /**
+     * Asks the provided question to the specified player on the system console.
+     * @see #askIntegerInRangeQuestion(GameIO, Player, String, int, int)
+     */
+    public static int askIntegerInRangeQuestion(Player aPlayer, String question, int lowerLimit, int upperLimit) {
+        return askIntegerInRangeQuestion(ConsoleGameIO.getInstance(), aPlayer, question, lowerLimit, upperLimit);
+    }
+
+
+    /**
+     * Read one line from the provided channel.
+     * @param io the channel to read from
+     * @return the line read
+     * @throws UncheckedIOException if the channel is closed or cannot be read
+     */
+    private static String readLine(GameIO io) {
+        try {
+            String input = io.readLine();
+            if(null == input) {
+                throw new UncheckedIOException(new EOFException(Strings.CONNECTION_CLOSED));
+            }
+
+            return input;
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
     }
 
 
@@ -5,9 +5,9 @@
  */
 public class InsufficientCashException extends Exception {
 
-    public InsufficientCashException(int cashBalance, int amount) {
-        super(Strings.CANNOT_DEBIT_AMOUNT_FROM_BALANCE_0 + amount +
-              Strings.CANNOT_DEBIT_AMOUNT_FROM_BALANCE_1 + cashBalance +
+    public InsufficientCashException(long cashBalance, long amount) {
+        super(Strings.CANNOT_DEBIT_AMOUNT_FROM_BALANCE_0 + Money.format(amount) +
+              Strings.CANNOT_DEBIT_AMOUNT_FROM_BALANCE_1 + Money.format(cashBalance) +
               Strings.CANNOT_DEBIT_AMOUNT_FROM_BALANCE_2);
     }
 
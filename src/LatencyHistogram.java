@@ -0,0 +1,134 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations, in nanoseconds, which any number of threads can
+ * record to at once without locking nor allocating.
+ *
+ * Durations are counted in log-linear buckets: every power of two is cut into
+ * SUB_BUCKETS buckets of equal width, so that a percentile read back is within
+ * 1/SUB_BUCKETS of the actual duration, from a nanosecond to centuries.
+ *
+ * Reads are not atomic with respect to concurrent records: a snapshot taken
+ * while durations are being recorded may miss the latest of them.
+ *
+ * @author Dany Houde
+ */
+public class LatencyHistogram {
+
+    // Each power of two is cut into that many buckets; must be a power of two
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // Enough buckets for every positive long
+    private static final int NUMBER_OF_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray bucketCounts;
+    private final LongAdder totalNanos;
+    private final LongAccumulator maxNanos;
+
+
+    /**
+     * Construct a new, empty LatencyHistogram.
+     */
+    public LatencyHistogram() {
+        this.bucketCounts = new AtomicLongArray(NUMBER_OF_BUCKETS);
+        this.totalNanos = new LongAdder();
+        this.maxNanos = new LongAccumulator(Math::max, 0);
+    }
+
+
+    /**
+     * Record one duration.
+     * @param nanos the duration, in nanoseconds; negative durations count as 0
+     */
+    public void record(long nanos) {
+        long duration = Math.max(nanos, 0);
+        this.bucketCounts.incrementAndGet(bucketIndex(duration));
+        this.totalNanos.add(duration);
+        this.maxNanos.accumulate(duration);
+    }
+
+
+    /**
+     * @return the number of durations recorded
+     */
+    public long getCount() {
+        // Counted from the buckets, saving an atomic update per record
+        long total = 0;
+        for(int i=0; i<NUMBER_OF_BUCKETS; i++) {
+            total += this.bucketCounts.get(i);
+        }
+
+        return total;
+    }
+
+
+    /**
+     * @return the average duration recorded, in nanoseconds, or 0 if none was
+     */
+    public double getMeanNanos() {
+        long numberOfDurations = this.getCount();
+        return numberOfDurations == 0 ? 0 : (double) this.totalNanos.sum() / numberOfDurations;
+    }
+
+
+    /**
+     * @return the longest duration recorded, in nanoseconds
+     */
+    public long getMaxNanos() {
+        return this.maxNanos.get();
+    }
+
+
+    /**
+     * @param percentile the percentage of durations to cover, between 0 and 100
+     * @return the duration, in nanoseconds, which that percentage of the recorded
+     * durations do not exceed, rounded up to the end of its bucket; 0 if none was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = this.getCount();
+        if(total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for(int i=0; i<NUMBER_OF_BUCKETS; i++) {
+            seen += this.bucketCounts.get(i);
+            if(seen >= rank) {
+                return Math.min(bucketUpperBound(i), this.getMaxNanos());
+            }
+        }
+
+        return this.getMaxNanos();
+    }
+
+
+    /**
+     * @return a snapshot of this histogram's statistics
+     */
+    public PhaseLatency snapshot() {
+        return new PhaseLatency(this.getCount(), this.getMeanNanos(), this.getValueAtPercentile(50),
+                this.getValueAtPercentile(90), this.getValueAtPercentile(99), this.getMaxNanos());
+    }
+
+
+    /**
+     * @param nanos a duration, in nanoseconds, not negative
+     * @return the index of the bucket counting that duration
+     */
+    static int bucketIndex(long nanos) {
+        return QuantileSketch.bucketIndex(nanos, SUB_BUCKET_BITS);
+    }
+
+
+    /**
+     * @param index the index of a bucket
+     * @return the longest duration, in nanoseconds, counted by that bucket
+     */
+    static long bucketUpperBound(int index) {
+        return QuantileSketch.bucketUpperBound(index, SUB_BUCKET_BITS);
+    }
+}
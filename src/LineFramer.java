@@ -0,0 +1,49 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Splits the bytes received on a connection into lines of UTF-8 text. Lines end
+ * with '\n', optionally preceded by '\r', which is dropped.
+ *
+ * @author Dany Houde
+ */
+public class LineFramer {
+
+    /**
+     * Extract every complete line from the provided buffer, and keep the bytes of
+     * the last, incomplete line at the start of the buffer for the next read.
+     *
+     * @param buffer the buffer the bytes were read into, in write mode; it is
+     *               left in write mode, after the incomplete line
+     * @param lines the collection to add the complete lines to, in order
+     * @return false if the buffer is full without holding a complete line, in which
+     *         case the line is too long to ever be framed
+     */
+    public static boolean frame(ByteBuffer buffer, Collection<String> lines) {
+        buffer.flip();
+
+        int lineStart = buffer.position();
+        for(int i=lineStart; i<buffer.limit(); i++) {
+            if(buffer.get(i) != '\n') {
+                continue;
+            }
+
+            int lineEnd = i;
+            if(lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+
+            byte[] lineBytes = new byte[lineEnd - lineStart];
+            buffer.get(lineStart, lineBytes);
+            lines.add(new String(lineBytes, StandardCharsets.UTF_8));
+
+            lineStart = i + 1;
+        }
+
+        buffer.position(lineStart);
+        buffer.compact();
+
+        return buffer.hasRemaining();
+    }
+}
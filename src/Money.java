@@ -0,0 +1,81 @@
+/**
+ * Fixed-point arithmetic on amounts of money. An amount is a long counting
+ * minor units, i.e. cents, so that payouts such as 3:2 or 6:5 on any whole
+ * bet are exact, and balances never overflow over billions of hands.
+ *
+ * Amounts stay primitive longs rather than objects, so that the game can handle
+ * money without boxing nor allocating. Every operation which could overflow
+ * throws an ArithmeticException instead of wrapping around.
+ *
+ * @author Dany Houde
+ */
+public final class Money {
+
+    // How many minor units make one whole unit
+    public static final int MINOR_UNITS_PER_WHOLE_UNIT = 100;
+
+    public static final String CURRENCY_SYMBOL = "$";
+
+
+    private Money() {
+    }
+
+
+    /**
+     * @param wholeUnits an amount in whole units, e.g. dollars, as written in the config file
+     * @return the same amount, in minor units
+     */
+    public static long ofWholeUnits(long wholeUnits) {
+        return Math.multiplyExact(wholeUnits, MINOR_UNITS_PER_WHOLE_UNIT);
+    }
+
+
+    /**
+     * @param amount an amount, in minor units
+     * @return the number of whole units in the amount, rounded down
+     */
+    public static long toWholeUnits(long amount) {
+        return Math.floorDiv(amount, MINOR_UNITS_PER_WHOLE_UNIT);
+    }
+
+
+    /**
+     * Compute the payout of a bet at the provided odds, e.g. 3:2 for a natural.
+     * The payout is exact whenever the bet is a multiple of the denominator;
+     * otherwise the house keeps the fraction of a minor unit.
+     * @param wager the bet, in minor units, not negative
+     * @param numerator what the bet pays
+     * @param denominator what the bet is paid for
+     * @return the payout, in minor units
+     */
+    public static long payout(long wager, int numerator, int denominator) {
+        return Math.multiplyExact(wager, numerator) / denominator;
+    }
+
+
+    /**
+     * @param amount an amount, in minor units
+     * @return the amount written for people, e.g. "$25" or "-$7.50"
+     */
+    public static String format(long amount) {
+        StringBuilder sb = new StringBuilder();
+        if(amount < 0) {
+            sb.append('-');
+        }
+        sb.append(CURRENCY_SYMBOL);
+
+        // Math.abs() cannot negate Long.MIN_VALUE, so split before negating
+        long wholeUnits = Math.abs(amount / MINOR_UNITS_PER_WHOLE_UNIT);
+        int minorUnits = (int) Math.abs(amount % MINOR_UNITS_PER_WHOLE_UNIT);
+        sb.append(wholeUnits);
+        if(minorUnits != 0) {
+            sb.append('.');
+            if(minorUnits < 10) {
+                sb.append('0');
+            }
+            sb.append(minorUnits);
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,202 @@
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.management.JMException;
+
+/**
+ * Runs headless Blackjack games on several threads at once.
+ *
+ * The requested rounds are cut into fixed-size batches. Every batch is played
+ * by its own BlackjackGame, with its own shoe, dealer, players and random number
+ * generator. Only a few batches per thread are in flight at any time, and their
+ * results are merged in batch order as they complete, so the memory used does
+ * not grow with the number of rounds. Each batch shuffles with its own
+ * SplittableRandom stream, split in batch order off a root stream seeded with
+ * the master seed, so a run gives the same result no matter how many threads
+ * are used.
+ *
+ * @author Dany Houde
+ */
+public class MonteCarloSimulator {
+
+    // How many rounds each batch plays
+    private static final long ROUNDS_PER_BATCH = 100000;
+
+    // How many batches per thread are submitted ahead of the one being merged
+    private static final int BATCHES_IN_FLIGHT_PER_THREAD = 2;
+
+    // The amount bet every round by the players of the command line simulation
+    private static final int DEFAULT_BET = 10;
+
+    private final GameConfig config;
+
+    // Shared by all the games; must not keep any state between decisions
+    private final PlayerStrategy strategy;
+
+    private final int numberOfPlayers;
+
+    private final int numberOfThreads;
+
+    // Shared by all the games; null when the simulation is not measured
+    private GameMetrics metrics;
+
+    // Whether the statistics of every hand are collected along with the totals
+    private boolean collectsRoundStatistics;
+
+
+    /**
+     * Construct a new MonteCarloSimulator.
+     * @param configProperties the game parameters, as read from a configuration file
+     * @param aStrategy the strategy used by every simulated player; it is shared by
+     *                  all threads and must therefore be stateless
+     * @param numberOfPlayers how many players to seat at each simulated table
+     * @param numberOfThreads how many threads to run the simulation on
+     */
+    public MonteCarloSimulator(Properties configProperties, PlayerStrategy aStrategy,
+                               int numberOfPlayers, int numberOfThreads) {
+        this(GameConfig.fromProperties(configProperties), aStrategy, numberOfPlayers, numberOfThreads);
+    }
+
+
+    /**
+     * Construct a new MonteCarloSimulator playing by the provided rules.
+     * @param aConfig the game parameters and rule variants
+     * @param aStrategy the strategy used by every simulated player; it is shared by
+     *                  all threads and must therefore be stateless
+     * @param numberOfPlayers how many players to seat at each simulated table
+     * @param numberOfThreads how many threads to run the simulation on
+     */
+    public MonteCarloSimulator(GameConfig aConfig, PlayerStrategy aStrategy,
+                               int numberOfPlayers, int numberOfThreads) {
+        this.config = aConfig;
+        this.strategy = aStrategy;
+        this.numberOfPlayers = numberOfPlayers;
+        this.numberOfThreads = numberOfThreads;
+    }
+
+
+    /**
+     * Measure the rounds of every following run into the provided metrics.
+     * @param theMetrics the metrics to record to, or null to stop measuring
+     */
+    public void setMetrics(GameMetrics theMetrics) {
+        this.metrics = theMetrics;
+    }
+
+
+    /**
+     * Collect the statistics of every hand and starting hand in the results of
+     * every following run. Each batch collects its own, and they are merged with the results.
+     * @param collects whether to collect the statistics
+     */
+    public void setCollectsRoundStatistics(boolean collects) {
+        this.collectsRoundStatistics = collects;
+    }
+
+
+    /**
+     * Simulate the specified number of rounds.
+     * @param numberOfRounds how many rounds to play
+     * @param masterSeed the seed of the root stream from which every batch stream is split
+     * @return the merged result of all rounds
+     */
+    public SimulationResult run(long numberOfRounds, long masterSeed) {
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.numberOfThreads);
+        int maxBatchesInFlight = BATCHES_IN_FLIGHT_PER_THREAD * this.numberOfThreads;
+        Deque<Future<SimulationResult>> batchResults = new ArrayDeque<Future<SimulationResult>>(maxBatchesInFlight);
+
+        try {
+            SplittableRandom seedStreams = new SplittableRandom(masterSeed);
+            SimulationResult result = new SimulationResult(this.collectsRoundStatistics);
+            long firstRound = 0;
+            while(firstRound < numberOfRounds || !batchResults.isEmpty()) {
+                // Keep the window full, then merge the oldest batch and let go of it
+                if(firstRound < numberOfRounds && batchResults.size() < maxBatchesInFlight) {
+                    final long batchRounds = Math.min(ROUNDS_PER_BATCH, numberOfRounds - firstRound);
+                    final SplittableRandom batchSeeds = seedStreams.split();
+
+                    batchResults.addLast(executor.submit(() -> this.runBatch(batchRounds, batchSeeds)));
+                    firstRound += batchRounds;
+                } else {
+                    result.merge(batchResults.removeFirst().get());
+                }
+            }
+
+            return result;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(Strings.SIMULATION_INTERRUPTED, ie);
+        } catch (ExecutionException ee) {
+            throw new IllegalStateException(Strings.SIMULATION_FAILED, ee.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Play one batch of rounds on a game of its own.
+     * @param numberOfRounds how many rounds to play
+     * @param seeds the stream of the seeds shuffling the batch's shoe
+     * @return the result of the batch
+     */
+    private SimulationResult runBatch(long numberOfRounds, SplittableRandom seeds) {
+        BlackjackGame game = new BlackjackGame(this.config, this.strategy,
+                this.numberOfPlayers, seeds);
+        game.setMetrics(this.metrics);
+
+        SimulationResult result = new SimulationResult(this.collectsRoundStatistics);
+        game.simulate(numberOfRounds, result);
+        return result;
+    }
+
+
+    /**
+     * Command line entry method.
+     *
+     * @param args the path to the config file, followed by the number of rounds,
+     *             the number of threads and the master seed
+     */
+    public static void main(String[] args) {
+
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(args[0]));
+        long numberOfRounds = Long.parseLong(args[1]);
+        int numberOfThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long masterSeed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        int numberOfPlayers = config.getMinNumberOfPlayers();
+
+        // Players follow the basic strategy file sitting next to the config file
+        File strategyFile = new File(new File(args[0]).getParentFile(), config.getBasicStrategyFileName());
+        PlayerStrategy strategy = BasicStrategyPlayerStrategy.load(strategyFile.getPath(), DEFAULT_BET);
+
+        MonteCarloSimulator simulator = new MonteCarloSimulator(config,
+                strategy, numberOfPlayers, numberOfThreads);
+        simulator.setCollectsRoundStatistics(true);
+
+        // Published so that long simulations can be watched while they run
+        GameMetrics metrics = new GameMetrics();
+        simulator.setMetrics(metrics);
+        try {
+            metrics.register("simulation");
+        } catch (JMException jme) {
+            System.err.println(jme.getMessage());
+            jme.printStackTrace(System.err);
+        }
+
+        long startTime = System.nanoTime();
+        SimulationResult result = simulator.run(numberOfRounds, masterSeed);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1000000;
+
+        System.out.print(result);
+        System.out.print(metrics);
+        System.out.println("Elapsed time: " + elapsedMillis + " ms");
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * A snapshot of the durations of one phase of the game, as published over JMX.
+ * JMX clients read it as composite data with one item per getter.
+ *
+ * @author Dany Houde
+ */
+public class PhaseLatency {
+
+    private final long count;
+    private final double meanNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+
+    /**
+     * Construct a new PhaseLatency.
+     * @param aCount the number of times the phase was timed
+     * @param theMeanNanos the average duration of the phase
+     * @param theP50Nanos the median duration of the phase
+     * @param theP90Nanos the 90th percentile of the durations of the phase
+     * @param theP99Nanos the 99th percentile of the durations of the phase
+     * @param theMaxNanos the longest duration of the phase
+     */
+    public PhaseLatency(long aCount, double theMeanNanos, long theP50Nanos, long theP90Nanos,
+                        long theP99Nanos, long theMaxNanos) {
+        this.count = aCount;
+        this.meanNanos = theMeanNanos;
+        this.p50Nanos = theP50Nanos;
+        this.p90Nanos = theP90Nanos;
+        this.p99Nanos = theP99Nanos;
+        this.maxNanos = theMaxNanos;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    public double getMeanNanos() {
+        return this.meanNanos;
+    }
+
+    public long getP50Nanos() {
+        return this.p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return this.p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return this.p99Nanos;
+    }
+
+    public long getMaxNanos() {
+        return this.maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d times, mean %.0f ns, p50 %d ns, p90 %d ns, p99 %d ns, max %d ns",
+                this.count, this.meanNanos, this.p50Nanos, this.p90Nanos, this.p99Nanos, this.maxNanos);
+    }
+}
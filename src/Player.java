@@ -1,4 +1,5 @@
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -8,8 +9,11 @@ import java.util.List;
  */
 public class Player {
 
-    // How much money the player has remaining to bet
-    private int cashBalance;
+    // How many hands a player can hold at once when it is not specified
+    private static final int DEFAULT_MAX_NUMBER_OF_HANDS = 4;
+
+    // How much money the player has remaining to bet, in minor units (see Money)
+    private long cashBalance;
 
     // Player's number
     private int number;
@@ -20,17 +24,45 @@ public class Player {
     // This player's hands
     List<PlayerHand> hands;
 
+    // The hands this player plays with, reused from one round to the next so that
+    // a round allocates nothing: the first one is dealt every round, and the others
+    // are handed out by splits
+    private PlayerHand[] handSlots;
+
+    // How many of the hand slots are in play in the current round
+    private int numberOfHandSlotsInPlay;
+
+    // The list holding the hands in play, reused from one round to the next
+    private final List<PlayerHand> handSlotList;
+
 
     /**
      * Construct a new Player with the specified number and starting cash balance
      * @param aNumber the new Player's number
-     * @param startingCash the new Player's starting cash balance
+     * @param startingCash the new Player's starting cash balance, in minor units
      */
-    public Player(int aNumber, int startingCash) {
+    public Player(int aNumber, long startingCash) {
+        this(aNumber, startingCash, DEFAULT_MAX_NUMBER_OF_HANDS);
+    }
+
+
+    /**
+     * Construct a new Player with the specified number and starting cash balance,
+     * and room for the specified number of hands. More room is made if needed.
+     * @param aNumber the new Player's number
+     * @param startingCash the new Player's starting cash balance, in minor units
+     * @param maxNumberOfHands how many hands the player can hold at once, i.e. one
+     *                         more than the number of splits allowed
+     */
+    public Player(int aNumber, long startingCash, int maxNumberOfHands) {
         this.number = aNumber;
         this.cashBalance = startingCash;
-        this.hands = new LinkedList<PlayerHand>();
-        this.hands.add(new PlayerHand());
+        this.handSlots = new PlayerHand[Math.max(1, maxNumberOfHands)];
+        for(int i=0; i<this.handSlots.length; i++) {
+            this.handSlots[i] = new PlayerHand();
+        }
+        this.handSlotList = new ArrayList<PlayerHand>(this.handSlots.length);
+        this.resetHands();
         this.isPlaying = true;
     }
 
@@ -50,11 +82,14 @@ public class Player {
             throw new UnsplittableHandException();
         }
 
-        PlayerHand splitPlayerHand = new PlayerHand();
+        PlayerHand splitPlayerHand = this.takeHandSlot();
         splitPlayerHand.setWager(playerHandToSplit.getWager());
-        this.cashBalance -= playerHandToSplit.getWager();
+        this.cashBalance = Math.subtractExact(this.cashBalance, playerHandToSplit.getWager());
 
-        Card secondCard = playerHandToSplit.getCards().remove(1);
+        Card secondCard = playerHandToSplit.removeCard(1);
+
+        splitPlayerHand.setFromSplit(true);
+        playerHandToSplit.setFromSplit(true);
 
         if(secondCard.getRank() == Card.Rank.ACE) {
             splitPlayerHand.setCameFromSplitAces(true);
@@ -66,6 +101,21 @@ public class Player {
     }
 
 
+    /**
+     * @return the next empty hand slot, made room for if all slots are in play
+     */
+    private PlayerHand takeHandSlot() {
+        if(this.numberOfHandSlotsInPlay == this.handSlots.length) {
+            this.handSlots = Arrays.copyOf(this.handSlots, 2 * this.handSlots.length);
+            for(int i=this.numberOfHandSlotsInPlay; i<this.handSlots.length; i++) {
+                this.handSlots[i] = new PlayerHand();
+            }
+        }
+
+        return this.handSlots[this.numberOfHandSlotsInPlay++];
+    }
+
+
     /**
      * Returns true if this player has at least one hand which is neither
      * a Blackjack or a bust.
@@ -74,8 +124,8 @@ public class Player {
      * or bust.
      */
     public boolean isActive() {
-        for(PlayerHand h : this.getHands()) {
-            if(h.isActive()) {
+        for(int i=0; i<this.hands.size(); i++) {
+            if(this.hands.get(i).isActive()) {
                 return true;
             }
         }
@@ -86,11 +136,11 @@ public class Player {
 
     /**
      * Reduce this Player's cash balance by the specified amount.
-     * @param amount how much to reduce the balance by
+     * @param amount how much to reduce the balance by, in minor units
      * @throws InsufficientCashException if the Player has insufficient cash to carry out this operation
      */
-    public void decreaseCashBalanceBy(int amount) throws InsufficientCashException {
-        if((this.cashBalance - amount) < 0) {
+    public void decreaseCashBalanceBy(long amount) throws InsufficientCashException {
+        if(amount > this.cashBalance) {
             throw new InsufficientCashException(this.cashBalance, amount);
         }
 
@@ -98,19 +148,27 @@ public class Player {
     }
 
     /**
-     * Reset this player's hands to a single empty hand
+     * Reset this player's hands to a single empty hand. The hands of the
+     * previous round are emptied and reused.
      */
     public void resetHands() {
-        this.hands = new LinkedList<PlayerHand>();
-        this.hands.add(new PlayerHand());
+        for(int i=0; i<this.numberOfHandSlotsInPlay; i++) {
+            this.handSlots[i].reset();
+        }
+
+        this.handSlotList.clear();
+        this.handSlotList.add(this.handSlots[0]);
+        this.numberOfHandSlotsInPlay = 1;
+        this.hands = this.handSlotList;
     }
 
     /**
      * Increase this Player's cash balance by the specified amount.
-     * @param amount how much to increase this Player's balance by.
+     * @param amount how much to increase this Player's balance by, in minor units
+     * @throws ArithmeticException if the balance would overflow
      */
-    public void increaseCashBalanceBy(int amount) {
-        this.cashBalance += amount;
+    public void increaseCashBalanceBy(long amount) {
+        this.cashBalance = Math.addExact(this.cashBalance, amount);
     }
 
 
@@ -132,8 +190,8 @@ public class Player {
         returnString.append("Player ") ;
         returnString.append(this.number);
         returnString.append("\n");
-        returnString.append("\tCash balance: $");
-        returnString.append(this.cashBalance);
+        returnString.append("\tCash balance: ");
+        returnString.append(Money.format(this.cashBalance));
         returnString.append("\n");
 
         if(this.hands.isEmpty()) {
@@ -150,11 +208,11 @@ public class Player {
     }
 
 
-    public int getCashBalance() {
+    public long getCashBalance() {
         return cashBalance;
     }
 
-    public void setCashBalance(int cashBalance) {
+    public void setCashBalance(long cashBalance) {
         this.cashBalance = cashBalance;
     }
 
@@ -189,9 +247,9 @@ public class Player {
 
 
 
-        Card aCard = new Card(Card.Suit.CLUBS, Card.Rank.KING, true);
-//        Card bCard = new Card(Card.Suit.SPADES, Card.Rank.DEUCE);
-        Card cCard = new Card(Card.Suit.HEARTS, Card.Rank.TEN, true);
+        Card aCard = Card.get(Card.Suit.CLUBS, Card.Rank.KING);
+//        Card bCard = Card.get(Card.Suit.SPADES, Card.Rank.DEUCE);
+        Card cCard = Card.get(Card.Suit.HEARTS, Card.Rank.TEN);
 
         PlayerHand testPlayerHand = testPlayer.getHands().get(0);
         testPlayerHand.addCard(aCard);
@@ -9,8 +9,8 @@ import java.util.List;
  */
 public class PlayerHand extends BasicHand {
 
-    // The wager associated with this hand
-    private int wager;
+    // The wager associated with this hand, in minor units (see Money)
+    private long wager;
 
     // True if the player performed a double down on this hand
     private boolean isDoubleDown;
@@ -18,22 +18,46 @@ public class PlayerHand extends BasicHand {
     // True if this hand came from splitting two aces
     private boolean cameFromSplitAces;
 
+    // True if this hand came from splitting a pair
+    private boolean isFromSplit;
+
+    // True if the player surrendered this hand
+    private boolean isSurrendered;
+
+    // The natural payout already included in the wager
+    private long naturalPayout;
+
 
     public PlayerHand() {
         super();
         this.wager = 0;
         this.cameFromSplitAces = false;
         this.isDoubleDown = false;
+        this.isFromSplit = false;
+        this.isSurrendered = false;
+        this.naturalPayout = 0;
     }
 
    /**
      * Lets the caller know whether this hand is still "active", meaning
-     * that it is neither a natural or a bust.
+     * that it is neither a natural, a bust or surrendered.
      *
      * @return false if the hand is considered active
      */
     public boolean isActive() {
-        return !this.isNatural() && (this.getValue() <= BlackjackGame.BLACKJACK_NUMBER);
+        return !this.isNatural() && !this.isBust() && !this.isSurrendered;
+    }
+
+
+    /**
+     * A two-card 21 made after a split, e.g. an ace and a ten on split aces, is
+     * a regular 21 rather than a natural: it is paid even money and the dealer
+     * plays against it.
+     * @return true if this hand is a natural, i.e. a two-card 21 which was not split
+     */
+    @Override
+    public boolean isNatural() {
+        return !this.isFromSplit && super.isNatural();
     }
 
 
@@ -50,14 +74,15 @@ public class PlayerHand extends BasicHand {
      * Lets the caller know whether this hand can be split or not.
      * A hand can be split if both its cards have the same value,
      * and if the player has enough to cover the split hand wagers.
+     * @param availableMoney how much the player has left to bet, in minor units
      * @return
      */
-    public boolean canBeSplit(int availableMoney) {
-        if(2 != this.cards.size() || availableMoney < this.wager) {
+    public boolean canBeSplit(long availableMoney) {
+        if(2 != this.numCards || availableMoney < this.wager) {
             return false;
         }
 
-        return cards.get(0).getPipValue() == cards.get(1).getPipValue();
+        return this.getCard(0).getPipValue() == this.getCard(1).getPipValue();
     }
 
 
@@ -66,6 +91,9 @@ public class PlayerHand extends BasicHand {
         this.isDoubleDown = false;
         this.wager = 0;
         this.cameFromSplitAces = false;
+        this.isFromSplit = false;
+        this.isSurrendered = false;
+        this.naturalPayout = 0;
     }
 
 
@@ -78,15 +106,52 @@ public class PlayerHand extends BasicHand {
     }
 
 
-    public int getWager() {
+    public void setFromSplit(boolean wasSplit) {
+        this.isFromSplit = wasSplit;
+    }
+
+    public boolean isFromSplit() {
+        return this.isFromSplit;
+    }
+
+
+    public void setSurrendered(boolean wasSurrendered) {
+        this.isSurrendered = wasSurrendered;
+    }
+
+    public boolean isSurrendered() {
+        return this.isSurrendered;
+    }
+
+
+    public long getWager() {
         return this.wager;
     }
 
 
-    public void setWager(int aWager) {
+    public void setWager(long aWager) {
         this.wager = aWager;
     }
 
+
+    /**
+     * Add the payout for a natural to this hand's wager, so that the player
+     * collects it along with his wager at the end of the round.
+     * @param aPayout the natural payout, in minor units
+     */
+    public void addNaturalPayout(long aPayout) {
+        this.wager += aPayout;
+        this.naturalPayout += aPayout;
+    }
+
+
+    /**
+     * @return the natural payout included in this hand's wager, if any
+     */
+    public long getNaturalPayout() {
+        return this.naturalPayout;
+    }
+
     /**
      * Returns a string representation of this PlayerHand, including
      * the hand's value if all cards are face up
@@ -94,14 +159,18 @@ public class PlayerHand extends BasicHand {
      */
     @Override
     public String toString() {
-        if(this.cards.isEmpty()) {
+        if(0 == this.numCards) {
             return "No cards";
         }
 
         StringBuilder sb = new StringBuilder(super.toString());
 
-        sb.append("\tWager: $");
-        sb.append(this.getWager());
+        sb.append("\tWager: ");
+        sb.append(Money.format(this.getWager()));
+
+        if(this.isSurrendered) {
+            sb.append("\tSurrendered");
+        }
 
         return sb.toString();
     }
@@ -111,8 +180,8 @@ public class PlayerHand extends BasicHand {
 
         PlayerHand testHand = new PlayerHand();
 
-        Card testCard1 = new Card(Card.Suit.CLUBS, Card.Rank.DEUCE, true);
-        Card testCard2 = new Card(Card.Suit.DIAMONDS, Card.Rank.TEN, true);
+        Card testCard1 = Card.get(Card.Suit.CLUBS, Card.Rank.DEUCE);
+        Card testCard2 = Card.get(Card.Suit.DIAMONDS, Card.Rank.TEN);
 
         testHand.addCard(testCard1);
         testHand.addCard(testCard2);
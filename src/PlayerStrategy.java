@@ -0,0 +1,57 @@
+/**
+ * Decides how a player bets and plays his hands. Implementations may ask a
+ * person on the console, or decide on their own so that the game can be
+ * played without any user interaction.
+ *
+ * @author Dany Houde
+ */
+public interface PlayerStrategy {
+
+    /**
+     * Returns how much the provided player wants to bet in the current round.
+     * Amounts are in minor units (see Money).
+     * @param p the player placing the bet
+     * @param minBet the lowest acceptable bet
+     * @param maxBet the highest acceptable bet
+     * @return a bet between minBet and maxBet, inclusively
+     */
+    long getBetAmount(Player p, long minBet, long maxBet);
+
+    /**
+     * Determine whether the provided player wants to surrender the provided hand,
+     * giving up half his wager instead of playing it. Only asked on the first two
+     * cards of a round, when the game allows late surrender.
+     * @param p the current player
+     * @param aPlayerHand the hand to play
+     * @param dealerUpCard the dealer's face up card
+     * @return true if the player wants to surrender, false otherwise
+     */
+    boolean wantsToSurrender(Player p, PlayerHand aPlayerHand, Card dealerUpCard);
+
+    /**
+     * Determine whether the provided player wants to split the provided hand.
+     * @param p the current player
+     * @param aPlayerHand the hand to play
+     * @param dealerUpCard the dealer's face up card
+     * @return true if the player wants to split, false otherwise
+     */
+    boolean wantsToSplit(Player p, PlayerHand aPlayerHand, Card dealerUpCard);
+
+    /**
+     * Determine whether the provided player wants to double down on the provided hand.
+     * @param p the current player
+     * @param aPlayerHand the hand to play
+     * @param dealerUpCard the dealer's face up card
+     * @return true if the player wants to double down, false otherwise
+     */
+    boolean wantsToDoubleDown(Player p, PlayerHand aPlayerHand, Card dealerUpCard);
+
+    /**
+     * Determine whether the provided player wants to hit the provided hand.
+     * @param p the current player
+     * @param aPlayerHand the hand to play
+     * @param dealerUpCard the dealer's face up card
+     * @return true if the player wants to hit the hand, false otherwise
+     */
+    boolean wantsToHit(Player p, PlayerHand aPlayerHand, Card dealerUpCard);
+}
@@ -0,0 +1,211 @@
+import java.util.Arrays;
+
+/**
+ * A streaming sketch of the distribution of non-negative values, such as
+ * bankrolls or session lengths, from which percentiles can be read back.
+ *
+ * Values are counted in log-linear buckets, like the durations of a
+ * LatencyHistogram, but with as many buckets per power of two as the requested
+ * precision calls for: a percentile read back is within 1/2^precisionBits of the
+ * actual value, and values below 2^precisionBits are exact. The memory used only
+ * depends on the precision, never on how many values are added.
+ *
+ * Sketches of the same precision merge exactly, in any order. A QuantileSketch
+ * is not thread-safe; each thread adds to its own sketch, and the sketches are
+ * merged at the end.
+ *
+ * @author Dany Houde
+ */
+public class QuantileSketch {
+
+    // The precision used when none is specified, within 1/128 of the actual values
+    public static final int DEFAULT_PRECISION_BITS = 7;
+
+    private static final int MAX_PRECISION_BITS = 16;
+
+    private final int precisionBits;
+
+    private final long[] bucketCounts;
+
+    private long count;
+    private long total;
+    private long min;
+    private long max;
+
+
+    /**
+     * Construct a new, empty QuantileSketch of the default precision.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+
+    /**
+     * Construct a new, empty QuantileSketch.
+     * @param thePrecisionBits the base 2 logarithm of the number of buckets per power of two,
+     *                         from 1 to 16
+     * @throws IllegalArgumentException if the precision is out of range
+     */
+    public QuantileSketch(int thePrecisionBits) {
+        if(thePrecisionBits < 1 || thePrecisionBits > MAX_PRECISION_BITS) {
+            throw new IllegalArgumentException(Strings.INVALID_SKETCH_PRECISION + thePrecisionBits);
+        }
+
+        this.precisionBits = thePrecisionBits;
+        this.bucketCounts = new long[(Long.SIZE - thePrecisionBits) << thePrecisionBits];
+        this.min = Long.MAX_VALUE;
+    }
+
+
+    /**
+     * Add one value to the sketch.
+     * @param value the value, not negative
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public void add(long value) {
+        if(value < 0) {
+            throw new IllegalArgumentException(Strings.NEGATIVE_SKETCH_VALUE + value);
+        }
+
+        this.bucketCounts[bucketIndex(value, this.precisionBits)]++;
+        this.count++;
+        this.total = Math.addExact(this.total, value);
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+    }
+
+
+    /**
+     * Add the values counted by another sketch to this one.
+     * @param other the sketch to merge into this one
+     * @throws IllegalArgumentException if the other sketch has a different precision
+     */
+    public void merge(QuantileSketch other) {
+        if(other.precisionBits != this.precisionBits) {
+            throw new IllegalArgumentException(Strings.INVALID_SKETCH_PRECISION + other.precisionBits);
+        }
+
+        for(int i=0; i<this.bucketCounts.length; i++) {
+            this.bucketCounts[i] += other.bucketCounts[i];
+        }
+        this.count += other.count;
+        this.total = Math.addExact(this.total, other.total);
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+    }
+
+
+    /**
+     * @return the number of values added
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+
+    /**
+     * @return the exact average of the values added, or 0 if none was
+     */
+    public double getMean() {
+        return this.count == 0 ? 0 : (double) this.total / this.count;
+    }
+
+
+    /**
+     * @return the smallest value added, or 0 if none was
+     */
+    public long getMin() {
+        return this.count == 0 ? 0 : this.min;
+    }
+
+
+    /**
+     * @return the largest value added, or 0 if none was
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+
+    /**
+     * @param percentile the percentage of values to cover, between 0 and 100
+     * @return the value which that percentage of the added values do not exceed,
+     * rounded up to the end of its bucket; 0 if no value was added
+     */
+    public long getValueAtPercentile(double percentile) {
+        if(this.count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * this.count));
+        long seen = 0;
+        for(int i=0; i<this.bucketCounts.length; i++) {
+            seen += this.bucketCounts[i];
+            if(seen >= rank) {
+                return Math.max(this.min, Math.min(bucketUpperBound(i, this.precisionBits), this.max));
+            }
+        }
+
+        return this.max;
+    }
+
+
+    /**
+     * @return the number of buckets of this sketch, fixed by its precision
+     */
+    public int getNumberOfBuckets() {
+        return this.bucketCounts.length;
+    }
+
+
+    /**
+     * Remove every value from the sketch.
+     */
+    public void reset() {
+        Arrays.fill(this.bucketCounts, 0);
+        this.count = 0;
+        this.total = 0;
+        this.min = Long.MAX_VALUE;
+        this.max = 0;
+    }
+
+
+    /**
+     * Log-linear bucketing, shared with LatencyHistogram: every power of two is
+     * cut into 2^precisionBits buckets of equal width.
+     * @param value a value, not negative
+     * @param precisionBits the precision of the sketch
+     * @return the index of the bucket counting that value
+     */
+    static int bucketIndex(long value, int precisionBits) {
+        int subBuckets = 1 << precisionBits;
+        if(value < subBuckets) {
+            return (int) value;
+        }
+
+        // The position of the highest bit picks the power of two, and the bits
+        // right below it pick the bucket within that power of two
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - precisionBits)) & (subBuckets - 1);
+        return ((exponent - precisionBits + 1) << precisionBits) + subBucket;
+    }
+
+
+    /**
+     * @param index the index of a bucket
+     * @param precisionBits the precision of the sketch
+     * @return the largest value counted by that bucket
+     */
+    static long bucketUpperBound(int index, int precisionBits) {
+        int subBuckets = 1 << precisionBits;
+        if(index < subBuckets) {
+            return index;
+        }
+
+        int exponent = (index >>> precisionBits) + precisionBits - 1;
+        long subBucket = subBuckets + (index & (subBuckets - 1));
+        int shift = exponent - precisionBits;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
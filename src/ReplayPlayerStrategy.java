@@ -0,0 +1,184 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A PlayerStrategy replaying the decisions recorded in a RoundLog. Before each
+ * round, the bets and decisions of that round are loaded seat by seat; the game
+ * then asks its questions in the order it asked them when the round was recorded,
+ * and each question is answered by the next recorded decision of the seat.
+ *
+ * Only decisions which were taken are recorded for surrenders, splits and double
+ * downs, so those questions are answered yes when the next decision matches them,
+ * and no otherwise. Every hit or stand, on the other hand, is recorded.
+ *
+ * @author Dany Houde
+ */
+public class ReplayPlayerStrategy implements PlayerStrategy {
+
+    // The amount bet by each seat in the round, or NO_BET
+    private static final int NO_BET = -1;
+
+    private final long[] bets;
+
+    // The decisions of each seat in the round, in the order they were taken
+    private RoundLog.EventType[][] decisionTypes;
+    private int[][] decisionHands;
+    private final int[] numberOfDecisions;
+
+    // The next decision of each seat to replay
+    private final int[] nextDecisions;
+
+
+    /**
+     * Construct a new ReplayPlayerStrategy with no decision loaded.
+     * @param numberOfSeats the number of seats at the table
+     */
+    public ReplayPlayerStrategy(int numberOfSeats) {
+        this.bets = new long[numberOfSeats];
+        this.decisionTypes = new RoundLog.EventType[numberOfSeats][];
+        this.decisionHands = new int[numberOfSeats][];
+        this.numberOfDecisions = new int[numberOfSeats];
+        this.nextDecisions = new int[numberOfSeats];
+
+        for(int seat=0; seat<numberOfSeats; seat++) {
+            this.decisionTypes[seat] = new RoundLog.EventType[8];
+            this.decisionHands[seat] = new int[8];
+        }
+
+        this.clear();
+    }
+
+
+    /**
+     * Forget the bets and decisions of the previous round.
+     */
+    public void clear() {
+        Arrays.fill(this.bets, NO_BET);
+        Arrays.fill(this.numberOfDecisions, 0);
+        Arrays.fill(this.nextDecisions, 0);
+    }
+
+
+    /**
+     * @param seat the seat placing the bet
+     * @param amount the amount bet, in minor units
+     */
+    public void setBet(int seat, long amount) {
+        this.bets[seat] = amount;
+    }
+
+
+    /**
+     * @param seat a seat at the table
+     * @return true if a bet was loaded for that seat
+     */
+    public boolean hasBet(int seat) {
+        return this.bets[seat] != NO_BET;
+    }
+
+
+    /**
+     * Load the next decision of a seat.
+     * @param seat the seat taking the decision
+     * @param aType HIT, STAND, SPLIT, DOUBLE_DOWN or SURRENDER
+     * @param handIndex the hand the decision was taken for
+     */
+    public void addDecision(int seat, RoundLog.EventType aType, int handIndex) {
+        int decisionIndex = this.numberOfDecisions[seat]++;
+        if(decisionIndex == this.decisionTypes[seat].length) {
+            this.decisionTypes[seat] = Arrays.copyOf(this.decisionTypes[seat], 2 * decisionIndex);
+            this.decisionHands[seat] = Arrays.copyOf(this.decisionHands[seat], 2 * decisionIndex);
+        }
+
+        this.decisionTypes[seat][decisionIndex] = aType;
+        this.decisionHands[seat][decisionIndex] = handIndex;
+    }
+
+
+    /**
+     * @return true if some loaded decisions were not replayed
+     */
+    public boolean hasPendingDecisions() {
+        for(int seat=0; seat<this.nextDecisions.length; seat++) {
+            if(this.nextDecisions[seat] < this.numberOfDecisions[seat]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    @Override
+    public long getBetAmount(Player p, long minBet, long maxBet) {
+        if(!this.hasBet(p.getNumber())) {
+            throw new IllegalStateException(Strings.REPLAY_DIVERGED + Strings.REPLAY_MISSING_BET + p.getNumber());
+        }
+
+        return this.bets[p.getNumber()];
+    }
+
+    @Override
+    public boolean wantsToSurrender(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        return this.takeDecision(p, RoundLog.EventType.SURRENDER, aPlayerHand);
+    }
+
+    @Override
+    public boolean wantsToSplit(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        return this.takeDecision(p, RoundLog.EventType.SPLIT, aPlayerHand);
+    }
+
+    @Override
+    public boolean wantsToDoubleDown(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        return this.takeDecision(p, RoundLog.EventType.DOUBLE_DOWN, aPlayerHand);
+    }
+
+    @Override
+    public boolean wantsToHit(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+        if(this.takeDecision(p, RoundLog.EventType.HIT, aPlayerHand)) {
+            return true;
+        } else if(this.takeDecision(p, RoundLog.EventType.STAND, aPlayerHand)) {
+            return false;
+        }
+
+        throw new IllegalStateException(Strings.REPLAY_DIVERGED + Strings.REPLAY_MISSING_DECISION + p.getNumber());
+    }
+
+
+    /**
+     * Replay the next decision of the player if it is of the provided type, for the provided hand.
+     * @param p the player asked to decide
+     * @param aType the decision the player is asked about
+     * @param aPlayerHand the hand the decision is about
+     * @return true if the next decision matched, and was replayed
+     */
+    private boolean takeDecision(Player p, RoundLog.EventType aType, PlayerHand aPlayerHand) {
+        int seat = p.getNumber();
+        int decisionIndex = this.nextDecisions[seat];
+        if(decisionIndex == this.numberOfDecisions[seat] || this.decisionTypes[seat][decisionIndex] != aType ||
+                this.decisionHands[seat][decisionIndex] != indexOfHand(p.getHands(), aPlayerHand)) {
+            return false;
+        }
+
+        this.nextDecisions[seat]++;
+        return true;
+    }
+
+
+    /**
+     * @param hands the hands of a player
+     * @param aPlayerHand one of those hands
+     * @return the index of the hand among the player's hands
+     */
+    private static int indexOfHand(List<PlayerHand> hands, PlayerHand aPlayerHand) {
+        int handIndex = 0;
+        for(PlayerHand h : hands) {
+            if(h == aPlayerHand) {
+                return handIndex;
+            }
+            handIndex++;
+        }
+
+        return -1;
+    }
+}
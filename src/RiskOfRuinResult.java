@@ -0,0 +1,198 @@
+/**
+ * Accumulates the outcome of simulated player sessions: how each session ended,
+ * how many rounds it lasted, and the player's bankroll at fixed checkpoints.
+ * Distributions are kept in QuantileSketch instances, so the memory used does
+ * not grow with the number of sessions. Results from different simulations of
+ * the same checkpoints can be merged together.
+ *
+ * Bankrolls are in minor units (see Money).
+ *
+ * @author Dany Houde
+ */
+public class RiskOfRuinResult {
+
+    public enum SessionEnd { RUIN, TARGET, ROUND_LIMIT }
+
+    private static final SessionEnd[] SESSION_ENDS = SessionEnd.values();
+
+    // The percentiles shown by toString()
+    private static final double[] REPORTED_PERCENTILES = { 5, 25, 50, 75, 95 };
+
+    // The rounds after which the bankroll of every session is sampled, in increasing order
+    private final long[] checkpointRounds;
+
+    // The number of sessions ended each way, indexed by SessionEnd ordinal
+    private final long[] sessionEndCounts;
+
+    private final QuantileSketch sessionLengths;
+    private final QuantileSketch finalBankrolls;
+    private final QuantileSketch[] checkpointBankrolls;
+
+
+    /**
+     * Construct a new, empty RiskOfRuinResult.
+     * @param theCheckpointRounds the rounds after which bankrolls are sampled, in increasing order
+     */
+    public RiskOfRuinResult(long[] theCheckpointRounds) {
+        this.checkpointRounds = theCheckpointRounds.clone();
+        this.sessionEndCounts = new long[SESSION_ENDS.length];
+        this.sessionLengths = new QuantileSketch();
+        this.finalBankrolls = new QuantileSketch();
+        this.checkpointBankrolls = new QuantileSketch[theCheckpointRounds.length];
+        for(int i=0; i<this.checkpointBankrolls.length; i++) {
+            this.checkpointBankrolls[i] = new QuantileSketch();
+        }
+    }
+
+
+    /**
+     * Record the bankroll of a session at a checkpoint. A session which ended
+     * before the checkpoint is recorded with its final bankroll.
+     * @param checkpoint the index of the checkpoint
+     * @param bankroll the player's cash balance after that checkpoint's round
+     */
+    public void addCheckpointBankroll(int checkpoint, long bankroll) {
+        this.checkpointBankrolls[checkpoint].add(bankroll);
+    }
+
+
+    /**
+     * Record how a session ended.
+     * @param anEnd why the session ended
+     * @param numberOfRounds how many rounds the session lasted
+     * @param finalBankroll the player's cash balance at the end of the session
+     */
+    public void addSession(SessionEnd anEnd, long numberOfRounds, long finalBankroll) {
+        this.sessionEndCounts[anEnd.ordinal()]++;
+        this.sessionLengths.add(numberOfRounds);
+        this.finalBankrolls.add(finalBankroll);
+    }
+
+
+    /**
+     * Add the sessions accumulated by another result to this one.
+     * @param other the result to merge into this one, sampled at the same checkpoints
+     */
+    public void merge(RiskOfRuinResult other) {
+        for(int i=0; i<this.sessionEndCounts.length; i++) {
+            this.sessionEndCounts[i] += other.sessionEndCounts[i];
+        }
+        this.sessionLengths.merge(other.sessionLengths);
+        this.finalBankrolls.merge(other.finalBankrolls);
+        for(int i=0; i<this.checkpointBankrolls.length; i++) {
+            this.checkpointBankrolls[i].merge(other.checkpointBankrolls[i]);
+        }
+    }
+
+
+    public long getNumberOfSessions() {
+        return this.sessionLengths.getCount();
+    }
+
+    public long getNumberOfSessions(SessionEnd anEnd) {
+        return this.sessionEndCounts[anEnd.ordinal()];
+    }
+
+
+    /**
+     * @return the fraction of the sessions which ended with the player unable to
+     * afford the minimum bet
+     */
+    public double getRiskOfRuin() {
+        return this.getFraction(SessionEnd.RUIN);
+    }
+
+
+    /**
+     * @return the standard error of the risk of ruin
+     */
+    public double getRiskOfRuinStandardError() {
+        long numberOfSessions = this.getNumberOfSessions();
+        if(numberOfSessions < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        double riskOfRuin = this.getRiskOfRuin();
+        return Math.sqrt(riskOfRuin * (1 - riskOfRuin) / numberOfSessions);
+    }
+
+
+    /**
+     * @param anEnd a way for sessions to end
+     * @return the fraction of the sessions which ended that way, or 0 if no session was played
+     */
+    public double getFraction(SessionEnd anEnd) {
+        long numberOfSessions = this.getNumberOfSessions();
+        return numberOfSessions == 0 ? 0 : (double) this.getNumberOfSessions(anEnd) / numberOfSessions;
+    }
+
+
+    public QuantileSketch getSessionLengths() {
+        return this.sessionLengths;
+    }
+
+    public QuantileSketch getFinalBankrolls() {
+        return this.finalBankrolls;
+    }
+
+    public int getNumberOfCheckpoints() {
+        return this.checkpointRounds.length;
+    }
+
+    public long getCheckpointRound(int checkpoint) {
+        return this.checkpointRounds[checkpoint];
+    }
+
+    public QuantileSketch getCheckpointBankrolls(int checkpoint) {
+        return this.checkpointBankrolls[checkpoint];
+    }
+
+
+    /**
+     * @return a String representation of this RiskOfRuinResult
+     */
+    public String toString() {
+        StringBuilder returnString = new StringBuilder();
+
+        returnString.append("Sessions: ");
+        returnString.append(this.getNumberOfSessions());
+        returnString.append("\nRisk of ruin: ");
+        returnString.append(String.format("%.4f%% +/- %.4f%%", 100.0 * this.getRiskOfRuin(),
+                100.0 * SimulationResult.Z_95 * this.getRiskOfRuinStandardError()));
+        returnString.append("\nTarget reached: ");
+        returnString.append(String.format("%.4f%%", 100.0 * this.getFraction(SessionEnd.TARGET)));
+        returnString.append("\nRound limit reached: ");
+        returnString.append(String.format("%.4f%%", 100.0 * this.getFraction(SessionEnd.ROUND_LIMIT)));
+
+        returnString.append("\nSession length percentiles: ");
+        appendPercentiles(returnString, this.sessionLengths, false);
+        returnString.append("\nBankroll percentiles:");
+        for(int i=0; i<this.checkpointBankrolls.length; i++) {
+            returnString.append("\n\tafter ");
+            returnString.append(this.checkpointRounds[i]);
+            returnString.append(" rounds: ");
+            appendPercentiles(returnString, this.checkpointBankrolls[i], true);
+        }
+        returnString.append("\n\tat the end: ");
+        appendPercentiles(returnString, this.finalBankrolls, true);
+        returnString.append("\n");
+
+        return returnString.toString();
+    }
+
+
+    /**
+     * Append the reported percentiles of a sketch, e.g. "5%: 120, 25%: 480, ...".
+     */
+    private static void appendPercentiles(StringBuilder sb, QuantileSketch aSketch, boolean isMoney) {
+        for(int i=0; i<REPORTED_PERCENTILES.length; i++) {
+            if(i > 0) {
+                sb.append(", ");
+            }
+            sb.append((int) REPORTED_PERCENTILES[i]);
+            sb.append("%: ");
+            long value = aSketch.getValueAtPercentile(REPORTED_PERCENTILES[i]);
+            sb.append(isMoney ? Money.format(value) : Long.toString(value));
+        }
+    }
+}
@@ -0,0 +1,263 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulates independent sessions of a single player, on several threads at once,
+ * to measure the risk of ruin and how the player's bankroll evolves.
+ *
+ * Each session starts with the configured starting cash and a freshly shuffled
+ * shoe, and lasts until the player cannot afford the minimum bet anymore (ruin),
+ * reaches the target bankroll, or reaches the round limit. The player's bankroll
+ * is sampled after each checkpoint round; a session which ended earlier is
+ * sampled with its final bankroll.
+ *
+ * Sessions are cut into fixed-size batches, which the threads take one after
+ * the other. Every thread adds its sessions to its own RiskOfRuinResult, and the
+ * results are merged at the end, so the memory used does not grow with the
+ * number of sessions. The seed of each batch only depends on the master seed and
+ * the batch number, and results merge exactly, so a run gives the same result no
+ * matter how many threads are used.
+ *
+ * @author Dany Houde
+ */
+public class RiskOfRuinSimulator {
+
+    // How many sessions each batch plays
+    private static final long SESSIONS_PER_BATCH = 1000;
+
+    // The amount bet every round by the player of the command line simulation
+    private static final int DEFAULT_BET = 10;
+
+    // How many evenly spaced checkpoints the command line simulation samples
+    private static final int DEFAULT_NUMBER_OF_CHECKPOINTS = 10;
+
+    private final GameConfig config;
+
+    // Shared by all the games; must not keep any state between decisions
+    private final PlayerStrategy strategy;
+
+    // The most rounds a session lasts
+    private final long maxRoundsPerSession;
+
+    // The bankroll, in minor units, at which a session stops; 0 for none
+    private final long targetBankroll;
+
+    // The rounds after which bankrolls are sampled, in increasing order
+    private final long[] checkpointRounds;
+
+    private final int numberOfThreads;
+
+
+    /**
+     * Construct a new RiskOfRuinSimulator.
+     * @param aConfig the game parameters and rule variants, including the starting cash
+     * @param aStrategy the strategy of the simulated player; it is shared by all
+     *                  threads and must therefore be stateless
+     * @param theMaxRoundsPerSession the most rounds a session lasts
+     * @param aTargetBankroll the bankroll, in minor units, at which a session stops; 0 for none
+     * @param theCheckpointRounds the rounds after which bankrolls are sampled, in
+     *                            increasing order, none past the round limit
+     * @param numberOfThreads how many threads to run the simulation on
+     * @throws IllegalArgumentException if the round limit or a checkpoint is invalid
+     */
+    public RiskOfRuinSimulator(GameConfig aConfig, PlayerStrategy aStrategy, long theMaxRoundsPerSession,
+                               long aTargetBankroll, long[] theCheckpointRounds, int numberOfThreads) {
+        if(theMaxRoundsPerSession < 1) {
+            throw new IllegalArgumentException(Strings.INVALID_SESSION_ROUND_LIMIT + theMaxRoundsPerSession);
+        }
+
+        long previousRound = 0;
+        for(long checkpointRound : theCheckpointRounds) {
+            if(checkpointRound <= previousRound || checkpointRound > theMaxRoundsPerSession) {
+                throw new IllegalArgumentException(Strings.INVALID_CHECKPOINT_ROUND + checkpointRound);
+            }
+            previousRound = checkpointRound;
+        }
+
+        this.config = aConfig;
+        this.strategy = aStrategy;
+        this.maxRoundsPerSession = theMaxRoundsPerSession;
+        this.targetBankroll = aTargetBankroll;
+        this.checkpointRounds = theCheckpointRounds.clone();
+        this.numberOfThreads = numberOfThreads;
+    }
+
+
+    /**
+     * Simulate the specified number of sessions.
+     * @param numberOfSessions how many sessions to play
+     * @param masterSeed the seed from which every batch seed is derived
+     * @return the merged result of all sessions
+     */
+    public RiskOfRuinResult run(long numberOfSessions, long masterSeed) {
+
+        final long numberOfBatches = (numberOfSessions + SESSIONS_PER_BATCH - 1) / SESSIONS_PER_BATCH;
+        final AtomicLong nextBatch = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.numberOfThreads);
+        List<Future<RiskOfRuinResult>> threadResults = new ArrayList<Future<RiskOfRuinResult>>();
+
+        try {
+            for(int i=0; i<this.numberOfThreads; i++) {
+                threadResults.add(executor.submit(() -> {
+                    RiskOfRuinResult threadResult = new RiskOfRuinResult(this.checkpointRounds);
+                    for(long batch=nextBatch.getAndIncrement(); batch<numberOfBatches;
+                            batch=nextBatch.getAndIncrement()) {
+                        long firstSession = batch * SESSIONS_PER_BATCH;
+                        this.runBatch(Math.min(SESSIONS_PER_BATCH, numberOfSessions - firstSession),
+                                batchSeed(masterSeed, batch), threadResult);
+                    }
+                    return threadResult;
+                }));
+            }
+
+            RiskOfRuinResult result = new RiskOfRuinResult(this.checkpointRounds);
+            for(Future<RiskOfRuinResult> threadResult : threadResults) {
+                result.merge(threadResult.get());
+            }
+
+            return result;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(Strings.SIMULATION_INTERRUPTED, ie);
+        } catch (ExecutionException ee) {
+            throw new IllegalStateException(Strings.SIMULATION_FAILED, ee.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Play one batch of sessions on a game of its own.
+     * @param numberOfSessions how many sessions to play
+     * @param seed the seed of the stream shuffling the batch's shoe
+     * @param result the result to add the sessions to
+     */
+    private void runBatch(long numberOfSessions, long seed, RiskOfRuinResult result) {
+        BlackjackGame game = new BlackjackGame(this.config, this.strategy, 1, new SplittableRandom(seed));
+        Player player = game.getPlayers()[0];
+
+        for(long session=0; session<numberOfSessions; session++) {
+            game.reshuffle();
+            this.playSession(game, player, result);
+        }
+    }
+
+
+    /**
+     * Play one session, from the starting cash until ruin, the target or the round limit.
+     * @param game the game to play on, between rounds
+     * @param player the only player seated at the game
+     * @param result the result to add the session to
+     */
+    private void playSession(BlackjackGame game, Player player, RiskOfRuinResult result) {
+        long minBet = Money.ofWholeUnits(this.config.getMinBet());
+        player.setCashBalance(Money.ofWholeUnits(this.config.getStartingCashBalance()));
+        player.setPlaying(true);
+
+        long roundsPlayed = 0;
+        int nextCheckpoint = 0;
+        RiskOfRuinResult.SessionEnd sessionEnd;
+        while(true) {
+            long bankroll = player.getCashBalance();
+            if(bankroll < minBet) {
+                sessionEnd = RiskOfRuinResult.SessionEnd.RUIN;
+                break;
+            } else if(this.targetBankroll > 0 && bankroll >= this.targetBankroll) {
+                sessionEnd = RiskOfRuinResult.SessionEnd.TARGET;
+                break;
+            } else if(roundsPlayed == this.maxRoundsPerSession) {
+                sessionEnd = RiskOfRuinResult.SessionEnd.ROUND_LIMIT;
+                break;
+            }
+
+            game.playRound();
+            game.performBetweenRoundMaintenance();
+            roundsPlayed++;
+
+            if(nextCheckpoint < this.checkpointRounds.length && roundsPlayed == this.checkpointRounds[nextCheckpoint]) {
+                result.addCheckpointBankroll(nextCheckpoint++, player.getCashBalance());
+            }
+        }
+
+        // The bankroll of an ended session stays where it ended
+        long finalBankroll = player.getCashBalance();
+        for(; nextCheckpoint<this.checkpointRounds.length; nextCheckpoint++) {
+            result.addCheckpointBankroll(nextCheckpoint, finalBankroll);
+        }
+        result.addSession(sessionEnd, roundsPlayed, finalBankroll);
+    }
+
+
+    /**
+     * @param masterSeed the seed of the run
+     * @param batch the batch number
+     * @return the seed of the batch, mixed so that neighbouring batches get unrelated seeds
+     */
+    private static long batchSeed(long masterSeed, long batch) {
+        return SplitMix64.mix64(masterSeed + (batch + 1) * SplitMix64.GOLDEN_GAMMA);
+    }
+
+
+    /**
+     * @param maxRounds the round limit of a session
+     * @param numberOfCheckpoints how many checkpoints to spread over the session
+     * @return evenly spaced checkpoint rounds, the last one at the round limit
+     */
+    static long[] evenlySpacedCheckpoints(long maxRounds, int numberOfCheckpoints) {
+        long[] checkpoints = new long[numberOfCheckpoints];
+        int numberOfDistinctCheckpoints = 0;
+        for(int i=1; i<=numberOfCheckpoints; i++) {
+            long round = maxRounds * i / numberOfCheckpoints;
+            boolean isDistinct = numberOfDistinctCheckpoints == 0 ||
+                    round > checkpoints[numberOfDistinctCheckpoints - 1];
+            if(round > 0 && isDistinct) {
+                checkpoints[numberOfDistinctCheckpoints++] = round;
+            }
+        }
+
+        return Arrays.copyOf(checkpoints, numberOfDistinctCheckpoints);
+    }
+
+
+    /**
+     * Command line entry method.
+     *
+     * @param args the path to the config file, followed by the number of sessions,
+     *             the round limit of a session, the target bankroll in whole units
+     *             (0 for none), the number of threads and the master seed
+     */
+    public static void main(String[] args) {
+
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(args[0]));
+        long numberOfSessions = Long.parseLong(args[1]);
+        long maxRoundsPerSession = Long.parseLong(args[2]);
+        long targetBankroll = args.length > 3 ? Money.ofWholeUnits(Long.parseLong(args[3])) : 0;
+        int numberOfThreads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long masterSeed = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+
+        // The player follows the basic strategy file sitting next to the config file
+        File strategyFile = new File(new File(args[0]).getParentFile(), config.getBasicStrategyFileName());
+        PlayerStrategy strategy = BasicStrategyPlayerStrategy.load(strategyFile.getPath(), DEFAULT_BET);
+
+        RiskOfRuinSimulator simulator = new RiskOfRuinSimulator(config, strategy, maxRoundsPerSession,
+                targetBankroll, evenlySpacedCheckpoints(maxRoundsPerSession, DEFAULT_NUMBER_OF_CHECKPOINTS),
+                numberOfThreads);
+
+        long startTime = System.nanoTime();
+        RiskOfRuinResult result = simulator.run(numberOfSessions, masterSeed);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1000000;
+
+        System.out.print(result);
+        System.out.println("Elapsed time: " + elapsedMillis + " ms");
+    }
+}
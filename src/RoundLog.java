@@ -0,0 +1,303 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An append-only audit trail of every round played at a table. Every event of a
+ * round (shuffle, bet, deal, decision, split, double down and settlement) is
+ * written as a fixed-size binary record to a memory-mapped file, so that logging
+ * costs a few stores per event and no formatting at all.
+ *
+ * The file starts with a header of RECORD_SIZE bytes holding MAGIC and VERSION,
+ * followed by the records. Each record holds, in little-endian order:
+ * <pre>
+ *  offset  size  field
+ *       0     8  round number, starting at 1
+ *       8     1  event type code (0 marks the end of the log)
+ *       9     1  seat number, or DEALER_SEAT
+ *      10     1  hand index within the seat
+ *      11     1  card code, outcome ordinal, or NO_CARD
+ *      12     4  amount: bet, wager or net win in minor units (see Money),
+ *                or number of cards
+ *      16     8  value: shuffle seed or start time of the round
+ * </pre>
+ * The file grows one segment at a time. A shared background thread forces the
+ * mapped pages to disk periodically, so that the threads appending records never
+ * wait for the disk; the pages are also forced when the log is closed.
+ *
+ * A RoundLog is not thread-safe; each table writes to its own log.
+ *
+ * @author Dany Houde
+ */
+public class RoundLog implements Closeable {
+
+    public enum EventType {
+        ROUND_START, SHUFFLE, BET, DEAL, HIT, STAND, DOUBLE_DOWN, SPLIT, SURRENDER, SETTLE;
+
+        private static final EventType[] TYPES = values();
+
+        /**
+         * @return the code of this type in a record; 0 is never used
+         */
+        public byte getCode() {
+            return (byte) (this.ordinal() + 1);
+        }
+
+        /**
+         * @param aCode the code of a type in a record
+         * @return the type with the provided code, or null if the code marks the end of the log
+         */
+        public static EventType fromCode(byte aCode) {
+            return aCode == 0 ? null : TYPES[aCode - 1];
+        }
+    }
+
+    public static final int MAGIC = 0x424A524C;
+    // Version 2 records amounts in minor units rather than whole units
+    public static final int VERSION = 2;
+
+    public static final int RECORD_SIZE = 24;
+    static final int HEADER_SIZE = RECORD_SIZE;
+
+    // Record layout
+    static final int ROUND_OFFSET = 0;
+    static final int TYPE_OFFSET = 8;
+    static final int SEAT_OFFSET = 9;
+    static final int HAND_OFFSET = 10;
+    static final int CARD_OFFSET = 11;
+    static final int AMOUNT_OFFSET = 12;
+    static final int VALUE_OFFSET = 16;
+
+    public static final int DEALER_SEAT = -1;
+    public static final byte NO_CARD = -1;
+
+    // How many records each mapped segment of the file holds
+    static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 22;
+
+    // How often the mapped pages are forced to disk
+    static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+    // Forces the pages of every open log to disk, off the threads writing the records
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread flusherThread = new Thread(r, "RoundLog-flusher");
+        flusherThread.setDaemon(true);
+        return flusherThread;
+    });
+
+    private final FileChannel channel;
+    private final int recordsPerSegment;
+
+    // Read by the flusher thread
+    private volatile MappedByteBuffer segment;
+
+    private final ScheduledFuture<?> periodicFlush;
+
+    // Where the next record goes in the current segment, and where the segment ends
+    private int writePosition;
+    private int segmentLimit;
+
+    // The offset in the file where the current segment ends
+    private long segmentEnd;
+
+    private long numberOfRecords;
+    private long roundNumber;
+
+
+    /**
+     * Create a new log at the provided path, replacing any existing file.
+     * @param aPath the path to the log file
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public RoundLog(Path aPath) throws IOException {
+        this(aPath, DEFAULT_RECORDS_PER_SEGMENT, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+
+    /**
+     * Create a new log at the provided path, replacing any existing file.
+     * @param aPath the path to the log file
+     * @param theRecordsPerSegment how many records each mapped segment holds
+     * @param flushIntervalMillis how often to force the records to disk
+     * @throws IOException if the file cannot be created or mapped
+     */
+    RoundLog(Path aPath, int theRecordsPerSegment, long flushIntervalMillis) throws IOException {
+        this.channel = FileChannel.open(aPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.recordsPerSegment = theRecordsPerSegment;
+
+        this.segmentEnd = HEADER_SIZE + (long) this.recordsPerSegment * RECORD_SIZE;
+        this.segment = this.mapSegment(0, this.segmentEnd);
+        this.segment.putInt(0, MAGIC);
+        this.segment.putInt(4, VERSION);
+        this.writePosition = HEADER_SIZE;
+        this.segmentLimit = this.segment.capacity();
+
+        this.periodicFlush = FLUSHER.scheduleWithFixedDelay(() -> this.segment.force(),
+                flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+
+    /**
+     * Start a new round; the following records belong to it.
+     * @param startTimeMillis the time the round starts at, in milliseconds since the epoch
+     */
+    public void roundStart(long startTimeMillis) {
+        this.roundNumber++;
+        this.append(EventType.ROUND_START, DEALER_SEAT, 0, NO_CARD, 0, startTimeMillis);
+    }
+
+
+    /**
+     * @param seed the seed the shoe was shuffled with
+     * @param numberOfCards the number of cards shuffled
+     */
+    public void shuffle(long seed, int numberOfCards) {
+        this.append(EventType.SHUFFLE, DEALER_SEAT, 0, NO_CARD, numberOfCards, seed);
+    }
+
+
+    /**
+     * @param seat the seat placing the bet
+     * @param amount the amount bet, in minor units
+     * @throws ArithmeticException if the amount does not fit in a record
+     */
+    public void bet(int seat, long amount) {
+        this.append(EventType.BET, seat, 0, NO_CARD, Math.toIntExact(amount), 0);
+    }
+
+
+    /**
+     * @param seat the seat the card is dealt to, or DEALER_SEAT
+     * @param handIndex the hand the card is dealt to
+     * @param aCard the card dealt
+     */
+    public void deal(int seat, int handIndex, Card aCard) {
+        this.append(EventType.DEAL, seat, handIndex, aCard.getCode(), 0, 0);
+    }
+
+
+    /**
+     * Record a player's choice to hit, stand or surrender.
+     * @param aType HIT, STAND or SURRENDER
+     * @param seat the seat making the decision
+     * @param handIndex the hand the decision is made for
+     */
+    public void decision(EventType aType, int seat, int handIndex) {
+        this.append(aType, seat, handIndex, NO_CARD, 0, 0);
+    }
+
+
+    /**
+     * @param seat the seat doubling down
+     * @param handIndex the hand doubled down on
+     * @param wager the wager of the hand once doubled, in minor units
+     * @throws ArithmeticException if the wager does not fit in a record
+     */
+    public void doubleDown(int seat, int handIndex, long wager) {
+        this.append(EventType.DOUBLE_DOWN, seat, handIndex, NO_CARD, Math.toIntExact(wager), 0);
+    }
+
+
+    /**
+     * @param seat the seat splitting a hand
+     * @param handIndex the hand being split; the new hand follows it
+     */
+    public void split(int seat, int handIndex) {
+        this.append(EventType.SPLIT, seat, handIndex, NO_CARD, 0, 0);
+    }
+
+
+    /**
+     * @param seat the seat holding the hand
+     * @param handIndex the hand settled
+     * @param anOutcome the outcome of the hand
+     * @param net the amount won by the player, in minor units, negative when lost
+     * @throws ArithmeticException if the net does not fit in a record
+     */
+    public void settle(int seat, int handIndex, RoundResult.Outcome anOutcome, long net) {
+        this.append(EventType.SETTLE, seat, handIndex, (byte) anOutcome.ordinal(), Math.toIntExact(net), 0);
+    }
+
+
+    /**
+     * @return the number of records appended so far
+     */
+    public long getNumberOfRecords() {
+        return this.numberOfRecords;
+    }
+
+
+    /**
+     * Write one record at the end of the log.
+     */
+    private void append(EventType aType, int seat, int handIndex, byte card, int amount, long value) {
+        if(this.writePosition == this.segmentLimit) {
+            this.mapNextSegment();
+        }
+
+        MappedByteBuffer buffer = this.segment;
+        int position = this.writePosition;
+        buffer.putLong(position + ROUND_OFFSET, this.roundNumber);
+        buffer.putInt(position + AMOUNT_OFFSET, amount);
+        buffer.putLong(position + VALUE_OFFSET, value);
+        // The type, seat, hand and card bytes go last, in a single store, so that
+        // a partly written record reads as the end of the log
+        buffer.putInt(position + TYPE_OFFSET, (aType.getCode() & 0xFF) | (seat & 0xFF) << 8 |
+                (handIndex & 0xFF) << 16 | (card & 0xFF) << 24);
+        this.writePosition = position + RECORD_SIZE;
+
+        this.numberOfRecords++;
+    }
+
+
+    /**
+     * Map the next segment, growing the file, and have the full segment flushed.
+     */
+    private void mapNextSegment() {
+        final MappedByteBuffer fullSegment = this.segment;
+        FLUSHER.execute(() -> fullSegment.force());
+        try {
+            long segmentSize = (long) this.recordsPerSegment * RECORD_SIZE;
+            this.segment = this.mapSegment(this.segmentEnd, segmentSize);
+            this.writePosition = 0;
+            this.segmentLimit = this.segment.capacity();
+            this.segmentEnd += segmentSize;
+        } catch (IOException ioe) {
+            throw new IllegalStateException(Strings.CANNOT_GROW_ROUND_LOG, ioe);
+        }
+    }
+
+
+    /**
+     * Map a new segment of the file, growing the file as needed.
+     * @param offset the offset of the segment in the file
+     * @param size the size of the segment, in bytes
+     * @return the mapped segment
+     * @throws IOException if the file cannot be grown or mapped
+     */
+    private MappedByteBuffer mapSegment(long offset, long size) throws IOException {
+        MappedByteBuffer mappedSegment = this.channel.map(FileChannel.MapMode.READ_WRITE, offset, size);
+        mappedSegment.order(ByteOrder.LITTLE_ENDIAN);
+        return mappedSegment;
+    }
+
+
+    /**
+     * Force the records to disk, and trim the file to its last record.
+     */
+    @Override
+    public void close() throws IOException {
+        this.periodicFlush.cancel(false);
+        this.segment.force();
+        this.channel.truncate(HEADER_SIZE + this.numberOfRecords * RECORD_SIZE);
+        this.channel.close();
+    }
+}
@@ -0,0 +1,182 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads back the records written by a RoundLog, one at a time. The reader is a
+ * cursor over the file: next() moves to the following record, whose fields are
+ * then available through the getters, without allocating anything per record.
+ * The file is mapped one window of records at a time, addressed by long offsets,
+ * so logs of any size can be read; a new window is only mapped when the cursor
+ * leaves the current one.
+ *
+ * @author Dany Houde
+ */
+public class RoundLogReader implements Closeable {
+
+    private static final RoundResult.Outcome[] OUTCOMES = RoundResult.Outcome.values();
+
+    private final FileChannel channel;
+
+    // How many records each mapped window of the file holds
+    private final int recordsPerWindow;
+
+    // How many whole records the file holds, including the unused ones of a log still being written
+    private final long numberOfFileRecords;
+
+    // The mapped window holding the current record, or null before the first one is mapped
+    private MappedByteBuffer window;
+
+    // The index of the first record of the window
+    private long windowFirstRecord;
+
+    // The index of the current record, or -1 before the first call to next()
+    private long recordIndex;
+
+    // The position of the current record in the window
+    private int position;
+
+
+    /**
+     * Open the log at the provided path.
+     * @param aPath the path to the log file
+     * @throws IOException if the file cannot be read or is not a round log
+     */
+    public RoundLogReader(Path aPath) throws IOException {
+        this(aPath, RoundLog.DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+
+    /**
+     * Open the log at the provided path.
+     * @param aPath the path to the log file
+     * @param theRecordsPerWindow how many records each mapped window of the file holds
+     * @throws IOException if the file cannot be read or is not a round log
+     */
+    RoundLogReader(Path aPath, int theRecordsPerWindow) throws IOException {
+        this.channel = FileChannel.open(aPath, StandardOpenOption.READ);
+        this.recordsPerWindow = theRecordsPerWindow;
+
+        ByteBuffer header = ByteBuffer.allocate(RoundLog.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.channel.read(header, 0);
+        if(header.hasRemaining() || header.getInt(0) != RoundLog.MAGIC || header.getInt(4) != RoundLog.VERSION) {
+            this.channel.close();
+            throw new IOException(Strings.NOT_A_ROUND_LOG + aPath);
+        }
+
+        this.numberOfFileRecords = (this.channel.size() - RoundLog.HEADER_SIZE) / RoundLog.RECORD_SIZE;
+        this.recordIndex = -1;
+    }
+
+
+    /**
+     * Move to the next record.
+     * @return false if there are no more records
+     * @throws IllegalStateException if the file cannot be mapped
+     */
+    public boolean next() {
+        long nextRecordIndex = this.recordIndex + 1;
+        if(nextRecordIndex >= this.numberOfFileRecords) {
+            return false;
+        }
+
+        int nextPosition = this.mapWindow(nextRecordIndex);
+        if(this.window.get(nextPosition + RoundLog.TYPE_OFFSET) == 0) {
+            return false;
+        }
+
+        this.recordIndex = nextRecordIndex;
+        this.position = nextPosition;
+        return true;
+    }
+
+    /**
+     * Move right before the provided record, so that the next call to next()
+     * moves to it.
+     * @param theRecordIndex the index of the record, 0 being the first one
+     */
+    public void seek(long theRecordIndex) {
+        this.recordIndex = theRecordIndex - 1;
+    }
+
+    /**
+     * @return the index of the current record, 0 being the first one
+     */
+    public long getRecordIndex() {
+        return this.recordIndex;
+    }
+
+    /**
+     * Make sure the provided record is in the mapped window, mapping the window
+     * holding it if needed.
+     * @param theRecordIndex the index of a record held by the file
+     * @return the position of the record in the window
+     * @throws IllegalStateException if the file cannot be mapped
+     */
+    private int mapWindow(long theRecordIndex) {
+        if(null == this.window || theRecordIndex < this.windowFirstRecord ||
+                theRecordIndex >= this.windowFirstRecord + this.recordsPerWindow) {
+            long firstRecord = theRecordIndex - theRecordIndex % this.recordsPerWindow;
+            long numberOfRecords = Math.min(this.recordsPerWindow, this.numberOfFileRecords - firstRecord);
+            try {
+                this.window = this.channel.map(FileChannel.MapMode.READ_ONLY,
+                        RoundLog.HEADER_SIZE + firstRecord * RoundLog.RECORD_SIZE,
+                        numberOfRecords * RoundLog.RECORD_SIZE);
+            } catch (IOException ioe) {
+                throw new IllegalStateException(Strings.CANNOT_READ_ROUND_LOG, ioe);
+            }
+            this.window.order(ByteOrder.LITTLE_ENDIAN);
+            this.windowFirstRecord = firstRecord;
+        }
+
+        return (int) (theRecordIndex - this.windowFirstRecord) * RoundLog.RECORD_SIZE;
+    }
+
+    public long getRoundNumber() {
+        return this.window.getLong(this.position + RoundLog.ROUND_OFFSET);
+    }
+
+    public RoundLog.EventType getType() {
+        return RoundLog.EventType.fromCode(this.window.get(this.position + RoundLog.TYPE_OFFSET));
+    }
+
+    public int getSeat() {
+        return this.window.get(this.position + RoundLog.SEAT_OFFSET);
+    }
+
+    public int getHandIndex() {
+        return this.window.get(this.position + RoundLog.HAND_OFFSET);
+    }
+
+    /**
+     * @return the card of a DEAL record
+     */
+    public Card getCard() {
+        return Card.fromCode(this.window.get(this.position + RoundLog.CARD_OFFSET));
+    }
+
+    /**
+     * @return the outcome of a SETTLE record
+     */
+    public RoundResult.Outcome getOutcome() {
+        return OUTCOMES[this.window.get(this.position + RoundLog.CARD_OFFSET)];
+    }
+
+    public int getAmount() {
+        return this.window.getInt(this.position + RoundLog.AMOUNT_OFFSET);
+    }
+
+    public long getValue() {
+        return this.window.getLong(this.position + RoundLog.VALUE_OFFSET);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
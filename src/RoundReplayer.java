@@ -0,0 +1,289 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Replays rounds recorded in a RoundLog through the same BlackjackGame rules,
+ * headless, so that they come out with the very same cards, decisions and
+ * balances as when they were recorded.
+ *
+ * Every shuffle of the full shoe between two rounds is a checkpoint: since the
+ * shuffled order only depends on the seed, a fresh shoe shuffled with the logged
+ * seed holds the same cards in the same order. Replaying round N thus starts from
+ * the last checkpoint before it, with the balances the log adds up to at that
+ * point, instead of replaying every round from the first one.
+ *
+ * The log must have been recorded with the rules of the provided GameConfig, by
+ * a game whose balances were not reset between rounds.
+ *
+ * @author Dany Houde
+ */
+public class RoundReplayer {
+
+    private final GameConfig config;
+    private final Path logPath;
+
+    // The number of seats which placed a bet in the log
+    private final int numberOfPlayers;
+
+    // The number of the last round in the log
+    private final long lastRoundNumber;
+
+    // Checkpoints, in round order: the round after which the full shoe was shuffled,
+    // the seed of the shuffle, the index of its record, and each seat's winnings so far
+    private long[] checkpointRounds;
+    private long[] checkpointSeeds;
+    private long[] checkpointRecordIndexes;
+    private long[][] checkpointSeatNets;
+    private int numberOfCheckpoints;
+
+
+    /**
+     * Construct a new RoundReplayer over the provided log. The log is scanned once
+     * to find its checkpoints.
+     * @param aConfig the rules the log was recorded with
+     * @param aLogPath the path to the log file
+     * @throws IOException if the log cannot be read
+     */
+    public RoundReplayer(GameConfig aConfig, Path aLogPath) throws IOException {
+        this.config = aConfig;
+        this.logPath = aLogPath;
+
+        this.checkpointRounds = new long[16];
+        this.checkpointSeeds = new long[16];
+        this.checkpointRecordIndexes = new long[16];
+        this.checkpointSeatNets = new long[16][];
+
+        int fullShoeSize = aConfig.getNumberOfDecks() * Deck.getSize();
+        long[] seatNets = new long[aConfig.getMaxNumberOfPlayers()];
+        int maxSeat = -1;
+        long roundNumber = 0;
+
+        try (RoundLogReader reader = new RoundLogReader(aLogPath)) {
+            while(reader.next()) {
+                roundNumber = reader.getRoundNumber();
+
+                switch(reader.getType()) {
+                    case BET:
+                        maxSeat = Math.max(maxSeat, reader.getSeat());
+                        break;
+                    case SETTLE:
+                        seatNets[reader.getSeat()] += reader.getAmount();
+                        break;
+                    case SHUFFLE:
+                        if(reader.getAmount() == fullShoeSize) {
+                            this.addCheckpoint(roundNumber, reader.getValue(), reader.getRecordIndex(), seatNets);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        if(0 == this.numberOfCheckpoints || 0 != this.checkpointRounds[0]) {
+            throw new IllegalArgumentException(Strings.NO_INITIAL_SHUFFLE_IN_LOG + aLogPath);
+        }
+
+        this.numberOfPlayers = maxSeat + 1;
+        this.lastRoundNumber = roundNumber;
+    }
+
+
+    /**
+     * Record a checkpoint.
+     */
+    private void addCheckpoint(long roundNumber, long seed, long recordIndex, long[] seatNets) {
+        if(this.numberOfCheckpoints == this.checkpointRounds.length) {
+            int newLength = 2 * this.numberOfCheckpoints;
+            this.checkpointRounds = Arrays.copyOf(this.checkpointRounds, newLength);
+            this.checkpointSeeds = Arrays.copyOf(this.checkpointSeeds, newLength);
+            this.checkpointRecordIndexes = Arrays.copyOf(this.checkpointRecordIndexes, newLength);
+            this.checkpointSeatNets = Arrays.copyOf(this.checkpointSeatNets, newLength);
+        }
+
+        this.checkpointRounds[this.numberOfCheckpoints] = roundNumber;
+        this.checkpointSeeds[this.numberOfCheckpoints] = seed;
+        this.checkpointRecordIndexes[this.numberOfCheckpoints] = recordIndex;
+        this.checkpointSeatNets[this.numberOfCheckpoints] = seatNets.clone();
+        this.numberOfCheckpoints++;
+    }
+
+
+    /**
+     * @return the number of the last round in the log
+     */
+    public long getLastRoundNumber() {
+        return this.lastRoundNumber;
+    }
+
+
+    /**
+     * @return the number of seats which played in the log
+     */
+    public int getNumberOfPlayers() {
+        return this.numberOfPlayers;
+    }
+
+
+    /**
+     * Replay the provided range of rounds. The rounds between the last checkpoint and
+     * the first round of the range are replayed as well, to get the shoe to the state
+     * it was in at the start of the range.
+     * @param firstRound the number of the first round to replay, starting at 1
+     * @param lastRound the number of the last round to replay
+     * @param replayLog a log to record the replayed rounds to, or null
+     * @return the game the rounds were replayed in, as it stands after the last round
+     * @throws IOException if the log cannot be read
+     * @throws IllegalArgumentException if the range is not in the log
+     * @throws IllegalStateException if the replay does not play out as recorded
+     */
+    public BlackjackGame replay(long firstRound, long lastRound, RoundLog replayLog) throws IOException {
+        if(firstRound < 1 || firstRound > lastRound || lastRound > this.lastRoundNumber) {
+            throw new IllegalArgumentException(Strings.INVALID_REPLAY_RANGE + firstRound + "-" + lastRound);
+        }
+
+        // Start from the last checkpoint before the first round
+        int checkpoint = Arrays.binarySearch(this.checkpointRounds, 0, this.numberOfCheckpoints, firstRound - 1);
+        if(checkpoint < 0) {
+            checkpoint = -checkpoint - 2;
+        }
+        while(checkpoint + 1 < this.numberOfCheckpoints && this.checkpointRounds[checkpoint + 1] == firstRound - 1) {
+            checkpoint++;
+        }
+
+        ReplaySeeds seeds = new ReplaySeeds();
+        seeds.add(this.checkpointSeeds[checkpoint]);
+
+        ReplayPlayerStrategy strategy = new ReplayPlayerStrategy(this.numberOfPlayers);
+        BlackjackGame game = new BlackjackGame(this.config, strategy, this.numberOfPlayers, seeds);
+        Player[] players = game.getPlayers();
+        for(int seat=0; seat<this.numberOfPlayers; seat++) {
+            players[seat].setCashBalance(
+                    Money.ofWholeUnits(this.config.getStartingCashBalance()) + this.checkpointSeatNets[checkpoint][seat]);
+        }
+        game.setRoundLog(replayLog);
+
+        long[] recordedNets = new long[this.numberOfPlayers];
+        try (RoundLogReader reader = new RoundLogReader(this.logPath)) {
+            reader.seek(this.checkpointRecordIndexes[checkpoint] + 1);
+            boolean hasRecord = reader.next();
+
+            for(long round=this.checkpointRounds[checkpoint]+1; round<=lastRound; round++) {
+                if(!hasRecord || reader.getType() != RoundLog.EventType.ROUND_START || reader.getRoundNumber() != round) {
+                    throw new IllegalStateException(Strings.REPLAY_DIVERGED + Strings.REPLAY_MISSING_ROUND + round);
+                }
+
+                // Load the bets, decisions and shuffles of the round
+                strategy.clear();
+                Arrays.fill(recordedNets, 0);
+                while((hasRecord = reader.next()) && reader.getType() != RoundLog.EventType.ROUND_START) {
+                    switch(reader.getType()) {
+                        case BET:
+                            strategy.setBet(reader.getSeat(), reader.getAmount());
+                            break;
+                        case HIT:
+                        case STAND:
+                        case SPLIT:
+                        case DOUBLE_DOWN:
+                        case SURRENDER:
+                            strategy.addDecision(reader.getSeat(), reader.getType(), reader.getHandIndex());
+                            break;
+                        case SHUFFLE:
+                            seeds.add(reader.getValue());
+                            break;
+                        case SETTLE:
+                            recordedNets[reader.getSeat()] += reader.getAmount();
+                            break;
+                        default:
+                            break;
+                    }
+                }
+
+                // Seats stop betting once they leave the table
+                for(int seat=0; seat<this.numberOfPlayers; seat++) {
+                    if(!strategy.hasBet(seat)) {
+                        players[seat].setPlaying(false);
+                    }
+                }
+
+                game.playRound();
+                game.performBetweenRoundMaintenance();
+
+                RoundResult result = game.getLastRoundResult();
+                for(int seat=0; seat<this.numberOfPlayers; seat++) {
+                    if(result.getSeatNet(seat) != recordedNets[seat]) {
+                        throw new IllegalStateException(Strings.REPLAY_DIVERGED + Strings.REPLAY_NET_MISMATCH + round);
+                    }
+                }
+                if(strategy.hasPendingDecisions() || !seeds.isEmpty()) {
+                    throw new IllegalStateException(Strings.REPLAY_DIVERGED + Strings.REPLAY_MISSING_ROUND + round);
+                }
+            }
+        }
+
+        return game;
+    }
+
+
+    /**
+     * The source of the shoe's shuffle seeds during a replay: it hands out the seeds
+     * read from the log, in order, instead of random ones.
+     */
+    private static class ReplaySeeds implements RandomGenerator {
+
+        private long[] seeds = new long[4];
+        private int first;
+        private int size;
+
+        void add(long seed) {
+            if(this.first + this.size == this.seeds.length) {
+                System.arraycopy(this.seeds, this.first, this.seeds, 0, this.size);
+                this.first = 0;
+                if(this.size == this.seeds.length) {
+                    this.seeds = Arrays.copyOf(this.seeds, 2 * this.size);
+                }
+            }
+            this.seeds[this.first + this.size++] = seed;
+        }
+
+        boolean isEmpty() {
+            return 0 == this.size;
+        }
+
+        @Override
+        public long nextLong() {
+            if(this.isEmpty()) {
+                throw new IllegalStateException(Strings.REPLAY_DIVERGED + Strings.REPLAY_MISSING_SHUFFLE);
+            }
+
+            this.size--;
+            return this.seeds[this.first++];
+        }
+    }
+
+
+    /**
+     * Command line entry method. Replays a range of rounds and prints the players'
+     * balances after the last one.
+     *
+     * @param args the path to the config file the log was recorded with, the path to
+     *             the log, and the first and last rounds to replay
+     */
+    public static void main(String[] args) throws IOException {
+
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(args[0]));
+        RoundReplayer replayer = new RoundReplayer(config, Paths.get(args[1]));
+        long firstRound = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        long lastRound = args.length > 3 ? Long.parseLong(args[3]) : replayer.getLastRoundNumber();
+
+        long startTime = System.nanoTime();
+        BlackjackGame game = replayer.replay(firstRound, lastRound, null);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1000000;
+
+        IOUtil.printPlayerBalances(game.getPlayers());
+        System.out.println("Replayed up to round " + lastRound + " in " + elapsedMillis + " ms");
+    }
+}
@@ -0,0 +1,217 @@
+import java.util.Arrays;
+
+/**
+ * A compact ledger of the outcome of one round: the dealer's up card and final
+ * hand, the initial bet, starting hand and net win of every seat, and the outcome,
+ * stake and net win of every player hand. Amounts are in minor units (see
+ * Money). Entries are kept in primitive arrays, and a RoundResult is meant to
+ * be reset and reused from one round to the next.
+ *
+ * @author Dany Houde
+ */
+public class RoundResult {
+
+    public enum Outcome { WIN, PUSH, LOSS, NATURAL, BUST, SURRENDER }
+
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    // The dealer's up card and final hand
+    private int dealerUpCardPipValue;
+    private int dealerValue;
+    private boolean isDealerNatural;
+
+    // Seat entries, indexed by seat number
+    private final boolean[] seatIsPlaying;
+    private final long[] seatInitialBets;
+    private final long[] seatNets;
+    private final int[] seatStartingValues;
+    private final boolean[] seatStartingIsSoft;
+
+    // Hand entries, in settlement order
+    private int numberOfHands;
+    private int[] handSeats;
+    private byte[] handOutcomes;
+    private long[] handStakes;
+    private long[] handNets;
+    private boolean[] handIsDoubleDown;
+
+
+    /**
+     * Construct a new, empty RoundResult.
+     * @param numberOfSeats the number of seats at the table
+     * @param expectedHandsPerRound the number of hands to make room for; more
+     *                              room is made if needed
+     */
+    public RoundResult(int numberOfSeats, int expectedHandsPerRound) {
+        this.seatIsPlaying = new boolean[numberOfSeats];
+        this.seatInitialBets = new long[numberOfSeats];
+        this.seatNets = new long[numberOfSeats];
+        this.seatStartingValues = new int[numberOfSeats];
+        this.seatStartingIsSoft = new boolean[numberOfSeats];
+
+        this.handSeats = new int[expectedHandsPerRound];
+        this.handOutcomes = new byte[expectedHandsPerRound];
+        this.handStakes = new long[expectedHandsPerRound];
+        this.handNets = new long[expectedHandsPerRound];
+        this.handIsDoubleDown = new boolean[expectedHandsPerRound];
+    }
+
+
+    /**
+     * Clear all entries, getting ready for a new round.
+     */
+    public void reset() {
+        this.dealerUpCardPipValue = 0;
+        this.dealerValue = 0;
+        this.isDealerNatural = false;
+        this.numberOfHands = 0;
+
+        Arrays.fill(this.seatIsPlaying, false);
+        Arrays.fill(this.seatInitialBets, 0);
+        Arrays.fill(this.seatNets, 0);
+    }
+
+
+    /**
+     * Record the initial bet of a seat.
+     * @param seat the seat number
+     * @param initialBet the bet placed by the seat at the start of the round
+     */
+    public void setInitialBet(int seat, long initialBet) {
+        this.seatIsPlaying[seat] = true;
+        this.seatInitialBets[seat] = initialBet;
+    }
+
+
+    /**
+     * Record the two cards dealt to a seat at the start of the round.
+     * @param seat the seat number
+     * @param aStartingValue the value of the seat's first two cards
+     * @param isSoft whether those two cards make a soft total
+     */
+    public void setStartingHand(int seat, int aStartingValue, boolean isSoft) {
+        this.seatStartingValues[seat] = aStartingValue;
+        this.seatStartingIsSoft[seat] = isSoft;
+    }
+
+
+    /**
+     * @param aPipValue the pip value of the dealer's face up card, 1 for an ace
+     */
+    public void setDealerUpCard(int aPipValue) {
+        this.dealerUpCardPipValue = aPipValue;
+    }
+
+
+    /**
+     * Record the dealer's final hand.
+     * @param aDealerValue the value of the dealer's hand
+     * @param isNatural whether the dealer's hand is a natural
+     */
+    public void setDealerHand(int aDealerValue, boolean isNatural) {
+        this.dealerValue = aDealerValue;
+        this.isDealerNatural = isNatural;
+    }
+
+
+    /**
+     * Record the outcome of a player hand.
+     * @param seat the seat number of the player holding the hand
+     * @param anOutcome the outcome of the hand
+     * @param stake the amount the player put at stake on the hand, including
+     *              doubles but not any natural payout
+     * @param net how much the player won on the hand; negative if he lost
+     * @param isDoubleDown whether the player doubled down on the hand
+     */
+    public void addHand(int seat, Outcome anOutcome, long stake, long net, boolean isDoubleDown) {
+        if(this.numberOfHands == this.handSeats.length) {
+            int newLength = 2 * this.handSeats.length + 1;
+            this.handSeats = Arrays.copyOf(this.handSeats, newLength);
+            this.handOutcomes = Arrays.copyOf(this.handOutcomes, newLength);
+            this.handStakes = Arrays.copyOf(this.handStakes, newLength);
+            this.handNets = Arrays.copyOf(this.handNets, newLength);
+            this.handIsDoubleDown = Arrays.copyOf(this.handIsDoubleDown, newLength);
+        }
+
+        this.handSeats[this.numberOfHands] = seat;
+        this.handOutcomes[this.numberOfHands] = (byte) anOutcome.ordinal();
+        this.handStakes[this.numberOfHands] = stake;
+        this.handNets[this.numberOfHands] = net;
+        this.handIsDoubleDown[this.numberOfHands] = isDoubleDown;
+        this.numberOfHands++;
+
+        this.seatNets[seat] += net;
+    }
+
+
+    public int getDealerUpCardPipValue() {
+        return this.dealerUpCardPipValue;
+    }
+
+    public int getDealerValue() {
+        return this.dealerValue;
+    }
+
+    public boolean isDealerNatural() {
+        return this.isDealerNatural;
+    }
+
+    public boolean isDealerBust() {
+        return this.dealerValue > BlackjackGame.BLACKJACK_NUMBER;
+    }
+
+    /**
+     * @return the number of seats at the table, whether they played this round or not
+     */
+    public int getNumberOfSeats() {
+        return this.seatIsPlaying.length;
+    }
+
+    public boolean isSeatPlaying(int seat) {
+        return this.seatIsPlaying[seat];
+    }
+
+    public long getInitialBet(int seat) {
+        return this.seatInitialBets[seat];
+    }
+
+    /**
+     * @param seat the seat number
+     * @return how much the seat won over all its hands; negative if it lost money
+     */
+    public long getSeatNet(int seat) {
+        return this.seatNets[seat];
+    }
+
+    public int getStartingValue(int seat) {
+        return this.seatStartingValues[seat];
+    }
+
+    public boolean isStartingHandSoft(int seat) {
+        return this.seatStartingIsSoft[seat];
+    }
+
+    public int getNumberOfHands() {
+        return this.numberOfHands;
+    }
+
+    public int getHandSeat(int handIndex) {
+        return this.handSeats[handIndex];
+    }
+
+    public Outcome getHandOutcome(int handIndex) {
+        return OUTCOMES[this.handOutcomes[handIndex]];
+    }
+
+    public long getHandStake(int handIndex) {
+        return this.handStakes[handIndex];
+    }
+
+    public long getHandNet(int handIndex) {
+        return this.handNets[handIndex];
+    }
+
+    public boolean isHandDoubleDown(int handIndex) {
+        return this.handIsDoubleDown[handIndex];
+    }
+}
@@ -0,0 +1,295 @@
+import java.util.Arrays;
+
+/**
+ * Streaming statistics of the rounds coming out of settlement: the mean and
+ * variance of a hand's net win, the rate of each hand outcome, a histogram of
+ * the net win of each seat over a round, and the expected value of every
+ * starting hand against every dealer up card.
+ *
+ * Amounts are measured in units of the seat's initial bet, so that rounds
+ * played at different bets can be compared. The mean and variance are kept with
+ * Welford's online algorithm, and everything else in fixed-size long arrays, so
+ * adding a round neither boxes nor allocates.
+ *
+ * A RoundStatistics is not thread-safe; each batch of rounds adds to its own
+ * instance, and the instances are merged in batch order. Counts and sums merge
+ * exactly, and the mean and variance are combined with Chan's parallel formula,
+ * which is associative only up to floating-point rounding: merging the same
+ * instances in another order may change the last bits of the variance.
+ *
+ * @author Dany Houde
+ */
+public class RoundStatistics {
+
+    private static final RoundResult.Outcome[] OUTCOMES = RoundResult.Outcome.values();
+
+    // Starting hands are indexed by their value, hard or soft; two cards are worth 21 at most
+    private static final int NUM_STARTING_VALUES = BlackjackGame.BLACKJACK_NUMBER + 1;
+    private static final int MIN_HARD_STARTING_VALUE = 4;
+    private static final int MIN_SOFT_STARTING_VALUE = 12;
+
+    // Up cards are indexed by their pip value, 1 for an ace
+    private static final int NUM_UP_CARDS = 11;
+
+    // The net win histogram counts half bets, from -MAX_HISTOGRAM_BETS to +MAX_HISTOGRAM_BETS
+    private static final int MAX_HISTOGRAM_BETS = 8;
+    private static final int HISTOGRAM_ORIGIN = 2 * MAX_HISTOGRAM_BETS;
+
+    private static final int[] UP_CARD_COLUMNS = { 2, 3, 4, 5, 6, 7, 8, 9, 10, 1 };
+
+    // Welford accumulators of the net win of every hand, in initial bets
+    private long numberOfHands;
+    private double meanHandNet;
+    private double sumOfSquaredHandNetDeviations;
+
+    // Number of hands of each outcome, indexed by Outcome ordinal
+    private final long[] outcomeCounts;
+
+    // Number of seat rounds by net win, rounded to the nearest half bet and capped
+    private final long[] seatNetHistogram;
+
+    // Seat rounds, net wins and initial bets, indexed by startingHandIndex()
+    private final long[] startingHandSeatRounds;
+    private final long[] startingHandNets;
+    private final long[] startingHandBets;
+
+
+    /**
+     * Construct a new, empty RoundStatistics.
+     */
+    public RoundStatistics() {
+        this.outcomeCounts = new long[OUTCOMES.length];
+        this.seatNetHistogram = new long[2 * HISTOGRAM_ORIGIN + 1];
+        this.startingHandSeatRounds = new long[2 * NUM_STARTING_VALUES * NUM_UP_CARDS];
+        this.startingHandNets = new long[this.startingHandSeatRounds.length];
+        this.startingHandBets = new long[this.startingHandSeatRounds.length];
+    }
+
+
+    /**
+     * Add every hand and every seat of the provided round.
+     * @param aRoundResult the ledger of the round
+     */
+    public void addRound(RoundResult aRoundResult) {
+        for(int handIndex=0; handIndex<aRoundResult.getNumberOfHands(); handIndex++) {
+            int seat = aRoundResult.getHandSeat(handIndex);
+            this.outcomeCounts[aRoundResult.getHandOutcome(handIndex).ordinal()]++;
+
+            double handNet = (double) aRoundResult.getHandNet(handIndex) / aRoundResult.getInitialBet(seat);
+            this.numberOfHands++;
+            double deviation = handNet - this.meanHandNet;
+            this.meanHandNet += deviation / this.numberOfHands;
+            this.sumOfSquaredHandNetDeviations += deviation * (handNet - this.meanHandNet);
+        }
+
+        int upCard = aRoundResult.getDealerUpCardPipValue();
+        for(int seat=0; seat<aRoundResult.getNumberOfSeats(); seat++) {
+            if(!aRoundResult.isSeatPlaying(seat)) {
+                continue;
+            }
+
+            long initialBet = aRoundResult.getInitialBet(seat);
+            long net = aRoundResult.getSeatNet(seat);
+
+            long halfBets = Math.round(2.0 * net / initialBet);
+            this.seatNetHistogram[(int) Math.max(0, Math.min(2 * HISTOGRAM_ORIGIN, halfBets + HISTOGRAM_ORIGIN))]++;
+
+            int cell = startingHandIndex(aRoundResult.getStartingValue(seat),
+                    aRoundResult.isStartingHandSoft(seat), upCard);
+            this.startingHandSeatRounds[cell]++;
+            this.startingHandNets[cell] += net;
+            this.startingHandBets[cell] += initialBet;
+        }
+    }
+
+
+    /**
+     * Add the rounds accumulated by another instance to this one.
+     * @param other the statistics to merge into this one
+     */
+    public void merge(RoundStatistics other) {
+        long totalHands = this.numberOfHands + other.numberOfHands;
+        if(totalHands > 0) {
+            double meanDifference = other.meanHandNet - this.meanHandNet;
+            this.sumOfSquaredHandNetDeviations += other.sumOfSquaredHandNetDeviations +
+                    meanDifference * meanDifference * ((double) this.numberOfHands * other.numberOfHands / totalHands);
+            this.meanHandNet += meanDifference * other.numberOfHands / totalHands;
+            this.numberOfHands = totalHands;
+        }
+
+        addAll(this.outcomeCounts, other.outcomeCounts);
+        addAll(this.seatNetHistogram, other.seatNetHistogram);
+        addAll(this.startingHandSeatRounds, other.startingHandSeatRounds);
+        addAll(this.startingHandNets, other.startingHandNets);
+        addAll(this.startingHandBets, other.startingHandBets);
+    }
+
+
+    private static void addAll(long[] sums, long[] values) {
+        for(int i=0; i<sums.length; i++) {
+            sums[i] += values[i];
+        }
+    }
+
+
+    /**
+     * @param aStartingValue the value of the first two cards
+     * @param isSoft whether the first two cards make a soft total
+     * @param anUpCard the pip value of the dealer's up card
+     * @return the index of that starting hand and up card in the starting hand arrays
+     */
+    private static int startingHandIndex(int aStartingValue, boolean isSoft, int anUpCard) {
+        return ((isSoft ? NUM_STARTING_VALUES : 0) + aStartingValue) * NUM_UP_CARDS + anUpCard;
+    }
+
+
+    public long getNumberOfHands() {
+        return this.numberOfHands;
+    }
+
+
+    /**
+     * @return the average net win of a hand, in initial bets
+     */
+    public double getMeanHandNet() {
+        return this.meanHandNet;
+    }
+
+
+    /**
+     * @return the sample variance of the net win of a hand, in squared initial bets
+     */
+    public double getHandNetVariance() {
+        if(this.numberOfHands < 2) {
+            return 0.0;
+        }
+
+        return this.sumOfSquaredHandNetDeviations / (this.numberOfHands - 1);
+    }
+
+
+    /**
+     * @param anOutcome a hand outcome
+     * @return the fraction of the hands which had that outcome
+     */
+    public double getOutcomeRate(RoundResult.Outcome anOutcome) {
+        return this.numberOfHands == 0 ? 0.0 : (double) this.outcomeCounts[anOutcome.ordinal()] / this.numberOfHands;
+    }
+
+
+    /**
+     * @return the fraction of the hands won, naturals included
+     */
+    public double getWinRate() {
+        return this.getOutcomeRate(RoundResult.Outcome.WIN) + this.getOutcomeRate(RoundResult.Outcome.NATURAL);
+    }
+
+
+    public double getPushRate() {
+        return this.getOutcomeRate(RoundResult.Outcome.PUSH);
+    }
+
+
+    /**
+     * @return the fraction of the hands lost, busts and surrenders included
+     */
+    public double getLossRate() {
+        return this.getOutcomeRate(RoundResult.Outcome.LOSS) + this.getOutcomeRate(RoundResult.Outcome.BUST) +
+                this.getOutcomeRate(RoundResult.Outcome.SURRENDER);
+    }
+
+
+    /**
+     * @param halfBets a net win over a round, in half initial bets, from -16 to 16;
+     *                 the end buckets also count the rounds past them
+     * @return the number of seat rounds whose net win rounds to that many half bets
+     */
+    public long getSeatNetCount(int halfBets) {
+        return this.seatNetHistogram[halfBets + HISTOGRAM_ORIGIN];
+    }
+
+
+    /**
+     * @param aStartingValue the value of the first two cards
+     * @param isSoft whether the first two cards make a soft total
+     * @param anUpCard the pip value of the dealer's up card, 1 for an ace
+     * @return the number of seat rounds started with that hand against that up card
+     */
+    public long getNumberOfSeatRounds(int aStartingValue, boolean isSoft, int anUpCard) {
+        return this.startingHandSeatRounds[startingHandIndex(aStartingValue, isSoft, anUpCard)];
+    }
+
+
+    /**
+     * @param aStartingValue the value of the first two cards
+     * @param isSoft whether the first two cards make a soft total
+     * @param anUpCard the pip value of the dealer's up card, 1 for an ace
+     * @return the expected net win of that starting hand against that up card, in
+     * initial bets, splits and doubles included; NaN if it was never dealt
+     */
+    public double getExpectedValue(int aStartingValue, boolean isSoft, int anUpCard) {
+        int cell = startingHandIndex(aStartingValue, isSoft, anUpCard);
+        if(this.startingHandBets[cell] == 0) {
+            return Double.NaN;
+        }
+
+        return (double) this.startingHandNets[cell] / this.startingHandBets[cell];
+    }
+
+
+    /**
+     * @return a String representation of this RoundStatistics, including its table of expected values
+     */
+    public String toString() {
+        StringBuilder returnString = new StringBuilder();
+
+        returnString.append("Hands: ");
+        returnString.append(this.numberOfHands);
+        returnString.append(String.format("\nHand net: mean %.4f, variance %.4f", this.getMeanHandNet(),
+                this.getHandNetVariance()));
+        returnString.append(String.format("\nHands won: %.4f%%, pushed: %.4f%%, lost: %.4f%%",
+                100.0 * this.getWinRate(), 100.0 * this.getPushRate(), 100.0 * this.getLossRate()));
+        returnString.append("\nExpected value by starting hand and dealer up card:\n        ");
+        for(int upCard : UP_CARD_COLUMNS) {
+            returnString.append(String.format("%7s", upCard == 1 ? "A" : Integer.toString(upCard)));
+        }
+        returnString.append("\n");
+
+        for(int value=MIN_HARD_STARTING_VALUE; value<=BlackjackGame.BLACKJACK_NUMBER - 1; value++) {
+            this.appendExpectedValueRow(returnString, value, false);
+        }
+        for(int value=MIN_SOFT_STARTING_VALUE; value<=BlackjackGame.BLACKJACK_NUMBER; value++) {
+            this.appendExpectedValueRow(returnString, value, true);
+        }
+
+        return returnString.toString();
+    }
+
+
+    /**
+     * Append one row of the table of expected values, e.g. "hard 16  -0.5401 ...".
+     */
+    private void appendExpectedValueRow(StringBuilder sb, int aStartingValue, boolean isSoft) {
+        sb.append(String.format("%s %2d ", isSoft ? "soft" : "hard", aStartingValue));
+        for(int upCard : UP_CARD_COLUMNS) {
+            double expectedValue = this.getExpectedValue(aStartingValue, isSoft, upCard);
+            sb.append(Double.isNaN(expectedValue) ? "      -" : String.format("%7.3f", expectedValue));
+        }
+        sb.append("\n");
+    }
+
+
+    /**
+     * Remove every round from these statistics.
+     */
+    public void reset() {
+        this.numberOfHands = 0;
+        this.meanHandNet = 0;
+        this.sumOfSquaredHandNetDeviations = 0;
+        Arrays.fill(this.outcomeCounts, 0);
+        Arrays.fill(this.seatNetHistogram, 0);
+        Arrays.fill(this.startingHandSeatRounds, 0);
+        Arrays.fill(this.startingHandNets, 0);
+        Arrays.fill(this.startingHandBets, 0);
+    }
+}
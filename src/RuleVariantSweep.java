@@ -0,0 +1,233 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Simulates a grid of rule variants side by side, and reports the house edge
+ * of each one along with its confidence interval.
+ *
+ * Every variant is simulated by its own headless BlackjackGame, on a fixed
+ * pool of threads. Rather than playing a fixed number of rounds, a variant
+ * keeps playing batches of rounds until the 95% confidence interval of its
+ * house edge is narrower than the requested target, or until it reaches the
+ * round limit. Each variant shuffles with its own SplittableRandom stream, split
+ * in grid order off a root stream seeded with the master seed, so a sweep gives
+ * the same results no matter how many threads are used.
+ *
+ * @author Dany Houde
+ */
+public class RuleVariantSweep {
+
+    // How many rounds are played between two convergence checks
+    private static final long ROUNDS_PER_BATCH = 100000;
+
+    // The config keys which may hold a comma-separated list of values to sweep
+    private static final String[] SWEPT_KEYS = {
+            Strings.CONFIG_NUM_DECKS_KEY,
+            Strings.CONFIG_NATURAL_PAYOUT_FACTOR_KEY,
+            Strings.CONFIG_MAX_SPLITS_KEY,
+            Strings.CONFIG_PENETRATION_KEY,
+            Strings.CONFIG_DEALER_HITS_SOFT_17_KEY,
+            Strings.CONFIG_CONTINUOUS_SHUFFLER_KEY
+    };
+
+    private static final String VALUE_SEPARATOR = ",";
+
+    // The amount bet every round by the players of the command line sweep
+    private static final int DEFAULT_BET = 10;
+
+    // The round limit of each variant in the command line sweep
+    private static final long DEFAULT_MAX_ROUNDS = 50000000;
+
+    // Shared by all the games; must not keep any state between decisions
+    private final PlayerStrategy strategy;
+
+    private final int numberOfPlayers;
+
+    private final int numberOfThreads;
+
+    // The half width of the confidence interval at which a variant stops
+    private final double targetHalfWidth;
+
+    // The most rounds a variant plays, whether it has converged or not
+    private final long maxRoundsPerVariant;
+
+
+    /**
+     * Construct a new RuleVariantSweep.
+     * @param aStrategy the strategy used by every simulated player; it is shared by
+     *                  all threads and must therefore be stateless
+     * @param numberOfPlayers how many players to seat at each simulated table
+     * @param numberOfThreads how many threads to run the sweep on
+     * @param aTargetHalfWidth the half width of the 95% confidence interval of the house
+     *                         edge at which a variant stops, as a fraction of the bets
+     * @param theMaxRoundsPerVariant the most rounds a variant plays
+     */
+    public RuleVariantSweep(PlayerStrategy aStrategy, int numberOfPlayers, int numberOfThreads,
+                            double aTargetHalfWidth, long theMaxRoundsPerVariant) {
+        this.strategy = aStrategy;
+        this.numberOfPlayers = numberOfPlayers;
+        this.numberOfThreads = numberOfThreads;
+        this.targetHalfWidth = aTargetHalfWidth;
+        this.maxRoundsPerVariant = theMaxRoundsPerVariant;
+    }
+
+
+    /**
+     * Simulate every provided variant until it converges or reaches the round limit.
+     * @param variants the rule variants to simulate
+     * @param masterSeed the seed of the root stream from which every variant stream is split
+     * @return the result of each variant, in the order of the variants
+     */
+    public List<SimulationResult> run(List<GameConfig> variants, long masterSeed) {
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.numberOfThreads);
+        List<Future<SimulationResult>> variantResults = new ArrayList<Future<SimulationResult>>();
+
+        try {
+            SplittableRandom seedStreams = new SplittableRandom(masterSeed);
+            for(final GameConfig variant : variants) {
+                final SplittableRandom variantSeeds = seedStreams.split();
+
+                variantResults.add(executor.submit(() -> this.runVariant(variant, variantSeeds)));
+            }
+
+            List<SimulationResult> results = new ArrayList<SimulationResult>();
+            for(Future<SimulationResult> variantResult : variantResults) {
+                results.add(variantResult.get());
+            }
+
+            return results;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(Strings.SIMULATION_INTERRUPTED, ie);
+        } catch (ExecutionException ee) {
+            throw new IllegalStateException(Strings.SIMULATION_FAILED, ee.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Play batches of rounds of one variant until its confidence interval is narrow
+     * enough, or until it reaches the round limit.
+     * @param variant the rule variant to simulate
+     * @param seeds the stream of the seeds shuffling the variant's shoe
+     * @return the result of the variant
+     */
+    private SimulationResult runVariant(GameConfig variant, SplittableRandom seeds) {
+        BlackjackGame game = new BlackjackGame(variant, this.strategy, this.numberOfPlayers, seeds);
+
+        SimulationResult result = new SimulationResult();
+        while(result.getNumberOfRounds() < this.maxRoundsPerVariant && !this.hasConverged(result)) {
+            long batchRounds = Math.min(ROUNDS_PER_BATCH, this.maxRoundsPerVariant - result.getNumberOfRounds());
+            game.simulate(batchRounds, result);
+
+            if(Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * @param result the result of a variant so far
+     * @return true if the confidence interval of the variant is narrow enough
+     */
+    public boolean hasConverged(SimulationResult result) {
+        return result.getConfidenceHalfWidth(SimulationResult.Z_95) <= this.targetHalfWidth;
+    }
+
+
+    /**
+     * Expand the provided config properties into a grid of rule variants. The number
+     * of decks, natural payout factor, maximum number of splits, penetration, dealer
+     * soft 17 rule and continuous shuffler may each hold a comma-separated list of
+     * values, and one variant is built for every combination of values.
+     * @param sweepProperties the game parameters, some of them holding lists of values
+     * @return the variants, the last swept key varying fastest
+     * @throws IllegalArgumentException if a combination holds an invalid value
+     */
+    public static List<GameConfig> expandGrid(Properties sweepProperties) {
+        List<Properties> combinations = new ArrayList<Properties>();
+        combinations.add(sweepProperties);
+
+        for(String key : SWEPT_KEYS) {
+            String values = sweepProperties.getProperty(key);
+            if(null == values) {
+                continue;
+            }
+
+            List<Properties> expandedCombinations = new ArrayList<Properties>();
+            for(Properties combination : combinations) {
+                for(String value : values.split(VALUE_SEPARATOR)) {
+                    Properties expandedCombination = new Properties();
+                    expandedCombination.putAll(combination);
+                    expandedCombination.setProperty(key, value.trim());
+                    expandedCombinations.add(expandedCombination);
+                }
+            }
+            combinations = expandedCombinations;
+        }
+
+        List<GameConfig> variants = new ArrayList<GameConfig>();
+        for(Properties combination : combinations) {
+            variants.add(GameConfig.fromProperties(combination));
+        }
+
+        return variants;
+    }
+
+
+    /**
+     * Command line entry method. Prints one line per variant.
+     *
+     * @param args the path to the sweep config file, followed by the target half width
+     *             of the confidence intervals in percent, the number of threads, the
+     *             master seed and the round limit of each variant
+     */
+    public static void main(String[] args) {
+
+        Properties sweepProperties = BlackjackGame.loadConfigurationFile(args[0]);
+        double targetHalfWidth = Double.parseDouble(args[1]) / 100.0;
+        int numberOfThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long masterSeed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        long maxRoundsPerVariant = args.length > 4 ? Long.parseLong(args[4]) : DEFAULT_MAX_ROUNDS;
+
+        List<GameConfig> variants = expandGrid(sweepProperties);
+        GameConfig firstVariant = variants.get(0);
+
+        // Players follow the basic strategy file sitting next to the config file
+        File strategyFile = new File(new File(args[0]).getParentFile(), firstVariant.getBasicStrategyFileName());
+        PlayerStrategy strategy = BasicStrategyPlayerStrategy.load(strategyFile.getPath(), DEFAULT_BET);
+
+        RuleVariantSweep sweep = new RuleVariantSweep(strategy, firstVariant.getMinNumberOfPlayers(),
+                numberOfThreads, targetHalfWidth, maxRoundsPerVariant);
+
+        long startTime = System.nanoTime();
+        List<SimulationResult> results = sweep.run(variants, masterSeed);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1000000;
+
+        for(int i=0; i<variants.size(); i++) {
+            SimulationResult result = results.get(i);
+            double halfWidth = result.getConfidenceHalfWidth(SimulationResult.Z_95);
+
+            System.out.println(String.format("%s\trounds %d\tedge %.4f%% +/- %.4f%%\tsd %.4f%s",
+                    variants.get(i), result.getNumberOfRounds(),
+                    100.0 * result.getHouseEdge(), 100.0 * halfWidth,
+                    result.getStandardDeviation(), sweep.hasConverged(result) ? "" : "\tnot converged"));
+        }
+
+        System.out.println("Variants: " + variants.size());
+        System.out.println("Elapsed time: " + elapsedMillis + " ms");
+    }
+}
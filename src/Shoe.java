@@ -1,16 +1,50 @@
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * A class representing the shoe containing cards dealt by the dealer.
  * Contains logic to keep track of when and how to shuffle the shoe.
  *
+ * Cards are held in a fixed array of card codes, shared by the cards left to
+ * deal and the discard tray. Dealing advances a cursor over the array, and
+ * discarded cards are written back into the region which has already been
+ * dealt, so neither operation moves the remaining cards around or allocates.
+ * Shuffling gathers both regions and shuffles them in place.
+ *
+ * A Shoe may also model a continuous shuffling machine. Such a Shoe is only
+ * shuffled once: every deal then draws a uniformly random card among those left,
+ * by swapping it with the next card to deal, and discarded cards go straight
+ * back among the cards left to deal. It never needs to be reshuffled.
+ *
+ * Each shuffle draws a single seed from a pluggable RandomGenerator, and runs
+ * entirely on its own from that seed; the draws of a continuous shuffler carry
+ * on the same sequence. The generator may be a SplittableRandom stream split
+ * off for one table, so that shoes on different threads never share any state.
+ *
+ * The Shoe also keeps the number of cards of each rank left to deal, and a
+ * running count of the cards dealt since the last shuffle. The running count
+ * weighs each rank with a configurable tag, Hi-Lo by default. Both are updated
+ * on every deal and reset on every shuffle, so they can be queried in constant
+ * time at any point.
+ *
  * @author Dany Houde
  */
 public class Shoe {
 
-    private List<Card> cards;
+    // The codes of all the cards belonging to this Shoe. The cards left to deal are
+    // the ones from nextCardIndex to the end of the array. The cards which were
+    // returned since the last shuffle sit at the start of the array, before
+    // numberOfReturnedCards. Cards held in hands have no slot, but there is
+    // always room for them before nextCardIndex.
+    private final byte[] cards;
+
+    // Index of the next card to deal
+    private int nextCardIndex;
+
+    // The number of cards returned to this Shoe since the last shuffle
+    private int numberOfReturnedCards;
 
     // With 4 or more decks, place an insert in the deck to keep track
     // of when the Shoe should be reshuffled.
@@ -19,34 +53,157 @@ public class Shoe {
     // The number of cards dealt from the Shoe since the last shuffle.
     private int numberOfDealtCards;
 
+    // Draws the seed of every shuffle
+    private final RandomGenerator random;
+
+    // Whether this Shoe models a continuous shuffling machine
+    private final boolean isContinuous;
+
+    // The state of the SplitMix64 sequence of the last shuffle, which the deals of
+    // a continuous shuffler carry on
+    private long shuffleState;
+
+    // Card codes run through the suits of a rank before moving to the next rank
+    private static final int NUMBER_OF_SUITS = Card.Suit.values().length;
+
+    // Hi-Lo tags, indexed by rank: +1 for 2 to 6, 0 for 7 to 9, -1 for tens and aces
+    private static final int[] HI_LO_TAGS = { 1, 1, 1, 1, 1, 0, 0, 0, -1, -1, -1, -1, -1 };
+
+    // The number of cards of each rank left to deal, indexed by rank ordinal
+    private final int[] remainingCardsByRank;
+
+    // The number of cards of each rank in the Shoe at the last shuffle, indexed by rank ordinal
+    private final int[] shuffledCardsByRank;
+
+    // The tag of each rank used for the running count, indexed by rank ordinal
+    private final int[] countTags;
+
+    // The sum of the tags of all cards dealt since the last shuffle
+    private int runningCount;
+
+    // The number of cards of each code being shuffled, indexed by card code
+    private final int[] cardCounts;
+
+    private long lastShuffleSeed;
+
 
     /**
      * Construct a new Shoe containing the specified number of card decks.
      * @param numberOfDecks how many card decks to use in the constructed Shoe
      */
     public Shoe(int numberOfDecks) {
+        this(numberOfDecks, getDefaultPenetration(numberOfDecks), new SplittableRandom());
+    }
 
-        this.cards = new ArrayList<Card>(Deck.getSize());
 
-        for(int i=0; i<numberOfDecks; i++) {
-            this.cards.addAll(Deck.getNewDeck().getCards());
+    /**
+     * Construct a new Shoe containing the specified number of card decks,
+     * shuffled with seeds drawn from the provided random number generator, such
+     * as a java.util.Random or a SplittableRandom stream split off for this Shoe.
+     * @param numberOfDecks how many card decks to use in the constructed Shoe
+     * @param penetration the fraction of the Shoe dealt before it should be
+     *                    reshuffled; 0 reshuffles after every round
+     * @param aRandom the random number generator drawing the seed of every shuffle
+     */
+    public Shoe(int numberOfDecks, double penetration, RandomGenerator aRandom) {
+        this(numberOfDecks, penetration, aRandom, false);
+    }
+
+
+    /**
+     * Construct a new Shoe which is not shuffled yet, and deals the provided cards
+     * first, in order, e.g. to script a round. The other cards follow in deck order,
+     * but for the swaps which moved the provided cards to the top. Later shuffles
+     * draw their seeds from a new SplittableRandom.
+     * @param numberOfDecks how many card decks to use in the constructed Shoe
+     * @param firstCards the first cards to deal
+     * @throws IllegalArgumentException if the decks do not hold the provided cards
+     */
+    Shoe(int numberOfDecks, Card... firstCards) {
+        this(numberOfDecks, getDefaultPenetration(numberOfDecks), new SplittableRandom(), false);
+
+        for(int i=0; i<firstCards.length; i++) {
+            int source = i;
+            while(source < this.cards.length && this.cards[source] != firstCards[i].getCode()) {
+                source++;
+            }
+            if(source == this.cards.length) {
+                throw new IllegalArgumentException(Strings.CARD_NOT_IN_SHOE + firstCards[i]);
+            }
+
+            this.cards[source] = this.cards[i];
+            this.cards[i] = firstCards[i].getCode();
         }
+    }
+
+
+    /**
+     * Construct a new Shoe modelling a continuous shuffling machine, which deals
+     * a random card among those left every time, and never needs to be reshuffled.
+     * @param numberOfDecks how many card decks to use in the constructed Shoe
+     * @param aRandom the random number generator drawing the seed of every shuffle
+     * @return the new Shoe
+     */
+    public static Shoe newContinuousShuffler(int numberOfDecks, RandomGenerator aRandom) {
+        return new Shoe(numberOfDecks, 0.0, aRandom, true);
+    }
+
 
-        // Place the marker at the 3/4 mark of the Shoe when there
-        // are at least 4 decks. Otherwise, leave the marker at the beginning
-        if(numberOfDecks >= 4) {
-            this.shuffleMarkerPosition = 3 * this.cards.size() / 4;
-        } else {
-            this.shuffleMarkerPosition = 0;
+    /**
+     * @param numberOfDecks how many card decks to use in the constructed Shoe
+     * @param penetration the fraction of the Shoe dealt before it should be reshuffled
+     * @param aRandom the random number generator drawing the seed of every shuffle
+     * @param isContinuous whether the Shoe models a continuous shuffling machine
+     */
+    private Shoe(int numberOfDecks, double penetration, RandomGenerator aRandom, boolean isContinuous) {
+
+        this.cards = new byte[numberOfDecks * Deck.getSize()];
+        this.random = aRandom;
+        this.isContinuous = isContinuous;
+
+        this.remainingCardsByRank = new int[Card.Rank.values().length];
+        this.shuffledCardsByRank = new int[Card.Rank.values().length];
+        this.countTags = HI_LO_TAGS.clone();
+        this.cardCounts = new int[Card.Rank.values().length * NUMBER_OF_SUITS];
+
+        int cardIndex = 0;
+        for(int i=0; i<numberOfDecks; i++) {
+            for(Card c : Deck.getNewDeck().getCards()) {
+                this.cards[cardIndex++] = c.getCode();
+                this.shuffledCardsByRank[c.getRank().ordinal()]++;
+                this.remainingCardsByRank[c.getRank().ordinal()]++;
+            }
         }
+
+        this.nextCardIndex = 0;
+        this.numberOfReturnedCards = 0;
+
+        // Place the marker at the penetration mark of the Shoe
+        this.shuffleMarkerPosition = (int) (penetration * this.cards.length);
+    }
+
+
+    /**
+     * Returns the default penetration for the specified number of decks: the
+     * marker is placed at the 3/4 mark of the Shoe when there are at least
+     * 4 decks. Otherwise, it is left at the beginning.
+     * @param numberOfDecks how many card decks are in the Shoe
+     * @return the fraction of the Shoe dealt before it should be reshuffled
+     */
+    public static double getDefaultPenetration(int numberOfDecks) {
+        return numberOfDecks >= 4 ? 0.75 : 0.0;
     }
 
 
     /**
      * Returns whether the Shoe should be reshuffled, based on whether
-     * we have dealt past the marker.
+     * we have dealt past the marker. A continuous shuffler never should.
      */
     public boolean shouldBeReshuffled() {
+        if(this.isContinuous) {
+            return false;
+        }
+
         if(numberOfDealtCards >= shuffleMarkerPosition) {
             return true;
         }
@@ -56,27 +213,210 @@ public class Shoe {
 
 
     /**
-     * @return how many cards are currently in this Shoe
+     * @return true if this Shoe models a continuous shuffling machine
+     */
+    public boolean isContinuous() {
+        return this.isContinuous;
+    }
+
+
+    /**
+     * @return how many cards are currently in this Shoe, whether left to deal
+     * or discarded
      */
     public int getNumCards() {
-        return this.cards.size();
+        return this.cards.length - this.nextCardIndex + this.numberOfReturnedCards;
+    }
+
+
+    /**
+     * Returns how many cards of each pip value are left to deal before the next
+     * shuffle. Cards returned since the last shuffle are not included.
+     * @return the number of cards left to deal, indexed by pip value, the ace
+     * being 1; index 0 is unused
+     */
+    public int[] getComposition() {
+        int[] composition = new int[DealerOutcomeCalculator.COMPOSITION_SIZE];
+
+        for(Card.Rank r : Card.Rank.values()) {
+            composition[r.getPipValue()] += this.remainingCardsByRank[r.ordinal()];
+        }
+
+        return composition;
     }
 
 
     /**
-     * Add all provided cards to this Shoe.
+     * @param aRank a card rank
+     * @return how many cards of the provided rank are left to deal before the next shuffle
+     */
+    public int getRemainingCards(Card.Rank aRank) {
+        return this.remainingCardsByRank[aRank.ordinal()];
+    }
+
+
+    /**
+     * Replace the tags used to compute the running count. The running count is
+     * recomputed for the cards dealt since the last shuffle.
+     * @param tagsByRank the tag of each rank, indexed by rank ordinal
+     */
+    public void setCountTags(int[] tagsByRank) {
+        if(tagsByRank.length != this.countTags.length) {
+            throw new IllegalArgumentException(Strings.INVALID_COUNT_TAGS);
+        }
+
+        System.arraycopy(tagsByRank, 0, this.countTags, 0, this.countTags.length);
+
+        this.runningCount = 0;
+        for(int r=0; r<this.countTags.length; r++) {
+            this.runningCount += this.countTags[r] * (this.shuffledCardsByRank[r] - this.remainingCardsByRank[r]);
+        }
+    }
+
+
+    /**
+     * @return the sum of the count tags of all cards dealt since the last shuffle
+     */
+    public int getRunningCount() {
+        return this.runningCount;
+    }
+
+
+    /**
+     * @return the running count divided by the number of decks left to deal,
+     * or 0 if no card is left to deal
+     */
+    public double getTrueCount() {
+        int numberOfCardsLeft = this.cards.length - this.nextCardIndex;
+        if(0 == numberOfCardsLeft) {
+            return 0.0;
+        }
+
+        return this.runningCount * (double) Deck.getSize() / numberOfCardsLeft;
+    }
+
+
+    /**
+     * Add all provided cards to this Shoe. The cards are placed in the region
+     * of the Shoe which has already been dealt, and will only be dealt again
+     * after the next shuffle; a continuous shuffler may deal them right away.
      * @param cards the cards to add to this Shoe
      */
     public void addAll(List<Card> cards) {
-        this.cards.addAll(cards);
+        if(this.numberOfReturnedCards + cards.size() > this.nextCardIndex) {
+            throw new IllegalArgumentException(Strings.CANNOT_RETURN_CARDS_TO_SHOE);
+        }
+
+        for(Card c : cards) {
+            this.returnCard(c.getCode());
+        }
+    }
+
+
+    /**
+     * Put all the cards of the provided hand in this Shoe's discard region.
+     * The hand itself is left untouched. The cards will only be dealt again
+     * after the next shuffle; a continuous shuffler may deal them right away.
+     * @param aHand the hand whose cards to discard
+     */
+    public void discard(BasicHand aHand) {
+        int numberOfCards = aHand.getNumCards();
+        if(this.numberOfReturnedCards + numberOfCards > this.nextCardIndex) {
+            throw new IllegalArgumentException(Strings.CANNOT_RETURN_CARDS_TO_SHOE);
+        }
+
+        for(int i=0; i<numberOfCards; i++) {
+            this.returnCard(aHand.getCard(i).getCode());
+        }
+    }
+
+
+    /**
+     * Return one card to this Shoe. A continuous shuffler puts it back right
+     * before the cards left to deal, where it can be drawn again, and takes it
+     * back out of the running count; any other Shoe puts it in the discard region.
+     * There is always room, since the card was dealt from this Shoe.
+     * @param code the code of the returned card
+     */
+    private void returnCard(byte code) {
+        if(!this.isContinuous) {
+            this.cards[this.numberOfReturnedCards++] = code;
+            return;
+        }
+
+        this.cards[--this.nextCardIndex] = code;
+        int rankIndex = code / NUMBER_OF_SUITS;
+        this.remainingCardsByRank[rankIndex]++;
+        this.runningCount -= this.countTags[rankIndex];
+    }
+
+
+    /**
+     * @return how many cards are in this Shoe's discard region
+     */
+    public int getNumDiscardedCards() {
+        return this.numberOfReturnedCards;
     }
 
 
     /**
-     * Shuffle the shoe and reset the marker position.
+     * Shuffle the shoe with a seed drawn from this Shoe's random number generator,
+     * and reset the marker position. Cards still held in hands are left out of the
+     * shuffle, and can be discarded afterwards.
      */
     public void shuffle() {
-        Collections.shuffle(this.cards);
+        this.shuffle(this.random.nextLong());
+    }
+
+
+    /**
+     * Shuffle the shoe with the provided seed, and reset the marker position. Cards
+     * still held in hands are left out of the shuffle, and can be discarded afterwards.
+     *
+     * The cards are first put back in order, so that the shuffled order only depends
+     * on the seed and on which cards are in the Shoe, and not on the order they were
+     * returned in. Recording the seed is thus enough to shuffle the same cards the
+     * same way again.
+     * @param seed the seed of the shuffle
+     */
+    public void shuffle(long seed) {
+        // Move the returned cards right before the cards left to deal, so
+        // that every card in the Shoe sits at the end of the array
+        int firstCardIndex = this.nextCardIndex - this.numberOfReturnedCards;
+        System.arraycopy(this.cards, 0, this.cards, firstCardIndex, this.numberOfReturnedCards);
+
+        this.nextCardIndex = firstCardIndex;
+        this.numberOfReturnedCards = 0;
+
+        // Sort the cards by code, counting them by rank along the way, since cards
+        // still held in hands are not part of the newly shuffled shoe
+        Arrays.fill(this.cardCounts, 0);
+        for(int i=firstCardIndex; i<this.cards.length; i++) {
+            this.cardCounts[this.cards[i]]++;
+        }
+        Arrays.fill(this.remainingCardsByRank, 0);
+        int cardIndex = firstCardIndex;
+        for(int code=0; code<this.cardCounts.length; code++) {
+            Arrays.fill(this.cards, cardIndex, cardIndex + this.cardCounts[code], (byte) code);
+            cardIndex += this.cardCounts[code];
+            this.remainingCardsByRank[code / NUMBER_OF_SUITS] += this.cardCounts[code];
+        }
+        System.arraycopy(this.remainingCardsByRank, 0, this.shuffledCardsByRank, 0, this.shuffledCardsByRank.length);
+
+        // Fisher-Yates shuffle, in place, drawing from a SplitMix64 sequence
+        long state = seed;
+        for(int i=this.cards.length-firstCardIndex-1; i>0; i--) {
+            state += SplitMix64.GOLDEN_GAMMA;
+            int j = SplitMix64.boundedIndex(state, i + 1);
+
+            byte swapCard = this.cards[firstCardIndex + i];
+            this.cards[firstCardIndex + i] = this.cards[firstCardIndex + j];
+            this.cards[firstCardIndex + j] = swapCard;
+        }
+
+        this.shuffleState = state;
+        this.lastShuffleSeed = seed;
+        this.runningCount = 0;
 
         // Reset the shuffle marker
         this.numberOfDealtCards = 0;
@@ -84,20 +424,59 @@ public class Shoe {
 
 
     /**
-     * Deal a card from this Shoe, face up or down based on the provided value.
-     * @param faceUp true to deal the card face up, false for face down
+     * @return the seed of the last shuffle
+     */
+    public long getLastShuffleSeed() {
+        return this.lastShuffleSeed;
+    }
+
+
+    /**
+     * @return true if every card of this Shoe is left to deal, in the order of its
+     * last shuffle, and no card was dealt since
+     */
+    public boolean isFreshlyShuffled() {
+        return this.nextCardIndex == 0 && this.numberOfDealtCards == 0;
+    }
+
+
+    /**
+     * Deal a card from this Shoe. The hand receiving the card decides whether
+     * it faces up or down.
      * @return the dealt card
      * @throws EmptyShoeException if the shoe is empty and a card cannot be dealt
      */
-    public Card deal(boolean faceUp) throws EmptyShoeException {
-        if(this.cards.isEmpty()) {
+    public Card deal() throws EmptyShoeException {
+        if(this.nextCardIndex == this.cards.length) {
             throw new EmptyShoeException();
         }
 
+        if(this.isContinuous) {
+            this.drawRandomCard();
+        }
+
         this.numberOfDealtCards++;
-        Card returnCard = cards.remove(0);
-        returnCard.setFaceUp(faceUp);
-        return returnCard;
+        Card dealtCard = Card.fromCode(this.cards[this.nextCardIndex++]);
+
+        int rankIndex = dealtCard.getRank().ordinal();
+        this.remainingCardsByRank[rankIndex]--;
+        this.runningCount += this.countTags[rankIndex];
+
+        return dealtCard;
+    }
+
+
+    /**
+     * Swap a uniformly random card among those left to deal with the next card to
+     * deal, drawing from the SplitMix64 sequence of the last shuffle.
+     */
+    private void drawRandomCard() {
+        this.shuffleState += SplitMix64.GOLDEN_GAMMA;
+        int j = this.nextCardIndex + SplitMix64.boundedIndex(this.shuffleState, this.cards.length - this.nextCardIndex);
+
+        byte swapCard = this.cards[this.nextCardIndex];
+        this.cards[this.nextCardIndex] = this.cards[j];
+        this.cards[j] = swapCard;
     }
 
 }
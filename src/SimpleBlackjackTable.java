@@ -1,5 +1,9 @@
+import java.util.Collections;
+import java.util.List;
+
 /**
- * A class used to show a basic representation of a Blackjack table on the system console.
+ * A class used to show a basic representation of a Blackjack table on the system
+ * console, or on the channels of the players seated at it.
  *
  * @author Dany Houde
  */
@@ -9,15 +13,31 @@ public class SimpleBlackjackTable extends BlackjackTable {
     private static final String HORIZONTAL_LINE =  "***************************************\n";
     private static final String DH_BLACKJACK = "***********   DH Blackjack   **********\n";
 
+    // The channels the table is shown on
+    private final List<GameIO> displays;
+
     public SimpleBlackjackTable(Player[] thePlayers, Dealer aDealer) {
+        this(thePlayers, aDealer, Collections.<GameIO>singletonList(ConsoleGameIO.getInstance()));
+    }
+
+    /**
+     * @param thePlayers the seats of the table
+     * @param aDealer the dealer of the table
+     * @param theDisplays the channels to show the table on
+     */
+    public SimpleBlackjackTable(Player[] thePlayers, Dealer aDealer, List<GameIO> theDisplays) {
         super(thePlayers, aDealer);
+        this.displays = theDisplays;
     }
 
     @Override
     public void refresh() {
         // Simply print the current table out.
+        String table = this.toString();
 
-        System.out.println(this.toString());
+        for(int i=0; i<this.displays.size(); i++) {
+            this.displays.get(i).println(table);
+        }
     }
 
     @Override
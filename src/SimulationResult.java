@@ -0,0 +1,201 @@
+/**
+ * Accumulates the outcome of simulated Blackjack rounds. Results from
+ * different simulations can be merged together.
+ *
+ * @author Dany Houde
+ */
+public class SimulationResult {
+
+    // Number of standard errors on each side of a 95% confidence interval
+    public static final double Z_95 = 1.96;
+
+    // The number of rounds played
+    private long numberOfRounds;
+
+    // The number of times a seat played a round
+    private long numberOfSeatRounds;
+
+    // The sum of the initial bets of every seat round, in minor units (see Money)
+    private long totalWagered;
+
+    // The sum of the net wins of every seat round, in minor units; negative when the house wins
+    private long totalNet;
+
+    // The sum of the squared net wins of every seat round
+    private double sumOfSquaredNet;
+
+    // Per-hand statistics of every round added; null when they are not collected
+    private final RoundStatistics roundStatistics;
+
+
+    /**
+     * Construct a new, empty SimulationResult which only keeps the totals of the seat rounds.
+     */
+    public SimulationResult() {
+        this(false);
+    }
+
+
+    /**
+     * Construct a new, empty SimulationResult.
+     * @param collectsRoundStatistics whether to also collect the statistics of every
+     *                                hand and starting hand of the rounds added
+     */
+    public SimulationResult(boolean collectsRoundStatistics) {
+        this.roundStatistics = collectsRoundStatistics ? new RoundStatistics() : null;
+    }
+
+
+    /**
+     * Record the outcome of every seat which played the provided round.
+     * @param aRoundResult the ledger of the round
+     */
+    public void addRound(RoundResult aRoundResult) {
+        this.numberOfRounds++;
+
+        for(int seat=0; seat<aRoundResult.getNumberOfSeats(); seat++) {
+            if(aRoundResult.isSeatPlaying(seat)) {
+                this.addSeatRound(aRoundResult.getInitialBet(seat), aRoundResult.getSeatNet(seat));
+            }
+        }
+
+        if(null != this.roundStatistics) {
+            this.roundStatistics.addRound(aRoundResult);
+        }
+    }
+
+
+    /**
+     * Record the outcome of one seat for one round.
+     * @param initialBet the bet placed by the seat at the start of the round, in minor units
+     * @param net how much the seat won over the round, in minor units, including
+     *            splits and doubles; negative if the seat lost money
+     * @throws ArithmeticException if a total would overflow
+     */
+    public void addSeatRound(long initialBet, long net) {
+        this.numberOfSeatRounds++;
+        this.totalWagered = Math.addExact(this.totalWagered, initialBet);
+        this.totalNet = Math.addExact(this.totalNet, net);
+        this.sumOfSquaredNet += (double) net * net;
+    }
+
+
+    /**
+     * Add the outcomes accumulated by another result to this one.
+     * @param other the result to merge into this one
+     */
+    public void merge(SimulationResult other) {
+        this.numberOfRounds += other.numberOfRounds;
+        this.numberOfSeatRounds += other.numberOfSeatRounds;
+        this.totalWagered = Math.addExact(this.totalWagered, other.totalWagered);
+        this.totalNet = Math.addExact(this.totalNet, other.totalNet);
+        this.sumOfSquaredNet += other.sumOfSquaredNet;
+        if(null != this.roundStatistics && null != other.roundStatistics) {
+            this.roundStatistics.merge(other.roundStatistics);
+        }
+    }
+
+
+    /**
+     * @return the house edge, as a fraction of the initial bets
+     */
+    public double getHouseEdge() {
+        if(0 == this.totalWagered) {
+            return 0.0;
+        }
+
+        return -(double) this.totalNet / this.totalWagered;
+    }
+
+
+    /**
+     * @return the standard deviation of a seat's net win over one round,
+     * in units of the average initial bet
+     */
+    public double getStandardDeviation() {
+        if(this.numberOfSeatRounds < 2 || 0 == this.totalWagered) {
+            return 0.0;
+        }
+
+        double meanNet = (double) this.totalNet / this.numberOfSeatRounds;
+        double variance = (this.sumOfSquaredNet - this.numberOfSeatRounds * meanNet * meanNet) /
+                (this.numberOfSeatRounds - 1);
+        double averageBet = (double) this.totalWagered / this.numberOfSeatRounds;
+
+        return Math.sqrt(Math.max(0.0, variance)) / averageBet;
+    }
+
+
+    /**
+     * @return the standard error of the house edge. Seats sharing a round are
+     * treated as independent, which slightly understates the error at full tables.
+     */
+    public double getStandardError() {
+        if(this.numberOfSeatRounds < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        return this.getStandardDeviation() / Math.sqrt(this.numberOfSeatRounds);
+    }
+
+
+    /**
+     * @param z the number of standard errors on each side of the house edge,
+     *          Z_95 for a 95% confidence interval
+     * @return the half width of the confidence interval around the house edge
+     */
+    public double getConfidenceHalfWidth(double z) {
+        return z * this.getStandardError();
+    }
+
+
+    public long getNumberOfRounds() {
+        return this.numberOfRounds;
+    }
+
+    public long getNumberOfSeatRounds() {
+        return this.numberOfSeatRounds;
+    }
+
+    public long getTotalWagered() {
+        return this.totalWagered;
+    }
+
+    public long getTotalNet() {
+        return this.totalNet;
+    }
+
+    /**
+     * @return the statistics of every hand added, or null if they are not collected
+     */
+    public RoundStatistics getRoundStatistics() {
+        return this.roundStatistics;
+    }
+
+
+    /**
+     * @return a String representation of this SimulationResult
+     */
+    public String toString() {
+        StringBuilder returnString = new StringBuilder();
+
+        returnString.append("Rounds: ");
+        returnString.append(this.numberOfRounds);
+        returnString.append("\nSeat rounds: ");
+        returnString.append(this.numberOfSeatRounds);
+        returnString.append("\nTotal wagered: ");
+        returnString.append(Money.format(this.totalWagered));
+        returnString.append("\nTotal net: ");
+        returnString.append(Money.format(this.totalNet));
+        returnString.append("\nHouse edge: ");
+        returnString.append(String.format("%.4f%%", 100.0 * this.getHouseEdge()));
+        returnString.append("\nStandard deviation: ");
+        returnString.append(String.format("%.4f", this.getStandardDeviation()));
+        returnString.append("\n");
+        if(null != this.roundStatistics) {
+            returnString.append(this.roundStatistics);
+        }
+
+        return returnString.toString();
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * The steps of the SplitMix64 generator, used where a random sequence must be
+ * drawn from a single seed without allocating: the state of a sequence is a
+ * long advanced by GOLDEN_GAMMA before every draw, and each draw is the mix of
+ * the state. This is the generator behind SplittableRandom.
+ *
+ * @author Dany Houde
+ */
+public final class SplitMix64 {
+
+    // The increment of the state between two draws, the odd integer closest to 2^64 divided by the golden ratio
+    public static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+
+    private SplitMix64() {
+    }
+
+
+    /**
+     * @param z a state of the sequence
+     * @return the draw of that state, whose bits all depend on every bit of the state
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+
+    /**
+     * Draw an index below the provided bound. The bound is applied by multiplying
+     * the high half of the draw, whose bias is negligible for small bounds.
+     * @param z a state of the sequence
+     * @param bound the number of possible indexes, positive
+     * @return the index drawn from that state, from 0 to bound - 1
+     */
+    public static int boundedIndex(long z, int bound) {
+        return (int) (((mix64(z) >>> 32) * bound) >>> 32);
+    }
+}
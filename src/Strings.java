@@ -14,6 +14,14 @@ public class Strings {
     public static final String CONFIG_MAX_SPLITS_KEY = "maxsplits";
     public static final String CONFIG_STARTING_CASH_KEY = "startingcash";
     public static final String CONFIG_NATURAL_PAYOUT_FACTOR_KEY = "naturalpayoutfactor";
+    public static final String CONFIG_NUM_BOTS_KEY = "numbots";
+    public static final String CONFIG_BASIC_STRATEGY_FILE_KEY = "basicstrategyfile";
+    public static final String CONFIG_DEALER_HITS_SOFT_17_KEY = "dealerhitssoft17";
+    public static final String CONFIG_DOUBLE_AFTER_SPLIT_KEY = "doubleaftersplit";
+    public static final String CONFIG_LATE_SURRENDER_KEY = "latesurrender";
+    public static final String CONFIG_RESPLIT_ACES_KEY = "resplitaces";
+    public static final String CONFIG_PENETRATION_KEY = "penetration";
+    public static final String CONFIG_CONTINUOUS_SHUFFLER_KEY = "continuousshuffler";
 
     // Early game messages
     public static final String WELCOME_MESSAGE = "Welcome to DH Blackjack!\n";
@@ -26,6 +34,7 @@ public class Strings {
     public static final String WANT_TO_HIT_OR_STAND_PROMPT = "would you want to hit or stand for this hand?";
     public static final String WANT_TO_DOUBLE_DOWN_PROMPT = "would you want to double down for this hand?";
     public static final String WANT_TO_SPLIT_PROMPT = "would you want to split for this hand?";
+    public static final String WANT_TO_SURRENDER_PROMPT = "would you want to surrender this hand for half your wager?";
 
 
     public static final String WILL_REVEAL_CARDS = "Hidden cards will now be flipped.";
@@ -45,8 +54,38 @@ public class Strings {
     public static final String CONFIG_FILE_NOT_FOUND = "Config file could not be found: ";
     public static final String UNEXPECTED_ERROR = "Unexpected error!";
     public static final String INVALID_ANSWER = "Invalid answer, please try again.";
+    public static final String MISSING_CONFIG_VALUE = "Missing value in config file: ";
+    public static final String INVALID_CONFIG_VALUE = "Invalid value in config: ";
 
+    public static final String CONNECTION_CLOSED = "The connection to the player was closed.";
+    public static final String SERVER_LISTENING = "DH Blackjack server listening on port ";
+    public static final String WAITING_FOR_PLAYERS = "Waiting for more players to join the table...";
+    public static final String INVALID_PLAYERS_PER_TABLE = "Invalid number of players per table: ";
     public static final String CANNOT_DEAL_FROM_EMPTY_SHOE = "Cannot deal from empty shoe!";
+    public static final String CANNOT_GROW_ROUND_LOG = "Round log file could not be grown.";
+    public static final String NOT_A_ROUND_LOG = "Not a round log file: ";
+    public static final String CANNOT_READ_ROUND_LOG = "Round log file could not be read.";
+    public static final String NO_INITIAL_SHUFFLE_IN_LOG = "Round log does not start with a shuffle of the shoe: ";
+    public static final String INVALID_REPLAY_RANGE = "Invalid range of rounds to replay: ";
+    public static final String REPLAY_DIVERGED = "Replay diverged from the round log: ";
+    public static final String REPLAY_MISSING_BET = "no bet recorded for seat ";
+    public static final String REPLAY_MISSING_DECISION = "no decision recorded for seat ";
+    public static final String REPLAY_MISSING_SHUFFLE = "no shuffle recorded";
+    public static final String REPLAY_MISSING_ROUND = "round played out differently, round ";
+    public static final String REPLAY_NET_MISMATCH = "different winnings in round ";
+    public static final String MISSING_STRATEGY_ROW = "Missing row in basic strategy file: ";
+    public static final String INVALID_STRATEGY_ROW = "Invalid row in basic strategy file: ";
+    public static final String INVALID_COUNT_TAGS = "There must be one count tag per card rank!";
+    public static final String INVALID_COMPOSITION = "Invalid shoe composition!";
+    public static final String COMPOSITION_EXHAUSTED = "The shoe composition runs out before the dealer is done!";
+    public static final String SIMULATION_INTERRUPTED = "The simulation was interrupted!";
+    public static final String SIMULATION_FAILED = "The simulation failed!";
+    public static final String INVALID_SKETCH_PRECISION = "Invalid quantile sketch precision: ";
+    public static final String NEGATIVE_SKETCH_VALUE = "Cannot add a negative value to a quantile sketch: ";
+    public static final String INVALID_SESSION_ROUND_LIMIT = "Invalid number of rounds per session: ";
+    public static final String INVALID_CHECKPOINT_ROUND = "Checkpoint rounds must increase, from 1 to the session round limit: ";
+    public static final String CANNOT_RETURN_CARDS_TO_SHOE = "Cannot return more cards to the shoe than were dealt from it!";
+    public static final String CARD_NOT_IN_SHOE = "Card is not left to deal in the shoe: ";
     public static final String CANNOT_DEBIT_AMOUNT_FROM_BALANCE_0 = "Cannot debit ";
     public static final String CANNOT_DEBIT_AMOUNT_FROM_BALANCE_1 = " from balance ";
     public static final String CANNOT_DEBIT_AMOUNT_FROM_BALANCE_2 = ": insufficient funds available";
@@ -2,6 +2,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Unit tests for BasicHand class.
@@ -24,12 +26,12 @@ public class BasicHandTest {
 
     @Test
     public void testSingleDeuceHandValue() {
-        testHand.addCard(new Card(Card.Suit.CLUBS, Card.Rank.DEUCE, true));
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.DEUCE));
         assertEquals("Hand with single deuce should have value 2", 2, testHand.getValue());
     }
     @Test
     public void testSingleAceHandValue() throws Exception {
-        testHand.addCard(new Card(Card.Suit.CLUBS, Card.Rank.ACE, true));
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.ACE));
 
         assertEquals("Hand with a single ace should have value 11", 11, testHand.getValue());
     }
@@ -37,8 +39,8 @@ public class BasicHandTest {
     @Test
     public void testTwoAceHandValue() throws Exception {
 
-        testHand.addCard(new Card(Card.Suit.CLUBS, Card.Rank.ACE, true));
-        testHand.addCard(new Card(Card.Suit.SPADES, Card.Rank.ACE, true));
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.ACE));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.ACE));
 
         assertEquals("Hand with two aces should have value 12", 12, testHand.getValue());
     }
@@ -46,9 +48,9 @@ public class BasicHandTest {
     @Test
     public void testTwoAcesOneTenHandValue() throws Exception {
 
-        testHand.addCard(new Card(Card.Suit.CLUBS, Card.Rank.ACE, true));
-        testHand.addCard(new Card(Card.Suit.SPADES, Card.Rank.ACE, true));
-        testHand.addCard(new Card(Card.Suit.HEARTS, Card.Rank.TEN, true));
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.ACE));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.ACE));
+        testHand.addCard(Card.get(Card.Suit.HEARTS, Card.Rank.TEN));
 
         assertEquals("Hand with two aces and one ten should have value 1+1+10=12", 12, testHand.getValue());
     }
@@ -56,15 +58,60 @@ public class BasicHandTest {
     @Test
     public void testThreeAceHandValue() throws Exception {
 
-        testHand.addCard(new Card(Card.Suit.CLUBS, Card.Rank.ACE, true));
-        testHand.addCard(new Card(Card.Suit.SPADES, Card.Rank.ACE, true));
-        testHand.addCard(new Card(Card.Suit.HEARTS, Card.Rank.ACE, true));
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.ACE));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.ACE));
+        testHand.addCard(Card.get(Card.Suit.HEARTS, Card.Rank.ACE));
 
         assertEquals("Hand with three aces should have value 11 + 1 + 1 = 13", 13, testHand.getValue());
     }
 
+    @Test
+    public void testAceSixIsSoft() {
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.ACE));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.SIX));
 
+        assertEquals("Hand with an ace and a six should have value 17", 17, testHand.getValue());
+        assertTrue("Hand with an ace and a six should be soft", testHand.isSoft());
+    }
 
+    @Test
+    public void testSoftHandBecomesHard() {
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.ACE));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.SIX));
+        testHand.addCard(Card.get(Card.Suit.HEARTS, Card.Rank.NINE));
+
+        assertEquals("Hand with an ace, a six and a nine should have value 16", 16, testHand.getValue());
+        assertFalse("Hand with an ace, a six and a nine should be hard", testHand.isSoft());
+        assertFalse("Hand worth 16 should not be bust", testHand.isBust());
+    }
 
-}
+    @Test
+    public void testBustHand() {
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.KING));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.SIX));
+        testHand.addCard(Card.get(Card.Suit.HEARTS, Card.Rank.NINE));
+
+        assertTrue("Hand worth 25 should be bust", testHand.isBust());
+    }
+
+    @Test
+    public void testNaturalHand() {
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.ACE));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.JACK));
+
+        assertTrue("Hand with an ace and a jack should be a natural", testHand.isNatural());
+    }
+
+    @Test
+    public void testRemoveCardUpdatesValue() {
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.ACE));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.ACE));
 
+        Card removedCard = testHand.removeCard(1);
+
+        assertEquals("Removed card should be the ace of spades", Card.get(Card.Suit.SPADES, Card.Rank.ACE), removedCard);
+        assertEquals("Hand with a single ace left should have value 11", 11, testHand.getValue());
+        assertEquals("Hand should have one card left", 1, testHand.getNumCards());
+    }
+
+}
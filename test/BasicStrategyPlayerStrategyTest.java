@@ -0,0 +1,107 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the BasicStrategyPlayerStrategy class, using the
+ * strategy file shipped in the res folder.
+ *
+ * @author Dany Houde
+ */
+public class BasicStrategyPlayerStrategyTest {
+
+    private static final String STRATEGY_FILE_PATH = "res/BasicStrategy.cfg";
+
+    private BasicStrategyPlayerStrategy testStrategy;
+    private Player testPlayer;
+    private PlayerHand testHand;
+
+    @Before
+    public void setupStrategy() {
+        testStrategy = BasicStrategyPlayerStrategy.load(STRATEGY_FILE_PATH, 10);
+        testPlayer = new Player(0, 1000);
+        testHand = testPlayer.getHands().get(0);
+        testHand.setWager(10);
+    }
+
+    @Test
+    public void testStandOnHardSeventeen() {
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.TEN));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.SEVEN));
+
+        assertFalse("Hard 17 should stand against an ace",
+                testStrategy.wantsToHit(testPlayer, testHand, Card.get(Card.Suit.HEARTS, Card.Rank.ACE)));
+    }
+
+    @Test
+    public void testHitSixteenAgainstTen() {
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.TEN));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.SIX));
+
+        assertTrue("Hard 16 should hit against a ten",
+                testStrategy.wantsToHit(testPlayer, testHand, Card.get(Card.Suit.HEARTS, Card.Rank.KING)));
+    }
+
+    @Test
+    public void testDoubleElevenAgainstSix() {
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.FIVE));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.SIX));
+
+        assertTrue("Hard 11 should double against a six",
+                testStrategy.wantsToDoubleDown(testPlayer, testHand, Card.get(Card.Suit.HEARTS, Card.Rank.SIX)));
+    }
+
+    @Test
+    public void testSoftEighteenStandsWhenNotDoubling() {
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.ACE));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.SEVEN));
+
+        Card dealerSix = Card.get(Card.Suit.HEARTS, Card.Rank.SIX);
+        assertTrue("Soft 18 should double against a six",
+                testStrategy.wantsToDoubleDown(testPlayer, testHand, dealerSix));
+        assertFalse("Soft 18 should stand against a six when not doubling",
+                testStrategy.wantsToHit(testPlayer, testHand, dealerSix));
+    }
+
+    @Test
+    public void testAlwaysSplitEights() {
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.EIGHT));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.EIGHT));
+
+        assertTrue("A pair of eights should be split against an ace",
+                testStrategy.wantsToSplit(testPlayer, testHand, Card.get(Card.Suit.HEARTS, Card.Rank.ACE)));
+    }
+
+    @Test
+    public void testNeverSplitTens() {
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.KING));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.QUEEN));
+
+        assertFalse("A pair of tens should not be split",
+                testStrategy.wantsToSplit(testPlayer, testHand, Card.get(Card.Suit.HEARTS, Card.Rank.SIX)));
+    }
+
+    @Test
+    public void testSurrenderSixteenAgainstTen() {
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.TEN));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.SIX));
+
+        Card dealerTen = Card.get(Card.Suit.HEARTS, Card.Rank.KING);
+        assertTrue("Hard 16 should surrender against a ten",
+                testStrategy.wantsToSurrender(testPlayer, testHand, dealerTen));
+        assertTrue("Hard 16 should hit against a ten when not surrendering",
+                testStrategy.wantsToHit(testPlayer, testHand, dealerTen));
+    }
+
+    @Test
+    public void testSplitEightsRatherThanSurrender() {
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.EIGHT));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.EIGHT));
+
+        assertFalse("A pair of eights should be split rather than surrendered against a ten",
+                testStrategy.wantsToSurrender(testPlayer, testHand, Card.get(Card.Suit.HEARTS, Card.Rank.KING)));
+    }
+
+}
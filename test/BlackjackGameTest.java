@@ -0,0 +1,228 @@
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the BlackjackGame class, played headless.
+ *
+ * @author Dany Houde
+ */
+public class BlackjackGameTest {
+
+    private static final String CONFIG_FILE_PATH = "res/Blackjack.cfg";
+    private static final String STRATEGY_FILE_PATH = "res/BasicStrategy.cfg";
+
+    private static final int ROUNDS_PER_BATCH = 20000;
+
+    // Every scripted player bets $10, i.e. 1000 cents, and starts with the default $1000
+    private static final long BET = Money.ofWholeUnits(10);
+    private static final long STARTING_CASH = Money.ofWholeUnits(1000);
+
+    /**
+     * Bets $10, surrenders 15, splits aces, doubles 11, and hits 12 or less.
+     */
+    private static class ScriptedStrategy implements PlayerStrategy {
+
+        public long getBetAmount(Player p, long minBet, long maxBet) {
+            return BET;
+        }
+
+        public boolean wantsToSurrender(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+            return aPlayerHand.getValue() == 15;
+        }
+
+        public boolean wantsToSplit(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+            return aPlayerHand.getCard(0).getRank() == Card.Rank.ACE;
+        }
+
+        public boolean wantsToDoubleDown(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+            return aPlayerHand.getValue() == 11;
+        }
+
+        public boolean wantsToHit(Player p, PlayerHand aPlayerHand, Card dealerUpCard) {
+            return aPlayerHand.getValue() <= 12;
+        }
+    }
+
+    /**
+     * @return a single deck game seating the scripted players, whose first round deals
+     * the provided cards first: one card to each seat, the dealer's up card, one more
+     * card to each seat, the dealer's hole card, then the cards drawn by the players
+     * in seat order, and by the dealer last
+     */
+    private static BlackjackGame newScriptedGame(int numberOfPlayers, boolean lateSurrender, Card... cards) {
+        GameConfig config = new GameConfig.Builder().numberOfDecks(1).minNumberOfPlayers(1)
+                .maxNumberOfPlayers(numberOfPlayers).lateSurrender(lateSurrender).build();
+        return new BlackjackGame(config, new ScriptedStrategy(), numberOfPlayers, new Shoe(1, cards));
+    }
+
+    /**
+     * Play and settle the next round of the provided game.
+     * @return the ledger of the round
+     */
+    private static RoundResult playScriptedRound(BlackjackGame game) {
+        game.playRound();
+        game.performBetweenRoundMaintenance();
+        return game.getLastRoundResult();
+    }
+
+    private static Card card(Card.Rank aRank, Card.Suit aSuit) {
+        return Card.get(aSuit, aRank);
+    }
+
+    private static void assertHand(RoundResult result, int handIndex, int seat, RoundResult.Outcome outcome,
+                                   long stake, long net) {
+        assertEquals("Hand " + handIndex + " seat", seat, result.getHandSeat(handIndex));
+        assertEquals("Hand " + handIndex + " outcome", outcome, result.getHandOutcome(handIndex));
+        assertEquals("Hand " + handIndex + " stake", stake, result.getHandStake(handIndex));
+        assertEquals("Hand " + handIndex + " net", net, result.getHandNet(handIndex));
+    }
+
+    @Test
+    public void testHeadlessRoundDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH));
+        PlayerStrategy strategy = BasicStrategyPlayerStrategy.load(STRATEGY_FILE_PATH, config.getMinBet());
+        BlackjackGame game = new BlackjackGame(config, strategy, config.getMaxNumberOfPlayers(), new Random(9));
+        SimulationResult result = new SimulationResult();
+
+        // The first batches warm up the code and make room for the largest rounds,
+        // e.g. with every seat splitting
+        long allocatedBytes = 0;
+        for(int batch=0; batch<5; batch++) {
+            long startBytes = threadMXBean.getCurrentThreadAllocatedBytes();
+            game.simulate(ROUNDS_PER_BATCH, result);
+            allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes() - startBytes;
+        }
+
+        assertEquals("Steady-state rounds should not allocate", 0, allocatedBytes);
+        assertEquals(5 * ROUNDS_PER_BATCH, result.getNumberOfRounds());
+    }
+
+    @Test
+    public void testContinuousShufflerIsNeverReshuffled() {
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH))
+                .toBuilder().continuousShuffler(true).build();
+        PlayerStrategy strategy = BasicStrategyPlayerStrategy.load(STRATEGY_FILE_PATH, config.getMinBet());
+        BlackjackGame game = new BlackjackGame(config, strategy, config.getMaxNumberOfPlayers(), new Random(9));
+        GameMetrics metrics = new GameMetrics();
+        game.setMetrics(metrics);
+
+        SimulationResult result = new SimulationResult();
+        game.simulate(ROUNDS_PER_BATCH, result);
+
+        assertEquals(ROUNDS_PER_BATCH, result.getNumberOfRounds());
+        assertEquals("A continuous shuffler should never be reshuffled", 0, metrics.getReshuffles());
+    }
+
+    @Test
+    public void testSettleWinPushLossAndBust() {
+        BlackjackGame game = newScriptedGame(4, false,
+                card(Card.Rank.KING, Card.Suit.SPADES), card(Card.Rank.QUEEN, Card.Suit.SPADES),
+                card(Card.Rank.JACK, Card.Suit.SPADES), card(Card.Rank.TEN, Card.Suit.SPADES),
+                card(Card.Rank.TEN, Card.Suit.HEARTS),
+                card(Card.Rank.NINE, Card.Suit.SPADES), card(Card.Rank.SEVEN, Card.Suit.SPADES),
+                card(Card.Rank.SIX, Card.Suit.SPADES), card(Card.Rank.DEUCE, Card.Suit.SPADES),
+                card(Card.Rank.SEVEN, Card.Suit.HEARTS),
+                card(Card.Rank.KING, Card.Suit.HEARTS));
+        RoundResult result = playScriptedRound(game);
+
+        // The dealer stands on 17 against 19, 17, 16 and 12 hit to 22
+        assertEquals(17, result.getDealerValue());
+        assertFalse(result.isDealerNatural());
+        assertEquals(4, result.getNumberOfHands());
+        assertHand(result, 0, 0, RoundResult.Outcome.WIN, BET, BET);
+        assertHand(result, 1, 1, RoundResult.Outcome.PUSH, BET, 0);
+        assertHand(result, 2, 2, RoundResult.Outcome.LOSS, BET, -BET);
+        assertHand(result, 3, 3, RoundResult.Outcome.BUST, BET, -BET);
+
+        long[] expectedSeatNets = { BET, 0, -BET, -BET };
+        for(int seat=0; seat<expectedSeatNets.length; seat++) {
+            assertEquals("Seat net", expectedSeatNets[seat], result.getSeatNet(seat));
+            assertEquals("Initial bet", BET, result.getInitialBet(seat));
+            assertEquals("Balance should reflect the seat net",
+                    STARTING_CASH + expectedSeatNets[seat], game.getPlayers()[seat].getCashBalance());
+        }
+    }
+
+    @Test
+    public void testSettleNatural() {
+        BlackjackGame game = newScriptedGame(1, false,
+                card(Card.Rank.ACE, Card.Suit.SPADES), card(Card.Rank.TEN, Card.Suit.HEARTS),
+                card(Card.Rank.KING, Card.Suit.SPADES), card(Card.Rank.EIGHT, Card.Suit.HEARTS));
+        RoundResult result = playScriptedRound(game);
+
+        assertHand(result, 0, 0, RoundResult.Outcome.NATURAL, BET, BET * 3 / 2);
+        assertEquals("A natural should pay 3:2", BET * 3 / 2, result.getSeatNet(0));
+        assertEquals(STARTING_CASH + BET * 3 / 2, game.getPlayers()[0].getCashBalance());
+    }
+
+    @Test
+    public void testSettleAgainstDealerNatural() {
+        BlackjackGame game = newScriptedGame(2, false,
+                card(Card.Rank.ACE, Card.Suit.SPADES), card(Card.Rank.TEN, Card.Suit.SPADES),
+                card(Card.Rank.ACE, Card.Suit.HEARTS),
+                card(Card.Rank.KING, Card.Suit.SPADES), card(Card.Rank.NINE, Card.Suit.SPADES),
+                card(Card.Rank.KING, Card.Suit.HEARTS));
+        RoundResult result = playScriptedRound(game);
+
+        assertTrue(result.isDealerNatural());
+        assertHand(result, 0, 0, RoundResult.Outcome.PUSH, BET, 0);
+        assertHand(result, 1, 1, RoundResult.Outcome.LOSS, BET, -BET);
+        assertEquals("A natural should push against a dealer natural",
+                STARTING_CASH, game.getPlayers()[0].getCashBalance());
+        assertEquals(STARTING_CASH - BET, game.getPlayers()[1].getCashBalance());
+    }
+
+    @Test
+    public void testSettleLateSurrender() {
+        BlackjackGame game = newScriptedGame(1, true,
+                card(Card.Rank.TEN, Card.Suit.SPADES), card(Card.Rank.TEN, Card.Suit.HEARTS),
+                card(Card.Rank.FIVE, Card.Suit.SPADES), card(Card.Rank.SEVEN, Card.Suit.HEARTS));
+        RoundResult result = playScriptedRound(game);
+
+        assertHand(result, 0, 0, RoundResult.Outcome.SURRENDER, BET, -BET / 2);
+        assertEquals("Surrender should give half the stake back",
+                STARTING_CASH - BET / 2, game.getPlayers()[0].getCashBalance());
+    }
+
+    @Test
+    public void testSplitAce21PaysEvenMoney() {
+        BlackjackGame game = newScriptedGame(1, false,
+                card(Card.Rank.ACE, Card.Suit.SPADES), card(Card.Rank.TEN, Card.Suit.HEARTS),
+                card(Card.Rank.ACE, Card.Suit.HEARTS), card(Card.Rank.SIX, Card.Suit.HEARTS),
+                card(Card.Rank.KING, Card.Suit.SPADES), card(Card.Rank.KING, Card.Suit.HEARTS),
+                card(Card.Rank.DEUCE, Card.Suit.HEARTS));
+        RoundResult result = playScriptedRound(game);
+
+        // Two-card 21s on split aces are no naturals, so the dealer still plays his 16
+        assertEquals("Dealer should draw to 18", 18, result.getDealerValue());
+        assertEquals(2, result.getNumberOfHands());
+        assertHand(result, 0, 0, RoundResult.Outcome.WIN, BET, BET);
+        assertHand(result, 1, 0, RoundResult.Outcome.WIN, BET, BET);
+        assertEquals("Seat net should add up the split hands", 2 * BET, result.getSeatNet(0));
+        assertEquals("Initial bet should not include the split", BET, result.getInitialBet(0));
+        assertEquals(STARTING_CASH + 2 * BET, game.getPlayers()[0].getCashBalance());
+    }
+
+    @Test
+    public void testSettleDoubleDown() {
+        BlackjackGame game = newScriptedGame(1, false,
+                card(Card.Rank.SIX, Card.Suit.SPADES), card(Card.Rank.TEN, Card.Suit.HEARTS),
+                card(Card.Rank.FIVE, Card.Suit.SPADES), card(Card.Rank.SEVEN, Card.Suit.HEARTS),
+                card(Card.Rank.KING, Card.Suit.SPADES));
+        RoundResult result = playScriptedRound(game);
+
+        assertHand(result, 0, 0, RoundResult.Outcome.WIN, 2 * BET, 2 * BET);
+        assertTrue("Hand should be recorded as doubled down", result.isHandDoubleDown(0));
+        assertEquals(2 * BET, result.getSeatNet(0));
+        assertEquals(STARTING_CASH + 2 * BET, game.getPlayers()[0].getCashBalance());
+    }
+
+}
@@ -0,0 +1,184 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the BlackjackServer class, played over the loopback interface
+ * by scripted clients.
+ *
+ * @author Dany Houde
+ */
+public class BlackjackServerTest {
+
+    private static final String CONFIG_FILE_PATH = "res/Blackjack.cfg";
+
+    private static final int PLAYERS_PER_TABLE = 2;
+
+    // How long a client waits for a line from the server before giving up
+    private static final int READ_TIMEOUT_MILLIS = 10000;
+
+    private BlackjackServer server;
+    private ExecutorService clients;
+
+    @Before
+    public void setupServer() throws IOException {
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH))
+                .toBuilder()
+                .numberOfBots(0)
+                .build();
+
+        server = new BlackjackServer(config, null, PLAYERS_PER_TABLE, 0);
+        server.start();
+        clients = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void closeServer() {
+        server.close();
+        clients.shutdownNow();
+    }
+
+    @Test
+    public void testTableEndsWhenPlayersQuit() throws Exception {
+        Future<Integer> firstClient = clients.submit(new ScriptedClient(2, -1));
+        Future<Integer> secondClient = clients.submit(new ScriptedClient(3, -1));
+
+        assertEquals("First player should quit after two rounds", 2, (int) firstClient.get(30, TimeUnit.SECONDS));
+        assertEquals("Second player should quit after three rounds", 3, (int) secondClient.get(30, TimeUnit.SECONDS));
+        assertTrue("Finished table should release its resources", waitForNoActiveTables());
+
+        // The server keeps seating new players once a table is over
+        Future<Integer> thirdClient = clients.submit(new ScriptedClient(1, -1));
+        Future<Integer> fourthClient = clients.submit(new ScriptedClient(1, -1));
+
+        assertEquals("Server should still seat new tables", 1, (int) thirdClient.get(30, TimeUnit.SECONDS));
+        assertEquals("Server should still seat new tables", 1, (int) fourthClient.get(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTableEndsWhenPlayerDisconnects() throws Exception {
+        Future<Integer> firstClient = clients.submit(new ScriptedClient(Integer.MAX_VALUE, -1));
+        Future<Integer> secondClient = clients.submit(new ScriptedClient(Integer.MAX_VALUE, 3));
+
+        secondClient.get(30, TimeUnit.SECONDS);
+        firstClient.get(30, TimeUnit.SECONDS);
+
+        assertTrue("Table should end once a player disconnects", waitForNoActiveTables());
+    }
+
+    @Test
+    public void testWaitingPlayerWhoLeavesIsNotSeated() throws Exception {
+        try (Socket leavingPlayer = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            leavingPlayer.setSoTimeout(READ_TIMEOUT_MILLIS);
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(leavingPlayer.getInputStream(), StandardCharsets.UTF_8));
+
+            // Wait until the server knows of the player
+            while(!reader.readLine().equals(Strings.WAITING_FOR_PLAYERS)) {
+                continue;
+            }
+        }
+        Thread.sleep(100);
+
+        Future<Integer> firstClient = clients.submit(new ScriptedClient(1, -1));
+        Future<Integer> secondClient = clients.submit(new ScriptedClient(1, -1));
+
+        assertEquals("Players should be seated without the one who left", 1, (int) firstClient.get(30, TimeUnit.SECONDS));
+        assertEquals("Players should be seated without the one who left", 1, (int) secondClient.get(30, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Poll the server until its tables are over.
+     * @return true if no table is being played anymore
+     */
+    private boolean waitForNoActiveTables() throws InterruptedException {
+        for(int i=0; i<100 && server.getNumberOfActiveTables() > 0; i++) {
+            Thread.sleep(50);
+        }
+
+        return server.getNumberOfActiveTables() == 0;
+    }
+
+
+    /**
+     * A client answering every prompt of the server: it bets the minimum, always
+     * stands, declines every option and quits after a number of rounds.
+     */
+    private class ScriptedClient implements Callable<Integer> {
+
+        private final int roundsToPlay;
+
+        // Disconnect after answering that many prompts, or never if negative
+        private final int promptsBeforeDisconnecting;
+
+        ScriptedClient(int theRoundsToPlay, int thePromptsBeforeDisconnecting) {
+            this.roundsToPlay = theRoundsToPlay;
+            this.promptsBeforeDisconnecting = thePromptsBeforeDisconnecting;
+        }
+
+        /**
+         * @return the number of rounds played before the connection was closed
+         */
+        @Override
+        public Integer call() throws IOException {
+            int roundsPlayed = 0;
+            int promptsAnswered = 0;
+
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+                socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                PrintWriter writer = new PrintWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+
+                String line;
+                while(null != (line = reader.readLine())) {
+                    if(!line.startsWith(ChannelGameIO.PROMPT_PREFIX)) {
+                        continue;
+                    }
+
+                    if(promptsAnswered == this.promptsBeforeDisconnecting) {
+                        break;
+                    }
+                    promptsAnswered++;
+
+                    if(line.contains(Strings.CONTINUE_PLAYING_PROMPT)) {
+                        roundsPlayed++;
+                        writer.println(roundsPlayed < this.roundsToPlay ? "y" : "n");
+                    } else if(line.contains(" to ")) {
+                        // Bet the lowest amount of the range
+                        int start = line.lastIndexOf('[') + 1;
+                        writer.println(line.substring(start, line.indexOf(' ', start)));
+                    } else if(line.contains("[h, s]")) {
+                        writer.println("s");
+                    } else if(line.contains("[y, n]")) {
+                        writer.println("n");
+                    } else {
+                        // Press Enter to continue
+                        writer.println();
+                    }
+                }
+            }
+
+            return roundsPlayed;
+        }
+    }
+
+}
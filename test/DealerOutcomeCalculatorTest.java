@@ -0,0 +1,102 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the DealerOutcomeCalculator class.
+ *
+ * @author Dany Houde
+ */
+public class DealerOutcomeCalculatorTest {
+
+    private static final double TOLERANCE = 1e-12;
+
+    private DealerOutcomeCalculator testCalculator;
+
+    @Before
+    public void setupCalculator() {
+        testCalculator = new DealerOutcomeCalculator();
+    }
+
+    @Test
+    public void testOnlyTensLeft() {
+        int[] composition = new int[DealerOutcomeCalculator.COMPOSITION_SIZE];
+        composition[10] = 20;
+
+        double[] outcomes = testCalculator.getFinalTotalProbabilities(7, composition, false);
+
+        assertEquals("Dealer showing a 7 with only tens left should end on 17", 1.0,
+                outcomes[DealerOutcomeCalculator.FINAL_17], TOLERANCE);
+    }
+
+    @Test
+    public void testSixThenTensGoesBust() {
+        int[] composition = new int[DealerOutcomeCalculator.COMPOSITION_SIZE];
+        composition[10] = 20;
+
+        double[] outcomes = testCalculator.getFinalTotalProbabilities(6, composition, false);
+
+        assertEquals("Dealer showing a 6 with only tens left should go bust", 1.0,
+                outcomes[DealerOutcomeCalculator.BUST], TOLERANCE);
+    }
+
+    @Test
+    public void testExcludedNatural() {
+        int[] composition = new int[DealerOutcomeCalculator.COMPOSITION_SIZE];
+        composition[10] = 3;
+        composition[7] = 1;
+
+        double[] withNaturals = testCalculator.getFinalTotalProbabilities(1, composition, false);
+        double[] withoutNaturals = testCalculator.getFinalTotalProbabilities(1, composition, true);
+
+        assertEquals("Dealer showing an ace should get a natural 3 times out of 4", 0.75,
+                withNaturals[DealerOutcomeCalculator.FINAL_21], TOLERANCE);
+        assertEquals("Without naturals, the dealer showing an ace can only draw the 7", 1.0,
+                withoutNaturals[DealerOutcomeCalculator.FINAL_18], TOLERANCE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompositionRunningOutIsRejected() {
+        int[] composition = new int[DealerOutcomeCalculator.COMPOSITION_SIZE];
+        composition[2] = 2;
+
+        // Showing a 2, the dealer draws both twos and is stuck on 6
+        testCalculator.getFinalTotalProbabilities(2, composition, false);
+    }
+
+    @Test
+    public void testProbabilitiesSumToOne() {
+        int[] composition = new int[DealerOutcomeCalculator.COMPOSITION_SIZE];
+        for(int pipValue=1; pipValue<10; pipValue++) {
+            composition[pipValue] = 4;
+        }
+        composition[10] = 16;
+
+        for(int upCard=1; upCard<=10; upCard++) {
+            double sum = 0.0;
+            for(double p : testCalculator.getFinalTotalProbabilities(upCard, composition, true)) {
+                sum += p;
+            }
+
+            assertEquals("Outcome probabilities should sum to 1", 1.0, sum, TOLERANCE);
+        }
+    }
+
+    @Test
+    public void testDealerHitsSoftSeventeen() {
+        int[] composition = new int[DealerOutcomeCalculator.COMPOSITION_SIZE];
+        composition[6] = 1;
+        composition[4] = 3;
+
+        DealerOutcomeCalculator hitsSoft17Calculator = new DealerOutcomeCalculator(true);
+        double[] standsOutcomes = testCalculator.getFinalTotalProbabilities(1, composition, false);
+        double[] hitsOutcomes = hitsSoft17Calculator.getFinalTotalProbabilities(1, composition, false);
+
+        assertEquals("Dealer standing on soft 17 should stop on A-6", 0.25,
+                standsOutcomes[DealerOutcomeCalculator.FINAL_17], TOLERANCE);
+        assertEquals("Dealer hitting soft 17 should never end on 17 here", 0.0,
+                hitsOutcomes[DealerOutcomeCalculator.FINAL_17], TOLERANCE);
+    }
+
+}
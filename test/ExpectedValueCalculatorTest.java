@@ -0,0 +1,291 @@
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the ExpectedValueCalculator class.
+ *
+ * @author Dany Houde
+ */
+public class ExpectedValueCalculatorTest {
+
+    private static final double TOLERANCE = 1e-12;
+
+    // Standing on ten-six against a ten from a single deck, the dealer standing
+    // on soft 17: 13073887/24079275, worked out by hand over every dealer draw
+    private static final double SINGLE_DECK_16_VS_10_STAND = -13073887.0 / 24079275.0;
+
+    // Hitting ten-six once, then playing on optimally, from the same deck, worked out
+    // over every hole card which does not give the dealer a natural
+    private static final double SINGLE_DECK_16_VS_10_HIT = -273849919.0 / 540213300.0;
+    private static final double SINGLE_DECK_16_VS_ACE_HIT = -249220216661.0 / 489867603120.0;
+
+    private ExpectedValueCalculator testCalculator;
+
+    @Before
+    public void setupCalculator() {
+        testCalculator = new ExpectedValueCalculator(new DealerOutcomeCalculator(), 4, 1.5);
+    }
+
+    /**
+     * @return the composition of a single deck, once the provided cards are dealt
+     */
+    private static int[] singleDeckWithout(Card... dealtCards) {
+        int[] composition = new Shoe(1).getComposition();
+        for(Card c : dealtCards) {
+            composition[c.getPipValue()]--;
+        }
+
+        return composition;
+    }
+
+    /**
+     * @return the expected values of the hand made of the two provided cards against
+     * the provided up card, drawing from the rest of a single deck
+     */
+    private ExpectedValues computeSingleDeck(Card firstCard, Card secondCard, Card upCard) {
+        PlayerHand testHand = new PlayerHand();
+        testHand.addCard(firstCard);
+        testHand.addCard(secondCard);
+
+        return testCalculator.computeExpectedValues(testHand, upCard,
+                singleDeckWithout(firstCard, secondCard, upCard), 0);
+    }
+
+    @Test
+    public void testNaturalPaysPayoutFactor() {
+        ExpectedValues values = computeSingleDeck(Card.get(Card.Suit.CLUBS, Card.Rank.ACE),
+                Card.get(Card.Suit.SPADES, Card.Rank.KING), Card.get(Card.Suit.HEARTS, Card.Rank.NINE));
+
+        assertEquals("A natural should be worth the natural payout factor", 1.5,
+                values.getBestValue(), TOLERANCE);
+    }
+
+    @Test
+    public void testSplitAcesCannotBePlayed() {
+        Card ace = Card.get(Card.Suit.CLUBS, Card.Rank.ACE);
+        Card five = Card.get(Card.Suit.SPADES, Card.Rank.FIVE);
+        Card nine = Card.get(Card.Suit.HEARTS, Card.Rank.NINE);
+        PlayerHand testHand = new PlayerHand();
+        testHand.addCard(ace);
+        testHand.addCard(five);
+        testHand.setCameFromSplitAces(true);
+
+        // The other split ace has been dealt too
+        ExpectedValues values = testCalculator.computeExpectedValues(testHand, nine,
+                singleDeckWithout(ace, ace, five, nine), 1);
+
+        assertTrue("A hand split from aces should not be hit",
+                Double.isNaN(values.getValue(ExpectedValues.Action.HIT)));
+        assertEquals("A hand split from aces can only stand", ExpectedValues.Action.STAND, values.getBestAction());
+    }
+
+    @Test
+    public void testNoSplitPastMaximum() {
+        Card eight = Card.get(Card.Suit.CLUBS, Card.Rank.EIGHT);
+        Card ten = Card.get(Card.Suit.HEARTS, Card.Rank.TEN);
+        PlayerHand testHand = new PlayerHand();
+        testHand.addCard(eight);
+        testHand.addCard(eight);
+
+        ExpectedValues values = testCalculator.computeExpectedValues(testHand, ten,
+                singleDeckWithout(eight, eight, ten), 4);
+
+        assertTrue("A pair should not be split once the maximum number of splits is reached",
+                Double.isNaN(values.getValue(ExpectedValues.Action.SPLIT)));
+    }
+
+    @Test
+    public void testStandOnTwenty() {
+        ExpectedValues values = computeSingleDeck(Card.get(Card.Suit.CLUBS, Card.Rank.TEN),
+                Card.get(Card.Suit.SPADES, Card.Rank.QUEEN), Card.get(Card.Suit.HEARTS, Card.Rank.SEVEN));
+
+        assertTrue("Standing should beat hitting on 20 against a seven",
+                values.getValue(ExpectedValues.Action.STAND) > values.getValue(ExpectedValues.Action.HIT));
+    }
+
+    @Test
+    public void testSingleDeckSixteenAgainstTenStandValue() {
+        ExpectedValues values = computeSingleDeck(Card.get(Card.Suit.CLUBS, Card.Rank.TEN),
+                Card.get(Card.Suit.SPADES, Card.Rank.SIX), Card.get(Card.Suit.HEARTS, Card.Rank.TEN));
+
+        assertEquals("Standing on 16 against a ten should match the reference value",
+                SINGLE_DECK_16_VS_10_STAND, values.getValue(ExpectedValues.Action.STAND), TOLERANCE);
+    }
+
+    @Test
+    public void testSplitTwentyOneIsNotPaidAsNatural() {
+        Card ten = Card.get(Card.Suit.CLUBS, Card.Rank.TEN);
+        Card ace = Card.get(Card.Suit.SPADES, Card.Rank.ACE);
+        Card nine = Card.get(Card.Suit.HEARTS, Card.Rank.NINE);
+        PlayerHand testHand = new PlayerHand();
+        testHand.addCard(ten);
+        testHand.addCard(ace);
+        testHand.setFromSplit(true);
+
+        ExpectedValues values = testCalculator.computeExpectedValues(testHand, nine,
+                singleDeckWithout(ten, ten, ace, nine), 1);
+
+        assertTrue("A split 21 should be worth less than a natural",
+                values.getBestValue() < 1.0);
+        assertEquals("A split 21 can only stand", ExpectedValues.Action.STAND, values.getBestAction());
+    }
+
+    @Test
+    public void testSingleDeckSixteenHitValues() {
+        Card ten = Card.get(Card.Suit.CLUBS, Card.Rank.TEN);
+        Card six = Card.get(Card.Suit.SPADES, Card.Rank.SIX);
+
+        ExpectedValues againstTen = computeSingleDeck(ten, six, Card.get(Card.Suit.HEARTS, Card.Rank.TEN));
+        ExpectedValues againstAce = computeSingleDeck(ten, six, Card.get(Card.Suit.HEARTS, Card.Rank.ACE));
+
+        assertEquals("Hitting 16 against a ten should match the reference value",
+                SINGLE_DECK_16_VS_10_HIT, againstTen.getValue(ExpectedValues.Action.HIT), TOLERANCE);
+        assertEquals("Hitting 16 against an ace should match the reference value",
+                SINGLE_DECK_16_VS_ACE_HIT, againstAce.getValue(ExpectedValues.Action.HIT), TOLERANCE);
+    }
+
+    @Test
+    public void testSplitAcesValueMatchesSplitHands() {
+        ExpectedValueCalculator noResplitCalculator = new ExpectedValueCalculator(new DealerOutcomeCalculator(),
+                4, 1.5, true, false);
+        Card ace = Card.get(Card.Suit.CLUBS, Card.Rank.ACE);
+        Card nine = Card.get(Card.Suit.HEARTS, Card.Rank.NINE);
+        PlayerHand pair = new PlayerHand();
+        pair.addCard(ace);
+        pair.addCard(ace);
+        int[] composition = singleDeckWithout(ace, ace, nine);
+
+        double splitValue = noResplitCalculator.computeExpectedValues(pair, nine, composition, 0)
+                .getValue(ExpectedValues.Action.SPLIT);
+
+        // Each split ace is worth its stand value once dealt its one card, 21s included
+        int numberOfCards = 0;
+        for(int pipValue=1; pipValue<=10; pipValue++) {
+            numberOfCards += composition[pipValue];
+        }
+        double handValue = 0.0;
+        for(int pipValue=1; pipValue<=10; pipValue++) {
+            Card drawnCard = anyCardOfPipValue(pipValue);
+            PlayerHand splitHand = new PlayerHand();
+            splitHand.addCard(ace);
+            splitHand.addCard(drawnCard);
+            splitHand.setFromSplit(true);
+            splitHand.setCameFromSplitAces(true);
+
+            int[] drawnComposition = composition.clone();
+            drawnComposition[pipValue]--;
+            handValue += (double) composition[pipValue] / numberOfCards * noResplitCalculator.computeExpectedValues(
+                    splitHand, nine, drawnComposition, 1).getValue(ExpectedValues.Action.STAND);
+        }
+
+        assertEquals("Splitting aces should be worth both split hands", 2.0 * handValue, splitValue, TOLERANCE);
+    }
+
+    @Test
+    public void testResplitsFollowTheRules() {
+        Card eight = Card.get(Card.Suit.CLUBS, Card.Rank.EIGHT);
+        Card ace = Card.get(Card.Suit.CLUBS, Card.Rank.ACE);
+        Card six = Card.get(Card.Suit.HEARTS, Card.Rank.SIX);
+        PlayerHand eights = new PlayerHand();
+        eights.addCard(eight);
+        eights.addCard(eight);
+        PlayerHand aces = new PlayerHand();
+        aces.addCard(ace);
+        aces.addCard(ace);
+        int[] eightsComposition = singleDeckWithout(eight, eight, six);
+        int[] acesComposition = singleDeckWithout(ace, ace, six);
+
+        ExpectedValueCalculator oneSplitCalculator = new ExpectedValueCalculator(new DealerOutcomeCalculator(),
+                1, 1.5, true, true);
+        ExpectedValueCalculator noResplitAcesCalculator = new ExpectedValueCalculator(new DealerOutcomeCalculator(),
+                4, 1.5, true, false);
+
+        double oneSplit = oneSplitCalculator.computeExpectedValues(eights, six, eightsComposition, 0)
+                .getValue(ExpectedValues.Action.SPLIT);
+        double resplits = testCalculator.computeExpectedValues(eights, six, eightsComposition, 0)
+                .getValue(ExpectedValues.Action.SPLIT);
+        assertTrue("Resplitting eights against a six should add value", resplits > oneSplit);
+        assertEquals("A split using up the last one should not be resplit", oneSplit,
+                testCalculator.computeExpectedValues(eights, six, eightsComposition, 3)
+                        .getValue(ExpectedValues.Action.SPLIT), TOLERANCE);
+
+        double acesOneSplit = oneSplitCalculator.computeExpectedValues(aces, six, acesComposition, 0)
+                .getValue(ExpectedValues.Action.SPLIT);
+        assertEquals("Aces should not be resplit when the rules forbid it", acesOneSplit,
+                noResplitAcesCalculator.computeExpectedValues(aces, six, acesComposition, 0)
+                        .getValue(ExpectedValues.Action.SPLIT), TOLERANCE);
+        assertTrue("Aces should be resplit when the rules allow it", acesOneSplit !=
+                testCalculator.computeExpectedValues(aces, six, acesComposition, 0)
+                        .getValue(ExpectedValues.Action.SPLIT));
+    }
+
+    @Test
+    public void testTableMatchesSingleHands() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ExpectedValues[][][] table;
+        try {
+            table = testCalculator.computeTable(new Shoe(1).getComposition(), pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        ExpectedValueCalculator referenceCalculator = new ExpectedValueCalculator(new DealerOutcomeCalculator(),
+                4, 1.5);
+        for(int first=1; first<=10; first++) {
+            for(int second=1; second<=10; second++) {
+                for(int upCard=1; upCard<=10; upCard++) {
+                    if(first > second) {
+                        assertNull("Cells whose first card is higher should be empty", table[first][second][upCard]);
+                        continue;
+                    }
+
+                    Card firstCard = anyCardOfPipValue(first);
+                    Card secondCard = anyCardOfPipValue(second);
+                    Card upCardCard = anyCardOfPipValue(upCard);
+                    PlayerHand testHand = new PlayerHand();
+                    testHand.addCard(firstCard);
+                    testHand.addCard(secondCard);
+                    ExpectedValues expected = referenceCalculator.computeExpectedValues(testHand, upCardCard,
+                            singleDeckWithout(firstCard, secondCard, upCardCard), 0);
+
+                    ExpectedValues actual = table[first][second][upCard];
+                    assertNotNull("Every cell dealt from a full deck should be computed", actual);
+                    for(ExpectedValues.Action action : ExpectedValues.Action.values()) {
+                        assertEquals("Cell " + first + "," + second + " vs " + upCard + " " + action,
+                                expected.getValue(action), actual.getValue(action), TOLERANCE);
+                    }
+                }
+            }
+        }
+
+        assertEquals("The table should hold the reference value", SINGLE_DECK_16_VS_10_STAND,
+                table[6][10][10].getValue(ExpectedValues.Action.STAND), TOLERANCE);
+    }
+
+    @Test
+    public void testTableSkipsCellsWhichCannotBeDealt() {
+        int[] composition = new Shoe(1).getComposition();
+        composition[1] = 2;
+
+        ExpectedValues[][][] table = testCalculator.computeTable(composition, ForkJoinPool.commonPool());
+
+        assertNull("Three aces cannot be dealt from two", table[1][1][1]);
+        assertNotNull("Two aces and a ten can be dealt", table[1][1][10]);
+    }
+
+    /**
+     * @return a card of the provided pip value, the ace being 1
+     */
+    private static Card anyCardOfPipValue(int pipValue) {
+        Card.Rank rank = (1 == pipValue) ? Card.Rank.ACE : Card.Rank.values()[pipValue - 2];
+        return Card.get(Card.Suit.SPADES, rank);
+    }
+
+}
@@ -0,0 +1,141 @@
+import org.junit.Test;
+
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the GameConfig class.
+ *
+ * @author Dany Houde
+ */
+public class GameConfigTest {
+
+    private static final double TOLERANCE = 1e-12;
+
+    private static final String CONFIG_FILE_PATH = "res/Blackjack.cfg";
+
+    @Test
+    public void testLoadShippedConfigFile() {
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH));
+
+        assertEquals("Shipped config should use 6 decks", 6, config.getNumberOfDecks());
+        assertFalse("Shipped config should have the dealer stand on soft 17", config.dealerHitsSoft17());
+        assertEquals("Shipped config should reshuffle at 3/4 of the shoe", 0.75, config.getPenetration(), TOLERANCE);
+        assertFalse("Shipped config should not use a continuous shuffler", config.isContinuousShuffler());
+    }
+
+    @Test
+    public void testRuleVariantsAreOptional() {
+        Properties configProperties = BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH);
+        configProperties.remove(Strings.CONFIG_DOUBLE_AFTER_SPLIT_KEY);
+        configProperties.remove(Strings.CONFIG_LATE_SURRENDER_KEY);
+        configProperties.remove(Strings.CONFIG_PENETRATION_KEY);
+        configProperties.setProperty(Strings.CONFIG_NUM_DECKS_KEY, "2");
+
+        GameConfig config = GameConfig.fromProperties(configProperties);
+
+        assertTrue("Doubling after split should be allowed by default", config.isDoubleAfterSplitAllowed());
+        assertFalse("Late surrender should not be allowed by default", config.isLateSurrenderAllowed());
+        assertEquals("A 2 deck shoe should be reshuffled after every round by default",
+                0.0, config.getPenetration(), TOLERANCE);
+    }
+
+    @Test
+    public void testToBuilderKeepsValues() {
+        GameConfig config = new GameConfig.Builder().numberOfDecks(8).lateSurrender(true).penetration(0.8).build();
+        GameConfig variant = config.toBuilder().dealerHitsSoft17(true).build();
+
+        assertEquals("Variant should keep the number of decks", 8, variant.getNumberOfDecks());
+        assertTrue("Variant should keep late surrender", variant.isLateSurrenderAllowed());
+        assertTrue("Variant should have the dealer hit soft 17", variant.dealerHitsSoft17());
+        assertFalse("Original should be left untouched", config.dealerHitsSoft17());
+    }
+
+    @Test
+    public void testToBuilderKeepsDefaultPenetrationUnset() {
+        GameConfig config = new GameConfig.Builder().numberOfDecks(6).build();
+        GameConfig variant = config.toBuilder().numberOfDecks(2).build();
+
+        assertEquals("Six decks should default to their own penetration", Shoe.getDefaultPenetration(6),
+                config.getPenetration(), TOLERANCE);
+        assertEquals("Variant should default to the penetration of two decks", Shoe.getDefaultPenetration(2),
+                variant.getPenetration(), TOLERANCE);
+    }
+
+    @Test
+    public void testToBuilderKeepsSetPenetration() {
+        GameConfig config = new GameConfig.Builder().numberOfDecks(6).penetration(0.6).build();
+        GameConfig variant = config.toBuilder().numberOfDecks(2).build();
+
+        assertEquals("Variant should keep the penetration set", 0.6, variant.getPenetration(), TOLERANCE);
+    }
+
+    @Test
+    public void testNaturalPayoutIsExactRatio() {
+        GameConfig config = new GameConfig.Builder().naturalPayoutFactor(1.5).build();
+        assertEquals("3:2 natural should pay 3", 3, config.getNaturalPayoutNumerator());
+        assertEquals("3:2 natural should pay for 2", 2, config.getNaturalPayoutDenominator());
+
+        config = config.toBuilder().naturalPayoutFactor(1.2).build();
+        assertEquals("6:5 natural should pay 6", 6, config.getNaturalPayoutNumerator());
+        assertEquals("6:5 natural should pay for 5", 5, config.getNaturalPayoutDenominator());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNaturalPayoutMustBeRatio() {
+        new GameConfig.Builder().naturalPayoutFactor(Math.PI).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingRequiredValue() {
+        Properties configProperties = BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH);
+        configProperties.remove(Strings.CONFIG_MIN_BET_KEY);
+
+        GameConfig.fromProperties(configProperties);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNumber() {
+        Properties configProperties = BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH);
+        configProperties.setProperty(Strings.CONFIG_NUM_DECKS_KEY, "six");
+
+        GameConfig.fromProperties(configProperties);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBoolean() {
+        Properties configProperties = BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH);
+        configProperties.setProperty(Strings.CONFIG_LATE_SURRENDER_KEY, "maybe");
+
+        GameConfig.fromProperties(configProperties);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxPlayersBelowMinPlayers() {
+        new GameConfig.Builder().minNumberOfPlayers(3).maxNumberOfPlayers(2).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyDecks() {
+        new GameConfig.Builder().numberOfDecks(DealerOutcomeCalculator.MAX_NUMBER_OF_DECKS + 1).build();
+    }
+
+    @Test
+    public void testMostDecksCanBeAnalysed() {
+        GameConfig config = new GameConfig.Builder().numberOfDecks(DealerOutcomeCalculator.MAX_NUMBER_OF_DECKS)
+                .build();
+
+        double[] outcomes = new DealerOutcomeCalculator().getFinalTotalProbabilities(10,
+                new Shoe(config.getNumberOfDecks()).getComposition(), true);
+        assertEquals("The largest shoe should pack into a composition", 1.0,
+                outcomes[0] + outcomes[1] + outcomes[2] + outcomes[3] + outcomes[4] + outcomes[5], 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPenetrationOutOfRange() {
+        new GameConfig.Builder().penetration(1.0).build();
+    }
+}
@@ -0,0 +1,121 @@
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the GameMetrics and LatencyHistogram classes.
+ *
+ * @author Dany Houde
+ */
+public class GameMetricsTest {
+
+    private static final String CONFIG_FILE_PATH = "res/Blackjack.cfg";
+
+    @Test
+    public void testBucketsCoverEveryDuration() {
+        for(long nanos=0; nanos<100000; nanos++) {
+            int index = LatencyHistogram.bucketIndex(nanos);
+            assertTrue("Duration should not exceed its bucket", nanos <= LatencyHistogram.bucketUpperBound(index));
+            if(index > 0) {
+                assertTrue("Duration should be past the previous bucket",
+                        nanos > LatencyHistogram.bucketUpperBound(index - 1));
+            }
+        }
+
+        int lastIndex = LatencyHistogram.bucketIndex(Long.MAX_VALUE);
+        assertEquals("Longest duration should fit in the last bucket",
+                Long.MAX_VALUE, LatencyHistogram.bucketUpperBound(lastIndex));
+    }
+
+    @Test
+    public void testPercentilesOfRecordedDurations() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for(long nanos=1; nanos<=1000; nanos++) {
+            histogram.record(nanos);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals("Mean should be exact", 500.5, histogram.getMeanNanos(), 1e-9);
+        assertEquals("Max should be exact", 1000, histogram.getMaxNanos());
+
+        long median = histogram.getValueAtPercentile(50);
+        assertTrue("Median should be within a bucket of the actual one", median >= 500 && median < 500 * 9 / 8 + 1);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue("99th percentile should be within a bucket of the actual one", p99 >= 990 && p99 <= 1000);
+    }
+
+    @Test
+    public void testRecordingDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        GameMetrics metrics = new GameMetrics();
+        RoundResult roundResult = new RoundResult(2, 2);
+        roundResult.setInitialBet(0, 10);
+        roundResult.addHand(0, RoundResult.Outcome.BUST, 10, -10, false);
+
+        // The first batches warm up the code and initialize the classes it uses
+        long allocatedBytes = 0;
+        for(int batch=0; batch<5; batch++) {
+            long startBytes = threadMXBean.getCurrentThreadAllocatedBytes();
+            recordBatch(metrics, roundResult);
+            allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes() - startBytes;
+        }
+
+        assertEquals("Recording should not allocate", 0, allocatedBytes);
+    }
+
+    private static void recordBatch(GameMetrics metrics, RoundResult roundResult) {
+        for(int i=0; i<100000; i++) {
+            metrics.recordPhase(GameMetrics.Phase.TAKE_BETS, System.nanoTime());
+            metrics.recordRound(roundResult);
+        }
+    }
+
+    @Test
+    public void testGameRoundsAreMeasured() {
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH));
+        BlackjackGame game = new BlackjackGame(config, new DealerRulesPlayerStrategy(config.getMinBet()),
+                config.getMaxNumberOfPlayers(), new Random(5));
+        GameMetrics metrics = new GameMetrics();
+        game.setMetrics(metrics);
+
+        SimulationResult result = new SimulationResult();
+        game.simulate(1000, result);
+
+        assertEquals("Every round should be counted", 1000, metrics.getRoundsPlayed());
+        assertEquals("Every round should take bets", 1000, metrics.getTakeBetsLatency().getCount());
+        assertEquals("Every round should be settled", 1000, metrics.getSettlementLatency().getCount());
+        assertTrue("Players only play when the dealer has no natural",
+                metrics.getPlayersPlayLatency().getCount() < 1000);
+        assertEquals("Every seat should play at least one hand per round",
+                result.getNumberOfSeatRounds() + metrics.getSplits(), metrics.getHandsPlayed());
+        assertTrue("A thousand rounds should go through several shoes", metrics.getReshuffles() > 1);
+        assertTrue("Players drawing like the dealer should bust", metrics.getBusts() > 0);
+    }
+
+    @Test
+    public void testMetricsArePublishedOverJmx() throws Exception {
+        GameMetrics metrics = new GameMetrics();
+        metrics.recordPhase(GameMetrics.Phase.RESHUFFLE, System.nanoTime());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.register("GameMetricsTest");
+        try {
+            assertEquals(0L, server.getAttribute(name, "RoundsPlayed"));
+            assertEquals(1L, server.getAttribute(name, "Reshuffles"));
+
+            CompositeData latency = (CompositeData) server.getAttribute(name, "ReshuffleLatency");
+            assertEquals("Phase latency should be published as composite data", 1L, latency.get("count"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the LineFramer and ByteBufferPool classes.
+ *
+ * @author Dany Houde
+ */
+public class LineFramerTest {
+
+    @Test
+    public void testCompleteLinesAreFramed() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.put("s\r\n100\n".getBytes(StandardCharsets.UTF_8));
+
+        List<String> lines = new ArrayList<String>();
+        assertTrue("Buffer should not be full", LineFramer.frame(buffer, lines));
+
+        assertEquals("Both lines should be framed", 2, lines.size());
+        assertEquals("Carriage return should be dropped", "s", lines.get(0));
+        assertEquals("Second line should be framed", "100", lines.get(1));
+        assertEquals("No bytes should be left in the buffer", 0, buffer.position());
+    }
+
+    @Test
+    public void testIncompleteLineIsKeptForNextRead() {
+        byte[] bytes = "é\ny".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        // The first read ends in the middle of the two bytes of 'é'
+        buffer.put(bytes, 0, 1);
+        List<String> lines = new ArrayList<String>();
+        LineFramer.frame(buffer, lines);
+        assertEquals("No line should be framed before its end", 0, lines.size());
+
+        buffer.put(bytes, 1, bytes.length - 1);
+        LineFramer.frame(buffer, lines);
+        assertEquals("Line split across reads should be framed whole", "é", lines.get(0));
+        assertEquals("Incomplete line should stay in the buffer", 1, buffer.position());
+    }
+
+    @Test
+    public void testTooLongLineIsRejected() {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        buffer.put("abcd".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse("Full buffer without a line should be rejected",
+                LineFramer.frame(buffer, new ArrayList<String>()));
+    }
+
+    @Test
+    public void testReleasedBuffersAreReused() {
+        ByteBufferPool pool = new ByteBufferPool(16, 1);
+        ByteBuffer first = pool.acquire();
+        ByteBuffer second = pool.acquire();
+        first.put((byte) 1);
+
+        pool.release(first);
+        pool.release(second);
+        assertEquals("Pool should keep no more buffers than its limit", 1, pool.getNumPooledBuffers());
+
+        ByteBuffer reused = pool.acquire();
+        assertTrue("Released buffer should be handed out again", first == reused);
+        assertEquals("Reused buffer should be empty", 0, reused.position());
+    }
+
+}
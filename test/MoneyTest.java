@@ -0,0 +1,45 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the Money class.
+ *
+ * @author Dany Houde
+ */
+public class MoneyTest {
+
+    @Test
+    public void testNaturalPayoutsAreExact() {
+        // $15 at 3:2 and $25 at 6:5 could not be paid in whole units
+        assertEquals("$15 at 3:2 should pay $22.50", 2250, Money.payout(Money.ofWholeUnits(15), 3, 2));
+        assertEquals("$25 at 6:5 should pay $30", 3000, Money.payout(Money.ofWholeUnits(25), 6, 5));
+        assertEquals("$7 at 6:5 should pay $8.40", 840, Money.payout(Money.ofWholeUnits(7), 6, 5));
+    }
+
+    @Test
+    public void testHouseKeepsFractionOfMinorUnit() {
+        assertEquals("$0.15 at 3:2 should pay $0.22", 22, Money.payout(15, 3, 2));
+    }
+
+    @Test
+    public void testFormat() {
+        assertEquals("$25", Money.format(Money.ofWholeUnits(25)));
+        assertEquals("$7.50", Money.format(750));
+        assertEquals("$0.05", Money.format(5));
+        assertEquals("-$12.34", Money.format(-1234));
+        assertEquals("-$92233720368547758.08", Money.format(Long.MIN_VALUE));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testOverflowThrows() {
+        Money.ofWholeUnits(Long.MAX_VALUE / 10);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testBalanceOverflowThrows() {
+        Player player = new Player(0, Long.MAX_VALUE);
+        player.increaseCashBalanceBy(1);
+    }
+
+}
@@ -0,0 +1,41 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the MonteCarloSimulator class.
+ *
+ * @author Dany Houde
+ */
+public class MonteCarloSimulatorTest {
+
+    private static final String CONFIG_FILE_PATH = "res/Blackjack.cfg";
+
+    // More batches than the threads keep in flight, the last one partial
+    private static final long NUMBER_OF_ROUNDS = 730000;
+
+    private static SimulationResult run(int numberOfThreads) {
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH));
+        MonteCarloSimulator simulator = new MonteCarloSimulator(config, new DealerRulesPlayerStrategy(10), 2,
+                numberOfThreads);
+        simulator.setCollectsRoundStatistics(true);
+
+        return simulator.run(NUMBER_OF_ROUNDS, 13);
+    }
+
+    @Test
+    public void testResultDoesNotDependOnNumberOfThreads() {
+        SimulationResult singleThreadResult = run(1);
+        SimulationResult multiThreadResult = run(3);
+
+        assertEquals("Every round should be played", NUMBER_OF_ROUNDS, singleThreadResult.getNumberOfRounds());
+        assertEquals(singleThreadResult.getNumberOfRounds(), multiThreadResult.getNumberOfRounds());
+        assertEquals("Results should not depend on the number of threads",
+                singleThreadResult.getTotalNet(), multiThreadResult.getTotalNet());
+        assertEquals(singleThreadResult.getTotalWagered(), multiThreadResult.getTotalWagered());
+        assertEquals("Batch statistics should be merged in the same order",
+                singleThreadResult.getRoundStatistics().getHandNetVariance(),
+                multiThreadResult.getRoundStatistics().getHandNetVariance(), 0.0);
+    }
+
+}
@@ -20,8 +20,8 @@ public class PlayerHandTest {
 
     @Test
     public void testCanBeSplit() {
-        testHand.addCard(new Card(Card.Suit.CLUBS, Card.Rank.DEUCE, true));
-        testHand.addCard(new Card(Card.Suit.SPADES, Card.Rank.DEUCE, true));
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.DEUCE));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.DEUCE));
         testHand.setWager(10);
 
         assertEquals("Hand with $10 wager and two same-rank cards should be splittable with $10",
@@ -31,8 +31,8 @@ public class PlayerHandTest {
 
     @Test
     public void testCanBeSplitDifferentRanks() {
-        testHand.addCard(new Card(Card.Suit.CLUBS, Card.Rank.TEN, true));
-        testHand.addCard(new Card(Card.Suit.SPADES, Card.Rank.QUEEN, true));
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.TEN));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.QUEEN));
         testHand.setWager(10);
 
         assertEquals("Hand with two same-valued, different Ranks should be splittable",
@@ -41,8 +41,8 @@ public class PlayerHandTest {
 
     @Test
     public void testCannotBeSplitWrongRank() {
-        testHand.addCard(new Card(Card.Suit.CLUBS, Card.Rank.THREE, true));
-        testHand.addCard(new Card(Card.Suit.SPADES, Card.Rank.DEUCE, true));
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.THREE));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.DEUCE));
         testHand.setWager(10);
 
         assertEquals("Hand with two different card ranks should NOT be splittable even with sufficient money",
@@ -51,14 +51,24 @@ public class PlayerHandTest {
 
     @Test
     public void testCannotBeSplitInsufficientMoney() {
-        testHand.addCard(new Card(Card.Suit.CLUBS, Card.Rank.DEUCE, true));
-        testHand.addCard(new Card(Card.Suit.SPADES, Card.Rank.DEUCE, true));
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.DEUCE));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.DEUCE));
         testHand.setWager(20);
 
         assertEquals("Hand with $20 wager and two same-rank cards should NOT be splittable with $10",
                 false, testHand.canBeSplit(10));
     }
 
+    @Test
+    public void testSurrenderedHandIsNotActive() {
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.TEN));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.SIX));
+        testHand.setSurrendered(true);
+
+        assertEquals("Surrendered hand should not be active", false, testHand.isActive());
 
+        testHand.reset();
+        assertEquals("Reset hand should not be surrendered", false, testHand.isSurrendered());
+    }
 
 }
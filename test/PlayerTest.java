@@ -5,6 +5,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 
 /**
@@ -38,8 +39,8 @@ public class PlayerTest {
     public void testSplitAceHand() {
         PlayerHand testHand = new PlayerHand();
 
-        testHand.addCard(new Card(Card.Suit.CLUBS, Card.Rank.ACE, true));
-        testHand.addCard(new Card(Card.Suit.SPADES, Card.Rank.ACE, true));
+        testHand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.ACE));
+        testHand.addCard(Card.get(Card.Suit.SPADES, Card.Rank.ACE));
         testHand.setWager(10);
 
         testPlayer.addHand(testHand);
@@ -56,5 +57,30 @@ public class PlayerTest {
     }
 
 
+    @Test
+    public void testHandsAreReusedAcrossRounds() throws Exception {
+        // Room for one hand only, so that splitting has to make more room
+        Player player = new Player(0, 1000, 1);
+        PlayerHand firstHand = player.getHands().get(0);
+
+        for(int round=0; round<2; round++) {
+            PlayerHand hand = player.getHands().get(0);
+            hand.addCard(Card.get(Card.Suit.CLUBS, Card.Rank.EIGHT));
+            hand.addCard(Card.get(Card.Suit.HEARTS, Card.Rank.EIGHT));
+            hand.setWager(10);
+
+            PlayerHand splitHand = player.splitHand(0);
+            player.getHands().add(1, splitHand);
+            assertEquals("Split hand should get the second card", 1, splitHand.getNumCards());
+            assertEquals("Split hand should get the same wager", 10, splitHand.getWager());
+
+            player.resetHands();
+            assertEquals("Reset player should hold a single hand", 1, player.getHands().size());
+            assertSame("First hand should be reused", firstHand, player.getHands().get(0));
+            assertEquals("Reused hand should be empty", 0, firstHand.getNumCards());
+            assertEquals("Split hand should be emptied for the next round", 0, splitHand.getNumCards());
+            assertEquals("Split hand should be emptied for the next round", false, splitHand.isFromSplit());
+        }
+    }
 
 }
@@ -0,0 +1,83 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the QuantileSketch class.
+ *
+ * @author Dany Houde
+ */
+public class QuantileSketchTest {
+
+    @Test
+    public void testBucketsCoverEveryValue() {
+        for(int precisionBits=1; precisionBits<=10; precisionBits+=3) {
+            for(long value=0; value<50000; value++) {
+                int index = QuantileSketch.bucketIndex(value, precisionBits);
+                assertTrue("Value should not exceed its bucket",
+                        value <= QuantileSketch.bucketUpperBound(index, precisionBits));
+                if(index > 0) {
+                    assertTrue("Value should be past the previous bucket",
+                            value > QuantileSketch.bucketUpperBound(index - 1, precisionBits));
+                }
+            }
+
+            QuantileSketch sketch = new QuantileSketch(precisionBits);
+            sketch.add(Long.MAX_VALUE);
+            assertEquals("Largest value should fit in the last bucket",
+                    sketch.getNumberOfBuckets() - 1, QuantileSketch.bucketIndex(Long.MAX_VALUE, precisionBits));
+        }
+    }
+
+    @Test
+    public void testPercentilesAreWithinPrecision() {
+        QuantileSketch sketch = new QuantileSketch();
+        for(long value=1; value<=1000000; value++) {
+            sketch.add(value * 100);
+        }
+
+        assertEquals(1000000, sketch.getCount());
+        assertEquals("Mean should be exact", 50000050.0, sketch.getMean(), 1e-6);
+        assertEquals("Min should be exact", 100, sketch.getMin());
+        assertEquals("Max should be exact", 100000000, sketch.getMax());
+
+        double maxRelativeError = 1.0 / (1 << QuantileSketch.DEFAULT_PRECISION_BITS);
+        for(int percentile=1; percentile<=99; percentile++) {
+            double actual = percentile * 1000000.0;
+            long estimate = sketch.getValueAtPercentile(percentile);
+            assertTrue("Percentile " + percentile + " should be within the sketch's precision",
+                    estimate >= actual && estimate <= actual * (1 + maxRelativeError));
+        }
+    }
+
+    @Test
+    public void testMergingEqualsAddingToOneSketch() {
+        QuantileSketch whole = new QuantileSketch();
+        QuantileSketch[] parts = { new QuantileSketch(), new QuantileSketch(), new QuantileSketch() };
+        for(long value=0; value<30000; value++) {
+            long bankroll = (value * 7919) % 100003;
+            whole.add(bankroll);
+            parts[(int) (value % parts.length)].add(bankroll);
+        }
+
+        QuantileSketch merged = new QuantileSketch();
+        for(int i=parts.length-1; i>=0; i--) {
+            merged.merge(parts[i]);
+        }
+
+        assertEquals(whole.getCount(), merged.getCount());
+        assertEquals(whole.getMin(), merged.getMin());
+        assertEquals(whole.getMax(), merged.getMax());
+        for(int percentile=0; percentile<=100; percentile+=5) {
+            assertEquals("Merged sketch should have the same percentiles",
+                    whole.getValueAtPercentile(percentile), merged.getValueAtPercentile(percentile));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeValueIsRejected() {
+        new QuantileSketch().add(-1);
+    }
+
+}
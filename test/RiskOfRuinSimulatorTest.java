@@ -0,0 +1,80 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the RiskOfRuinSimulator class.
+ *
+ * @author Dany Houde
+ */
+public class RiskOfRuinSimulatorTest {
+
+    private static final String CONFIG_FILE_PATH = "res/Blackjack.cfg";
+    private static final String STRATEGY_FILE_PATH = "res/BasicStrategy.cfg";
+
+    // A bankroll of 10 bets, so that sessions of a few hundred rounds are often ruined
+    private static final int STARTING_CASH = 100;
+    private static final int BET = 10;
+    private static final long MAX_ROUNDS = 300;
+    private static final long[] CHECKPOINTS = { 1, 100, 200, 300 };
+
+    private static GameConfig newConfig() {
+        return GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH))
+                .toBuilder().startingCashBalance(STARTING_CASH).build();
+    }
+
+    private static RiskOfRuinSimulator newSimulator(int numberOfThreads) {
+        PlayerStrategy strategy = BasicStrategyPlayerStrategy.load(STRATEGY_FILE_PATH, BET);
+
+        return new RiskOfRuinSimulator(newConfig(), strategy, MAX_ROUNDS, Money.ofWholeUnits(2 * STARTING_CASH),
+                CHECKPOINTS, numberOfThreads);
+    }
+
+    @Test
+    public void testEverySessionIsAccountedFor() {
+        RiskOfRuinResult result = newSimulator(2).run(2500, 11);
+
+        assertEquals(2500, result.getNumberOfSessions());
+        assertEquals("Every session should end one way",
+                result.getNumberOfSessions(), result.getNumberOfSessions(RiskOfRuinResult.SessionEnd.RUIN) +
+                        result.getNumberOfSessions(RiskOfRuinResult.SessionEnd.TARGET) +
+                        result.getNumberOfSessions(RiskOfRuinResult.SessionEnd.ROUND_LIMIT));
+        for(int i=0; i<result.getNumberOfCheckpoints(); i++) {
+            assertEquals("Every session should be sampled at every checkpoint",
+                    result.getNumberOfSessions(), result.getCheckpointBankrolls(i).getCount());
+        }
+
+        assertTrue("A bankroll of 10 bets should often be ruined", result.getRiskOfRuin() > 0.1);
+        assertTrue("Sessions should not outlast the round limit",
+                result.getSessionLengths().getMax() <= MAX_ROUNDS);
+        assertTrue("Ruined sessions should not afford the minimum bet",
+                result.getFinalBankrolls().getMin() < Money.ofWholeUnits(newConfig().getMinBet()));
+        int lastCheckpoint = result.getNumberOfCheckpoints() - 1;
+        assertEquals("Sessions should be sampled with their final bankroll at the round limit",
+                result.getFinalBankrolls().getMean(), result.getCheckpointBankrolls(lastCheckpoint).getMean(), 0.0);
+    }
+
+    @Test
+    public void testResultDoesNotDependOnNumberOfThreads() {
+        RiskOfRuinResult singleThreadResult = newSimulator(1).run(2500, 5);
+        RiskOfRuinResult multiThreadResult = newSimulator(3).run(2500, 5);
+
+        for(RiskOfRuinResult.SessionEnd sessionEnd : RiskOfRuinResult.SessionEnd.values()) {
+            assertEquals(singleThreadResult.getNumberOfSessions(sessionEnd),
+                    multiThreadResult.getNumberOfSessions(sessionEnd));
+        }
+        assertEquals("Final bankrolls should be the same", singleThreadResult.getFinalBankrolls().getMean(),
+                multiThreadResult.getFinalBankrolls().getMean(), 0.0);
+        assertEquals(singleThreadResult.getCheckpointBankrolls(2).getValueAtPercentile(50),
+                multiThreadResult.getCheckpointBankrolls(2).getValueAtPercentile(50));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCheckpointPastRoundLimitIsRejected() {
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH));
+        new RiskOfRuinSimulator(config, new DealerRulesPlayerStrategy(BET), MAX_ROUNDS, 0,
+                new long[] { MAX_ROUNDS + 1 }, 1);
+    }
+
+}
@@ -0,0 +1,190 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the RoundLog and RoundLogReader classes.
+ *
+ * @author Dany Houde
+ */
+public class RoundLogTest {
+
+    private static final String CONFIG_FILE_PATH = "res/Blackjack.cfg";
+
+    private Path logPath;
+
+    @Before
+    public void createLogFile() throws Exception {
+        logPath = File.createTempFile("rounds", ".log").toPath();
+    }
+
+    @After
+    public void deleteLogFile() throws Exception {
+        Files.deleteIfExists(logPath);
+    }
+
+    @Test
+    public void testRecordsAreReadBackAcrossSegments() throws Exception {
+        Card aceOfSpades = Card.get(Card.Suit.SPADES, Card.Rank.ACE);
+
+        // Segments of 4 records, so that the 10 records span three segments
+        try (RoundLog log = new RoundLog(logPath, 4, RoundLog.DEFAULT_FLUSH_INTERVAL_MILLIS)) {
+            log.roundStart(1234L);
+            log.shuffle(42L, 312);
+            log.bet(0, 25);
+            log.deal(0, 0, aceOfSpades);
+            log.deal(RoundLog.DEALER_SEAT, 0, aceOfSpades);
+            log.split(0, 0);
+            log.doubleDown(0, 1, 50);
+            log.decision(RoundLog.EventType.STAND, 0, 0);
+            log.settle(0, 1, RoundResult.Outcome.LOSS, -50);
+            log.roundStart(5678L);
+        }
+
+        assertEquals("Closed log should be trimmed to its last record",
+                RoundLog.HEADER_SIZE + 10 * RoundLog.RECORD_SIZE, Files.size(logPath));
+
+        try (RoundLogReader reader = new RoundLogReader(logPath)) {
+            assertTrue(reader.next());
+            assertEquals("Round start should hold the start time", 1234L, reader.getValue());
+            assertEquals("Rounds should be numbered from 1", 1, reader.getRoundNumber());
+
+            assertTrue(reader.next());
+            assertEquals(RoundLog.EventType.SHUFFLE, reader.getType());
+            assertEquals("Shuffle should hold its seed", 42L, reader.getValue());
+            assertEquals("Shuffle should hold the number of cards", 312, reader.getAmount());
+
+            assertTrue(reader.next());
+            assertEquals("Bet should hold its amount", 25, reader.getAmount());
+
+            assertTrue(reader.next());
+            assertEquals(RoundLog.EventType.DEAL, reader.getType());
+            assertSame("Deal should hold its card", aceOfSpades, reader.getCard());
+
+            assertTrue(reader.next());
+            assertEquals("Dealer cards should be dealt to the dealer seat", RoundLog.DEALER_SEAT, reader.getSeat());
+
+            assertTrue(reader.next());
+            assertEquals(RoundLog.EventType.SPLIT, reader.getType());
+
+            assertTrue(reader.next());
+            assertEquals(RoundLog.EventType.DOUBLE_DOWN, reader.getType());
+            assertEquals("Double down should hold its hand", 1, reader.getHandIndex());
+            assertEquals("Double down should hold the new wager", 50, reader.getAmount());
+
+            assertTrue(reader.next());
+            assertEquals(RoundLog.EventType.STAND, reader.getType());
+
+            assertTrue(reader.next());
+            assertEquals(RoundLog.EventType.SETTLE, reader.getType());
+            assertEquals("Settlement should hold the outcome", RoundResult.Outcome.LOSS, reader.getOutcome());
+            assertEquals("Settlement should hold the net win", -50, reader.getAmount());
+
+            assertTrue(reader.next());
+            assertEquals("Second round should be numbered 2", 2, reader.getRoundNumber());
+
+            assertFalse("Log should end after its last record", reader.next());
+        }
+    }
+
+    @Test
+    public void testReaderSeeksAcrossWindows() throws Exception {
+        int numberOfRecords = 25;
+        try (RoundLog log = new RoundLog(logPath, 4, RoundLog.DEFAULT_FLUSH_INTERVAL_MILLIS)) {
+            for(int i=0; i<numberOfRecords; i++) {
+                log.roundStart(1000L + i);
+            }
+        }
+
+        // Windows of 3 records, which do not line up with the segments the log was written in
+        try (RoundLogReader reader = new RoundLogReader(logPath, 3)) {
+            for(int i=0; i<numberOfRecords; i++) {
+                assertTrue("Every record should be read back", reader.next());
+                assertEquals("Records should be read in order", i, reader.getRecordIndex());
+                assertEquals(1000L + i, reader.getValue());
+                assertEquals(i + 1, reader.getRoundNumber());
+            }
+            assertFalse("Log should end after its last record", reader.next());
+
+            reader.seek(17);
+            assertTrue(reader.next());
+            assertEquals("Seeking should move to the record", 1017L, reader.getValue());
+            assertTrue(reader.next());
+            assertEquals(1018L, reader.getValue());
+
+            reader.seek(2);
+            assertTrue(reader.next());
+            assertEquals("Seeking back should map an earlier window", 1002L, reader.getValue());
+
+            reader.seek(numberOfRecords);
+            assertFalse("Seeking past the last record should end the log", reader.next());
+        }
+    }
+
+    @Test
+    public void testGameRoundsAreLogged() throws Exception {
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH));
+        int numberOfPlayers = config.getMaxNumberOfPlayers();
+        BlackjackGame game = new BlackjackGame(config, new DealerRulesPlayerStrategy(config.getMinBet()),
+                numberOfPlayers, new Random(3));
+
+        long roundsPlayed;
+        try (RoundLog log = new RoundLog(logPath)) {
+            game.setRoundLog(log);
+            roundsPlayed = game.simulate(500);
+        }
+
+        long balanceChange = 0;
+        for(Player p : game.getPlayers()) {
+            balanceChange += p.getCashBalance() - Money.ofWholeUnits(config.getStartingCashBalance());
+        }
+
+        long roundStarts = 0;
+        long totalBets = 0;
+        long totalNets = 0;
+        int dealerCardsInRound = 0;
+        try (RoundLogReader reader = new RoundLogReader(logPath)) {
+            while(reader.next()) {
+                switch(reader.getType()) {
+                    case ROUND_START:
+                        if(roundStarts > 0) {
+                            assertTrue("Dealer should get at least two cards per round", dealerCardsInRound >= 2);
+                        }
+                        roundStarts++;
+                        dealerCardsInRound = 0;
+                        assertEquals("Rounds should be numbered in order", roundStarts, reader.getRoundNumber());
+                        break;
+                    case BET:
+                        totalBets += reader.getAmount();
+                        break;
+                    case DEAL:
+                        if(reader.getSeat() == RoundLog.DEALER_SEAT) {
+                            dealerCardsInRound++;
+                        }
+                        break;
+                    case SETTLE:
+                        totalNets += reader.getAmount();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        assertEquals("Every round should be logged", roundsPlayed, roundStarts);
+        assertEquals("Every seat should bet the minimum every round",
+                roundsPlayed * numberOfPlayers * Money.ofWholeUnits(config.getMinBet()), totalBets);
+        assertEquals("Settlements should add up to the players' balances", balanceChange, totalNets);
+    }
+
+}
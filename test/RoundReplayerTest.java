@@ -0,0 +1,140 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the RoundReplayer class, replaying rounds recorded by simulated games.
+ *
+ * @author Dany Houde
+ */
+public class RoundReplayerTest {
+
+    private static final String CONFIG_FILE_PATH = "res/Blackjack.cfg";
+    private static final String STRATEGY_FILE_PATH = "res/BasicStrategy.cfg";
+
+    private static final int ROUNDS_TO_RECORD = 2000;
+
+    private GameConfig config;
+    private BlackjackGame recordedGame;
+    private long roundsRecorded;
+
+    private Path logPath;
+    private Path replayLogPath;
+
+    @Before
+    public void recordGame() throws Exception {
+        logPath = File.createTempFile("rounds", ".log").toPath();
+        replayLogPath = File.createTempFile("replay", ".log").toPath();
+
+        config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH));
+        PlayerStrategy strategy = BasicStrategyPlayerStrategy.load(STRATEGY_FILE_PATH, config.getMinBet());
+        recordedGame = new BlackjackGame(config, strategy, config.getMaxNumberOfPlayers(), new Random(11));
+
+        try (RoundLog log = new RoundLog(logPath)) {
+            recordedGame.setRoundLog(log);
+            roundsRecorded = recordedGame.simulate(ROUNDS_TO_RECORD);
+        }
+    }
+
+    @After
+    public void deleteLogFiles() throws Exception {
+        Files.deleteIfExists(logPath);
+        Files.deleteIfExists(replayLogPath);
+    }
+
+    @Test
+    public void testReplayIsBitIdentical() throws Exception {
+        RoundReplayer replayer = new RoundReplayer(config, logPath);
+        assertEquals("Replayer should find every round of the log", roundsRecorded, replayer.getLastRoundNumber());
+
+        BlackjackGame replayedGame;
+        try (RoundLog replayLog = new RoundLog(replayLogPath)) {
+            replayedGame = replayer.replay(1, roundsRecorded, replayLog);
+        }
+
+        assertSameBalances(recordedGame, replayedGame);
+
+        // The replay records the very same events, but for the start times of the rounds
+        try (RoundLogReader recorded = new RoundLogReader(logPath);
+             RoundLogReader replayed = new RoundLogReader(replayLogPath)) {
+            while(recorded.next()) {
+                assertTrue("Replay should record every event", replayed.next());
+                assertEquals(recorded.getType(), replayed.getType());
+                assertEquals(recorded.getRoundNumber(), replayed.getRoundNumber());
+                assertEquals(recorded.getSeat(), replayed.getSeat());
+                assertEquals(recorded.getHandIndex(), replayed.getHandIndex());
+                assertEquals(recorded.getAmount(), replayed.getAmount());
+                if(recorded.getType() == RoundLog.EventType.DEAL) {
+                    assertTrue("Replay should deal the same cards", recorded.getCard() == replayed.getCard());
+                } else if(recorded.getType() != RoundLog.EventType.ROUND_START) {
+                    assertEquals(recorded.getValue(), replayed.getValue());
+                }
+            }
+            assertTrue("Replay should not record more events", !replayed.next());
+        }
+    }
+
+    @Test
+    public void testReplayFromMiddleRound() throws Exception {
+        RoundReplayer replayer = new RoundReplayer(config, logPath);
+
+        BlackjackGame replayedGame = replayer.replay(roundsRecorded - 3, roundsRecorded, null);
+        assertSameBalances(recordedGame, replayedGame);
+    }
+
+    @Test
+    public void testReplayContinuousShuffler() throws Exception {
+        GameConfig csmConfig = config.toBuilder().continuousShuffler(true).build();
+        PlayerStrategy strategy = BasicStrategyPlayerStrategy.load(STRATEGY_FILE_PATH, csmConfig.getMinBet());
+        BlackjackGame csmGame = new BlackjackGame(csmConfig, strategy, csmConfig.getMaxNumberOfPlayers(),
+                new Random(13));
+
+        Path csmLogPath = File.createTempFile("csm", ".log").toPath();
+        try {
+            long csmRounds;
+            try (RoundLog log = new RoundLog(csmLogPath)) {
+                csmGame.setRoundLog(log);
+                csmRounds = csmGame.simulate(ROUNDS_TO_RECORD);
+            }
+
+            // Every deal draws from the sequence of the only shuffle, at the start of the log
+            RoundReplayer replayer = new RoundReplayer(csmConfig, csmLogPath);
+            assertSameBalances(csmGame, replayer.replay(1, csmRounds, null));
+            assertSameBalances(csmGame, replayer.replay(csmRounds - 3, csmRounds, null));
+        } finally {
+            Files.deleteIfExists(csmLogPath);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReplayPastLastRound() throws Exception {
+        new RoundReplayer(config, logPath).replay(1, roundsRecorded + 1, null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReplayWithOtherRulesDiverges() throws Exception {
+        GameConfig otherConfig = config.toBuilder()
+                .dealerHitsSoft17(!config.dealerHitsSoft17())
+                .build();
+
+        new RoundReplayer(otherConfig, logPath).replay(1, roundsRecorded, null);
+    }
+
+    private static void assertSameBalances(BlackjackGame expected, BlackjackGame actual) {
+        Player[] expectedPlayers = expected.getPlayers();
+        Player[] actualPlayers = actual.getPlayers();
+        for(int seat=0; seat<expectedPlayers.length; seat++) {
+            assertEquals("Replay should end with the recorded balances",
+                    expectedPlayers[seat].getCashBalance(), actualPlayers[seat].getCashBalance());
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the RoundStatistics class.
+ *
+ * @author Dany Houde
+ */
+public class RoundStatisticsTest {
+
+    private static final String CONFIG_FILE_PATH = "res/Blackjack.cfg";
+    private static final String STRATEGY_FILE_PATH = "res/BasicStrategy.cfg";
+
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    public void testHandStatistics() {
+        RoundStatistics statistics = new RoundStatistics();
+        RoundResult roundResult = new RoundResult(2, 2);
+
+        // A won hand and a lost double down against a 6
+        roundResult.setDealerUpCard(6);
+        roundResult.setInitialBet(0, 1000);
+        roundResult.setStartingHand(0, 18, false);
+        roundResult.setInitialBet(1, 1000);
+        roundResult.setStartingHand(1, 11, false);
+        roundResult.addHand(0, RoundResult.Outcome.WIN, 1000, 1000, false);
+        roundResult.addHand(1, RoundResult.Outcome.LOSS, 2000, -2000, true);
+        statistics.addRound(roundResult);
+
+        // A natural against a 6, with a single seat playing
+        roundResult.reset();
+        roundResult.setDealerUpCard(6);
+        roundResult.setInitialBet(0, 1000);
+        roundResult.setStartingHand(0, 21, true);
+        roundResult.addHand(0, RoundResult.Outcome.NATURAL, 1000, 1500, false);
+        statistics.addRound(roundResult);
+
+        assertEquals(3, statistics.getNumberOfHands());
+        assertEquals("Mean should be in initial bets", 0.5 / 3, statistics.getMeanHandNet(), TOLERANCE);
+        double expectedVariance = (Math.pow(1 - 0.5 / 3, 2) + Math.pow(-2 - 0.5 / 3, 2) +
+                Math.pow(1.5 - 0.5 / 3, 2)) / 2;
+        assertEquals("Variance should be the sample variance", expectedVariance,
+                statistics.getHandNetVariance(), TOLERANCE);
+        assertEquals("Naturals should count as wins", 2.0 / 3, statistics.getWinRate(), TOLERANCE);
+        assertEquals(1.0 / 3, statistics.getLossRate(), TOLERANCE);
+
+        assertEquals("Natural should pay 3:2", 1.5, statistics.getExpectedValue(21, true, 6), TOLERANCE);
+        assertEquals("Lost double should cost two bets", -2.0, statistics.getExpectedValue(11, false, 6), TOLERANCE);
+        assertEquals("Starting hand never dealt should have no value",
+                Double.NaN, statistics.getExpectedValue(16, false, 10), 0.0);
+        assertEquals(1, statistics.getSeatNetCount(-4));
+        assertEquals("A natural should round to three half bets", 1, statistics.getSeatNetCount(3));
+    }
+
+    @Test
+    public void testMergingEqualsAddingToOneInstance() {
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH));
+        PlayerStrategy strategy = BasicStrategyPlayerStrategy.load(STRATEGY_FILE_PATH, config.getMinBet());
+        BlackjackGame game = new BlackjackGame(config, strategy, config.getMaxNumberOfPlayers(), new Random(23));
+
+        RoundStatistics whole = new RoundStatistics();
+        RoundStatistics[] parts = { new RoundStatistics(), new RoundStatistics(), new RoundStatistics() };
+        SimulationResult result = new SimulationResult();
+        for(int round=0; round<20000; round++) {
+            game.simulate(1, result);
+            whole.addRound(game.getLastRoundResult());
+            parts[round * round % parts.length].addRound(game.getLastRoundResult());
+        }
+
+        // Merged in a different grouping than they were added
+        parts[1].merge(parts[2]);
+        RoundStatistics merged = new RoundStatistics();
+        merged.merge(parts[1]);
+        merged.merge(parts[0]);
+
+        assertEquals(whole.getNumberOfHands(), merged.getNumberOfHands());
+        assertEquals(whole.getMeanHandNet(), merged.getMeanHandNet(), TOLERANCE);
+        assertEquals(whole.getHandNetVariance(), merged.getHandNetVariance(), TOLERANCE);
+        assertEquals(whole.getPushRate(), merged.getPushRate(), 0.0);
+        for(int halfBets=-16; halfBets<=16; halfBets++) {
+            assertEquals(whole.getSeatNetCount(halfBets), merged.getSeatNetCount(halfBets));
+        }
+        for(int upCard=1; upCard<=10; upCard++) {
+            assertEquals(whole.getNumberOfSeatRounds(16, false, upCard),
+                    merged.getNumberOfSeatRounds(16, false, upCard));
+            assertEquals(whole.getExpectedValue(16, false, upCard),
+                    merged.getExpectedValue(16, false, upCard), 0.0);
+        }
+    }
+
+    @Test
+    public void testAddingRoundsDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        RoundStatistics statistics = new RoundStatistics();
+        RoundResult roundResult = new RoundResult(2, 2);
+        roundResult.setDealerUpCard(10);
+        roundResult.setInitialBet(0, 1000);
+        roundResult.setStartingHand(0, 16, false);
+        roundResult.addHand(0, RoundResult.Outcome.BUST, 1000, -1000, false);
+
+        // The first batches warm up the code
+        long allocatedBytes = 0;
+        for(int batch=0; batch<5; batch++) {
+            long startBytes = threadMXBean.getCurrentThreadAllocatedBytes();
+            addBatch(statistics, roundResult);
+            allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes() - startBytes;
+        }
+
+        assertEquals("Adding rounds should not allocate", 0, allocatedBytes);
+    }
+
+    private static void addBatch(RoundStatistics statistics, RoundResult roundResult) {
+        for(int i=0; i<100000; i++) {
+            statistics.addRound(roundResult);
+        }
+    }
+
+}
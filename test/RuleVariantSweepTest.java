@@ -0,0 +1,66 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the RuleVariantSweep class.
+ *
+ * @author Dany Houde
+ */
+public class RuleVariantSweepTest {
+
+    private static final String CONFIG_FILE_PATH = "res/Blackjack.cfg";
+
+    @Test
+    public void testExpandGrid() {
+        Properties sweepProperties = BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH);
+        sweepProperties.setProperty(Strings.CONFIG_NUM_DECKS_KEY, "1, 6, 8");
+        sweepProperties.setProperty(Strings.CONFIG_DEALER_HITS_SOFT_17_KEY, "false,true");
+
+        List<GameConfig> variants = RuleVariantSweep.expandGrid(sweepProperties);
+
+        assertEquals("Grid should hold one variant per combination", 6, variants.size());
+        assertEquals("First swept key should vary slowest", 1, variants.get(0).getNumberOfDecks());
+        assertEquals("Last swept key should vary fastest", true, variants.get(1).dealerHitsSoft17());
+        assertEquals("Last variant should use the last values", 8, variants.get(5).getNumberOfDecks());
+    }
+
+    @Test
+    public void testVariantsStopOnceConverged() {
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH));
+        List<GameConfig> variants = new ArrayList<GameConfig>();
+        variants.add(config);
+        variants.add(config.toBuilder().dealerHitsSoft17(true).build());
+
+        // A loose target is reached after the first batch
+        RuleVariantSweep sweep = new RuleVariantSweep(new DealerRulesPlayerStrategy(10), 1, 2, 0.05, 10000000);
+        List<SimulationResult> results = sweep.run(variants, 1);
+
+        for(SimulationResult result : results) {
+            assertTrue("Variant should have converged", sweep.hasConverged(result));
+            assertTrue("Variant should stop well before the round limit", result.getNumberOfRounds() < 10000000);
+        }
+    }
+
+    @Test
+    public void testSweepIsReproducible() {
+        GameConfig config = GameConfig.fromProperties(BlackjackGame.loadConfigurationFile(CONFIG_FILE_PATH));
+        List<GameConfig> variants = new ArrayList<GameConfig>();
+        variants.add(config);
+        variants.add(config.toBuilder().numberOfDecks(2).build());
+
+        PlayerStrategy strategy = new DealerRulesPlayerStrategy(10);
+        List<SimulationResult> singleThreadResults = new RuleVariantSweep(strategy, 2, 1, 0.05, 200000).run(variants, 3);
+        List<SimulationResult> multiThreadResults = new RuleVariantSweep(strategy, 2, 2, 0.05, 200000).run(variants, 3);
+
+        for(int i=0; i<variants.size(); i++) {
+            assertEquals("Results should not depend on the number of threads",
+                    singleThreadResults.get(i).getTotalNet(), multiThreadResults.get(i).getTotalNet());
+        }
+    }
+}
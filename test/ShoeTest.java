@@ -0,0 +1,330 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the Shoe class.
+ *
+ * @author Dany Houde
+ */
+public class ShoeTest {
+
+    private static final int NUM_DECKS = 6;
+
+    private Shoe testShoe;
+
+    @Before
+    public void setupShoe() {
+        testShoe = new Shoe(NUM_DECKS);
+        testShoe.shuffle();
+    }
+
+    @Test
+    public void testNewShoeSize() {
+        assertEquals("Shoe with 6 decks should have 312 cards", NUM_DECKS * Deck.getSize(), testShoe.getNumCards());
+    }
+
+    @Test
+    public void testDealDecreasesSize() throws Exception {
+        testShoe.deal();
+        testShoe.deal();
+
+        assertEquals("Shoe should have two cards fewer after dealing two cards",
+                NUM_DECKS * Deck.getSize() - 2, testShoe.getNumCards());
+    }
+
+    @Test
+    public void testCardsAreConservedAcrossShuffles() throws Exception {
+        List<Card> dealtCards = new ArrayList<Card>();
+        for(int i=0; i<100; i++) {
+            dealtCards.add(testShoe.deal());
+        }
+
+        testShoe.addAll(dealtCards);
+        assertEquals("Returned cards should count towards the shoe size",
+                NUM_DECKS * Deck.getSize(), testShoe.getNumCards());
+
+        testShoe.shuffle();
+
+        int[] rankCounts = new int[Card.Rank.values().length];
+        for(int i=0; i<NUM_DECKS * Deck.getSize(); i++) {
+            rankCounts[testShoe.deal().getRank().ordinal()]++;
+        }
+
+        for(int count : rankCounts) {
+            assertEquals("Each rank should appear 4 times per deck", 4 * NUM_DECKS, count);
+        }
+    }
+
+    @Test
+    public void testSameSeedShufflesTheSameWay() throws Exception {
+        Shoe otherShoe = new Shoe(NUM_DECKS);
+        otherShoe.shuffle();
+
+        // Return the same cards to both shoes, in opposite orders
+        List<Card> dealtCards = new ArrayList<Card>();
+        for(int i=0; i<100; i++) {
+            dealtCards.add(testShoe.deal());
+        }
+        testShoe.addAll(dealtCards);
+
+        List<Card> otherDealtCards = new ArrayList<Card>();
+        for(int i=0; i<100; i++) {
+            otherDealtCards.add(0, otherShoe.deal());
+        }
+        otherShoe.addAll(otherDealtCards);
+
+        testShoe.shuffle(42L);
+        otherShoe.shuffle(42L);
+        assertEquals("Shoe should remember the seed of its last shuffle", 42L, testShoe.getLastShuffleSeed());
+        assertTrue("Shuffled shoe should be fresh", testShoe.isFreshlyShuffled());
+
+        for(int i=0; i<NUM_DECKS * Deck.getSize(); i++) {
+            assertTrue("Same seed should deal the same cards", testShoe.deal() == otherShoe.deal());
+        }
+        assertFalse("Dealt shoe should not be fresh", testShoe.isFreshlyShuffled());
+    }
+
+    @Test
+    public void testSplitSeedStreamsShuffleIndependently() throws Exception {
+        SplittableRandom root = new SplittableRandom(42L);
+        SplittableRandom otherRoot = new SplittableRandom(42L);
+        SplittableRandom firstStream = root.split();
+        SplittableRandom secondStream = root.split();
+
+        Shoe shoe = new Shoe(NUM_DECKS, 0.75, firstStream);
+        Shoe sameStreamShoe = new Shoe(NUM_DECKS, 0.75, otherRoot.split());
+        Shoe siblingShoe = new Shoe(NUM_DECKS, 0.75, secondStream);
+        shoe.shuffle();
+        sameStreamShoe.shuffle();
+        siblingShoe.shuffle();
+
+        assertEquals("Streams split in the same order should draw the same seed",
+                shoe.getLastShuffleSeed(), sameStreamShoe.getLastShuffleSeed());
+        assertTrue("Sibling streams should draw different seeds",
+                shoe.getLastShuffleSeed() != siblingShoe.getLastShuffleSeed());
+
+        for(int i=0; i<NUM_DECKS * Deck.getSize(); i++) {
+            assertTrue("Streams split in the same order should deal the same cards",
+                    shoe.deal() == sameStreamShoe.deal());
+        }
+    }
+
+    @Test
+    public void testContinuousShufflerTakesDiscardsStraightBack() throws Exception {
+        Shoe shoe = Shoe.newContinuousShuffler(NUM_DECKS, new SplittableRandom(42L));
+        shoe.shuffle();
+
+        BasicHand hand = new BasicHand();
+        hand.addCard(shoe.deal());
+        hand.addCard(shoe.deal());
+        Card firstCard = hand.getCard(0);
+        shoe.discard(hand);
+
+        assertEquals("Discarded cards should not wait in a discard region", 0, shoe.getNumDiscardedCards());
+        assertEquals("Discarded cards should be left to deal again",
+                4 * NUM_DECKS, shoe.getRemainingCards(firstCard.getRank()));
+        assertEquals("Discarded cards should leave the running count", 0, shoe.getRunningCount());
+
+        // Deal far more cards than the shoe holds, returning each one right away
+        int[] rankCounts = new int[Card.Rank.values().length];
+        for(int i=0; i<100 * NUM_DECKS * Deck.getSize(); i++) {
+            BasicHand oneCardHand = new BasicHand();
+            oneCardHand.addCard(shoe.deal());
+            rankCounts[oneCardHand.getCard(0).getRank().ordinal()]++;
+            shoe.discard(oneCardHand);
+            assertFalse("A continuous shuffler should never need reshuffling", shoe.shouldBeReshuffled());
+        }
+
+        assertEquals("Shoe should still hold all of its cards", NUM_DECKS * Deck.getSize(), shoe.getNumCards());
+        for(int count : rankCounts) {
+            assertTrue("Every rank should be drawn about 100 times per card", count > 80 * 4 * NUM_DECKS &&
+                    count < 120 * 4 * NUM_DECKS);
+        }
+    }
+
+    @Test
+    public void testContinuousShufflerDealsTheSameWayFromTheSameSeed() throws Exception {
+        Shoe shoe = Shoe.newContinuousShuffler(NUM_DECKS, new SplittableRandom(7L));
+        Shoe otherShoe = Shoe.newContinuousShuffler(NUM_DECKS, new SplittableRandom(7L));
+        shoe.shuffle();
+        otherShoe.shuffle();
+
+        for(int round=0; round<100; round++) {
+            BasicHand hand = new BasicHand();
+            BasicHand otherHand = new BasicHand();
+            for(int i=0; i<5; i++) {
+                hand.addCard(shoe.deal());
+                otherHand.addCard(otherShoe.deal());
+                assertTrue("Same seed should draw the same cards", hand.getCard(i) == otherHand.getCard(i));
+            }
+            shoe.discard(hand);
+            otherShoe.discard(otherHand);
+        }
+    }
+
+    @Test
+    public void testFirstCardsAreDealtInOrder() throws Exception {
+        Card[] firstCards = { Card.get(Card.Suit.HEARTS, Card.Rank.ACE), Card.get(Card.Suit.CLUBS, Card.Rank.ACE),
+                Card.get(Card.Suit.HEARTS, Card.Rank.ACE), Card.get(Card.Suit.SPADES, Card.Rank.SEVEN) };
+        Shoe shoe = new Shoe(2, firstCards);
+
+        for(Card c : firstCards) {
+            assertTrue("Cards should be dealt in the provided order", c == shoe.deal());
+        }
+        assertEquals("Shoe should hold both decks", 2 * Deck.getSize() - firstCards.length, shoe.getNumCards());
+        assertEquals("Dealt aces should leave the remaining counts", 5, shoe.getRemainingCards(Card.Rank.ACE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFirstCardsMustBeInTheDecks() {
+        Card aceOfSpades = Card.get(Card.Suit.SPADES, Card.Rank.ACE);
+        new Shoe(1, aceOfSpades, aceOfSpades);
+    }
+
+    @Test
+    public void testDiscardedHandIsReturnedToShoe() throws Exception {
+        BasicHand hand = new BasicHand();
+        hand.addCard(testShoe.deal());
+        hand.addCard(testShoe.deal());
+        hand.addCard(testShoe.deal());
+
+        testShoe.discard(hand);
+
+        assertEquals("Discarded cards should be in the discard region", 3, testShoe.getNumDiscardedCards());
+        assertEquals("Discarded cards should count towards the shoe size",
+                NUM_DECKS * Deck.getSize(), testShoe.getNumCards());
+        assertEquals("Discarding should leave the hand untouched", 3, hand.getNumCards());
+
+        testShoe.shuffle();
+        assertEquals("Shuffling should empty the discard region", 0, testShoe.getNumDiscardedCards());
+    }
+
+    @Test
+    public void testDiscardHandHeldAcrossShuffle() throws Exception {
+        BasicHand hand = new BasicHand();
+        hand.addCard(testShoe.deal());
+        hand.addCard(testShoe.deal());
+
+        // Shuffle while the hand is still out of the shoe, then discard it
+        testShoe.shuffle();
+        assertEquals("Cards held in hands should not be part of the shuffled shoe",
+                NUM_DECKS * Deck.getSize() - 2, testShoe.getNumCards());
+
+        testShoe.discard(hand);
+        assertEquals("Hand held across a shuffle should be returned to the shoe",
+                NUM_DECKS * Deck.getSize(), testShoe.getNumCards());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDiscardMoreCardsThanDealt() throws Exception {
+        BasicHand hand = new BasicHand();
+        hand.addCard(testShoe.deal());
+
+        testShoe.discard(hand);
+        testShoe.discard(hand);
+    }
+
+    @Test(expected = EmptyShoeException.class)
+    public void testDealFromEmptyShoe() throws Exception {
+        for(int i=0; i<=NUM_DECKS * Deck.getSize(); i++) {
+            testShoe.deal();
+        }
+    }
+
+    @Test
+    public void testShouldBeReshuffledPastMarker() throws Exception {
+        assertFalse("Freshly shuffled shoe should not need reshuffling", testShoe.shouldBeReshuffled());
+
+        for(int i=0; i<3 * NUM_DECKS * Deck.getSize() / 4; i++) {
+            testShoe.deal();
+        }
+
+        assertTrue("Shoe dealt past the marker should need reshuffling", testShoe.shouldBeReshuffled());
+    }
+
+    @Test
+    public void testRemainingCardsAfterDeal() throws Exception {
+        Card dealtCard = testShoe.deal();
+
+        assertEquals("Shoe should have one card fewer of the dealt rank",
+                4 * NUM_DECKS - 1, testShoe.getRemainingCards(dealtCard.getRank()));
+    }
+
+    @Test
+    public void testHiLoRunningCount() throws Exception {
+        int expectedCount = 0;
+        for(int i=0; i<50; i++) {
+            int pipValue = testShoe.deal().getPipValue();
+            if(pipValue >= 2 && pipValue <= 6) {
+                expectedCount++;
+            } else if(pipValue == 1 || pipValue == 10) {
+                expectedCount--;
+            }
+        }
+
+        assertEquals("Running count should follow the Hi-Lo tags", expectedCount, testShoe.getRunningCount());
+
+        testShoe.shuffle();
+        assertEquals("Running count should be reset by a shuffle", 0, testShoe.getRunningCount());
+    }
+
+    @Test
+    public void testRunningCountOverFullShoeIsZero() throws Exception {
+        for(int i=0; i<NUM_DECKS * Deck.getSize(); i++) {
+            testShoe.deal();
+        }
+
+        assertEquals("Hi-Lo is balanced, so a full shoe should count to 0", 0, testShoe.getRunningCount());
+    }
+
+    @Test
+    public void testChangingTagsRecountsDealtCards() throws Exception {
+        Shoe shoe = new Shoe(1, Card.get(Card.Suit.SPADES, Card.Rank.DEUCE),
+                Card.get(Card.Suit.SPADES, Card.Rank.SEVEN), Card.get(Card.Suit.SPADES, Card.Rank.EIGHT),
+                Card.get(Card.Suit.SPADES, Card.Rank.KING), Card.get(Card.Suit.SPADES, Card.Rank.ACE),
+                Card.get(Card.Suit.SPADES, Card.Rank.THREE));
+        for(int i=0; i<5; i++) {
+            shoe.deal();
+        }
+        assertEquals("Hi-Lo counts the 2 up, and the king and ace down", -1, shoe.getRunningCount());
+
+        // KO tags, which also count the 7 up
+        shoe.setCountTags(new int[] { 1, 1, 1, 1, 1, 1, 0, 0, -1, -1, -1, -1, -1 });
+        assertEquals("New tags should recount the cards already dealt", 0, shoe.getRunningCount());
+
+        shoe.deal();
+        assertEquals("Cards dealt next should be counted with the new tags", 1, shoe.getRunningCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCountTagsMustCoverEveryRank() {
+        testShoe.setCountTags(new int[] { 1, 1, 1, 1, 1, 0, 0, 0, -1, -1 });
+    }
+
+    @Test
+    public void testTrueCountDividesByDecksLeft() throws Exception {
+        Shoe shoe = new Shoe(2, Card.get(Card.Suit.SPADES, Card.Rank.DEUCE),
+                Card.get(Card.Suit.HEARTS, Card.Rank.THREE), Card.get(Card.Suit.CLUBS, Card.Rank.FOUR),
+                Card.get(Card.Suit.DIAMONDS, Card.Rank.FIVE), Card.get(Card.Suit.SPADES, Card.Rank.SIX),
+                Card.get(Card.Suit.HEARTS, Card.Rank.DEUCE));
+        assertEquals("A fresh shoe should have a true count of 0", 0.0, shoe.getTrueCount(), 0.0);
+
+        for(int i=0; i<6; i++) {
+            shoe.deal();
+        }
+
+        // A running count of 6 with 98 cards, i.e. 98/52 decks, left to deal
+        assertEquals(6, shoe.getRunningCount());
+        assertEquals("True count should be the running count per deck left",
+                6 / (98.0 / Deck.getSize()), shoe.getTrueCount(), 1e-12);
+    }
+
+}